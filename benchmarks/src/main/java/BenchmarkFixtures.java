@@ -0,0 +1,451 @@
+import benchmarks.Operation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.logging.Level;
+
+/**
+ * A class to build the operations the JMH benchmarks measure, with a static method named after each benchmark method.
+ * JMH does not allow benchmarks in the default package, and the ElevatorSystem classes cannot be used from any other
+ * package, so the benchmarks in the benchmarks package only see the Operations built here.
+ * <p>
+ * Every Scheduler and Elevator runs on a VirtualClock that never advances, with logging turned off unless the
+ * elevatorsystem.log.level system property says otherwise, so only the code being measured runs.
+ */
+public final class BenchmarkFixtures {
+
+    /**
+     * An integer representing the number of floors in the building.
+     */
+    private static final int NUM_FLOORS = 22;
+
+    /**
+     * An integer representing the number of floors in the tower the ElevatorCarTable benchmarks run in.
+     */
+    private static final int NUM_TOWER_FLOORS = 200;
+
+    /**
+     * An integer representing the number of passengers each elevator car of the tower can carry.
+     */
+    private static final int CAR_CAPACITY = 5;
+
+    /**
+     * A LocalTime representing the time of every floor event.
+     */
+    private static final LocalTime TIME = LocalTime.of(14, 5, 15, 300_000_000);
+
+    static {
+        if (System.getProperty(ElevatorSystemLogger.LEVEL_PROPERTY) == null) {
+            System.setProperty(ElevatorSystemLogger.LEVEL_PROPERTY, Level.OFF.getName());
+        }
+    }
+
+    /**
+     * Prevents instantiation, since the BenchmarkFixtures class only has static methods.
+     */
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Builds HardwareDevice.toString, the text form of a floor event.
+     *
+     * @return An Operation turning a floor event into text.
+     */
+    public static Operation toText() {
+        HardwareDevice floorEvent = newFloorEvent();
+        return floorEvent::toString;
+    }
+
+    /**
+     * Builds HardwareDevice.stringToHardwareDevice, reading a floor event from its text form.
+     *
+     * @return An Operation reading a floor event from text.
+     */
+    public static Operation fromText() {
+        String text = newFloorEvent().toString();
+        return () -> HardwareDevice.stringToHardwareDevice(text);
+    }
+
+    /**
+     * Builds HardwareDeviceCodec.encode, writing a floor event in the form it is sent in.
+     *
+     * @return An Operation encoding a floor event into a reused buffer.
+     */
+    public static Operation encode() {
+        HardwareDevice floorEvent = newFloorEvent();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HardwareDeviceCodec.MESSAGE_LENGTH);
+        return () -> {
+            buffer.clear();
+            HardwareDeviceCodec.encode(buffer, HardwareDeviceCodec.FLOOR_EVENT, floorEvent);
+            return buffer;
+        };
+    }
+
+    /**
+     * Builds HardwareDeviceCodec.decode, reading a floor event from the form it is sent in.
+     *
+     * @return An Operation decoding a floor event from a buffer.
+     */
+    public static Operation decode() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HardwareDeviceCodec.MESSAGE_LENGTH);
+        HardwareDeviceCodec.encode(buffer, HardwareDeviceCodec.FLOOR_EVENT, newFloorEvent());
+        buffer.flip();
+        return () -> HardwareDeviceCodec.decode(buffer.rewind());
+    }
+
+    /**
+     * Builds Floor.createHardwareDevice, turning the fields of a line of an input file into a floor event.
+     *
+     * @return An Operation turning a line into a floor event.
+     */
+    public static Operation createHardwareDevice() {
+        Scheduler scheduler = createScheduler(1);
+        Floor floor = new Floor(scheduler, new IdleWorkload());
+        String[] info = "14:05:15:30 2 up 4 3 Elevator stuck between floors".split(" ");
+        return new SchedulerOperation(scheduler, () -> floor.createHardwareDevice(info));
+    }
+
+    /**
+     * Builds Scheduler.distributeFloorEvents with collective control, distributing the specified number of pending
+     * floor events between the specified number of elevator cars. Every pending floor event is best served by a busy
+     * elevator car, so each pass makes every dispatch decision again and nothing changes between passes, like the
+     * event loop while the elevator cars are on their way.
+     *
+     * @param numElevators An integer representing the number of elevator cars, at least 2.
+     * @param numFloorEvents An integer representing the number of pending floor events.
+     * @return An Operation distributing the pending floor events.
+     * @throws InterruptedException If the thread is interrupted while the elevator cars take their first floor event.
+     */
+    public static Operation distributeFloorEvents(int numElevators, int numFloorEvents) throws InterruptedException {
+        Scheduler scheduler = createScheduler(numElevators);
+        scheduler.setNumReqs(Integer.MAX_VALUE); // floor events are only distributed until every one has been handled
+
+        // every elevator car but the last takes a floor event from the lobby, and the last one is shut down, so the
+        // other elevator cars are busy with a stop each and win every floor event
+        for (int i = 1; i < numElevators; i++) {
+            scheduler.addFloorEvent(new HardwareDevice("Elevator?", TIME, TrafficPattern.LOBBY, FloorButton.UP,
+                    2 + i % (NUM_FLOORS - 1), 1, Fault.NO_FAULT));
+            scheduler.distributeFloorEvents();
+        }
+        for (int i = 1; i < numElevators; i++) {
+            awaitFloorEvents(scheduler.getElevator(i), 1);
+        }
+        scheduler.getElevator(numElevators).setHardFault(true);
+
+        Random random = new Random(numElevators * 31L + numFloorEvents);
+        for (int i = 0; i < numFloorEvents; i++) {
+            scheduler.addFloorEvent(randomFloorEvent(random, NUM_FLOORS));
+            if (i % 512 == 511) {
+                scheduler.getFloorEventsToHandle(); // the event loop is not running to empty the HallCallQueue
+            }
+        }
+        scheduler.distributeFloorEvents();
+        if (scheduler.getFloorEventsToHandle().size() != numFloorEvents) {
+            throw new IllegalStateException("A floor event was dispatched, so passes would not be the same.");
+        }
+        return new SchedulerOperation(scheduler, () -> {
+            scheduler.distributeFloorEvents();
+            return scheduler;
+        });
+    }
+
+    /**
+     * Builds Elevator.selectMainFloorEvent, choosing the closest floor event ahead out of the specified number.
+     *
+     * @param numFloorEvents An integer representing the number of floor events the elevator car has to complete.
+     * @return An Operation choosing the main floor event of an elevator car.
+     * @throws IOException If the floor events could not be sent to the Elevator.
+     */
+    public static Operation selectMainFloorEvent(int numFloorEvents) throws IOException {
+        Scheduler scheduler = createScheduler(2);
+        SimulationClock clock = scheduler.getClock();
+        clock.register(); // this thread waits for messages on the clock too
+        Elevator elevator = new Elevator(scheduler, 0, 2); // stands in for the idle elevator car 2 of the Scheduler
+        elevator.setView(HeadlessView.INSTANCE);
+
+        // send the floor events to the Elevator like the Scheduler does
+        DatagramTransport transport = new DatagramTransport(0, clock);
+        Random random = new Random(numFloorEvents);
+        for (int i = 0; i < numFloorEvents; i++) {
+            transport.send(HardwareDeviceCodec.FLOOR_EVENT, randomFloorEvent(random, NUM_FLOORS),
+                    elevator.getAddress());
+            elevator.getFloorEvent();
+            transport.receive(); // the acknowledgment
+        }
+        transport.close();
+        return new SchedulerOperation(scheduler, elevator::selectMainFloorEvent);
+    }
+
+    /**
+     * Builds ElevatorCarTable.selectEarliest, choosing the elevator car with the earliest estimated time of arrival
+     * out of the specified number of cars, each on its way to a few stops of a tall tower.
+     *
+     * @param numCars An integer representing the number of elevator cars.
+     * @return An Operation choosing an elevator car for a hall call.
+     */
+    public static Operation selectEarliest(int numCars) {
+        ElevatorCarTable cars = createCars(numCars);
+        return () -> cars.selectEarliest(NUM_TOWER_FLOORS / 2, FloorButton.UP, 1);
+    }
+
+    /**
+     * Builds ElevatorCarTable.addFloorEvent and ElevatorCarTable.removeFloorEvent, what an Elevator pays to publish a
+     * floor event it takes and completes, in a table of the specified number of cars.
+     *
+     * @param numCars An integer representing the number of elevator cars.
+     * @return An Operation adding and removing a floor event of an elevator car.
+     */
+    public static Operation publishFloorEvent(int numCars) {
+        ElevatorCarTable cars = createCars(numCars);
+        HardwareDevice floorEvent = randomFloorEvent(new Random(numCars), NUM_TOWER_FLOORS);
+        return () -> {
+            cars.addFloorEvent(1, floorEvent, false);
+            cars.removeFloorEvent(1, floorEvent, false);
+            return cars;
+        };
+    }
+
+    /**
+     * Builds ElevatorSystemLogger.info with a message written. The message goes to Benchmark.log in the working
+     * directory, and what would go to the console is discarded.
+     *
+     * @return An Operation logging a message with parameters.
+     */
+    public static Operation infoWritten() {
+        return info(Level.INFO);
+    }
+
+    /**
+     * Builds ElevatorSystemLogger.info with a message filtered out by the level of the logger.
+     *
+     * @return An Operation logging a message with parameters.
+     */
+    public static Operation infoFiltered() {
+        return info(Level.WARNING);
+    }
+
+    /**
+     * Builds ElevatorSystemLogger.info with the logger at the specified level.
+     *
+     * @param level A Level representing the level of the logger.
+     * @return An Operation logging a message with parameters.
+     */
+    private static Operation info(Level level) {
+        // the AsyncLogWriter writes to whatever the console is when it is created
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        HardwareDevice floorEvent = newFloorEvent();
+        ElevatorSystemLogger logger = new ElevatorSystemLogger("Benchmark");
+        logger.setLevel(level);
+        return new Operation() {
+            @Override
+            public Object run() {
+                logger.info("Sending {0} to {1}.", floorEvent, "Elevator3");
+                return logger;
+            }
+
+            @Override
+            public void close() {
+                AsyncLogWriter.getInstance().flush(60_000);
+            }
+        };
+    }
+
+    /**
+     * Builds ElevatorChanges.recordFloor, what an Elevator thread pays to tell the ElevatorSystemUI its floor.
+     *
+     * @return An Operation recording the floor of an elevator car, with nothing taking it.
+     */
+    public static Operation recordFloor() {
+        Scheduler scheduler = createScheduler(1);
+        Elevator elevator = scheduler.getElevator(1);
+        elevator.setMainFloorEvent(newFloorEvent());
+        ElevatorChanges changes = new ElevatorChanges(1);
+        return new SchedulerOperation(scheduler, () -> {
+            changes.recordFloor(elevator);
+            return changes;
+        });
+    }
+
+    /**
+     * Builds ElevatorChanges.recordDestination, what an Elevator thread pays to tell the ElevatorSystemUI where it is
+     * going.
+     *
+     * @return An Operation recording the destination of an elevator car, with nothing taking it.
+     */
+    public static Operation recordDestination() {
+        Scheduler scheduler = createScheduler(1);
+        Elevator elevator = scheduler.getElevator(1);
+        elevator.setMainFloorEvent(newFloorEvent());
+        ElevatorChanges changes = new ElevatorChanges(1);
+        return new SchedulerOperation(scheduler, () -> {
+            changes.recordDestination(elevator);
+            return changes;
+        });
+    }
+
+    /**
+     * Creates a Scheduler with the specified number of elevator cars, on a VirtualClock that never advances because
+     * the Scheduler event loop never runs.
+     *
+     * @param numElevators An integer representing the number of elevator cars.
+     * @return A Scheduler with the specified number of elevator cars.
+     */
+    private static Scheduler createScheduler(int numElevators) {
+        ArrayList<Integer> portNumbers = new ArrayList<>();
+        for (int i = 0; i < numElevators; i++) {
+            portNumbers.add(0); // any free port
+        }
+        return new Scheduler(portNumbers, new VirtualClock(1), DispatchMode.COLLECTIVE_CONTROL, EventJournal.DISABLED,
+                new IdleWorkload());
+    }
+
+    /**
+     * Creates an ElevatorCarTable of the specified number of available elevator cars spread over a tall tower, each
+     * sweeping up or down with four floor events of one passenger.
+     *
+     * @param numCars An integer representing the number of elevator cars.
+     * @return An ElevatorCarTable of the specified number of elevator cars.
+     */
+    private static ElevatorCarTable createCars(int numCars) {
+        ElevatorCarTable cars = new ElevatorCarTable(numCars);
+        Random random = new Random(numCars);
+        for (int id = 1; id <= numCars; id++) {
+            cars.setCapacity(id, CAR_CAPACITY);
+            cars.setFloor(id, 1 + random.nextInt(NUM_TOWER_FLOORS));
+            cars.setAvailable(id, true);
+            HardwareDevice first = null;
+            for (int i = 0; i < 4; i++) {
+                HardwareDevice floorEvent = randomFloorEvent(random, NUM_TOWER_FLOORS);
+                cars.addFloorEvent(id, floorEvent, false);
+                if (first == null) {
+                    first = floorEvent;
+                }
+            }
+            cars.setFirstFloorEvent(id, first, false);
+            cars.setPassengers(id, 4);
+        }
+        return cars;
+    }
+
+    /**
+     * Waits until the specified elevator car has the specified number of floor events to complete.
+     *
+     * @param elevator An Elevator to wait for.
+     * @param numFloorEvents An integer representing the number of floor events.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    private static void awaitFloorEvents(Elevator elevator, int numFloorEvents) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (elevator.getFloorEventsSize() < numFloorEvents) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException(elevator.getName() + " never received its floor event.");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Returns a floor event of three passengers going from floor 2 to floor 4.
+     *
+     * @return A HardwareDevice representing a floor event.
+     */
+    private static HardwareDevice newFloorEvent() {
+        return new HardwareDevice("Elevator3", TIME, 2, FloorButton.UP, 4, 3, Fault.NO_FAULT);
+    }
+
+    /**
+     * Returns a floor event of one passenger between two different random floors.
+     *
+     * @param random A Random to draw the floors with.
+     * @param numFloors An integer representing the number of floors in the building.
+     * @return A HardwareDevice representing a random floor event.
+     */
+    private static HardwareDevice randomFloorEvent(Random random, int numFloors) {
+        int floor = 1 + random.nextInt(numFloors);
+        int carButton = 1 + random.nextInt(numFloors - 1);
+        if (carButton >= floor) {
+            carButton++;
+        }
+        return new HardwareDevice("Elevator?", TIME, floor, carButton > floor ? FloorButton.UP : FloorButton.DOWN,
+                carButton, 1, Fault.NO_FAULT);
+    }
+
+    /**
+     * A class to represent an Operation that needs a Scheduler, which is shut down once the benchmark has finished.
+     */
+    private static final class SchedulerOperation implements Operation {
+
+        /**
+         * A Scheduler the operation needs.
+         */
+        private final Scheduler scheduler;
+
+        /**
+         * An Operation to run.
+         */
+        private final Operation operation;
+
+        /**
+         * Initializes a SchedulerOperation running the specified Operation.
+         *
+         * @param scheduler A Scheduler the operation needs.
+         * @param operation An Operation to run.
+         */
+        SchedulerOperation(Scheduler scheduler, Operation operation) {
+            this.scheduler = scheduler;
+            this.operation = operation;
+        }
+
+        @Override
+        public Object run() throws Exception {
+            return operation.run();
+        }
+
+        @Override
+        public void close() {
+            scheduler.shutDown();
+        }
+
+    }
+
+    /**
+     * A class to represent a Workload of one hall call that is never released during a benchmark, so the Floor
+     * subsystem waits instead of exiting.
+     */
+    private static final class IdleWorkload implements Workload {
+
+        /**
+         * True, if the hall call has been read. False, if not.
+         */
+        private boolean read = false;
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+        @Override
+        public boolean next() {
+            boolean hasNext = !read;
+            read = true;
+            return hasNext;
+        }
+
+        @Override
+        public HardwareDevice getFloorEvent() {
+            return newFloorEvent();
+        }
+
+        @Override
+        public long getReleaseTime() {
+            return Long.MAX_VALUE / 2;
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * A class to benchmark the ElevatorCarTable of a 200-floor tower: choosing an elevator car for a hall call by
+ * estimated time of arrival, and what an Elevator pays to publish a floor event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CarTableBenchmark {
+
+    /**
+     * An integer representing the number of elevator cars.
+     */
+    @Param({"20", "200"})
+    public int numCars;
+
+    /**
+     * An Operation representing the operation the benchmark being run measures.
+     */
+    private Operation operation;
+
+    /**
+     * Builds the operation the benchmark being run measures.
+     *
+     * @param params A BenchmarkParams representing the benchmark being run.
+     * @throws ReflectiveOperationException If the operation could not be built.
+     */
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) throws ReflectiveOperationException {
+        operation = Operation.create(params.getBenchmark(), numCars);
+    }
+
+    /**
+     * Releases what the operation needs.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        operation.close();
+    }
+
+    /**
+     * Benchmarks ElevatorCarTable.selectEarliest.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object selectEarliest() throws Exception {
+        return operation.run();
+    }
+
+    /**
+     * Benchmarks ElevatorCarTable.addFloorEvent followed by ElevatorCarTable.removeFloorEvent.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object publishFloorEvent() throws Exception {
+        return operation.run();
+    }
+
+}
@@ -0,0 +1,110 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * A class to benchmark turning floor events into and out of the forms they are read and sent in, done for every line of
+ * an input file and every packet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    /**
+     * An Operation representing the operation the benchmark being run measures.
+     */
+    private Operation operation;
+
+    /**
+     * Builds the operation the benchmark being run measures.
+     *
+     * @param params A BenchmarkParams representing the benchmark being run.
+     * @throws ReflectiveOperationException If the operation could not be built.
+     */
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) throws ReflectiveOperationException {
+        operation = Operation.create(params.getBenchmark());
+    }
+
+    /**
+     * Releases what the operation needs.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        operation.close();
+    }
+
+    /**
+     * Benchmarks HardwareDevice.toString.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object toText() throws Exception {
+        return operation.run();
+    }
+
+    /**
+     * Benchmarks HardwareDevice.stringToHardwareDevice.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object fromText() throws Exception {
+        return operation.run();
+    }
+
+    /**
+     * Benchmarks HardwareDeviceCodec.encode into a reused buffer.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object encode() throws Exception {
+        return operation.run();
+    }
+
+    /**
+     * Benchmarks HardwareDeviceCodec.decode.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object decode() throws Exception {
+        return operation.run();
+    }
+
+    /**
+     * Benchmarks Floor.createHardwareDevice on the fields of a line of an input file.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object createHardwareDevice() throws Exception {
+        return operation.run();
+    }
+
+}
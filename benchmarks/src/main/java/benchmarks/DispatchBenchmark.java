@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * A class to benchmark the dispatch decisions of the Scheduler with collective control, made by the event loop every
+ * time it wakes up, with N elevator cars and M pending hall calls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DispatchBenchmark {
+
+    /**
+     * An integer representing the number of elevator cars.
+     */
+    @Param({"5", "20"})
+    public int numElevators;
+
+    /**
+     * An integer representing the number of pending hall calls.
+     */
+    @Param({"16", "1024"})
+    public int numFloorEvents;
+
+    /**
+     * An Operation representing the operation the benchmark being run measures.
+     */
+    private Operation operation;
+
+    /**
+     * Builds the operation the benchmark being run measures.
+     *
+     * @param params A BenchmarkParams representing the benchmark being run.
+     * @throws ReflectiveOperationException If the operation could not be built.
+     */
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) throws ReflectiveOperationException {
+        operation = Operation.create(params.getBenchmark(), numElevators, numFloorEvents);
+    }
+
+    /**
+     * Releases what the operation needs.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        operation.close();
+    }
+
+    /**
+     * Benchmarks Scheduler.distributeFloorEvents when every pending hall call is best served by a busy elevator car.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object distributeFloorEvents() throws Exception {
+        return operation.run();
+    }
+
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * A class to benchmark choosing the floor event an elevator car goes to next, done at every floor it reaches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ElevatorBenchmark {
+
+    /**
+     * An integer representing the number of floor events the elevator car has to complete.
+     */
+    @Param({"4", "32"})
+    public int numFloorEvents;
+
+    /**
+     * An Operation representing the operation the benchmark being run measures.
+     */
+    private Operation operation;
+
+    /**
+     * Builds the operation the benchmark being run measures.
+     *
+     * @param params A BenchmarkParams representing the benchmark being run.
+     * @throws ReflectiveOperationException If the operation could not be built.
+     */
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) throws ReflectiveOperationException {
+        operation = Operation.create(params.getBenchmark(), numFloorEvents);
+    }
+
+    /**
+     * Releases what the operation needs.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        operation.close();
+    }
+
+    /**
+     * Benchmarks Elevator.selectMainFloorEvent.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object selectMainFloorEvent() throws Exception {
+        return operation.run();
+    }
+
+}
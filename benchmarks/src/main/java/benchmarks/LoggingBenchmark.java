@@ -0,0 +1,99 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * A class to benchmark what the Scheduler, Elevator and Floor threads pay to log a message and to tell the
+ * ElevatorSystemUI about a change, done for every packet and floor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class LoggingBenchmark {
+
+    /**
+     * An Operation representing the operation the benchmark being run measures.
+     */
+    private Operation operation;
+
+    /**
+     * Builds the operation the benchmark being run measures.
+     *
+     * @param params A BenchmarkParams representing the benchmark being run.
+     * @throws ReflectiveOperationException If the operation could not be built.
+     */
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) throws ReflectiveOperationException {
+        operation = Operation.create(params.getBenchmark());
+    }
+
+    /**
+     * Releases what the operation needs.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        operation.close();
+    }
+
+    /**
+     * Benchmarks ElevatorSystemLogger.info with a message written.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object infoWritten() throws Exception {
+        return operation.run();
+    }
+
+    /**
+     * Benchmarks ElevatorSystemLogger.info with a message filtered out by the level of the logger.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object infoFiltered() throws Exception {
+        return operation.run();
+    }
+
+    /**
+     * Benchmarks ElevatorChanges.recordFloor.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object recordFloor() throws Exception {
+        return operation.run();
+    }
+
+    /**
+     * Benchmarks ElevatorChanges.recordDestination.
+     *
+     * @return An Object representing the result, consumed by JMH.
+     * @throws Exception If the operation fails.
+     */
+    @Benchmark
+    public Object recordDestination() throws Exception {
+        return operation.run();
+    }
+
+}
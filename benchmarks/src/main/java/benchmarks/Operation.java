@@ -0,0 +1,43 @@
+package benchmarks;
+
+/**
+ * An interface to represent the operation a benchmark measures, built by the BenchmarkFixtures class in the default
+ * package, where the ElevatorSystem classes are. Closing an Operation releases what it needs once the benchmark has
+ * finished, e.g. stops the threads of a Scheduler.
+ */
+public interface Operation extends AutoCloseable {
+
+    /**
+     * Runs the operation once.
+     *
+     * @return An Object representing the result of the operation, for JMH to consume so it is not optimized away.
+     * @throws Exception If the operation fails.
+     */
+    Object run() throws Exception;
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Builds the operation of the specified benchmark method with the BenchmarkFixtures class, which has a static
+     * method named after each benchmark method.
+     *
+     * @param benchmark A String representing the fully qualified name of the benchmark method, as given by
+     *                  BenchmarkParams.getBenchmark.
+     * @param args Integers representing the parameters of the benchmark, passed to the BenchmarkFixtures method.
+     * @return An Operation to measure.
+     * @throws ReflectiveOperationException If the BenchmarkFixtures class has no such method, or it fails.
+     */
+    static Operation create(String benchmark, int... args) throws ReflectiveOperationException {
+        String name = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+        Class<?>[] types = new Class<?>[args.length];
+        Object[] values = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            types[i] = int.class;
+            values[i] = args[i];
+        }
+        return (Operation) Class.forName("BenchmarkFixtures").getMethod(name, types).invoke(null, values);
+    }
+
+}
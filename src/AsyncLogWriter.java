@@ -0,0 +1,601 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A class to represent a background thread ElevatorSystemLoggers write their log messages through. Every logger shares
+ * one AsyncLogWriter unless it is given its own, e.g. by a bank of an ElevatorGroupRuntime, so the banks never wait on
+ * each other to log.
+ * <p>
+ * Log messages are put in a ring buffer of entries allocated up front. A logging thread claims an entry with a
+ * compare-and-set, copies the pattern and parameters of the message into it and publishes it, without waiting for
+ * any I/O. The writer thread drains the ring buffer in batches, fills in the parameters of each message, and writes
+ * each batch to the log files and the console with one write per destination. A log file is rolled over once it grows
+ * past MAX_FILE_BYTES, keeping MAX_BACKUP_FILES older files.
+ * <p>
+ * A parameter that could change after it has been logged is copied when it is published, so every message shows its
+ * parameters as they were when it was logged. A HardwareDevice is copied field by field into a HardwareDevice the
+ * entry keeps for the next turn, so logging a floor event allocates nothing on the logging thread, and only the writer
+ * thread formats it. Any other parameter that is not a String, a boxed primitive or an enum constant is turned into a
+ * String.
+ */
+public final class AsyncLogWriter {
+
+    /**
+     * An integer representing the number of entries in the ring buffer.
+     */
+    private static final int CAPACITY = 8192;
+
+    /**
+     * An integer representing the most entries written in one batch.
+     */
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * An integer representing the most parameters of a message kept in an entry.
+     */
+    static final int MAX_PARAMS = 3;
+
+    /**
+     * A long representing the size, in bytes, a log file is rolled over at.
+     */
+    private static final long MAX_FILE_BYTES = 10L * 1024 * 1024;
+
+    /**
+     * An integer representing the number of rolled over files kept for each log file.
+     */
+    private static final int MAX_BACKUP_FILES = 4;
+
+    /**
+     * A long representing how long, in nanoseconds, a logging thread waits before trying again to claim an entry in a
+     * full ring buffer.
+     */
+    private static final long FULL_BUFFER_BACKOFF_NANOS = 50_000;
+
+    /**
+     * A long representing the longest time, in nanoseconds, the writer thread sleeps while the ring buffer is empty.
+     */
+    private static final long IDLE_PARK_NANOS = 100_000_000;
+
+    /**
+     * A DateTimeFormatter to format the second a log message was logged in.
+     */
+    private static final DateTimeFormatter SECOND_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    /**
+     * An AsyncLogWriter shared by every ElevatorSystemLogger.
+     */
+    private static final AsyncLogWriter INSTANCE = new AsyncLogWriter();
+
+    /**
+     * A String representing the name every log file of the AsyncLogWriter starts with, followed by a dash, e.g. the
+     * name of an ElevatorBank. Null, for the AsyncLogWriter shared by every ElevatorSystemLogger.
+     */
+    private final String name;
+
+    /**
+     * An array of Entries representing the slots of the ring buffer, allocated up front and reused.
+     */
+    private final Entry[] entries = new Entry[CAPACITY];
+
+    /**
+     * An AtomicLongArray representing the sequence number of each entry. An entry with the sequence number of a
+     * position is free for the logging thread claiming that position, and an entry with the sequence number of a
+     * position plus one holds the message published at that position.
+     */
+    private final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+
+    /**
+     * An AtomicLong representing the position the next logging thread claims.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * A long representing the position the writer thread reads next. Only accessed by the writer thread.
+     */
+    private long head = 0;
+
+    /**
+     * A long representing the number of messages that have been written and flushed.
+     */
+    private volatile long written = 0;
+
+    /**
+     * True, if the writer thread is parked waiting for messages. False, if not.
+     */
+    private volatile boolean writerParked = false;
+
+    /**
+     * True, if the JVM is shutting down and the writer thread has to write every message left and stop. False, if not.
+     */
+    private volatile boolean shuttingDown = false;
+
+    /**
+     * A Map of names to the LogFiles that have been opened. Only accessed while holding its lock.
+     */
+    private final Map<String, LogFile> logFiles = new HashMap<>();
+
+    /**
+     * A List of LogFiles with messages waiting to be written in the current batch. Only accessed by the writer thread.
+     */
+    private final List<LogFile> dirtyFiles = new ArrayList<>();
+
+    /**
+     * A StringBuilder representing the messages waiting to be written to the console in the current batch. Only
+     * accessed by the writer thread.
+     */
+    private final StringBuilder console = new StringBuilder();
+
+    /**
+     * A PrintStream representing the console, captured when the writer was created.
+     */
+    private final PrintStream consoleStream = System.err;
+
+    /**
+     * A long representing the second the cached second prefix was formatted for. Only accessed by the writer thread.
+     */
+    private long cachedSecond = Long.MIN_VALUE;
+
+    /**
+     * A String representing the formatted date and time of cachedSecond. Only accessed by the writer thread.
+     */
+    private String cachedSecondPrefix;
+
+    /**
+     * A Thread representing the writer thread.
+     */
+    private final Thread writer;
+
+    /**
+     * Initializes the AsyncLogWriter shared by every ElevatorSystemLogger.
+     */
+    private AsyncLogWriter() {
+        this(null);
+    }
+
+    /**
+     * Initializes an AsyncLogWriter whose log files are named after the specified name, starts its writer thread and
+     * makes sure every message is written when the JVM shuts down.
+     *
+     * @param name A String representing the name every log file starts with, followed by a dash, e.g. the name of an
+     *             ElevatorBank. Null, to name each log file after its logger only.
+     */
+    public AsyncLogWriter(String name) {
+        this.name = name;
+        for (int i = 0; i < CAPACITY; i++) {
+            entries[i] = new Entry();
+            sequences.set(i, i);
+        }
+        String threadName = name == null ? "ElevatorSystemLogger" : "ElevatorSystemLogger-" + name;
+        writer = new Thread(this::run, threadName);
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutDown, threadName + "-shutdown"));
+    }
+
+    /**
+     * Returns the AsyncLogWriter shared by every ElevatorSystemLogger.
+     *
+     * @return The AsyncLogWriter shared by every ElevatorSystemLogger.
+     */
+    public static AsyncLogWriter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the LogFile of the logger with the specified name, opening it if it has not been opened yet. Loggers with
+     * the same name share a LogFile.
+     *
+     * @param loggerName A String representing the name of the logger.
+     * @return A LogFile named after the logger, and after the AsyncLogWriter if it has a name.
+     */
+    public LogFile openLogFile(String loggerName) {
+        String fileName = name == null ? loggerName : name + "-" + loggerName;
+        synchronized (logFiles) {
+            return logFiles.computeIfAbsent(fileName, LogFile::new);
+        }
+    }
+
+    /**
+     * Puts a log message in the ring buffer for the writer thread to write, with a copy of every parameter that could
+     * change after it has been logged. Does not wait for any I/O, and only waits for the writer thread if the ring
+     * buffer is full.
+     *
+     * @param file A LogFile to write the message to.
+     * @param loggerName A String representing the name of the logger.
+     * @param pattern A String representing the message, with "{0}", "{1}" and "{2}" where the parameters go.
+     * @param numParams An integer representing the number of parameters, at most MAX_PARAMS.
+     * @param param0 An Object representing the first parameter.
+     * @param param1 An Object representing the second parameter.
+     * @param param2 An Object representing the third parameter.
+     */
+    public void publish(LogFile file, String loggerName, String pattern, int numParams, Object param0, Object param1,
+                        Object param2) {
+        long millis = System.currentTimeMillis();
+        long position;
+        while ((position = claim()) < 0) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(this, FULL_BUFFER_BACKOFF_NANOS);
+        }
+
+        int slot = (int) (position & (CAPACITY - 1));
+        Entry entry = entries[slot];
+        entry.millis = millis;
+        entry.file = file;
+        entry.loggerName = loggerName;
+        entry.pattern = pattern;
+        entry.numParams = numParams;
+        entry.param0 = numParams > 0 ? entry.snapshot(0, param0) : null;
+        entry.param1 = numParams > 1 ? entry.snapshot(1, param1) : null;
+        entry.param2 = numParams > 2 ? entry.snapshot(2, param2) : null;
+        sequences.set(slot, position + 1); // publishes the entry to the writer thread
+
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Claims the next position in the ring buffer.
+     *
+     * @return A long representing the position claimed. -1, if the ring buffer is full.
+     */
+    private long claim() {
+        while (true) {
+            long position = tail.get();
+            long sequence = sequences.get((int) (position & (CAPACITY - 1)));
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (sequence < position) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Waits until every message published before this call has been written and flushed, or the specified time has
+     * passed.
+     *
+     * @param timeoutMillis A long representing the longest time to wait, in milliseconds.
+     * @return True, if every message has been written. False, if the time ran out first.
+     */
+    public boolean flush(long timeoutMillis) {
+        long target = tail.get();
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000;
+        while (written < target) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(this, FULL_BUFFER_BACKOFF_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Writes messages in batches until the JVM shuts down, parking while there are none.
+     */
+    private void run() {
+        while (true) {
+            if (writeBatch() > 0) {
+                continue;
+            }
+            if (shuttingDown) {
+                return;
+            }
+
+            writerParked = true;
+            // check again after announcing the park, so a message published in between is not missed
+            if (!isPublished(head)) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+    }
+
+    /**
+     * Returns if the message at the specified position has been published.
+     *
+     * @param position A long representing a position in the ring buffer.
+     * @return True, if the message at the specified position has been published. False, if not.
+     */
+    private boolean isPublished(long position) {
+        return sequences.get((int) (position & (CAPACITY - 1))) == position + 1;
+    }
+
+    /**
+     * Formats up to BATCH_SIZE published messages and writes them to their destinations.
+     *
+     * @return An integer representing the number of messages written.
+     */
+    private int writeBatch() {
+        int count = 0;
+        while (count < BATCH_SIZE && isPublished(head)) {
+            int slot = (int) (head & (CAPACITY - 1));
+            Entry entry = entries[slot];
+            format(entry);
+            entry.clear();
+            sequences.set(slot, head + CAPACITY); // hands the entry back to logging threads for the next turn
+            head++;
+            count++;
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        for (LogFile file : dirtyFiles) {
+            file.writePending();
+        }
+        dirtyFiles.clear();
+        if (console.length() > 0) {
+            consoleStream.print(console);
+            consoleStream.flush();
+            console.setLength(0);
+        }
+        written = head;
+        return count;
+    }
+
+    /**
+     * Formats the message of the specified entry and adds it to the pending text of its LogFile and the console.
+     *
+     * @param entry An Entry holding a published message.
+     */
+    private void format(Entry entry) {
+        StringBuilder line = entry.file.pending;
+        int start = line.length();
+        long second = Math.floorDiv(entry.millis, 1000);
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedSecondPrefix = SECOND_FORMATTER.format(Instant.ofEpochSecond(second));
+        }
+        int millis = Math.floorMod(entry.millis, 1000);
+        line.append('[').append(cachedSecondPrefix).append('.');
+        if (millis < 100) {
+            line.append(millis < 10 ? "00" : "0");
+        }
+        line.append(millis).append("] [").append(entry.loggerName).append("] ");
+        appendMessage(line, entry);
+        line.append(System.lineSeparator());
+
+        console.append(line, start, line.length());
+        if (!entry.file.dirty) {
+            entry.file.dirty = true;
+            dirtyFiles.add(entry.file);
+        }
+    }
+
+    /**
+     * Appends the message of the specified entry to the specified StringBuilder, with every "{0}", "{1}" and "{2}"
+     * replaced by the matching parameter. A message without parameters is appended as it is.
+     *
+     * @param line A StringBuilder to append the message to.
+     * @param entry An Entry holding a published message.
+     */
+    private static void appendMessage(StringBuilder line, Entry entry) {
+        String pattern = entry.pattern;
+        if (entry.numParams == 0) {
+            line.append(pattern);
+            return;
+        }
+        int length = pattern.length();
+        for (int i = 0; i < length; i++) {
+            char c = pattern.charAt(i);
+            if (c == '{' && i + 2 < length && pattern.charAt(i + 2) == '}') {
+                int index = pattern.charAt(i + 1) - '0';
+                if (index >= 0 && index < entry.numParams) {
+                    line.append(index == 0 ? entry.param0 : index == 1 ? entry.param1 : entry.param2);
+                    i += 2;
+                    continue;
+                }
+            }
+            line.append(c);
+        }
+    }
+
+    /**
+     * Lets the writer thread write every message left, and waits for it to finish.
+     */
+    private void shutDown() {
+        shuttingDown = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A class to represent a slot of the ring buffer holding one log message.
+     */
+    private static class Entry {
+
+        /**
+         * A long representing the time the message was logged at, in milliseconds since the epoch.
+         */
+        private long millis;
+
+        /**
+         * A LogFile to write the message to.
+         */
+        private LogFile file;
+
+        /**
+         * A String representing the name of the logger.
+         */
+        private String loggerName;
+
+        /**
+         * A String representing the message, with placeholders for its parameters.
+         */
+        private String pattern;
+
+        /**
+         * An integer representing the number of parameters.
+         */
+        private int numParams;
+
+        /**
+         * Objects representing the parameters of the message.
+         */
+        private Object param0, param1, param2;
+
+        /**
+         * HardwareDevices representing the floor events logged as each parameter, created the first time the entry
+         * holds one at that position and overwritten every turn after.
+         */
+        private final HardwareDevice[] floorEvents = new HardwareDevice[MAX_PARAMS];
+
+        /**
+         * Returns the specified parameter as it is if it cannot change after it has been logged, or a copy of it as it
+         * is now if it can, so the writer thread shows it as it was when it was logged.
+         *
+         * @param position An integer representing the position of the parameter in the message.
+         * @param param An Object representing the parameter.
+         * @return An Object representing the parameter: the parameter itself, if it is null, a String, a boxed
+         * primitive or an enum constant. The HardwareDevice of the entry at the position, overwritten with the
+         * parameter, if it is a HardwareDevice. A String representing it, if not.
+         */
+        private Object snapshot(int position, Object param) {
+            if (param == null || param instanceof String || param instanceof Integer || param instanceof Long
+                    || param instanceof Double || param instanceof Boolean || param instanceof Enum<?>) {
+                return param;
+            }
+            if (param instanceof HardwareDevice floorEvent) {
+                if (floorEvents[position] == null) {
+                    floorEvents[position] = new HardwareDevice();
+                }
+                floorEvents[position].copyFrom(floorEvent);
+                return floorEvents[position];
+            }
+            return param.toString();
+        }
+
+        /**
+         * Drops the references the entry holds, so the message can be garbage collected while the entry waits to be
+         * reused.
+         */
+        private void clear() {
+            file = null;
+            loggerName = null;
+            pattern = null;
+            param0 = param1 = param2 = null;
+        }
+
+    }
+
+    /**
+     * A class to represent a log file that is rolled over once it grows past MAX_FILE_BYTES. Only written by the writer
+     * thread.
+     */
+    public static class LogFile {
+
+        /**
+         * A String representing the path of the log file.
+         */
+        private final String path;
+
+        /**
+         * A StringBuilder representing the messages waiting to be written in the current batch.
+         */
+        private final StringBuilder pending = new StringBuilder();
+
+        /**
+         * True, if the log file has messages waiting to be written in the current batch. False, if not.
+         */
+        private boolean dirty = false;
+
+        /**
+         * An OutputStream to write the log file with. Null, if the log file could not be opened.
+         */
+        private OutputStream out;
+
+        /**
+         * A long representing the number of bytes written to the log file since it was opened or rolled over.
+         */
+        private long size = 0;
+
+        /**
+         * Initializes a LogFile and opens it, replacing any log file with the same name left by an earlier run.
+         *
+         * @param name A String representing the name of the log file, without the ".log" extension.
+         */
+        private LogFile(String name) {
+            path = name + ".log";
+            open();
+        }
+
+        /**
+         * Opens the log file, empty.
+         */
+        private void open() {
+            try {
+                out = new FileOutputStream(path);
+            } catch (IOException e) {
+                System.err.println("Error occurred while creating log file " + path + ": " + e);
+                out = null;
+            }
+            size = 0;
+        }
+
+        /**
+         * Writes the messages waiting in the current batch to the log file, rolling it over first if they would make
+         * it grow past MAX_FILE_BYTES.
+         */
+        private void writePending() {
+            byte[] bytes = pending.toString().getBytes(StandardCharsets.UTF_8);
+            pending.setLength(0);
+            dirty = false;
+            if (out == null) {
+                return;
+            }
+
+            if (size > 0 && size + bytes.length > MAX_FILE_BYTES) {
+                rollOver();
+            }
+            try {
+                out.write(bytes);
+                out.flush();
+                size += bytes.length;
+            } catch (IOException e) {
+                System.err.println("Error occurred while writing log file " + path + ": " + e);
+            }
+        }
+
+        /**
+         * Closes the log file, shifts the older files along (dropping the oldest), and opens a new, empty log file.
+         */
+        private void rollOver() {
+            try {
+                out.close();
+            } catch (IOException e) {
+                System.err.println(e);
+            }
+            new File(path + "." + MAX_BACKUP_FILES).delete();
+            for (int i = MAX_BACKUP_FILES - 1; i >= 1; i--) {
+                new File(path + "." + i).renameTo(new File(path + "." + (i + 1)));
+            }
+            new File(path).renameTo(new File(path + ".1"));
+            open();
+        }
+
+    }
+
+}
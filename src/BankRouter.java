@@ -0,0 +1,79 @@
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A class to represent the front router of an ElevatorGroupRuntime, which decides which ElevatorBank serves each hall
+ * call: the first bank, in the order given, that serves both the floor of the hall call and its destination floor.
+ * List a bank that serves every floor, such as a service bank, last, so it takes the trips no other bank can.
+ * <p>
+ * The ElevatorGroupRuntime reads the Workload once and has its BankRouter put each hall call in the BankWorkload queue
+ * of its bank before any bank starts, so the banks share neither the Workload nor a lock.
+ */
+public class BankRouter {
+
+    /**
+     * An integer representing the bank of a hall call that no bank can serve.
+     */
+    public static final int NO_BANK = -1;
+
+    /**
+     * A List of ElevatorBanks representing the banks to route hall calls to, in order of preference.
+     */
+    private final List<ElevatorBank> banks;
+
+    /**
+     * Initializes a BankRouter.
+     *
+     * @param banks A List of ElevatorBanks representing the banks to route hall calls to, in order of preference.
+     */
+    public BankRouter(List<ElevatorBank> banks) {
+        this.banks = List.copyOf(banks);
+    }
+
+    /**
+     * Returns the bank that serves the specified hall call.
+     *
+     * @param hallCall A HardwareDevice representing the hall call.
+     * @return An integer representing the index of the bank. NO_BANK, if no bank serves both floors of the hall call.
+     */
+    public int route(HardwareDevice hallCall) {
+        for (int i = 0; i < banks.size(); i++) {
+            ElevatorBank bank = banks.get(i);
+            if (bank.serves(hallCall.getFloor()) && bank.serves(hallCall.getCarButton())) {
+                return i;
+            }
+        }
+        return NO_BANK;
+    }
+
+    /**
+     * Reads every hall call of the specified Workload once, and adds each one to the queue of the bank that serves it.
+     *
+     * @param workload A Workload representing the hall calls of every bank.
+     * @param queues An array of BankWorkloads representing the queue of each bank, indexed like the banks.
+     * @return An integer representing the number of hall calls no bank serves, which are left out.
+     * @throws IOException If the hall calls could not be read.
+     */
+    public int route(Workload workload, BankWorkload[] queues) throws IOException {
+        int numUnroutable = 0;
+        while (workload.next()) {
+            int bank = route(workload.getFloorEvent());
+            if (bank == NO_BANK) {
+                numUnroutable++;
+            } else {
+                queues[bank].add(workload.getFloorEvent(), workload.getReleaseTime());
+            }
+        }
+        return numUnroutable;
+    }
+
+    /**
+     * Returns the banks hall calls are routed to.
+     *
+     * @return An unmodifiable List of ElevatorBanks, in order of preference.
+     */
+    public List<ElevatorBank> getBanks() {
+        return banks;
+    }
+
+}
@@ -0,0 +1,80 @@
+import java.util.Arrays;
+
+/**
+ * A class to represent the queue of hall calls a BankRouter routes to one ElevatorBank, released at the same times as
+ * in the whole Workload.
+ * <p>
+ * The BankRouter adds every hall call of the bank before the Floor of the bank starts, and only that Floor reads them
+ * after, so a BankWorkload needs no lock. Each hall call is let go once the Floor has moved past it.
+ */
+public class BankWorkload implements Workload {
+
+    /**
+     * An integer representing the number of hall calls an empty BankWorkload has room for.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * An array of HardwareDevices representing the hall calls routed to the bank, in the order they are released.
+     */
+    private HardwareDevice[] floorEvents = new HardwareDevice[INITIAL_CAPACITY];
+
+    /**
+     * An array of longs representing the release time of each hall call, in milliseconds of SimulationClock time.
+     */
+    private long[] releaseTimes = new long[INITIAL_CAPACITY];
+
+    /**
+     * An integer representing the number of hall calls routed to the bank.
+     */
+    private int size = 0;
+
+    /**
+     * An integer representing the index of the current hall call. -1, before the first one.
+     */
+    private int index = -1;
+
+    /**
+     * Adds the specified hall call to the end of the queue.
+     *
+     * @param floorEvent A HardwareDevice representing the hall call.
+     * @param releaseTime A long representing when the hall call is released, relative to when the Floor subsystem
+     *                    starts, in milliseconds of SimulationClock time.
+     */
+    public void add(HardwareDevice floorEvent, long releaseTime) {
+        if (size == floorEvents.length) {
+            floorEvents = Arrays.copyOf(floorEvents, size * 2);
+            releaseTimes = Arrays.copyOf(releaseTimes, size * 2);
+        }
+        floorEvents[size] = floorEvent;
+        releaseTimes[size] = releaseTime;
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean next() {
+        if (index >= 0 && index < size) {
+            floorEvents[index] = null; // the Floor has sent it
+        }
+        if (index < size) {
+            index++;
+        }
+        return index < size;
+    }
+
+    @Override
+    public HardwareDevice getFloorEvent() {
+        return floorEvents[index];
+    }
+
+    @Override
+    public long getReleaseTime() {
+        return releaseTimes[index];
+    }
+
+}
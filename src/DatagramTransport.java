@@ -0,0 +1,180 @@
+import java.io.IOException;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A class to represent a long-lived UDP endpoint of a subsystem. Wraps a DatagramChannel with pre-allocated direct
+ * ByteBuffers, so sending and receiving HardwareDevice messages does not open new sockets or allocate new buffers.
+ * <p>
+ * A transport is in blocking mode when it is created. It can be registered with a Selector to be polled by an event
+ * loop instead. Every message sent and received is reported to the SimulationClock, so a virtual clock does not move
+ * time forward while a message is in flight.
+ * <p>
+ * The buffers are guarded by ReentrantLocks rather than monitors, so an Elevator or Floor on a virtual thread that
+ * waits for a message in blocking mode does not pin its carrier thread.
+ */
+public class DatagramTransport implements Transport {
+
+    /**
+     * A DatagramChannel to send and receive messages on.
+     */
+    private final DatagramChannel channel;
+
+    /**
+     * A SimulationClock to report messages sent and received to.
+     */
+    private final SimulationClock clock;
+
+    /**
+     * A direct ByteBuffer to encode messages to send into.
+     */
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(HardwareDeviceCodec.MESSAGE_LENGTH);
+
+    /**
+     * A direct ByteBuffer to receive messages into.
+     */
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(HardwareDeviceCodec.MESSAGE_LENGTH);
+
+    /**
+     * A ReentrantLock guarding the send buffer.
+     */
+    private final ReentrantLock sendLock = new ReentrantLock();
+
+    /**
+     * A ReentrantLock guarding the receive buffer.
+     */
+    private final ReentrantLock receiveLock = new ReentrantLock();
+
+    /**
+     * A HardwareDevice every ACK received is decoded into.
+     */
+    private final HardwareDevice ack = new HardwareDevice();
+
+    /**
+     * An InetSocketAddress representing the address other subsystems can send messages to this transport on.
+     */
+    private final InetSocketAddress localAddress;
+
+    /**
+     * A SocketAddress representing the sender of the last message received.
+     */
+    private SocketAddress lastSender;
+
+    /**
+     * A byte representing the type of the last message received, HardwareDeviceCodec.FLOOR_EVENT or
+     * HardwareDeviceCodec.ACK.
+     */
+    private byte lastMessageType;
+
+    /**
+     * Initializes a DatagramTransport bound to the specified port.
+     *
+     * @param port An integer representing the port number to receive messages on. 0, for any free port.
+     * @param clock A SimulationClock to report messages sent and received to.
+     * @throws IOException If the DatagramChannel could not be opened or bound.
+     */
+    public DatagramTransport(int port, SimulationClock clock) throws IOException {
+        this.clock = clock;
+        channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(port));
+        localAddress = new InetSocketAddress(InetAddress.getLocalHost(),
+                ((InetSocketAddress) channel.getLocalAddress()).getPort());
+    }
+
+    @Override
+    public void register(Selector selector) throws IOException {
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ, this);
+    }
+
+    @Override
+    public void send(byte messageType, HardwareDevice message, SocketAddress target) throws IOException {
+        sendLock.lock();
+        try {
+            sendBuffer.clear();
+            HardwareDeviceCodec.encode(sendBuffer, messageType, message);
+            sendBuffer.flip();
+            clock.messageSent();
+            channel.send(sendBuffer, target);
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    @Override
+    public HardwareDevice receive() throws IOException {
+        HardwareDevice message;
+        clock.idle();
+        try {
+            message = receiveMessage();
+        } catch (AsynchronousCloseException e) {
+            return null; // the transport was closed, or the waiting thread was interrupted
+        } finally {
+            clock.resume();
+        }
+
+        clock.messageReceived();
+        return message;
+    }
+
+    @Override
+    public HardwareDevice poll() throws IOException {
+        HardwareDevice message = receiveMessage();
+        if (message != null) {
+            clock.messageReceived();
+        }
+        return message;
+    }
+
+    /**
+     * Returns the next message if one is available, without reporting it to the SimulationClock.
+     *
+     * @return A HardwareDevice representing the message received. Null, if the transport is in non-blocking mode and
+     * no message is available.
+     * @throws IOException If the message could not be received.
+     */
+    private HardwareDevice receiveMessage() throws IOException {
+        receiveLock.lock();
+        try {
+            receiveBuffer.clear();
+            SocketAddress sender = channel.receive(receiveBuffer);
+            if (sender == null) {
+                return null;
+            }
+            receiveBuffer.flip();
+            lastSender = sender;
+            lastMessageType = HardwareDeviceCodec.messageType(receiveBuffer);
+            return HardwareDeviceCodec.decode(receiveBuffer,
+                    lastMessageType == HardwareDeviceCodec.ACK ? ack : new HardwareDevice());
+        } finally {
+            receiveLock.unlock();
+        }
+    }
+
+    @Override
+    public SocketAddress getLastSender() {
+        return lastSender;
+    }
+
+    @Override
+    public byte getLastMessageType() {
+        return lastMessageType;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println(e);
+        }
+    }
+
+}
@@ -0,0 +1,14 @@
+/**
+ * An enumerator to represent how the Scheduler assigns floor events to elevator cars.
+ * <p>
+ * With collective control, passengers only say which way they want to go when they call an elevator car. Each floor
+ * event goes to the elevator car that can arrive first, and busy elevator cars pick up passengers going their way.
+ * <p>
+ * With destination dispatch, passengers say which floor they want to go to when they call an elevator car. The
+ * Scheduler assigns them an elevator car straight away, grouping passengers going between the same or nearby floors
+ * into the same elevator car to make fewer stops, and the Floor tells them which elevator car to take.
+ */
+public enum DispatchMode {
+    COLLECTIVE_CONTROL,
+    DESTINATION_DISPATCH
+}
@@ -1,10 +1,11 @@
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.*;
-import java.time.LocalTime;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
-
-import static java.lang.Thread.sleep;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
 
 /**
  * An Elevator to represent an elevator car moving up or down floors.
@@ -12,9 +13,42 @@ import static java.lang.Thread.sleep;
 public class Elevator implements Runnable {
 
     /**
-     * An integer representing the maximum passenger capacity for an elevator car.
+     * An integer representing the maximum passenger capacity of an elevator car, until it is set to another one.
+     */
+    private static final int DEFAULT_CAPACITY = 5;
+
+    /**
+     * A long representing the time, in milliseconds, it takes the elevator car to move from one floor to the next.
      */
-    private int CAPACITY = 5;
+    static final long TRAVEL_TIME = 2000;
+
+    /**
+     * A long representing the time, in milliseconds, after which an elevator car that has not arrived at the next
+     * floor is assumed to be stuck between floors.
+     */
+    private static final long ARRIVAL_TIMEOUT = 11000;
+
+    /**
+     * A long representing the time, in milliseconds, it takes the elevator car doors to open or close.
+     */
+    private static final long DOORS_TIME = 3000;
+
+    /**
+     * A long representing the time, in milliseconds, after which elevator car doors that have not opened or closed are
+     * assumed to be faulty.
+     */
+    private static final long DOORS_TIMEOUT = 7000;
+
+    /**
+     * A long representing the time, in milliseconds, it takes to force the elevator car doors open or closed.
+     */
+    private static final long FORCE_DOORS_TIME = 7680;
+
+    /**
+     * A long representing the time, in milliseconds, an elevator car is expected to spend at a stop, with its doors
+     * opening and closing. Used to estimate when an elevator car can arrive at a floor.
+     */
+    static final long STOP_TIME = 2 * DOORS_TIME;
 
     /**
      * A Scheduler representing the elevator scheduler to receive and send events to.
@@ -26,76 +60,157 @@ public class Elevator implements Runnable {
      */
     private final int port;
 
+    /**
+     * An integer representing the ID of the Elevator in the ElevatorRegistry.
+     */
+    private final int id;
+
     /**
      * A String representing the name of the Elevator.
      */
     private final String name;
 
     /**
-     * A HashMap representing the states in the Elevator state machine.
+     * An EnumMap representing the states in the Elevator state machine. The states are stateless, so they are shared
+     * by every Elevator.
      */
-    private final HashMap<String, ElevatorState> states;
+    private static final EnumMap<ElevatorStateName, ElevatorState> STATES = new EnumMap<>(ElevatorStateName.class);
 
     /**
-     * An ArrayList of HardwareDevices representing a list of floor events to complete.
+     * An EnumMap representing the transition table of the Elevator state machine, the states each state can
+     * transition to.
+     */
+    private static final EnumMap<ElevatorStateName, EnumSet<ElevatorStateName>> TRANSITIONS =
+            new EnumMap<>(ElevatorStateName.class);
+
+    static {
+        STATES.put(ElevatorStateName.WAITING_FOR_ELEVATOR_REQUEST, new WaitingForElevatorRequest());
+        STATES.put(ElevatorStateName.MOVING_BETWEEN_FLOORS, new MovingBetweenFloors());
+        STATES.put(ElevatorStateName.REACHED_DESTINATION, new ReachedDestination());
+        STATES.put(ElevatorStateName.DOORS_OPENING, new DoorsOpening());
+        STATES.put(ElevatorStateName.DOORS_NOT_OPENING, new DoorsNotOpening());
+        STATES.put(ElevatorStateName.DOORS_CLOSING, new DoorsClosing());
+        STATES.put(ElevatorStateName.DOORS_NOT_CLOSING, new DoorsNotClosing());
+        STATES.put(ElevatorStateName.NOTIFY_SCHEDULER, new NotifyScheduler());
+
+        TRANSITIONS.put(ElevatorStateName.WAITING_FOR_ELEVATOR_REQUEST,
+                EnumSet.of(ElevatorStateName.MOVING_BETWEEN_FLOORS, ElevatorStateName.DOORS_OPENING));
+        TRANSITIONS.put(ElevatorStateName.MOVING_BETWEEN_FLOORS,
+                EnumSet.of(ElevatorStateName.REACHED_DESTINATION, ElevatorStateName.DOORS_OPENING));
+        TRANSITIONS.put(ElevatorStateName.REACHED_DESTINATION,
+                EnumSet.of(ElevatorStateName.NOTIFY_SCHEDULER, ElevatorStateName.DOORS_OPENING));
+        TRANSITIONS.put(ElevatorStateName.DOORS_OPENING,
+                EnumSet.of(ElevatorStateName.DOORS_NOT_OPENING, ElevatorStateName.DOORS_CLOSING));
+        TRANSITIONS.put(ElevatorStateName.DOORS_NOT_OPENING, EnumSet.of(ElevatorStateName.DOORS_CLOSING));
+        TRANSITIONS.put(ElevatorStateName.DOORS_CLOSING, EnumSet.of(ElevatorStateName.DOORS_NOT_CLOSING,
+                ElevatorStateName.MOVING_BETWEEN_FLOORS, ElevatorStateName.NOTIFY_SCHEDULER));
+        TRANSITIONS.put(ElevatorStateName.DOORS_NOT_CLOSING,
+                EnumSet.of(ElevatorStateName.MOVING_BETWEEN_FLOORS, ElevatorStateName.NOTIFY_SCHEDULER));
+        TRANSITIONS.put(ElevatorStateName.NOTIFY_SCHEDULER,
+                EnumSet.of(ElevatorStateName.MOVING_BETWEEN_FLOORS, ElevatorStateName.WAITING_FOR_ELEVATOR_REQUEST));
+    }
+
+    /**
+     * An ArrayList of HardwareDevices representing a list of floor events to complete. Guarded by floorEventsLock,
+     * because the Scheduler reads it to estimate when the elevator car can arrive at a floor.
      */
     private final ArrayList<HardwareDevice> floorEvents;
 
     /**
-     * A HardwareDevice representing the floor event the Scheduler assigned to the Elevator.
-     * <p>
-     * It does not represent the floor events that were picked up while executing the floor event the Scheduler assigned
-     * to the Elevator.
+     * A ReentrantLock guarding the floor events to complete and the boarded floor events, rather than a monitor, so the
+     * virtual thread of the Elevator is unmounted instead of pinning its carrier while it waits for it.
      */
-    private HardwareDevice mainFloorEvent = null;
+    private final ReentrantLock floorEventsLock = new ReentrantLock();
+
+    /**
+     * A Set of HardwareDevices representing the floor events whose passengers are in the elevator car. Guarded by
+     * floorEventsLock.
+     */
+    private final Set<HardwareDevice> boardedFloorEvents = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * A List of HardwareDevices representing the floor events picked up at the current floor, reused at every floor.
+     * Only used by the thread running the Elevator.
+     */
+    private final List<HardwareDevice> pickedUp = new ArrayList<>();
+
+    /**
+     * A Runnable representing the check an arrival timeout runs, created once and shared by every arrival timeout of
+     * the Elevator.
+     */
+    private final Runnable arrivalCheck = this::checkArrival;
 
     /**
-     * An ElevatorState representing the current state of the Elevator state machine.
+     * A long representing the time, in milliseconds of SimulationClock time, the elevator car has to arrive at the next
+     * floor by. Moved forward by the thread running the Elevator at every floor it arrives at.
      */
-    private ElevatorState currentState;
+    private volatile long arrivalDeadline;
 
     /**
-     * A DatagramSocket to receive DatagramPackets from the Scheduler.
+     * An AtomicReference to the SimulationEvent representing the arrival timeout of the current trip, replaced when
+     * the arrival timeout sets itself again. Holds null, if the elevator car is not moving between floors.
      */
-    private DatagramSocket receiveSocket;
+    private final AtomicReference<SimulationEvent> arrivalTimeout = new AtomicReference<>();
 
     /**
-     * An InetAddress representing the address to send DatagramPackets to the Scheduler.
+     * An ElevatorCarTable holding the floor, sweep direction, passengers, capacity and hard fault of the elevator car,
+     * and the stops it has committed to, in the row of its ID.
      */
-    private InetAddress schedulerAddress;
+    private final ElevatorCarTable cars;
 
     /**
-     * An integer representing the port number to send DatagramPackets to the Scheduler.
+     * A HardwareDevice representing the floor event the Scheduler assigned to the Elevator.
      * <p>
-     * If 0, the Elevator has not received a DatagramPacket from the Scheduler yet.
+     * It does not represent the floor events that were picked up while executing the floor event the Scheduler assigned
+     * to the Elevator.
      */
-    private int schedulerPort = 0;
+    private HardwareDevice mainFloorEvent = null;
 
     /**
-     * An integer representing the current floor the Elevator is at.
+     * An ElevatorStateName representing the current state of the Elevator state machine. Null, if the state machine
+     * has not started.
      */
-    private int currentFloor = 1;
+    private ElevatorStateName currentState;
 
     /**
-     * An integer representing the number of passengers currently in the Elevator car.
+     * A List of StateTransitionListeners to notify of every transition of the Elevator state machine.
      */
-    private int numPassengers = 0;
+    private final List<StateTransitionListener<Elevator, ElevatorStateName>> transitionListeners =
+            new CopyOnWriteArrayList<>();
 
     /**
-     * True, if request should be handled when state is being set. False, if not.
+     * A Transport to send and receive messages to and from the Scheduler.
      */
-    private boolean handleRequestInSetState = true;
+    private Transport transport;
 
     /**
-     * An ElevatorSystemView representing the view of the ElevatorSystem in the MVC pattern.
+     * A SocketAddress representing the address to send messages to the Scheduler.
+     * <p>
+     * If null, the Elevator has not received a message from the Scheduler yet.
      */
-    private ElevatorSystemView view;
+    private SocketAddress schedulerAddress;
+
+    /**
+     * An ElevatorSystemView representing the view of the ElevatorSystem in the MVC pattern. A HeadlessView, if no view
+     * has been set.
+     */
+    private ElevatorSystemView view = HeadlessView.INSTANCE;
 
     /**
      * An ElevatorSystemLogger to log events.
      */
     private final ElevatorSystemLogger logger;
 
+    /**
+     * A SimulationClock representing the clock the ElevatorSystem runs on.
+     */
+    private final SimulationClock clock;
+
+    /**
+     * An EventJournal to record state transitions, floor arrivals and faults in.
+     */
+    private final EventJournal journal;
+
     /**
      * True, if the car has reached maximum capacity. False, if not.
      */
@@ -106,128 +221,147 @@ public class Elevator implements Runnable {
      */
     private boolean transientFault = false;
 
-    /**
-     * True, if a hard fault occurs. False, if not.
-     */
-    private boolean hardFault = false;
-
     /**
      * Initializes an Elevator.
      *
      * @param scheduler A Scheduler representing the elevator scheduler to receive and send events to.
      * @param port An integer representing the port number to receive DatagramPackets from the Scheduler on.
-     * @param name A String representing the name of the Elevator.
+     * @param id An integer representing the ID of the Elevator in the ElevatorRegistry, starting at 1.
+     * @throws UncheckedIOException If the Transport to the Scheduler could not be opened.
      */
-    public Elevator(Scheduler scheduler, int port, String name) {
+    public Elevator(Scheduler scheduler, int port, int id) {
         this.scheduler = scheduler;
         this.port = port;
-        this.name = name;
+        this.id = id;
+        name = ElevatorRegistry.nameOf(id);
+        clock = scheduler.getClock();
+        journal = scheduler.getJournal();
+        cars = scheduler.getCars();
+        cars.setFloor(id, 1);
+        cars.setCapacity(id, DEFAULT_CAPACITY);
 
         floorEvents = new ArrayList<>(); // initialize the ArrayList of floor events
 
         try {
-            receiveSocket = new DatagramSocket(port);
-        } catch (SocketException se) {
-            System.err.println(se);
-            System.exit(1);
+            transport = scheduler.openTransport(port);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the transport of " + name + ".", e);
         }
 
-        logger = new ElevatorSystemLogger(name);
-
-        states = new HashMap<>(); // initialize the Elevator state machine
-        addState("WaitingForElevatorRequest", new WaitingForElevatorRequest());
-        addState("MovingBetweenFloors", new MovingBetweenFloors());
-        addState("ReachedDestination", new ReachedDestination());
-        addState("DoorsClosing", new DoorsClosing());
-        addState("DoorsNotClosing", new DoorsNotClosing());
-        addState("DoorsOpening", new DoorsOpening());
-        addState("DoorsNotOpening", new DoorsNotOpening());
-        addState("NotifyScheduler", new NotifyScheduler());
+        logger = new ElevatorSystemLogger(name, scheduler.getLogWriter());
+        setState(ElevatorStateName.WAITING_FOR_ELEVATOR_REQUEST); // set before the thread starts, so it cannot race it
     }
 
     /**
-     * Sets and displays the current state of the Elevator state machine. Executes the actions of the current state.
+     * Sets and displays the current state of the Elevator state machine, and notifies every StateTransitionListener.
+     * Does not execute the actions of the state.
      *
-     * @param stateName A string representing the name of the state to set.
+     * @param stateName An ElevatorStateName representing the name of the state to set.
      */
-    public void setState(String stateName) {
-        currentState = states.get(stateName);
-        logger.info("State: " + currentState.displayState());
-        if (handleRequestInSetState) {
-            currentState.handleRequest(this, mainFloorEvent);
+    public void setState(ElevatorStateName stateName) {
+        ElevatorStateName previousState = currentState;
+        currentState = stateName;
+        logger.log(Level.INFO, "State: {0}", stateName);
+        journal.recordElevatorState(id, getCurrentFloor(), previousState, stateName);
+        for (int i = 0; i < transitionListeners.size(); i++) {
+            transitionListeners.get(i).stateChanged(this, previousState, stateName);
         }
     }
 
     /**
-     * Adds the given state to the Elevator state machine.
+     * Adds the specified StateTransitionListener to be notified of every transition of the Elevator state machine.
      *
-     * @param name A String representing the name of the state.
-     * @param elevatorState An ElevatorState to be added to the Elevator state machine.
+     * @param listener A StateTransitionListener to notify of every transition.
      */
-    public void addState(String name, ElevatorState elevatorState) {
-        states.put(name, elevatorState);
+    public void addTransitionListener(StateTransitionListener<Elevator, ElevatorStateName> listener) {
+        transitionListeners.add(listener);
     }
 
     /**
-     * Sets the state of the Elevator state machine to WaitingForElevatorRequest.
+     * Runs the Elevator state machine from WaitingForElevatorRequest until the Elevator shuts down. Each state returns
+     * the state to transition to, so the state machine runs in a loop rather than recursively.
      */
     @Override
     public void run() {
-        setState("WaitingForElevatorRequest");
+        try {
+            ElevatorStateName stateName = ElevatorStateName.WAITING_FOR_ELEVATOR_REQUEST; // set by the constructor
+            while (true) {
+                ElevatorStateName nextStateName = STATES.get(stateName).handleRequest(this, mainFloorEvent);
+                if (nextStateName == null) {
+                    break; // the Elevator has shut down
+                }
+                if (!TRANSITIONS.get(stateName).contains(nextStateName)) {
+                    throw new IllegalStateException("Invalid transition from " + stateName + " to " + nextStateName
+                            + ".");
+                }
+                setState(nextStateName);
+                stateName = nextStateName;
+            }
+        } finally {
+            clock.deregister();
+        }
     }
 
     /**
-     * Sends a DatagramPacket to the Scheduler containing the specified array of bytes.
+     * Sends a message to the Scheduler. If it cannot be sent, the Scheduler is told it has failed, and shuts the
+     * Elevator down.
      *
-     * @param data An array of bytes representing the data to send.
+     * @param messageType A byte representing the type of the message, HardwareDeviceCodec.FLOOR_EVENT or
+     *                    HardwareDeviceCodec.ACK.
+     * @param message A HardwareDevice representing the message to send.
      */
-    private void sendPacketToScheduler(byte[] data) {
+    private void sendPacketToScheduler(byte messageType, HardwareDevice message) {
         try {
-            logger.info("Sending " + new String(data, 0, data.length) + " to Scheduler.");
-            DatagramPacket sendPacket = new DatagramPacket(data, data.length, schedulerAddress, schedulerPort);
-            DatagramSocket sendSocket = new DatagramSocket();
-            sendSocket.send(sendPacket);
+            logger.info("Sending {0}{1} to Scheduler.", messageType == HardwareDeviceCodec.ACK ? "ACK " : "", message);
+            transport.send(messageType, message, schedulerAddress);
             view.updateElevator(this);
-            sendSocket.close();
         } catch (IOException e) {
-            System.err.println(e);
-            System.exit(1);
+            scheduler.fail("Could not send " + message + " from " + name + " to Scheduler", e);
         }
     }
 
     /**
-     * Receives a DatagramPacket from the Scheduler and returns a String representing the contents of the
-     * DatagramPacket.
+     * Receives a message from the Scheduler and returns a HardwareDevice representing the contents of the message.
      *
-     * @return A String representing the contents of the DatagramPacket received from the Scheduler.
+     * @return A HardwareDevice representing the contents of the message received from the Scheduler, overwritten by
+     * the next ACK received if it is an ACK. Null, if the Elevator was shut down while waiting, or could not receive,
+     * which the Scheduler is told as a failure.
      */
-    private String receivePacketFromScheduler() {
-        // receive a DatagramPacket from the Scheduler
-        byte[] receiveData = new byte[250];
-        DatagramPacket receivePacket = new DatagramPacket(receiveData, receiveData.length);
+    private HardwareDevice receivePacketFromScheduler() {
+        // receive a message from the Scheduler
+        HardwareDevice floorEvent = null;
         try {
-            receiveSocket.receive(receivePacket);
+            floorEvent = transport.receive();
         } catch (IOException e) {
-            System.err.println(e);
-            System.exit(1);
+            scheduler.fail("Could not receive from Scheduler on " + name, e);
+        }
+        if (floorEvent == null) {
+            logger.info("Stopped waiting for the Scheduler.");
+            return null;
         }
 
         // process the received floor event
-        String floorEvent = new String(receivePacket.getData(), 0, receivePacket.getLength());
-        logger.info("Received " + floorEvent + " from Scheduler.");
-
-        if (!floorEvent.startsWith("ACK")) {
-            mainFloorEvent = HardwareDevice.stringToHardwareDevice(floorEvent);
-            floorEvents.add(mainFloorEvent);
-            addPassengers(mainFloorEvent.getNumPassengers()); // increase the total passengers
+        boolean ack = transport.getLastMessageType() == HardwareDeviceCodec.ACK;
+        logger.info("Received {0}{1} from Scheduler.", ack ? "ACK " : "", floorEvent);
+
+        if (!ack) {
+            mainFloorEvent = floorEvent;
+            floorEventsLock.lock();
+            try {
+                floorEvents.add(mainFloorEvent);
+                addPassengers(mainFloorEvent.getNumPassengers()); // increase the total passengers
+                cars.addFloorEvent(id, mainFloorEvent, false);
+                publishFirstFloorEvent();
+            } finally {
+                floorEventsLock.unlock();
+            }
         }
 
         // save the Scheduler's address and port to communicate with it later
-        schedulerAddress = receivePacket.getAddress();
-        schedulerPort = receivePacket.getPort();
+        schedulerAddress = transport.getLastSender();
 
         // return the received message from the Scheduler
-        return new String(receivePacket.getData(), 0, receivePacket.getLength());
+        return floorEvent;
     }
 
     /**
@@ -235,111 +369,351 @@ public class Elevator implements Runnable {
      * Scheduler.
      */
     public void getFloorEvent() {
-        // receive a floor event from the Scheduler
+        // receive a floor event from the Scheduler, the floor event received from the Scheduler is the main floor event
         logger.info("Waiting for a floor event from Scheduler...");
-        String floorEvent = receivePacketFromScheduler();
-
-        // the floor event received from the Scheduler is the main floor event
-        mainFloorEvent = HardwareDevice.stringToHardwareDevice(floorEvent);
+        mainFloorEvent = receivePacketFromScheduler();
+        if (mainFloorEvent == null) {
+            return;
+        }
 
         view.addRequests(mainFloorEvent);
         view.updateElevator(this);
 
-        sendPacketToScheduler(("ACK " + mainFloorEvent).getBytes()); // send an acknowledgment packet to the Scheduler
+        // send an acknowledgment packet to the Scheduler
+        sendPacketToScheduler(HardwareDeviceCodec.ACK, mainFloorEvent);
     }
 
     /**
      * Moves the Elevator to the specified floor.
      *
      * @param fault True, if a fault should occur. False, if not.
-     * @param state A String representing the state the Elevator state machine should transition to after the elevator
-     *              car has finished moving between floors.
      * @param floor An integer representing the floor the Elevator needs to move to.
      * @param button A FloorButton representing the direction the Elevator needs to move.
+     * @return True, if the Elevator has arrived at the specified floor. False, if it was shut down on the way.
      */
-    public void moveBetweenFloors(boolean fault, String state, int floor, FloorButton button) {
-        int delta = Math.abs(floor - currentFloor); // number of floors to move
-        logger.info("Currently at floor " + currentFloor + ", moving to floor " + floor + "...");
+    public boolean moveBetweenFloors(boolean fault, int floor, FloorButton button) {
+        int delta = Math.abs(floor - getCurrentFloor()); // number of floors to move
+        cars.setDirection(id, button);
+        logger.info("Currently at floor {0}, moving to floor {1}...", getCurrentFloor(), floor);
+        // arrival times are worked out from when the elevator car left, so they do not drift floor after floor
+        long departureTime = clock.currentTimeMillis();
+        // assume a fault if the elevator car doesn't arrive at the next floor within 11 seconds, with one arrival
+        // timeout for the whole trip that only sets itself again if it goes off while the elevator car is on time
+        arrivalDeadline = departureTime + ARRIVAL_TIMEOUT;
+        arrivalTimeout.set(clock.scheduleAt(arrivalDeadline, arrivalCheck));
         for (int i = 0; i < delta; i++) {
+            long arrivalTime = departureTime + (i + 1) * TRAVEL_TIME;
+            try {
+                // an elevator car that is stuck between floors never arrives, it waits until it is shut down
+                clock.sleepUntil(fault ? Long.MAX_VALUE : arrivalTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopArrivalTimeout();
+                return false; // the Elevator has been shut down
+            }
+            arrivalDeadline = arrivalTime + ARRIVAL_TIMEOUT;
 
-            // handles the case where an ELEVATOR_STUCK fault occurs
-            Timer faultTimer = new Timer();
-            Timer timer = new Timer();
-            AtomicInteger finished = new AtomicInteger(0);
-
-            if (fault) {
-                faultTimer.schedule(new TimerTask() {
-                    @Override
-                    public void run() {
-                        try {
-                            sleep(11000);
-                        } catch (InterruptedException e) {
-                            throw new RuntimeException(e);
-                        }
-                        finished.set(1);
-                        timer.cancel();
-                        hardFault = true;
-                        view.updateFloor(Elevator.this);
-                        // shut down the Elevator and notify the Scheduler of how many floor events it was working on
-                        logger.severe("Stuck between floors. Shutting down...");
-                        scheduler.killElevatorThread(name, floorEvents.size());
-                    }
-                }, 11000); // assume a fault if elevator doesn't arrive within 11 seconds
+            if (button == FloorButton.UP) {
+                cars.setFloor(id, getCurrentFloor() + 1);
             } else {
-                try {
-                    sleep(2000);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
+                cars.setFloor(id, getCurrentFloor() - 1);
+            }
+            journal.recordFloorArrival(id, getCurrentFloor(), button);
+
+            // pick up the passengers waiting to go the same way, unless the elevator car is about to turn around to
+            // pick up the main floor event
+            if (getCurrentFloor() != floor || isBoarded(mainFloorEvent) || mainFloorEvent.getFloorButton() == button) {
+                pickUpFloorEvents(button);
+            }
+
+            logger.info("{0} at floor {1}.", getCurrentFloor() == floor ? "Arrived" : "Currently", getCurrentFloor());
+            // add time to move floors to hardware device
+            mainFloorEvent.addSeconds(10);
+            view.updateFloor(this);
+
+            // stop on the way if a passenger in the elevator car wants to get off at this floor
+            if (getCurrentFloor() != floor) {
+                HardwareDevice dropOff = getFloorEventToDropOff();
+                if (dropOff != null) {
+                    logger.info("Stopping at floor {0} to drop off {1}.", getCurrentFloor(), dropOff);
+                    mainFloorEvent = dropOff;
+                    stopArrivalTimeout();
+                    return true;
                 }
-                timer.schedule(new TimerTask() {
-                    @Override
-                    public void run() {
-                        finished.set(2);
-                        faultTimer.cancel();
-                    }
-                }, 10000); // time it takes to move from one floor to the next
             }
+        }
+        stopArrivalTimeout();
+
+        return true;
+    }
+
+    /**
+     * Cancels the arrival timeout of the current trip, once the elevator car has stopped moving between floors.
+     */
+    private void stopArrivalTimeout() {
+        SimulationEvent timeout = arrivalTimeout.getAndSet(null);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Picks up the passengers waiting at the current floor to go in the specified direction, as long as they fit in
+     * the elevator car.
+     *
+     * @param button A FloorButton representing the direction the elevator car is moving in.
+     */
+    private void pickUpFloorEvents(FloorButton button) {
+        pickedUp.clear();
+        scheduler.claimFloorEvents(this, getCurrentFloor(), button, pickedUp);
+        for (HardwareDevice hardwareDevice : pickedUp) {
+            hardwareDevice.stamp(RequestStage.ARRIVED_AT_ORIGIN, clock.currentTimeMillis());
+            hardwareDevice.stamp(RequestStage.BOARDED, clock.currentTimeMillis());
+            floorEventsLock.lock();
+            try {
+                floorEvents.add(hardwareDevice);
+                boardedFloorEvents.add(hardwareDevice);
+                addPassengers(hardwareDevice.getNumPassengers());
+                cars.addFloorEvent(id, hardwareDevice, true);
+                publishFirstFloorEvent();
+            } finally {
+                floorEventsLock.unlock();
+            }
+            logger.info("Picked up floor event {0}", hardwareDevice);
+            view.addRequests(hardwareDevice);
+        }
+    }
 
-            // check if timer has finished and cancel the faultTimer
-            Timer finishTimer = new Timer();
-            finishTimer.schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    if (finished.get() == 2) {
-                        faultTimer.cancel();
-                    }
+    /**
+     * Returns a floor event other than the main floor event whose passengers want to get off at the current floor.
+     *
+     * @return A HardwareDevice representing a floor event whose passengers want to get off at the current floor. Null,
+     * if there is none.
+     */
+    private HardwareDevice getFloorEventToDropOff() {
+        floorEventsLock.lock();
+        try {
+            for (HardwareDevice floorEvent : floorEvents) {
+                if (floorEvent != mainFloorEvent && boardedFloorEvents.contains(floorEvent)
+                        && floorEvent.getCarButton() == getCurrentFloor()) {
+                    return floorEvent;
                 }
-            }, 10000);
+            }
+        } finally {
+            floorEventsLock.unlock();
+        }
+        return null;
+    }
 
-            if (button == FloorButton.UP) {
-                currentFloor++;
-            } else {
-                currentFloor--;
+    /**
+     * Chooses the floor event to serve next with the LOOK algorithm and makes it the main floor event. The elevator car
+     * keeps going in the direction it is sweeping in while it has stops ahead, serving the closest one first, and only
+     * turns around once there are none.
+     * <p>
+     * The stop of a floor event is the floor its passengers are waiting on, or the floor they want to go to if they are
+     * already in the elevator car.
+     *
+     * @return A HardwareDevice representing the main floor event. Null, if there are no floor events to complete.
+     */
+    public HardwareDevice selectMainFloorEvent() {
+        floorEventsLock.lock();
+        try {
+            int currentFloor = getCurrentFloor(); // read from the ElevatorCarTable once for the whole decision
+            FloorButton sweep = getSweepDirection(currentFloor);
+            HardwareDevice next = getClosestFloorEventAhead(sweep, currentFloor);
+            if (next == null) {
+                // no stops left ahead, turn around
+                sweep = sweep == FloorButton.UP ? FloorButton.DOWN : FloorButton.UP;
+                next = getClosestFloorEventAhead(sweep, currentFloor);
+            }
+            if (next != null) {
+                mainFloorEvent = next;
+                cars.setDirection(id, sweep);
             }
+            return next;
+        } finally {
+            floorEventsLock.unlock();
+        }
+    }
 
-            ArrayList<HardwareDevice> floorEvent = new ArrayList<>(scheduler.getFloorEventsToHandle());
-            for (HardwareDevice hardwareDevice : floorEvent) {
-                if (hardwareDevice.getFloor() == currentFloor && hardwareDevice.getFloorButton() == button) {
-                    floorEvents.add(hardwareDevice);
-                    addPassengers(hardwareDevice.getNumPassengers());
-                    logger.info("Picked up floor event " + hardwareDevice);
+    /**
+     * Returns the direction the elevator car is sweeping in. If the elevator car has not moved yet, the direction of
+     * the first floor event it has to complete. Must be called while holding floorEventsLock.
+     *
+     * @param currentFloor An integer representing the floor the elevator car is at.
+     * @return A FloorButton representing the direction the elevator car is sweeping in.
+     */
+    private FloorButton getSweepDirection(int currentFloor) {
+        FloorButton direction = cars.getDirection(id);
+        if (direction != null) {
+            return direction;
+        }
+        if (!floorEvents.isEmpty()) {
+            int stop = stopFloor(floorEvents.get(0));
+            if (stop != currentFloor) {
+                return stop > currentFloor ? FloorButton.UP : FloorButton.DOWN;
+            }
+            return floorEvents.get(0).getFloorButton();
+        }
+        return FloorButton.UP;
+    }
 
-                    // notify the Scheduler that we have picked up a floor event
-                    scheduler.pickedUpFloorEvent(this, hardwareDevice);
-                    hardwareDevice.setElevator(name);
-                }
+    /**
+     * Returns the floor event with the closest stop at or ahead of the current floor in the specified direction. Must
+     * be called while holding floorEventsLock.
+     *
+     * @param sweep A FloorButton representing the direction to look in.
+     * @param currentFloor An integer representing the floor the elevator car is at.
+     * @return A HardwareDevice representing the floor event with the closest stop ahead. Null, if there is none.
+     */
+    private HardwareDevice getClosestFloorEventAhead(FloorButton sweep, int currentFloor) {
+        HardwareDevice closest = null;
+        int smallestNumFloorsAway = Integer.MAX_VALUE;
+        for (HardwareDevice floorEvent : floorEvents) {
+            int numFloorsAway = (stopFloor(floorEvent) - currentFloor) * (sweep == FloorButton.UP ? 1 : -1);
+            if (numFloorsAway >= 0 && numFloorsAway < smallestNumFloorsAway) {
+                smallestNumFloorsAway = numFloorsAway;
+                closest = floorEvent;
             }
+        }
+        return closest;
+    }
 
-            logger.info((currentFloor == floor ? "Arrived" : "Currently") + " at floor " + currentFloor + ".");
-            // add time to move floors to hardware device
-            LocalTime newTime = mainFloorEvent.getTime().plusSeconds(10);
-            mainFloorEvent.setTime(newTime);
-            view.updateFloor(this);
+    /**
+     * Returns the floor the elevator car has to stop at for the specified floor event: the floor its passengers are
+     * waiting on, or the floor they want to go to if they are already in the elevator car.
+     *
+     * @param floorEvent A HardwareDevice representing a floor event the Elevator has to complete.
+     * @return An integer representing the floor the elevator car has to stop at.
+     */
+    public int getStopFloor(HardwareDevice floorEvent) {
+        return isBoarded(floorEvent) ? floorEvent.getCarButton() : floorEvent.getFloor();
+    }
+
+    /**
+     * Returns the floor the elevator car has to stop at for the specified floor event, like getStopFloor. Must be
+     * called while holding floorEventsLock.
+     *
+     * @param floorEvent A HardwareDevice representing a floor event the Elevator has to complete.
+     * @return An integer representing the floor the elevator car has to stop at.
+     */
+    private int stopFloor(HardwareDevice floorEvent) {
+        return boardedFloorEvents.contains(floorEvent) ? floorEvent.getCarButton() : floorEvent.getFloor();
+    }
+
+    /**
+     * Returns a boolean representing if the passengers of the specified floor event are in the elevator car or not.
+     *
+     * @param floorEvent A HardwareDevice representing a floor event.
+     * @return True, if the passengers of the specified floor event are in the elevator car. False, if not.
+     */
+    public boolean isBoarded(HardwareDevice floorEvent) {
+        floorEventsLock.lock();
+        try {
+            return boardedFloorEvents.contains(floorEvent);
+        } finally {
+            floorEventsLock.unlock();
         }
+    }
 
-        if (!fault) { // transition to the next state if a fault does not occur
-            setState(state);
+    /**
+     * Lets the passengers of the main floor event into the elevator car, together with the other passengers waiting at
+     * the current floor to go the same way.
+     */
+    public void boardMainFloorEvent() {
+        mainFloorEvent.stamp(RequestStage.ARRIVED_AT_ORIGIN, clock.currentTimeMillis());
+        mainFloorEvent.stamp(RequestStage.BOARDED, clock.currentTimeMillis());
+        floorEventsLock.lock();
+        try {
+            if (boardedFloorEvents.add(mainFloorEvent)) {
+                cars.boardFloorEvent(id, mainFloorEvent);
+                publishFirstFloorEvent();
+            }
+        } finally {
+            floorEventsLock.unlock();
         }
+        pickUpFloorEvents(mainFloorEvent.getFloorButton());
+    }
+
+    /**
+     * Publishes the first floor event of the elevator car to the ElevatorCarTable. Must be called while holding
+     * floorEventsLock.
+     */
+    private void publishFirstFloorEvent() {
+        HardwareDevice first = floorEvents.isEmpty() ? null : floorEvents.get(0);
+        cars.setFirstFloorEvent(id, first, first != null && boardedFloorEvents.contains(first));
+    }
+
+    /**
+     * Returns a boolean representing if the specified number of passengers fit in the elevator car or not.
+     *
+     * @param passengers An integer representing a number of passengers.
+     * @return True, if the specified number of passengers fit in the elevator car. False, if not.
+     */
+    public boolean canFit(int passengers) {
+        return cars.canFit(id, passengers);
+    }
+
+    /**
+     * Estimates how long, in milliseconds, it would take the elevator car to arrive at the specified floor to pick up
+     * passengers going in the specified direction, given where it is, the direction it is sweeping in, the stops it
+     * has committed to, and how many passengers it carries.
+     * <p>
+     * An elevator car that is sweeping in the same direction and has not passed the floor yet picks the passengers up
+     * on its way, stopping at its committed stops in between. Otherwise, it has to finish its sweep before it can come
+     * back for them.
+     *
+     * @param floor An integer representing the floor the passengers are waiting on.
+     * @param button A FloorButton representing the direction the passengers want to go.
+     * @param passengers An integer representing the number of passengers.
+     * @return A long representing the estimated time of arrival, in milliseconds. Long.MAX_VALUE, if the elevator car
+     * cannot pick the passengers up because it is full or shut down.
+     */
+    public long estimateTimeToArrive(int floor, FloorButton button, int passengers) {
+        return cars.estimateTimeToArrive(id, floor, button, passengers);
+    }
+
+    /**
+     * Returns a FloorButton representing the direction the elevator car is sweeping in.
+     *
+     * @return A FloorButton representing the direction the elevator car is sweeping in. Null, if the car has no floor
+     * events to complete.
+     */
+    public FloorButton getDirection() {
+        return cars.getDirection(id);
+    }
+
+    /**
+     * Checks if the elevator car has arrived at the next floor in time, when the arrival timeout of its trip goes off.
+     * Sets the arrival timeout again for the next deadline if the elevator car has arrived at a floor since, and shuts
+     * down the Elevator if it has not.
+     */
+    private void checkArrival() {
+        SimulationEvent timeout = arrivalTimeout.get();
+        if (timeout == null) {
+            return; // the trip is over
+        }
+        long deadline = arrivalDeadline;
+        if (clock.currentTimeMillis() < deadline) {
+            SimulationEvent next = clock.scheduleAt(deadline, arrivalCheck);
+            if (!arrivalTimeout.compareAndSet(timeout, next)) {
+                next.cancel(); // the trip ended in the meantime
+            }
+            return;
+        }
+        stuckBetweenFloors();
+    }
+
+    /**
+     * Shuts down the Elevator because the elevator car is stuck between floors.
+     */
+    private void stuckBetweenFloors() {
+        setHardFault(true);
+        view.updateFloor(this);
+        // shut down the Elevator and notify the Scheduler of how many floor events it was working on
+        logger.severe("Stuck between floors. Shutting down...");
+        journal.recordFault(id, getCurrentFloor(), Fault.ELEVATOR_STUCK, mainFloorEvent);
+        scheduler.killElevatorThread(id, getFloorEventsSize());
     }
 
     /**
@@ -351,17 +725,29 @@ public class Elevator implements Runnable {
     public boolean moreFloorEventsToFulfill() {
         // main floor event has been fulfilled
         HardwareDevice fulfilledFloorEvent = mainFloorEvent;
-        removePassengers(mainFloorEvent.getNumPassengers());
-        floorEvents.remove(0);
-        mainFloorEvent = null;
+        fulfilledFloorEvent.stamp(RequestStage.DROPPED_OFF, clock.currentTimeMillis());
+        boolean moreEventsToFulfill;
+        floorEventsLock.lock();
+        try {
+            removePassengers(mainFloorEvent.getNumPassengers());
+            boolean boarded = boardedFloorEvents.remove(mainFloorEvent);
+            if (floorEvents.remove(mainFloorEvent)) {
+                cars.removeFloorEvent(id, mainFloorEvent, boarded);
+            }
+            publishFirstFloorEvent();
+            mainFloorEvent = null;
+            // determine if the Elevator has picked up passengers on its way to its main destination
+            moreEventsToFulfill = !floorEvents.isEmpty();
+            if (!moreEventsToFulfill) {
+                cars.setDirection(id, null);
+            }
+        } finally {
+            floorEventsLock.unlock();
+        }
 
-        // determine if the Elevator has picked up passengers on its way to its main destination
-        boolean moreEventsToFulfill = false;
         // if its has picked up passengers, it must continue executing the rest of the floor events
-        if (floorEvents.size() > 0) {
-            moreEventsToFulfill = true;
-            mainFloorEvent = getClosestFloorEvent(); // assign a new main floor event
-            view.addRequests(mainFloorEvent);
+        if (moreEventsToFulfill) {
+            selectMainFloorEvent(); // assign a new main floor event
             view.updateElevator(this);
         }
 
@@ -370,107 +756,52 @@ public class Elevator implements Runnable {
         fulfilledFloorEvent.setMoreFloorEvents(moreEventsToFulfill);
 
         // notify the Scheduler subsystem that the main floor event has been completed
-        sendPacketToScheduler(fulfilledFloorEvent.toString().getBytes());
+        sendPacketToScheduler(HardwareDeviceCodec.FLOOR_EVENT, fulfilledFloorEvent);
         receivePacketFromScheduler(); // receive an acknowledgment from the Scheduler
 
         return moreEventsToFulfill;
     }
 
     /**
-     * Returns a floor event that is the closest to the current floor.
+     * Opens or closes the elevator car doors. Handles a fault in the case where a door does not open or close.
      *
-     * @return A HardwareDevice representing a floor event that is closest to the current floor.
+     * @param fault True, if a fault should occur. False, if not.
+     * @return True, if the doors have opened or closed, or timed out. False, if the Elevator was shut down meanwhile.
      */
-    private HardwareDevice getClosestFloorEvent() {
-        HardwareDevice closestFloorEvent = null;
-        int smallestNumFloorsAway = -1;
-        for (HardwareDevice floorEvent : floorEvents) {
-            int distance = Math.abs(currentFloor - floorEvent.getCarButton());
-            if (smallestNumFloorsAway == -1 || smallestNumFloorsAway > distance) {
-                smallestNumFloorsAway = distance;
-                closestFloorEvent = floorEvent;
-            }
-        }
-        return closestFloorEvent;
-    }
+    public boolean openOrCloseDoors(boolean fault) {
+        //add time to open or close doors
+        mainFloorEvent.addSeconds(3);
 
-    /**
-     * Sets a timer to handle a fault in the case where a door does not open or close.
-     *
-     * @param fault True, if a fault should occur. False, if not.
-     * @param faultState A String representing the state the Elevator state machine should transition to if a fault
-     *                   occurs.
-     * @param normalState A String representing the state the Elevator state machine should transition to if a fault
-     *                    does not occur.
-     */
-    public void openOrCloseDoors(boolean fault, String faultState, String normalState) {
-        Timer faultTimer = new Timer();
-        Timer timer = new Timer();
-        AtomicInteger finished = new AtomicInteger(0);
-
-        if (fault) {
-            faultTimer.schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    try {
-                        sleep(7000);
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    setState(faultState); // assume a fault if doors don't open/close within 7.8 seconds
-                    finished.set(1);
-                    timer.cancel();
-                }
-            }, 7000);
-        } else {
-            timer.schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    try {
-                        sleep(3000);
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    setState(normalState);
-                    finished.set(2);
-                    faultTimer.cancel();
-                }
-            }, 3000);
+        try {
+            // assume a fault if doors don't open/close within 7 seconds
+            clock.sleep(fault ? DOORS_TIMEOUT : DOORS_TIME);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false; // the Elevator has been shut down
         }
-
-        // check which timer finished first and cancel the other timer
-        Timer finishTimer = new Timer();
-        finishTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                if (finished.get() == 1) { // faultTimer finished first, cancel timer
-                    timer.cancel();
-                } else if (finished.get() == 2) { // timer finished first, cancel faultTimer
-                    faultTimer.cancel();
-                }
-            }
-        }, 3000);
-
-        //add time to open or close doors
-        LocalTime newTime = mainFloorEvent.getTime().plusSeconds(3);
-        mainFloorEvent.setTime(newTime);
+        return true;
     }
 
     /**
      * Forces the Elevator car doors to open or close.
      *
      * @param forceOpen True, if the elevator car doors should be forced open. False, if forced closed.
+     * @return True, if the doors have been forced open or closed. False, if the Elevator was shut down meanwhile.
      */
-    public void forceOpenOrCloseDoors(boolean forceOpen) {
+    public boolean forceOpenOrCloseDoors(boolean forceOpen) {
         try {
             transientFault = true;
             view.updateFloor(this);
             transientFault = false;
-            logger.warning("Forcing doors " + (forceOpen ? "open" : "closed") + "...");
-            sleep(7680); // load time including doors opening and closing
+            logger.log(Level.WARNING, "Forcing doors {0}...", forceOpen ? "open" : "closed");
+            journal.recordFault(id, getCurrentFloor(), forceOpen ? Fault.DOORS_NOT_OPENING : Fault.DOORS_NOT_CLOSING,
+                    mainFloorEvent);
+            clock.sleep(FORCE_DOORS_TIME); // load time including doors opening and closing
         } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+            Thread.currentThread().interrupt();
+            return false; // the Elevator has been shut down
         }
+        return true;
     }
 
     /**
@@ -479,11 +810,13 @@ public class Elevator implements Runnable {
      * @param passengers An integer representing the number of passengers to add to the elevator car.
      */
     public void addPassengers(int passengers) {
-        numPassengers += passengers;
-        if (numPassengers > CAPACITY) {
-            numPassengers -= passengers;
+        int numPassengers = getNumPassengers() + passengers;
+        if (numPassengers > getMaxCapacity()) {
             logger.info("Cannot fit anymore passengers.");
-        } else if (numPassengers == CAPACITY) {
+            return;
+        }
+        cars.setPassengers(id, numPassengers);
+        if (numPassengers == getMaxCapacity()) {
             maxCapacity = true;
             logger.info("Reached max capacity. Cannot fit anymore passengers.");
         }
@@ -495,8 +828,9 @@ public class Elevator implements Runnable {
      * @param passengers An integer representing the number of passengers to remove from the elevator car.
      */
     public void removePassengers(int passengers) {
-        numPassengers -= passengers;
-        if (numPassengers < CAPACITY) {
+        int numPassengers = getNumPassengers() - passengers;
+        cars.setPassengers(id, numPassengers);
+        if (numPassengers < getMaxCapacity()) {
             maxCapacity = false;
         }
     }
@@ -507,7 +841,12 @@ public class Elevator implements Runnable {
      * @return An integer representing the number of floor events the Elevator has to fulfill.
      */
     public int getFloorEventsSize() {
-        return floorEvents.size();
+        floorEventsLock.lock();
+        try {
+            return floorEvents.size();
+        } finally {
+            floorEventsLock.unlock();
+        }
     }
 
     /**
@@ -516,16 +855,25 @@ public class Elevator implements Runnable {
      * @return An ElevatorState representing the current state of the Elevator state machine.
      */
     public ElevatorState getCurrentState() {
+        return STATES.get(currentState);
+    }
+
+    /**
+     * Returns an ElevatorStateName representing the name of the current state of the Elevator state machine.
+     *
+     * @return An ElevatorStateName representing the name of the current state of the Elevator state machine.
+     */
+    public ElevatorStateName getCurrentStateName() {
         return currentState;
     }
 
     /**
-     * Returns a HashMap of states in the Elevator state machine.
+     * Returns a Map of states in the Elevator state machine.
      *
-     * @return A HashMap of states in the Elevator state machine.
+     * @return An unmodifiable Map of states in the Elevator state machine, by name.
      */
-    public HashMap<String, ElevatorState> getStates() {
-        return states;
+    public Map<ElevatorStateName, ElevatorState> getStates() {
+        return Collections.unmodifiableMap(STATES);
     }
 
     /**
@@ -543,7 +891,7 @@ public class Elevator implements Runnable {
      * @return An integer representing the current number of passengers in the Elevator car.
      */
     public int getNumPassengers() {
-        return numPassengers;
+        return cars.getPassengers(id);
     }
 
     /**
@@ -552,7 +900,7 @@ public class Elevator implements Runnable {
      * @return An integer representing the floor number the Elevator is currently on.
      */
     public int getCurrentFloor() {
-        return currentFloor;
+        return cars.getFloor(id);
     }
 
     /**
@@ -564,6 +912,15 @@ public class Elevator implements Runnable {
         return port;
     }
 
+    /**
+     * Returns an InetSocketAddress representing the address the Elevator receives messages on.
+     *
+     * @return An InetSocketAddress representing the address the Elevator receives messages on.
+     */
+    public InetSocketAddress getAddress() {
+        return transport.getLocalAddress();
+    }
+
     /**
      * Returns a String representing the name of the Elevator.
      *
@@ -573,6 +930,15 @@ public class Elevator implements Runnable {
         return name;
     }
 
+    /**
+     * Returns an integer representing the ID of the Elevator in the ElevatorRegistry.
+     *
+     * @return An integer representing the ID of the Elevator.
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Returns a HardwareDevice representing the floor event the Scheduler assigned to the Elevator.
      *
@@ -591,24 +957,6 @@ public class Elevator implements Runnable {
         mainFloorEvent = hardwareDevice;
     }
 
-    /**
-     * Sets handleRequestInSetState to the specified boolean.
-     *
-     * @param handleRequestInSetState True, if request should be handled when state is being set. False, if not.
-     */
-    public void setHandleRequestInSetState(boolean handleRequestInSetState) {
-        this.handleRequestInSetState = handleRequestInSetState;
-    }
-
-    /**
-     * Returns true, if request should be handled when state is being set. False, if not.
-     *
-     * @return True, if request should be handled when state is being set. False, if not.
-     */
-    public boolean getHandleRequestInSetState() {
-        return handleRequestInSetState;
-    }
-
     /**
      * Sets the view to the specified view.
      *
@@ -633,7 +981,7 @@ public class Elevator implements Runnable {
      * @return An integer representing the maximum capacity of passengers of the elevator car.
      */
     public int getMaxCapacity() {
-        return CAPACITY;
+        return cars.getCapacity(id);
     }
 
     /**
@@ -642,7 +990,7 @@ public class Elevator implements Runnable {
      * @param capacity An integer representing the maximum capacity of passengers.
      */
     public void setMaxCapacity(int capacity) {
-        CAPACITY = capacity;
+        cars.setCapacity(id, capacity);
     }
 
     /**
@@ -660,7 +1008,7 @@ public class Elevator implements Runnable {
      * @return True, if there is a hard fault. False, if not.
      */
     public boolean isHardFault() {
-        return hardFault;
+        return cars.isShutDown(id);
     }
 
     /**
@@ -678,7 +1026,7 @@ public class Elevator implements Runnable {
      * @param hardFault True, if there is a hard fault. False, if not.
      */
     public void setHardFault(boolean hardFault) {
-        this.hardFault = hardFault;
+        cars.setShutDown(id, hardFault);
     }
 
     /**
@@ -0,0 +1,129 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class to represent a bank of elevator cars that serve the same floors, e.g. the low-rise, high-rise, parking or
+ * service elevators of a building, run by its own Scheduler.
+ * <p>
+ * A bank serves its lobby, where passengers transfer between banks, and every floor from its lowest to its highest.
+ */
+public class ElevatorBank {
+
+    /**
+     * A String representing the name of the bank.
+     */
+    private final String name;
+
+    /**
+     * Integers representing the lobby and the lowest and highest floors the bank serves.
+     */
+    private final int lobbyFloor, lowestFloor, highestFloor;
+
+    /**
+     * An integer representing the number of elevator cars in the bank.
+     */
+    private final int numElevators;
+
+    /**
+     * Initializes an ElevatorBank.
+     *
+     * @param name A String representing the name of the bank.
+     * @param lobbyFloor An integer representing the lobby of the bank.
+     * @param lowestFloor An integer representing the lowest floor the bank serves.
+     * @param highestFloor An integer representing the highest floor the bank serves.
+     * @param numElevators An integer representing the number of elevator cars in the bank, at least 1.
+     */
+    public ElevatorBank(String name, int lobbyFloor, int lowestFloor, int highestFloor, int numElevators) {
+        if (lobbyFloor < 1 || lowestFloor < 1 || highestFloor < lowestFloor || numElevators < 1) {
+            throw new IllegalArgumentException("Invalid elevator bank " + name + ": lobby " + lobbyFloor + ", floors "
+                    + lowestFloor + " to " + highestFloor + ", " + numElevators + " elevator car(s).");
+        }
+        this.name = name;
+        this.lobbyFloor = lobbyFloor;
+        this.lowestFloor = lowestFloor;
+        this.highestFloor = highestFloor;
+        this.numElevators = numElevators;
+    }
+
+    /**
+     * Reads the elevator banks in the specified file, one per line, e.g. "low-rise 1 2 15 4": the name, lobby, lowest
+     * floor, highest floor and number of elevator cars. Blank lines and lines starting with # are skipped.
+     *
+     * @param file A Path representing the file.
+     * @return A List of ElevatorBanks in the order they are in the file.
+     * @throws IOException If the file could not be read.
+     * @throws IllegalArgumentException If a line is not an elevator bank.
+     */
+    public static List<ElevatorBank> readBanks(Path file) throws IOException {
+        List<ElevatorBank> banks = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length != 5) {
+                throw new IllegalArgumentException("Not an elevator bank: " + line);
+            }
+            try {
+                banks.add(new ElevatorBank(fields[0], Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                        Integer.parseInt(fields[3]), Integer.parseInt(fields[4])));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not an elevator bank: " + line, e);
+            }
+        }
+        return banks;
+    }
+
+    /**
+     * Returns whether the bank serves the specified floor.
+     *
+     * @param floor An integer representing the floor.
+     * @return True, if the bank serves the floor. False, if not.
+     */
+    public boolean serves(int floor) {
+        return floor == lobbyFloor || (floor >= lowestFloor && floor <= highestFloor);
+    }
+
+    /**
+     * Returns the name of the bank.
+     *
+     * @return A String representing the name of the bank.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the highest floor the bank serves.
+     *
+     * @return An integer representing the highest floor the bank serves, counting its lobby.
+     */
+    public int getHighestFloor() {
+        return Math.max(highestFloor, lobbyFloor);
+    }
+
+    /**
+     * Returns the number of elevator cars in the bank.
+     *
+     * @return An integer representing the number of elevator cars in the bank.
+     */
+    public int getNumElevators() {
+        return numElevators;
+    }
+
+    /**
+     * Returns a String representing the bank.
+     *
+     * @return A String representing the bank, e.g. "low-rise (lobby 1, floors 2-15, 4 cars)".
+     */
+    @Override
+    public String toString() {
+        return name + " (lobby " + lobbyFloor + ", floors " + lowestFloor + "-" + highestFloor + ", " + numElevators
+                + " cars)";
+    }
+
+}
@@ -0,0 +1,888 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A class to represent the state of every elevator car of a Scheduler as a struct of arrays: one primitive array per
+ * field, indexed by elevator ID like the ElevatorRegistry, so choosing an elevator car for a hall call reads a few
+ * contiguous arrays instead of visiting every Elevator, its floor events and each HardwareDevice in them.
+ * <p>
+ * Each Elevator is a view of its row: its floor, the direction it is sweeping in, its passengers, its capacity and
+ * whether it has shut down are only kept here, and it publishes each floor event it adds, boards and removes. The stops
+ * of each car are a bitmap of floors, wordsPerCar longs per car, which grows when a floor above every floor seen so far
+ * appears, next to the number of floor events the car stops at each floor for, so a floor event changes the bitmaps in
+ * constant time however many the car has. Floor numbers are never negative.
+ * <p>
+ * The Scheduler keeps whether each car is available, busy or out of service here too, as its rank, with the number of
+ * available and busy cars, so neither needs a list of cars to search.
+ * <p>
+ * The table is guarded by a ReentrantLock, held only for a few array reads and writes, so an Elevator on a virtual
+ * thread waiting for it does not pin its carrier thread.
+ */
+public class ElevatorCarTable {
+
+    /**
+     * A byte representing no direction in the directions and first buttons of the cars.
+     */
+    private static final byte NO_DIRECTION = -1;
+
+    /**
+     * A long representing the rank of a busy elevator car, plus the order it became busy in, so the available cars
+     * come first.
+     */
+    private static final long BUSY_RANK = Long.MAX_VALUE / 2;
+
+    /**
+     * An array of FloorButtons indexed by ordinal, cached to avoid copying FloorButton.values() on every estimate.
+     */
+    private static final FloorButton[] FLOOR_BUTTONS = FloorButton.values();
+
+    /**
+     * A ReentrantLock guarding every array of the table.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * An integer representing the highest elevator ID the table holds.
+     */
+    private final int numCars;
+
+    /**
+     * An array of integers representing the floor each car is at, indexed by ID.
+     */
+    private final int[] floors;
+
+    /**
+     * An array of bytes representing the FloorButton ordinal of the direction each car is sweeping in, indexed by ID.
+     * NO_DIRECTION, if the car has not chosen a main floor event yet.
+     */
+    private final byte[] directions;
+
+    /**
+     * An array of integers representing the number of passengers in each car, indexed by ID.
+     */
+    private final int[] passengers;
+
+    /**
+     * An array of integers representing the maximum number of passengers each car can carry, indexed by ID.
+     */
+    private final int[] capacities;
+
+    /**
+     * An array of booleans representing if each car has shut down because of a hard fault, indexed by ID.
+     */
+    private final boolean[] shutDown;
+
+    /**
+     * An array of integers representing the number of floor events each car has to complete, indexed by ID.
+     */
+    private final int[] numFloorEvents;
+
+    /**
+     * An array of integers representing the stop of the first floor event of each car, indexed by ID, which decides
+     * the direction a car that has not chosen one yet sweeps in.
+     */
+    private final int[] firstStops;
+
+    /**
+     * An array of bytes representing the FloorButton ordinal of the first floor event of each car, indexed by ID.
+     * NO_DIRECTION, if the car has no floor events.
+     */
+    private final byte[] firstButtons;
+
+    /**
+     * An array of longs representing the rank of each car when choosing between cars with the same estimated time of
+     * arrival, indexed by ID: the order it became available in, or BUSY_RANK plus the order it became busy in. -1, if
+     * the car cannot be chosen.
+     */
+    private final long[] ranks;
+
+    /**
+     * An array of longs representing the busy cars packed with their ranks, sorted by getBusy, reused on every call.
+     * Only used while holding the lock.
+     */
+    private final long[] busyKeys;
+
+    /**
+     * A long representing the order the last car became available or busy in.
+     */
+    private long lastRank = 0;
+
+    /**
+     * Integers representing the number of available cars and the number of busy cars.
+     */
+    private int numAvailable, numBusy;
+
+    /**
+     * An integer representing the number of longs in the bitmap of stops of each car.
+     */
+    private int wordsPerCar = 1;
+
+    /**
+     * An array of longs representing the floors each car stops at: the floor the passengers of each of its floor
+     * events are waiting on, or want to go to if they have boarded. Car i owns the wordsPerCar longs from
+     * i * wordsPerCar.
+     */
+    private long[] stops;
+
+    /**
+     * An array of longs representing the floors each car has committed to stop at: the floor the passengers of each of
+     * its floor events are waiting on, if they have not boarded, and the floor they want to go to. Laid out like stops.
+     */
+    private long[] plannedStops;
+
+    /**
+     * An array of integers representing the number of floor events each car stops at each floor for, with a bit set in
+     * stops for every floor it is not 0 for. Car i owns the wordsPerCar * Long.SIZE integers from
+     * i * wordsPerCar * Long.SIZE, indexed by floor.
+     */
+    private int[] stopCounts;
+
+    /**
+     * An array of integers representing the number of floor events each car has committed to stop at each floor for,
+     * with a bit set in plannedStops for every floor it is not 0 for. Laid out like stopCounts.
+     */
+    private int[] plannedStopCounts;
+
+    /**
+     * Initializes an ElevatorCarTable with a row for every elevator ID from 1 to the specified number of cars. No car
+     * can be chosen until it is made available or busy.
+     *
+     * @param numCars An integer representing the number of elevator cars.
+     */
+    public ElevatorCarTable(int numCars) {
+        this.numCars = numCars;
+        floors = new int[numCars + 1];
+        directions = new byte[numCars + 1];
+        passengers = new int[numCars + 1];
+        capacities = new int[numCars + 1];
+        shutDown = new boolean[numCars + 1];
+        numFloorEvents = new int[numCars + 1];
+        firstStops = new int[numCars + 1];
+        firstButtons = new byte[numCars + 1];
+        ranks = new long[numCars + 1];
+        busyKeys = new long[numCars];
+        Arrays.fill(directions, NO_DIRECTION);
+        Arrays.fill(firstButtons, NO_DIRECTION);
+        Arrays.fill(ranks, -1);
+        stops = new long[(numCars + 1) * wordsPerCar];
+        plannedStops = new long[(numCars + 1) * wordsPerCar];
+        stopCounts = new int[(numCars + 1) * wordsPerCar * Long.SIZE];
+        plannedStopCounts = new int[(numCars + 1) * wordsPerCar * Long.SIZE];
+    }
+
+    /**
+     * Returns the floor the specified car is at.
+     *
+     * @param id An integer representing the ID of the car.
+     * @return An integer representing the floor the car is at.
+     */
+    public int getFloor(int id) {
+        lock.lock();
+        try {
+            return floors[id];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the floor the specified car is at.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param floor An integer representing the floor the car is at.
+     */
+    public void setFloor(int id, int floor) {
+        lock.lock();
+        try {
+            floors[id] = floor;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the direction the specified car is sweeping in.
+     *
+     * @param id An integer representing the ID of the car.
+     * @return A FloorButton representing the direction the car is sweeping in. Null, if it has not chosen one.
+     */
+    public FloorButton getDirection(int id) {
+        lock.lock();
+        try {
+            return directions[id] == NO_DIRECTION ? null : FLOOR_BUTTONS[directions[id]];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the direction the specified car is sweeping in.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param direction A FloorButton representing the direction the car is sweeping in. Null, if it has not chosen
+     *                  one.
+     */
+    public void setDirection(int id, FloorButton direction) {
+        lock.lock();
+        try {
+            directions[id] = direction == null ? NO_DIRECTION : (byte) direction.ordinal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of passengers in the specified car.
+     *
+     * @param id An integer representing the ID of the car.
+     * @return An integer representing the number of passengers in the car.
+     */
+    public int getPassengers(int id) {
+        lock.lock();
+        try {
+            return passengers[id];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the number of passengers in the specified car.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param numPassengers An integer representing the number of passengers in the car.
+     */
+    public void setPassengers(int id, int numPassengers) {
+        lock.lock();
+        try {
+            passengers[id] = numPassengers;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the maximum number of passengers the specified car can carry.
+     *
+     * @param id An integer representing the ID of the car.
+     * @return An integer representing the capacity of the car.
+     */
+    public int getCapacity(int id) {
+        lock.lock();
+        try {
+            return capacities[id];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the maximum number of passengers the specified car can carry.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param capacity An integer representing the capacity of the car.
+     */
+    public void setCapacity(int id, int capacity) {
+        lock.lock();
+        try {
+            capacities[id] = capacity;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns if the specified car has shut down because of a hard fault or not.
+     *
+     * @param id An integer representing the ID of the car.
+     * @return True, if the car has shut down. False, if not.
+     */
+    public boolean isShutDown(int id) {
+        lock.lock();
+        try {
+            return shutDown[id];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets if the specified car has shut down because of a hard fault or not.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param hardFault True, if the car has shut down. False, if not.
+     */
+    public void setShutDown(int id, boolean hardFault) {
+        lock.lock();
+        try {
+            shutDown[id] = hardFault;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Publishes a floor event added to the specified car: its stop, and the stops the car has committed to for it.
+     * Called by the Elevator while holding the lock on its floor events.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param floorEvent A HardwareDevice representing the floor event added.
+     * @param boarded True, if the passengers of the floor event are in the car. False, if they are waiting.
+     */
+    public void addFloorEvent(int id, HardwareDevice floorEvent, boolean boarded) {
+        lock.lock();
+        try {
+            countStops(id, floorEvent, boarded, 1);
+            numFloorEvents[id]++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Publishes that the passengers of a floor event of the specified car have boarded it: the car stops where they
+     * want to go instead of where they were waiting. Called by the Elevator while holding the lock on its floor events.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param floorEvent A HardwareDevice representing the floor event whose passengers have boarded.
+     */
+    public void boardFloorEvent(int id, HardwareDevice floorEvent) {
+        lock.lock();
+        try {
+            countStops(id, floorEvent, false, -1);
+            countStops(id, floorEvent, true, 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Publishes a floor event removed from the specified car, taking away its stops unless another floor event of the
+     * car needs them. Called by the Elevator while holding the lock on its floor events.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param floorEvent A HardwareDevice representing the floor event removed.
+     * @param boarded True, if the passengers of the floor event were in the car. False, if they were waiting.
+     */
+    public void removeFloorEvent(int id, HardwareDevice floorEvent, boolean boarded) {
+        lock.lock();
+        try {
+            countStops(id, floorEvent, boarded, -1);
+            numFloorEvents[id]--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Publishes the first floor event of the specified car, which decides the direction it sweeps in until it chooses
+     * one. Called by the Elevator while holding the lock on its floor events, whenever its first floor event may have
+     * changed.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param first A HardwareDevice representing the floor event the car was given first. Null, if it has none.
+     * @param boarded True, if the passengers of the first floor event are in the car. False, if they are waiting.
+     */
+    public void setFirstFloorEvent(int id, HardwareDevice first, boolean boarded) {
+        lock.lock();
+        try {
+            if (first == null) {
+                firstButtons[id] = NO_DIRECTION;
+            } else {
+                firstStops[id] = boarded ? first.getCarButton() : first.getFloor();
+                firstButtons[id] = (byte) first.getFloorButton().ordinal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the specified number of floor events to the stops and planned stops of the specified car for the specified
+     * floor event. Must be called while holding the lock.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param floorEvent A HardwareDevice representing the floor event.
+     * @param boarded True, if the passengers of the floor event are in the car. False, if they are waiting.
+     * @param delta An integer representing the number of floor events to add, -1 to take one away.
+     */
+    private void countStops(int id, HardwareDevice floorEvent, boolean boarded, int delta) {
+        count(false, id, boarded ? floorEvent.getCarButton() : floorEvent.getFloor(), delta);
+        if (!boarded) {
+            count(true, id, floorEvent.getFloor(), delta);
+        }
+        count(true, id, floorEvent.getCarButton(), delta);
+    }
+
+    /**
+     * Adds the specified number of floor events to the count of the specified floor in the stops or the planned stops
+     * of the specified car, setting its bit while the count is above 0 and clearing it otherwise, and growing every
+     * bitmap if the floor is above every floor it holds. Must be called while holding the lock.
+     *
+     * @param planned True, to count the floor in the planned stops. False, in the stops.
+     * @param id An integer representing the ID of the car.
+     * @param floor An integer representing the floor.
+     * @param delta An integer representing the number of floor events to add, -1 to take one away.
+     */
+    private void count(boolean planned, int id, int floor, int delta) {
+        if (floor >= wordsPerCar * Long.SIZE) {
+            grow(floor / Long.SIZE + 1);
+        }
+        int[] counts = planned ? plannedStopCounts : stopCounts;
+        long[] bitmap = planned ? plannedStops : stops;
+        int index = id * wordsPerCar * Long.SIZE + floor;
+        counts[index] += delta;
+        int word = id * wordsPerCar + floor / Long.SIZE;
+        if (counts[index] > 0) {
+            bitmap[word] |= 1L << floor;
+        } else {
+            bitmap[word] &= ~(1L << floor);
+        }
+    }
+
+    /**
+     * Grows the bitmaps and counts of every car to at least the specified number of longs, keeping their bits and
+     * counts. Must be called while holding the lock.
+     *
+     * @param minWordsPerCar An integer representing the number of longs the bitmap of each car needs.
+     */
+    private void grow(int minWordsPerCar) {
+        int newWordsPerCar = Math.max(minWordsPerCar, 2 * wordsPerCar);
+        int floorsPerCar = wordsPerCar * Long.SIZE;
+        int newFloorsPerCar = newWordsPerCar * Long.SIZE;
+        long[] newStops = new long[(numCars + 1) * newWordsPerCar];
+        long[] newPlannedStops = new long[(numCars + 1) * newWordsPerCar];
+        int[] newStopCounts = new int[(numCars + 1) * newFloorsPerCar];
+        int[] newPlannedStopCounts = new int[(numCars + 1) * newFloorsPerCar];
+        for (int id = 0; id <= numCars; id++) {
+            System.arraycopy(stops, id * wordsPerCar, newStops, id * newWordsPerCar, wordsPerCar);
+            System.arraycopy(plannedStops, id * wordsPerCar, newPlannedStops, id * newWordsPerCar, wordsPerCar);
+            System.arraycopy(stopCounts, id * floorsPerCar, newStopCounts, id * newFloorsPerCar, floorsPerCar);
+            System.arraycopy(plannedStopCounts, id * floorsPerCar, newPlannedStopCounts, id * newFloorsPerCar,
+                    floorsPerCar);
+        }
+        stops = newStops;
+        plannedStops = newPlannedStops;
+        stopCounts = newStopCounts;
+        plannedStopCounts = newPlannedStopCounts;
+        wordsPerCar = newWordsPerCar;
+    }
+
+    /**
+     * Adds the floors the specified car has committed to stop at to the specified BitSet.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param floors A BitSet of floors, indexed by floor, to add the floors the car has committed to stop at to.
+     */
+    public void addPlannedStops(int id, BitSet floors) {
+        lock.lock();
+        try {
+            copyPlannedStops(id, floors);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the floors the specified car has committed to stop at to the specified BitSet. Must be called while holding
+     * the lock.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param floors A BitSet of floors, indexed by floor, to add the floors the car has committed to stop at to.
+     */
+    private void copyPlannedStops(int id, BitSet floors) {
+        int from = id * wordsPerCar;
+        for (int word = 0; word < wordsPerCar; word++) {
+            long bits = plannedStops[from + word];
+            while (bits != 0) {
+                floors.set(word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Reads everything destination dispatch weighs the cars on for passengers waiting at the specified floor, holding
+     * the lock once, so every car is read as it was at the same moment: the rank of each car, the floors it has
+     * committed to stop at, and how long it would take to arrive at the floor.
+     *
+     * @param floor An integer representing the floor the passengers are waiting on.
+     * @param button A FloorButton representing the direction the passengers want to go.
+     * @param numPassengers An array of integers, indexed by ID, representing the passengers each car would take on
+     *                      with the waiting passengers.
+     * @param carRanks An array of longs, indexed by ID, to put the rank of each car in. -1, for a car that cannot be
+     *                 chosen.
+     * @param arrivals An array of longs, indexed by ID, to put the estimated time of arrival of each car that can be
+     *                 chosen in, in milliseconds. Long.MAX_VALUE, if the car cannot pick the passengers up.
+     * @param floors An array of BitSets, indexed by ID, each cleared and given the floors the car has committed to stop
+     *               at, for each car that can be chosen.
+     */
+    public void readDestinationDispatch(int floor, FloorButton button, int[] numPassengers, long[] carRanks,
+                                        long[] arrivals, BitSet[] floors) {
+        lock.lock();
+        try {
+            for (int id = 1; id <= numCars; id++) {
+                carRanks[id] = ranks[id];
+                if (ranks[id] == -1) {
+                    continue;
+                }
+                floors[id].clear();
+                copyPlannedStops(id, floors[id]);
+                arrivals[id] = estimate(id, floor, button, numPassengers[id]);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns if the specified number of passengers fit in the specified car, with the passengers already in it.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param numPassengers An integer representing a number of passengers.
+     * @return True, if the passengers fit in the car. False, if not.
+     */
+    public boolean canFit(int id, int numPassengers) {
+        lock.lock();
+        try {
+            return passengers[id] + numPassengers <= capacities[id];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes the specified car available or busy, after every car that became available or busy before it, so it can
+     * be chosen.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param available True, if the car is available. False, if it is busy.
+     */
+    public void setAvailable(int id, boolean available) {
+        lock.lock();
+        try {
+            uncount(id);
+            lastRank++;
+            if (available) {
+                ranks[id] = lastRank;
+                numAvailable++;
+            } else {
+                ranks[id] = BUSY_RANK + lastRank;
+                numBusy++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the specified car from the cars that can be chosen, e.g. once it has shut down.
+     *
+     * @param id An integer representing the ID of the car.
+     */
+    public void remove(int id) {
+        lock.lock();
+        try {
+            uncount(id);
+            ranks[id] = -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the specified car away from the number of available or busy cars, if it is counted in one. Must be called
+     * while holding the lock.
+     *
+     * @param id An integer representing the ID of the car.
+     */
+    private void uncount(int id) {
+        if (ranks[id] == -1) {
+            return;
+        }
+        if (ranks[id] < BUSY_RANK) {
+            numAvailable--;
+        } else {
+            numBusy--;
+        }
+    }
+
+    /**
+     * Returns if the specified car is available or not.
+     *
+     * @param id An integer representing the ID of the car.
+     * @return True, if the car is available. False, if it is busy or cannot be chosen.
+     */
+    public boolean isAvailable(int id) {
+        lock.lock();
+        try {
+            return ranks[id] != -1 && ranks[id] < BUSY_RANK;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the rank of the specified car when choosing between cars that are as good as each other: lower ranks
+     * come first, the available cars in the order they became available, then the busy cars in the order they became
+     * busy.
+     *
+     * @param id An integer representing the ID of the car.
+     * @return A long representing the rank of the car. -1, if it cannot be chosen.
+     */
+    public long getRank(int id) {
+        lock.lock();
+        try {
+            return ranks[id];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of available cars.
+     *
+     * @return An integer representing the number of available cars.
+     */
+    public int getNumAvailable() {
+        lock.lock();
+        try {
+            return numAvailable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of busy cars.
+     *
+     * @return An integer representing the number of busy cars.
+     */
+    public int getNumBusy() {
+        lock.lock();
+        try {
+            return numBusy;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the available car that became available first.
+     *
+     * @return An integer representing the ID of the car. ElevatorRegistry.NO_ELEVATOR, if no car is available.
+     */
+    public int getFirstAvailable() {
+        lock.lock();
+        try {
+            int first = ElevatorRegistry.NO_ELEVATOR;
+            for (int id = 1; id <= numCars; id++) {
+                if (ranks[id] != -1 && ranks[id] < BUSY_RANK
+                        && (first == ElevatorRegistry.NO_ELEVATOR || ranks[id] < ranks[first])) {
+                    first = id;
+                }
+            }
+            return first;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the busy cars, in the order they became busy.
+     *
+     * @return An array of integers representing the IDs of the busy cars.
+     */
+    public int[] getBusy() {
+        lock.lock();
+        try {
+            // each key is the order the car became busy in, times numCars + 1, plus its ID, so sorting the keys sorts
+            // the cars by rank and the ID is the remainder
+            int count = 0;
+            for (int id = 1; id <= numCars; id++) {
+                if (ranks[id] >= BUSY_RANK) {
+                    busyKeys[count++] = (ranks[id] - BUSY_RANK) * (numCars + 1) + id;
+                }
+            }
+            Arrays.sort(busyKeys, 0, count);
+            int[] busy = new int[count];
+            for (int i = 0; i < count; i++) {
+                busy[i] = (int) (busyKeys[i] % (numCars + 1));
+            }
+            return busy;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the car with the earliest estimated time of arrival at the specified floor, out of the cars that can be
+     * chosen. Ties go to the available car that became available first, then to the busy car that became busy first.
+     *
+     * @param floor An integer representing the floor the passengers are waiting on.
+     * @param button A FloorButton representing the direction the passengers want to go.
+     * @param numPassengers An integer representing the number of passengers.
+     * @return An integer representing the ID of the car. ElevatorRegistry.NO_ELEVATOR, if no car can pick the
+     * passengers up.
+     */
+    public int selectEarliest(int floor, FloorButton button, int numPassengers) {
+        lock.lock();
+        try {
+            int selected = ElevatorRegistry.NO_ELEVATOR;
+            long earliestArrival = Long.MAX_VALUE;
+            long selectedRank = Long.MAX_VALUE;
+            for (int id = 1; id <= numCars; id++) {
+                if (ranks[id] == -1) {
+                    continue;
+                }
+                long arrival = estimate(id, floor, button, numPassengers);
+                if (arrival < earliestArrival || (arrival == earliestArrival && arrival != Long.MAX_VALUE
+                        && ranks[id] < selectedRank)) {
+                    earliestArrival = arrival;
+                    selectedRank = ranks[id];
+                    selected = id;
+                }
+            }
+            return selected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Estimates how long, in milliseconds, it would take the specified car to arrive at the specified floor to pick up
+     * passengers going in the specified direction. See Elevator.estimateTimeToArrive.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param floor An integer representing the floor the passengers are waiting on.
+     * @param button A FloorButton representing the direction the passengers want to go.
+     * @param numPassengers An integer representing the number of passengers.
+     * @return A long representing the estimated time of arrival, in milliseconds. Long.MAX_VALUE, if the car cannot
+     * pick the passengers up because it is full or shut down.
+     */
+    public long estimateTimeToArrive(int id, int floor, FloorButton button, int numPassengers) {
+        lock.lock();
+        try {
+            return estimate(id, floor, button, numPassengers);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Estimates how long, in milliseconds, it would take the specified car to arrive at the specified floor. Must be
+     * called while holding the lock.
+     *
+     * @param id An integer representing the ID of the car.
+     * @param floor An integer representing the floor the passengers are waiting on.
+     * @param button A FloorButton representing the direction the passengers want to go.
+     * @param numPassengers An integer representing the number of passengers.
+     * @return A long representing the estimated time of arrival, in milliseconds. Long.MAX_VALUE, if the car cannot
+     * pick the passengers up.
+     */
+    private long estimate(int id, int floor, FloorButton button, int numPassengers) {
+        if (shutDown[id] || passengers[id] + numPassengers > capacities[id]) {
+            return Long.MAX_VALUE;
+        }
+        int currentFloor = floors[id];
+        if (numFloorEvents[id] == 0) {
+            return Math.abs(floor - currentFloor) * Elevator.TRAVEL_TIME;
+        }
+
+        // the direction the car is sweeping in, or the direction of its first floor event if it has not moved yet
+        FloorButton sweep;
+        if (directions[id] != NO_DIRECTION) {
+            sweep = FLOOR_BUTTONS[directions[id]];
+        } else if (firstStops[id] != currentFloor) {
+            sweep = firstStops[id] > currentFloor ? FloorButton.UP : FloorButton.DOWN;
+        } else {
+            sweep = FLOOR_BUTTONS[firstButtons[id]];
+        }
+        boolean up = sweep == FloorButton.UP;
+        int from = id * wordsPerCar;
+        int sweepEnd = currentFloor; // the furthest stop ahead
+        if (up) {
+            sweepEnd = Math.max(sweepEnd, highestStop(from));
+        } else {
+            int lowest = lowestStop(from);
+            if (lowest != -1) {
+                sweepEnd = Math.min(sweepEnd, lowest);
+            }
+        }
+
+        int sign = up ? 1 : -1;
+        boolean onTheWay = button == sweep && (floor - currentFloor) * sign >= 0
+                && (sweepEnd - floor) * sign >= 0;
+        if (onTheWay) {
+            // the stops from the current floor up to, but not including, the floor of the passengers
+            int stopsBefore = up ? countStops(from, currentFloor, floor)
+                    : countStops(from, floor + 1, currentFloor + 1);
+            return Math.abs(floor - currentFloor) * Elevator.TRAVEL_TIME + stopsBefore * Elevator.STOP_TIME;
+        }
+        return (Math.abs(sweepEnd - currentFloor) + Math.abs(sweepEnd - floor)) * Elevator.TRAVEL_TIME
+                + countStops(from, 0, wordsPerCar * Long.SIZE) * Elevator.STOP_TIME;
+    }
+
+    /**
+     * Returns the highest floor set in the stops of the car whose bitmap starts at the specified index. Must be called
+     * while holding the lock.
+     *
+     * @param from An integer representing the index of the first long of the bitmap of the car.
+     * @return An integer representing the highest stop. -1, if the car has no stops.
+     */
+    private int highestStop(int from) {
+        for (int word = wordsPerCar - 1; word >= 0; word--) {
+            long bits = stops[from + word];
+            if (bits != 0) {
+                return word * Long.SIZE + Long.SIZE - 1 - Long.numberOfLeadingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the lowest floor set in the stops of the car whose bitmap starts at the specified index. Must be called
+     * while holding the lock.
+     *
+     * @param from An integer representing the index of the first long of the bitmap of the car.
+     * @return An integer representing the lowest stop. -1, if the car has no stops.
+     */
+    private int lowestStop(int from) {
+        for (int word = 0; word < wordsPerCar; word++) {
+            long bits = stops[from + word];
+            if (bits != 0) {
+                return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of floors from the specified lowest floor up to, but not including, the specified highest
+     * floor set in the stops of the car whose bitmap starts at the specified index. Must be called while holding the
+     * lock.
+     *
+     * @param from An integer representing the index of the first long of the bitmap of the car.
+     * @param lowest An integer representing the lowest floor to count, inclusive.
+     * @param highest An integer representing the highest floor to count, exclusive.
+     * @return An integer representing the number of stops in the range.
+     */
+    private int countStops(int from, int lowest, int highest) {
+        highest = Math.min(highest, wordsPerCar * Long.SIZE);
+        lowest = Math.max(lowest, 0);
+        int count = 0;
+        for (int floor = lowest; floor < highest; ) {
+            int word = floor / Long.SIZE;
+            long bits = stops[from + word] & (-1L << floor); // drop the floors below the lowest one
+            int wordEnd = (word + 1) * Long.SIZE;
+            if (highest < wordEnd) {
+                bits &= (1L << highest) - 1; // drop the floors from the highest one
+            }
+            count += Long.bitCount(bits);
+            floor = wordEnd;
+        }
+        return count;
+    }
+
+}
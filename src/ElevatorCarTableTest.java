@@ -0,0 +1,207 @@
+import java.time.LocalTime;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the ElevatorCarTable.
+ */
+class ElevatorCarTableTest {
+
+    /**
+     * Tests the estimated time of arrival of an idle car, of a car picking passengers up on its way and of a car that
+     * has to finish its sweep first, and that a full or shut down car cannot pick passengers up.
+     */
+    @Test
+    void testEstimateTimeToArrive() {
+        ElevatorCarTable cars = new ElevatorCarTable(1);
+        cars.setCapacity(1, 5);
+        cars.setFloor(1, 3);
+        assertEquals(4 * Elevator.TRAVEL_TIME, cars.estimateTimeToArrive(1, 7, FloorButton.UP, 1));
+
+        // going up from floor 3 to pick up passengers on floor 5 who want to go to floor 9, so its only stop is floor 5
+        HardwareDevice floorEvent = new HardwareDevice("Elevator1", LocalTime.NOON, 5, FloorButton.UP, 9, 2,
+                Fault.NO_FAULT);
+        cars.addFloorEvent(1, floorEvent, false);
+        cars.setFirstFloorEvent(1, floorEvent, false);
+        cars.setPassengers(1, 2);
+        assertEquals(Elevator.TRAVEL_TIME, cars.estimateTimeToArrive(1, 4, FloorButton.UP, 1));
+        assertEquals((2 + 2) * Elevator.TRAVEL_TIME + Elevator.STOP_TIME,
+                cars.estimateTimeToArrive(1, 7, FloorButton.UP, 1));
+        assertEquals((2 + 4) * Elevator.TRAVEL_TIME + Elevator.STOP_TIME,
+                cars.estimateTimeToArrive(1, 1, FloorButton.UP, 1));
+
+        // once the passengers have boarded, the only stop is floor 9, and the car sweeps up to it before turning around
+        cars.setDirection(1, FloorButton.UP);
+        cars.setFloor(1, 5);
+        cars.boardFloorEvent(1, floorEvent);
+        cars.setFirstFloorEvent(1, floorEvent, true);
+        assertEquals(2 * Elevator.TRAVEL_TIME, cars.estimateTimeToArrive(1, 7, FloorButton.UP, 1));
+        assertEquals((4 + 2) * Elevator.TRAVEL_TIME + Elevator.STOP_TIME,
+                cars.estimateTimeToArrive(1, 7, FloorButton.DOWN, 1));
+
+        assertEquals(Long.MAX_VALUE, cars.estimateTimeToArrive(1, 7, FloorButton.UP, 4));
+        cars.setShutDown(1, true);
+        assertEquals(Long.MAX_VALUE, cars.estimateTimeToArrive(1, 7, FloorButton.UP, 1));
+    }
+
+    /**
+     * Tests that the stops of every car are kept when a floor above every floor seen so far grows the bitmaps.
+     */
+    @Test
+    void testGrow() {
+        ElevatorCarTable cars = new ElevatorCarTable(2);
+        cars.addFloorEvent(1, new HardwareDevice("Elevator1", LocalTime.NOON, 2, FloorButton.UP, 40, 1,
+                Fault.NO_FAULT), false);
+        HardwareDevice first = new HardwareDevice("Elevator2", LocalTime.NOON, 199, FloorButton.DOWN, 130, 1,
+                Fault.NO_FAULT);
+        HardwareDevice second = new HardwareDevice("Elevator2", LocalTime.NOON, 199, FloorButton.DOWN, 70, 1,
+                Fault.NO_FAULT);
+        cars.addFloorEvent(2, first, true);
+        cars.addFloorEvent(2, second, true);
+        cars.setFirstFloorEvent(2, first, true);
+
+        BitSet plannedStops = new BitSet();
+        cars.addPlannedStops(1, plannedStops);
+        assertEquals("{2, 40}", plannedStops.toString());
+        plannedStops.clear();
+        cars.addPlannedStops(2, plannedStops);
+        assertEquals("{70, 130}", plannedStops.toString());
+
+        // going down from floor 199, stopping at floor 130 on the way to floor 100
+        cars.setCapacity(2, 5);
+        cars.setFloor(2, 199);
+        cars.setDirection(2, FloorButton.DOWN);
+        assertEquals(99 * Elevator.TRAVEL_TIME + Elevator.STOP_TIME,
+                cars.estimateTimeToArrive(2, 100, FloorButton.DOWN, 1));
+    }
+
+    /**
+     * Tests that the car with the earliest estimated time of arrival is selected, that ties go to the available car
+     * that became available first and then to the busy car that became busy first, and that no car is selected if none
+     * can pick the passengers up.
+     */
+    @Test
+    void testSelectEarliest() {
+        ElevatorCarTable cars = new ElevatorCarTable(3);
+        for (int id = 1; id <= 3; id++) {
+            cars.setCapacity(id, 5);
+            cars.setFloor(id, 1);
+        }
+        assertEquals(ElevatorRegistry.NO_ELEVATOR, cars.selectEarliest(4, FloorButton.UP, 1));
+
+        cars.setAvailable(3, false);
+        cars.setAvailable(2, true);
+        cars.setAvailable(1, true);
+        assertEquals(2, cars.selectEarliest(4, FloorButton.UP, 1));
+        cars.setFloor(3, 4);
+        assertEquals(3, cars.selectEarliest(4, FloorButton.UP, 1));
+
+        cars.remove(3);
+        cars.setAvailable(2, false);
+        assertEquals(1, cars.selectEarliest(4, FloorButton.UP, 1));
+        assertEquals(ElevatorRegistry.NO_ELEVATOR, cars.selectEarliest(4, FloorButton.UP, 6));
+    }
+
+    /**
+     * Tests that a stop shared by two floor events is kept until both are removed, and that it moves when the
+     * passengers of a floor event board.
+     */
+    @Test
+    void testRemoveFloorEvent() {
+        ElevatorCarTable cars = new ElevatorCarTable(1);
+        cars.setCapacity(1, 5);
+        cars.setFloor(1, 1);
+        HardwareDevice first = new HardwareDevice("Elevator1", LocalTime.NOON, 3, FloorButton.UP, 8, 1,
+                Fault.NO_FAULT);
+        HardwareDevice second = new HardwareDevice("Elevator1", LocalTime.NOON, 5, FloorButton.UP, 8, 1,
+                Fault.NO_FAULT);
+        cars.addFloorEvent(1, first, false);
+        cars.addFloorEvent(1, second, false);
+        BitSet plannedStops = new BitSet();
+        cars.addPlannedStops(1, plannedStops);
+        assertEquals("{3, 5, 8}", plannedStops.toString());
+
+        cars.boardFloorEvent(1, first);
+        plannedStops.clear();
+        cars.addPlannedStops(1, plannedStops);
+        assertEquals("{5, 8}", plannedStops.toString());
+
+        cars.removeFloorEvent(1, first, true);
+        plannedStops.clear();
+        cars.addPlannedStops(1, plannedStops);
+        assertEquals("{5, 8}", plannedStops.toString());
+
+        cars.removeFloorEvent(1, second, false);
+        plannedStops.clear();
+        cars.addPlannedStops(1, plannedStops);
+        assertTrue(plannedStops.isEmpty());
+        cars.setFirstFloorEvent(1, null, false);
+        assertEquals(3 * Elevator.TRAVEL_TIME, cars.estimateTimeToArrive(1, 4, FloorButton.UP, 1)); // idle again
+    }
+
+    /**
+     * Tests that one read of the car table gives the rank, the committed stops and the estimated time of arrival of
+     * every car that can be chosen, and leaves the cars that cannot be chosen alone.
+     */
+    @Test
+    void testReadDestinationDispatch() {
+        ElevatorCarTable cars = new ElevatorCarTable(2);
+        for (int id = 1; id <= 2; id++) {
+            cars.setCapacity(id, 5);
+            cars.setFloor(id, 1);
+        }
+        HardwareDevice floorEvent = new HardwareDevice("Elevator1", LocalTime.NOON, 3, FloorButton.UP, 8, 1,
+                Fault.NO_FAULT);
+        cars.addFloorEvent(1, floorEvent, false);
+        cars.setFirstFloorEvent(1, floorEvent, false);
+        cars.setAvailable(1, false);
+        cars.remove(2);
+        assertTrue(cars.canFit(1, 5));
+        assertFalse(cars.canFit(1, 6));
+
+        long[] ranks = new long[3];
+        long[] arrivals = {0, 0, 42};
+        BitSet[] plannedStops = {null, new BitSet(), new BitSet()};
+        plannedStops[1].set(20);
+        cars.readDestinationDispatch(2, FloorButton.UP, new int[] {0, 1, 1}, ranks, arrivals, plannedStops);
+        assertEquals(cars.getRank(1), ranks[1]);
+        assertEquals("{3, 8}", plannedStops[1].toString());
+        assertEquals(cars.estimateTimeToArrive(1, 2, FloorButton.UP, 1), arrivals[1]);
+        assertEquals(-1, ranks[2]);
+        assertEquals(42, arrivals[2]);
+        assertTrue(plannedStops[2].isEmpty());
+    }
+
+    /**
+     * Tests that the available and busy cars are counted as cars become available, busy and removed, and that the
+     * first available car and the busy cars come in the order they changed in.
+     */
+    @Test
+    void testAvailability() {
+        ElevatorCarTable cars = new ElevatorCarTable(3);
+        assertEquals(ElevatorRegistry.NO_ELEVATOR, cars.getFirstAvailable());
+        cars.setAvailable(3, true);
+        cars.setAvailable(1, true);
+        cars.setAvailable(2, true);
+        assertEquals(3, cars.getNumAvailable());
+        assertEquals(3, cars.getFirstAvailable());
+
+        cars.setAvailable(3, false);
+        cars.setAvailable(2, false);
+        assertEquals(1, cars.getNumAvailable());
+        assertEquals(2, cars.getNumBusy());
+        assertTrue(cars.isAvailable(1));
+        assertFalse(cars.isAvailable(2));
+        assertArrayEquals(new int[] {3, 2}, cars.getBusy());
+
+        cars.remove(3);
+        cars.remove(3);
+        assertEquals(1, cars.getNumBusy());
+        assertFalse(cars.isAvailable(3));
+        assertEquals(-1, cars.getRank(3));
+        assertArrayEquals(new int[] {2}, cars.getBusy());
+    }
+
+}
@@ -0,0 +1,217 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * A class to represent the changes to the elevator cars and requests that an ElevatorSystemView has not drawn yet.
+ * <p>
+ * Elevator threads record a change by overwriting the latest floor, status or destination of their elevator car and
+ * marking the car dirty, all without locking, so recording never waits for the view. The view takes the changes at its
+ * own pace: however many times an elevator car changed since the last time, the view sees it dirty once, with its
+ * latest state. Requests wait in a queue of a fixed capacity, and once it is full a new request drops the oldest one,
+ * so a view that falls behind never makes the Elevator threads hold on to more than that many requests.
+ */
+public class ElevatorChanges {
+
+    /**
+     * An integer representing the dirty flag of an elevator car whose floor or status changed.
+     */
+    public static final int FLOOR_CHANGED = 1;
+
+    /**
+     * An integer representing the dirty flag of an elevator car whose direction or destination floor changed.
+     */
+    public static final int DESTINATION_CHANGED = 2;
+
+    /**
+     * An integer representing the status of an elevator car without a fault.
+     */
+    public static final int NORMAL = 0;
+
+    /**
+     * An integer representing the status of an elevator car with a transient fault.
+     */
+    public static final int TRANSIENT_FAULT = 1;
+
+    /**
+     * An integer representing the status of an elevator car with a hard fault.
+     */
+    public static final int HARD_FAULT = 2;
+
+    /**
+     * An IntBinaryOperator that adds dirty flags to those already set.
+     */
+    private static final IntBinaryOperator SET_FLAGS = (flags, flag) -> flags | flag;
+
+    /**
+     * An array of FloorButtons representing every direction, indexed by ordinal.
+     */
+    private static final FloorButton[] DIRECTIONS = FloorButton.values();
+
+    /**
+     * An AtomicIntegerArray representing the dirty flags of each elevator car, indexed by elevator ID. Index 0 is
+     * unused.
+     */
+    private final AtomicIntegerArray dirty;
+
+    /**
+     * An AtomicIntegerArray representing the latest floor of each elevator car in its low 16 bits and its status above
+     * them, indexed by elevator ID. 0, if the elevator car has not recorded a floor.
+     */
+    private final AtomicIntegerArray floors;
+
+    /**
+     * An AtomicIntegerArray representing the latest destination floor of each elevator car in its low 16 bits and the
+     * ordinal of its direction plus one above them, indexed by elevator ID. 0, if the elevator car has no destination.
+     */
+    private final AtomicIntegerArray destinations;
+
+    /**
+     * An ArrayBlockingQueue of RequestLogEntries representing the requests recorded but not taken yet, oldest first.
+     */
+    private final ArrayBlockingQueue<RequestLogEntry> requests;
+
+    /**
+     * An AtomicLong representing the number of requests dropped because the queue was full.
+     */
+    private final AtomicLong numDroppedRequests = new AtomicLong();
+
+    /**
+     * Initializes an ElevatorChanges for the specified number of elevator cars, keeping as many requests as the request
+     * log of the ElevatorSystemUI.
+     *
+     * @param numElevators An integer representing the number of elevator cars, with IDs from 1.
+     */
+    public ElevatorChanges(int numElevators) {
+        this(numElevators, ElevatorSystemUI.REQUEST_LOG_CAPACITY);
+    }
+
+    /**
+     * Initializes an ElevatorChanges for the specified number of elevator cars, keeping the specified number of
+     * requests not taken yet.
+     *
+     * @param numElevators An integer representing the number of elevator cars, with IDs from 1.
+     * @param requestCapacity An integer representing the number of requests kept until they are taken, at least 1.
+     */
+    public ElevatorChanges(int numElevators, int requestCapacity) {
+        dirty = new AtomicIntegerArray(numElevators + 1);
+        floors = new AtomicIntegerArray(numElevators + 1);
+        destinations = new AtomicIntegerArray(numElevators + 1);
+        requests = new ArrayBlockingQueue<>(requestCapacity);
+    }
+
+    /**
+     * Records the current floor and status of the specified elevator car. Called by its Elevator thread.
+     *
+     * @param elevator An Elevator representing the elevator car.
+     */
+    public void recordFloor(Elevator elevator) {
+        int status = elevator.isHardFault() ? HARD_FAULT : elevator.isTransientFault() ? TRANSIENT_FAULT : NORMAL;
+        floors.set(elevator.getId(), status << 16 | elevator.getCurrentFloor() & 0xFFFF);
+        dirty.accumulateAndGet(elevator.getId(), FLOOR_CHANGED, SET_FLAGS); // after the state, so it is never missed
+    }
+
+    /**
+     * Records the direction and destination floor of the main floor event of the specified elevator car, if it has
+     * one. Called by its Elevator thread.
+     *
+     * @param elevator An Elevator representing the elevator car.
+     */
+    public void recordDestination(Elevator elevator) {
+        HardwareDevice floorEvent = elevator.getMainFloorEvent();
+        if (floorEvent == null) {
+            return;
+        }
+        FloorButton direction = floorEvent.getFloorButton();
+        destinations.set(elevator.getId(),
+                (direction == null ? 0 : direction.ordinal() + 1) << 16 | floorEvent.getCarButton() & 0xFFFF);
+        dirty.accumulateAndGet(elevator.getId(), DESTINATION_CHANGED, SET_FLAGS);
+    }
+
+    /**
+     * Records what the specified request is now, dropping the oldest request not taken yet if the queue is full. Called
+     * by the Elevator thread running the request, so the snapshot is never taken while the request changes.
+     *
+     * @param request A HardwareDevice representing the request.
+     */
+    public void recordRequest(HardwareDevice request) {
+        RequestLogEntry entry = new RequestLogEntry(request);
+        while (!requests.offer(entry)) {
+            if (requests.poll() != null) {
+                numDroppedRequests.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the dirty flags of the elevator car with the specified ID and clears them. The state read after this
+     * call is at least as new as the changes the flags are for.
+     *
+     * @param id An integer representing the ID of the elevator car.
+     * @return An integer representing FLOOR_CHANGED and DESTINATION_CHANGED, or'ed together. 0, if nothing changed.
+     */
+    public int takeChanges(int id) {
+        return dirty.get(id) == 0 ? 0 : dirty.getAndSet(id, 0);
+    }
+
+    /**
+     * Returns the latest floor recorded for the elevator car with the specified ID.
+     *
+     * @param id An integer representing the ID of the elevator car.
+     * @return An integer representing the floor. 0, if none has been recorded.
+     */
+    public int getFloor(int id) {
+        return floors.get(id) & 0xFFFF;
+    }
+
+    /**
+     * Returns the latest status recorded for the elevator car with the specified ID.
+     *
+     * @param id An integer representing the ID of the elevator car.
+     * @return An integer representing NORMAL, TRANSIENT_FAULT or HARD_FAULT.
+     */
+    public int getStatus(int id) {
+        return floors.get(id) >>> 16;
+    }
+
+    /**
+     * Returns the latest direction recorded for the elevator car with the specified ID.
+     *
+     * @param id An integer representing the ID of the elevator car.
+     * @return A FloorButton representing the direction. Null, if none has been recorded.
+     */
+    public FloorButton getDirection(int id) {
+        int direction = destinations.get(id) >>> 16;
+        return direction == 0 ? null : DIRECTIONS[direction - 1];
+    }
+
+    /**
+     * Returns the latest destination floor recorded for the elevator car with the specified ID.
+     *
+     * @param id An integer representing the ID of the elevator car.
+     * @return An integer representing the destination floor. 0, if none has been recorded.
+     */
+    public int getDestination(int id) {
+        return destinations.get(id) & 0xFFFF;
+    }
+
+    /**
+     * Removes and returns the oldest request recorded but not taken yet.
+     *
+     * @return A RequestLogEntry representing the request. Null, if there is none.
+     */
+    public RequestLogEntry pollRequest() {
+        return requests.poll();
+    }
+
+    /**
+     * Returns the number of requests dropped because they were not taken before the queue filled up.
+     *
+     * @return A long representing the number of requests dropped.
+     */
+    public long getDroppedRequestCount() {
+        return numDroppedRequests.get();
+    }
+
+}
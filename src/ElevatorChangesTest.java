@@ -0,0 +1,111 @@
+import java.time.LocalTime;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the ElevatorChanges.
+ */
+class ElevatorChangesTest {
+
+    /**
+     * A Scheduler to test the ElevatorChanges with.
+     */
+    private Scheduler scheduler;
+
+    /**
+     * An Elevator to record the changes of.
+     */
+    private Elevator elevator;
+
+    /**
+     * Instantiates a Scheduler with two Elevators before each test.
+     */
+    @BeforeEach
+    void setup() {
+        ArrayList<Integer> elevatorPortNumbers = new ArrayList<>();
+        elevatorPortNumbers.add(0);
+        elevatorPortNumbers.add(0);
+        scheduler = new Scheduler(elevatorPortNumbers);
+        elevator = scheduler.getElevator(2);
+    }
+
+    /**
+     * Closes the Scheduler sockets after each test.
+     */
+    @AfterEach
+    void cleanup() {
+        scheduler.closeSendReceiveSocket();
+    }
+
+    /**
+     * Tests that many changes to an elevator car are taken once, with its latest state, and only for that elevator car.
+     */
+    @Test
+    void testChangesAreCoalesced() {
+        ElevatorChanges changes = new ElevatorChanges(2);
+        assertEquals(0, changes.takeChanges(2));
+        assertNull(changes.getDirection(2));
+
+        changes.recordFloor(elevator);
+        elevator.setTransientFault(true);
+        changes.recordFloor(elevator);
+        elevator.setMainFloorEvent(new HardwareDevice("Elevator2", LocalTime.NOON, 3, FloorButton.DOWN, 1, 1,
+                Fault.NO_FAULT));
+        changes.recordDestination(elevator);
+
+        assertEquals(0, changes.takeChanges(1));
+        assertEquals(ElevatorChanges.FLOOR_CHANGED | ElevatorChanges.DESTINATION_CHANGED, changes.takeChanges(2));
+        assertEquals(0, changes.takeChanges(2));
+        assertEquals(elevator.getCurrentFloor(), changes.getFloor(2));
+        assertEquals(ElevatorChanges.TRANSIENT_FAULT, changes.getStatus(2));
+        assertEquals(FloorButton.DOWN, changes.getDirection(2));
+        assertEquals(1, changes.getDestination(2));
+
+        elevator.setHardFault(true);
+        changes.recordFloor(elevator);
+        assertEquals(ElevatorChanges.FLOOR_CHANGED, changes.takeChanges(2));
+        assertEquals(ElevatorChanges.HARD_FAULT, changes.getStatus(2));
+    }
+
+    /**
+     * Tests that requests are taken in the order they were recorded, as they were when they were recorded.
+     */
+    @Test
+    void testRequests() {
+        ElevatorChanges changes = new ElevatorChanges(1);
+        HardwareDevice first = new HardwareDevice("Elevator1", LocalTime.NOON, 3, FloorButton.UP, 5, 1, Fault.NO_FAULT);
+        HardwareDevice second = new HardwareDevice("Elevator1", LocalTime.NOON, 7, FloorButton.DOWN, 2, 1,
+                Fault.NO_FAULT);
+        changes.recordRequest(first);
+        changes.recordRequest(second);
+        String recorded = first.toString();
+        first.setElevatorId(2);
+        first.setArrived();
+
+        RequestLogEntry entry = changes.pollRequest();
+        assertEquals(recorded, entry.toString());
+        assertEquals(1, entry.getElevatorId());
+        assertEquals(second.toString(), changes.pollRequest().toString());
+        assertNull(changes.pollRequest());
+    }
+
+    /**
+     * Tests that a full queue drops the oldest requests, and counts them.
+     */
+    @Test
+    void testRequestCapacity() {
+        ElevatorChanges changes = new ElevatorChanges(1, 2);
+        HardwareDevice[] requests = new HardwareDevice[5];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = new HardwareDevice("Elevator1", LocalTime.NOON, i + 1, FloorButton.UP, 9, 1, Fault.NO_FAULT);
+            changes.recordRequest(requests[i]);
+        }
+        assertEquals(3, changes.getDroppedRequestCount());
+        assertEquals(4, changes.pollRequest().getFloor());
+        assertEquals(5, changes.pollRequest().getFloor());
+        assertNull(changes.pollRequest());
+    }
+
+}
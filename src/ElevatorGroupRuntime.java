@@ -0,0 +1,231 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A class to represent many independent elevator groups running in one JVM, e.g. the low-rise, high-rise, parking and
+ * service banks of a campus.
+ * <p>
+ * Each ElevatorBank is a shard: its own Scheduler, with its own elevator cars, Floor, SimulationClock, EventJournal,
+ * InProcessNetwork, AsyncLogWriter and floor events to handle. The event loop of its Scheduler, its Floor and its
+ * Elevators all run on virtual threads of the executor of the bank, so a campus of thousands of elevator cars needs
+ * neither a socket nor an OS thread per car, and a bank is started and shut down on its own. The Workload is read
+ * once, by the BankRouter in front, which puts each hall call in the queue of the bank that serves it, so the shards
+ * share no lock and no queue once they are running, and a campus runs as fast as its busiest bank.
+ */
+public class ElevatorGroupRuntime {
+
+    /**
+     * A BankRouter representing the router that decides which bank serves each hall call.
+     */
+    private final BankRouter router;
+
+    /**
+     * An array of Schedulers representing the Scheduler of each bank, indexed like the banks of the BankRouter.
+     */
+    private final Scheduler[] schedulers;
+
+    /**
+     * An array of integers representing the number of hall calls routed to each bank.
+     */
+    private final int[] numHallCalls;
+
+    /**
+     * An integer representing the number of hall calls no bank serves, which are left out.
+     */
+    private final int numUnroutable;
+
+    /**
+     * An array of ExecutorServices representing the executor each bank runs its Scheduler, Floor and Elevators on,
+     * indexed like the banks of the BankRouter.
+     */
+    private final ExecutorService[] executors;
+
+    /**
+     * A List of Futures representing the event loop of each running Scheduler.
+     */
+    private final List<Future<?>> eventLoops = new ArrayList<>();
+
+    /**
+     * Initializes an ElevatorGroupRuntime, with a Scheduler and elevator cars for every bank at least one hall call is
+     * routed to.
+     *
+     * @param banks A List of ElevatorBanks representing the banks, in the order hall calls are routed to them.
+     * @param workload A Workload representing the hall calls of every bank, read once, before any bank starts.
+     * @param virtualTime True, if every bank runs in virtual time. False, if in real time.
+     * @param speedUp A double representing how many times faster than real time the banks run, in real time.
+     * @param seed A long representing the seed of the simulation. Each bank is seeded with the seed plus its index.
+     * @param dispatchMode A DispatchMode representing how each bank assigns floor events to its elevator cars.
+     * @param journalDirectory A Path representing the directory the EventJournal of each bank is kept in, in a
+     *                         directory named after the bank. Null, to record nothing.
+     * @throws IOException If the hall calls could not be read, or an EventJournal or a Transport could not be opened.
+     */
+    public ElevatorGroupRuntime(List<ElevatorBank> banks, Workload workload, boolean virtualTime, double speedUp,
+                                long seed, DispatchMode dispatchMode, Path journalDirectory) throws IOException {
+        router = new BankRouter(banks);
+        schedulers = new Scheduler[banks.size()];
+        executors = new ExecutorService[banks.size()];
+        numHallCalls = new int[banks.size()];
+
+        // route every hall call to the queue of its bank, so each Scheduler knows how many it will be receiving
+        BankWorkload[] queues = new BankWorkload[banks.size()];
+        Arrays.setAll(queues, i -> new BankWorkload());
+        numUnroutable = router.route(workload, queues);
+
+        for (int i = 0; i < banks.size(); i++) {
+            ElevatorBank bank = banks.get(i);
+            numHallCalls[i] = queues[i].size();
+            SimulationClock clock = virtualTime ? new VirtualClock(seed + i) : new RealTimeClock(speedUp, seed + i);
+            EventJournal journal = journalDirectory == null ? EventJournal.DISABLED
+                    : new EventJournal(journalDirectory.resolve(bank.getName()), clock,
+                    EventJournal.DEFAULT_RECORDS_PER_SEGMENT);
+            ArrayList<Integer> portNumbers = new ArrayList<>();
+            for (int j = 0; j < bank.getNumElevators(); j++) {
+                portNumbers.add(0); // every endpoint of an InProcessNetwork gets a port of its own
+            }
+            executors[i] = Executors.newVirtualThreadPerTaskExecutor();
+            try {
+                schedulers[i] = new Scheduler(portNumbers, clock, dispatchMode, journal, queues[i],
+                        new InProcessNetwork(), executors[i], new AsyncLogWriter(bank.getName()));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Starts the event loop of the Scheduler of every bank on the executor of the bank.
+     */
+    public void start() {
+        for (int i = 0; i < schedulers.length; i++) {
+            eventLoops.add(schedulers[i].start("Scheduler-" + router.getBanks().get(i).getName(), schedulers[i]));
+        }
+    }
+
+    /**
+     * Waits until every bank has handled all of its floor events, or stopped. A bank that fails stops on its own, so
+     * the other banks keep running until they are done.
+     *
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     * @throws ExecutionException If the event loop of a Scheduler failed, a Scheduler or one of its Elevators stopped
+     *                            on an IOException, or the Floor of a bank could not send every hall call. The failures
+     *                            of any other bank are suppressed by it.
+     */
+    public void awaitCompletion() throws InterruptedException, ExecutionException {
+        ExecutionException failure = null;
+        for (int i = 0; i < eventLoops.size(); i++) {
+            String name = router.getBanks().get(i).getName();
+            ExecutionException bankFailure = null;
+            try {
+                eventLoops.get(i).get();
+            } catch (ExecutionException e) {
+                bankFailure = e;
+            }
+            if (bankFailure == null && schedulers[i].getFailure() != null) {
+                bankFailure = new ExecutionException("The Scheduler of " + name + " stopped.",
+                        schedulers[i].getFailure());
+            }
+            if (bankFailure == null && schedulers[i].getFloorFailure() != null) {
+                bankFailure = new ExecutionException("The Floor of " + name + " could not send every hall call.",
+                        schedulers[i].getFloorFailure());
+            }
+            if (failure == null) {
+                failure = bankFailure;
+            } else if (bankFailure != null) {
+                failure.addSuppressed(bankFailure);
+            }
+        }
+        Arrays.stream(executors).forEach(ExecutorService::shutdown);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns the Scheduler of the bank with the specified index.
+     *
+     * @param bank An integer representing the index of the bank.
+     * @return A Scheduler representing the Scheduler of the bank.
+     */
+    public Scheduler getScheduler(int bank) {
+        return schedulers[bank];
+    }
+
+    /**
+     * Returns the number of hall calls routed to the bank with the specified index.
+     *
+     * @param bank An integer representing the index of the bank.
+     * @return An integer representing the number of hall calls routed to the bank.
+     */
+    public int getNumHallCalls(int bank) {
+        return numHallCalls[bank];
+    }
+
+    /**
+     * Returns the number of hall calls no bank serves.
+     *
+     * @return An integer representing the number of hall calls left out.
+     */
+    public int getNumUnroutable() {
+        return numUnroutable;
+    }
+
+    /**
+     * Returns the BankRouter that decides which bank serves each hall call.
+     *
+     * @return A BankRouter representing the router.
+     */
+    public BankRouter getRouter() {
+        return router;
+    }
+
+    /**
+     * Returns a String representing the number of hall calls and the wait, ride and journey times of each bank and of
+     * the whole campus, one per line.
+     *
+     * @return A String representing the hall calls and times of every bank.
+     */
+    @Override
+    public String toString() {
+        LatencyHistogram waitTimes = new LatencyHistogram();
+        LatencyHistogram rideTimes = new LatencyHistogram();
+        LatencyHistogram journeyTimes = new LatencyHistogram();
+        StringBuilder report = new StringBuilder();
+        for (int i = 0; i < schedulers.length; i++) {
+            report.append(router.getBanks().get(i)).append(": ").append(numHallCalls[i]).append(" hall call(s)")
+                    .append(System.lineSeparator());
+            RequestLatencies latencies = schedulers[i].getLatencies();
+            appendLine(report, "wait", latencies.getWaitTimes());
+            appendLine(report, "ride", latencies.getRideTimes());
+            appendLine(report, "journey", latencies.getJourneyTimes());
+            waitTimes.add(latencies.getWaitTimes());
+            rideTimes.add(latencies.getRideTimes());
+            journeyTimes.add(latencies.getJourneyTimes());
+        }
+        report.append("All banks: ").append(numUnroutable).append(" hall call(s) no bank serves")
+                .append(System.lineSeparator());
+        appendLine(report, "wait", waitTimes);
+        appendLine(report, "ride", rideTimes);
+        appendLine(report, "journey", journeyTimes);
+        return report.toString();
+    }
+
+    /**
+     * Appends a line representing the specified LatencyHistogram to the specified report.
+     *
+     * @param report A StringBuilder representing the report.
+     * @param time A String representing which time it is.
+     * @param histogram A LatencyHistogram representing the times.
+     */
+    private static void appendLine(StringBuilder report, String time, LatencyHistogram histogram) {
+        report.append(String.format("  %-8s %s ms%n", time, histogram));
+    }
+
+}
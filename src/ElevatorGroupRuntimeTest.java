@@ -0,0 +1,108 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the ElevatorGroupRuntime, its BankRouter and the ElevatorBanks it runs.
+ */
+class ElevatorGroupRuntimeTest {
+
+    /**
+     * A Path representing a temporary directory to write input files to.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that elevator banks are read from a file, and that each hall call is routed to the queue of the first bank
+     * that serves both of its floors.
+     */
+    @Test
+    void testRouting() throws IOException {
+        Path banksFile = directory.resolve("banks.txt");
+        Files.write(banksFile, List.of("# name lobby lowest highest cars", "low 1 2 10 2", "", "high 1 11 20 2",
+                "service 1 2 20 1"));
+        List<ElevatorBank> banks = ElevatorBank.readBanks(banksFile);
+        assertEquals(3, banks.size());
+        assertEquals("high", banks.get(1).getName());
+        assertTrue(banks.get(1).serves(1));
+        assertFalse(banks.get(1).serves(10));
+
+        BankRouter router = new BankRouter(banks);
+        assertEquals(0, router.route(hallCall(1, 10)));
+        assertEquals(1, router.route(hallCall(15, 1)));
+        assertEquals(2, router.route(hallCall(5, 15))); // only the service bank serves both floors
+        assertEquals(BankRouter.NO_BANK, router.route(hallCall(5, 25)));
+
+        // the hall calls of a Workload are read once and queued for their banks, in the order they are released
+        BankWorkload workload = new BankWorkload();
+        workload.add(hallCall(1, 10), 0);
+        workload.add(hallCall(5, 25), 10);
+        workload.add(hallCall(15, 1), 20);
+        workload.add(hallCall(2, 3), 30);
+        BankWorkload[] queues = {new BankWorkload(), new BankWorkload(), new BankWorkload()};
+        assertEquals(1, router.route(workload, queues));
+        assertEquals(2, queues[0].size());
+        assertEquals(1, queues[1].size());
+        assertEquals(0, queues[2].size());
+        assertTrue(queues[0].next());
+        assertEquals(10, queues[0].getFloorEvent().getCarButton());
+        assertTrue(queues[0].next());
+        assertEquals(3, queues[0].getFloorEvent().getCarButton());
+        assertEquals(30, queues[0].getReleaseTime());
+        assertFalse(queues[0].next());
+
+        Files.write(banksFile, List.of("low 1 2"));
+        assertThrows(IllegalArgumentException.class, () -> ElevatorBank.readBanks(banksFile));
+    }
+
+    /**
+     * Tests that every bank handles the hall calls routed to it on its own Scheduler, that a bank with no hall calls is
+     * not started, and that hall calls no bank serves are left out.
+     */
+    @Test
+    void testRun() throws Exception {
+        Path inputFile = directory.resolve("input.txt");
+        Files.write(inputFile, List.of(
+                "14:05:15:00 1 up 5 1 No fault",
+                "14:05:16:00 3 up 8 2 No fault",
+                "14:05:17:00 1 up 14 1 No fault",
+                "14:05:18:00 5 up 30 1 No fault"));
+        List<ElevatorBank> banks = List.of(new ElevatorBank("low", 1, 2, 10, 1), new ElevatorBank("high", 1, 11, 20, 2),
+                new ElevatorBank("parking", 21, 22, 23, 1));
+        ElevatorGroupRuntime runtime = new ElevatorGroupRuntime(banks, new InputFileWorkload(inputFile, 1), true, 1, 42,
+                DispatchMode.COLLECTIVE_CONTROL, null);
+        runtime.start();
+        runtime.awaitCompletion();
+
+        assertEquals(2, runtime.getNumHallCalls(0));
+        assertEquals(1, runtime.getNumHallCalls(1));
+        assertEquals(0, runtime.getNumHallCalls(2));
+        assertEquals(1, runtime.getNumUnroutable());
+        assertEquals(2, runtime.getScheduler(0).getLatencies().getJourneyTimes().getCount());
+        assertEquals(1, runtime.getScheduler(1).getLatencies().getJourneyTimes().getCount());
+        assertEquals(2, runtime.getScheduler(1).getAllElevators().size());
+        assertEquals(0, runtime.getScheduler(2).getLatencies().getJourneyTimes().getCount());
+        assertNotSame(runtime.getScheduler(0).getClock(), runtime.getScheduler(1).getClock());
+        assertTrue(runtime.toString().contains("high (lobby 1, floors 11-20, 2 cars): 1 hall call(s)"));
+    }
+
+    /**
+     * Returns a hall call from the specified floor to the specified floor.
+     *
+     * @param floor An integer representing the floor of the hall call.
+     * @param carButton An integer representing the destination floor.
+     * @return A HardwareDevice representing the hall call.
+     */
+    private static HardwareDevice hallCall(int floor, int carButton) {
+        return new HardwareDevice("Elevator?", LocalTime.NOON, floor, carButton > floor ? FloorButton.UP
+                : FloorButton.DOWN, carButton, 1, Fault.NO_FAULT);
+    }
+
+}
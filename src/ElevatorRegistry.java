@@ -0,0 +1,160 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * A class to represent the elevator cars of the ElevatorSystem, indexed by their IDs.
+ * <p>
+ * Elevator IDs are dense and start at 1, so looking up an Elevator, its task or its port is an array access. ID 0,
+ * NO_ELEVATOR, stands for a floor event that has not been assigned to an elevator car yet. The name of an Elevator,
+ * e.g. "Elevator3", is only worked out from its ID for logging and display.
+ */
+public class ElevatorRegistry {
+
+    /**
+     * An integer representing the ID of no elevator car.
+     */
+    public static final int NO_ELEVATOR = 0;
+
+    /**
+     * A String representing the name prefix of every Elevator.
+     */
+    private static final String NAME_PREFIX = "Elevator";
+
+    /**
+     * A String representing the name of no elevator car.
+     */
+    private static final String UNASSIGNED_NAME = "Elevator?";
+
+    /**
+     * An array of Elevators indexed by ID. Index 0 is not used.
+     */
+    private final Elevator[] elevators;
+
+    /**
+     * An array of Futures representing the Elevators running on the executor of the Scheduler, indexed by ID. Index 0
+     * is not used.
+     */
+    private final Future<?>[] tasks;
+
+    /**
+     * An array of integers representing the port numbers the Elevators receive messages on, indexed by ID. Index 0 is
+     * not used.
+     */
+    private final int[] ports;
+
+    /**
+     * An integer representing the number of Elevators registered, which is also the highest ID registered.
+     */
+    private int size = 0;
+
+    /**
+     * Initializes an empty ElevatorRegistry.
+     *
+     * @param capacity An integer representing the number of Elevators that can be registered.
+     */
+    public ElevatorRegistry(int capacity) {
+        elevators = new Elevator[capacity + 1];
+        tasks = new Future<?>[capacity + 1];
+        ports = new int[capacity + 1];
+    }
+
+    /**
+     * Registers the specified Elevator and the task running it. Elevators must be registered in order of ID.
+     *
+     * @param elevator An Elevator to register.
+     * @param task A Future representing the specified Elevator running on the executor of the Scheduler.
+     * @throws IllegalArgumentException If the Elevator does not have the next ID, or the registry is full.
+     */
+    public void register(Elevator elevator, Future<?> task) {
+        int id = elevator.getId();
+        if (id != size + 1 || id >= elevators.length) {
+            throw new IllegalArgumentException("Cannot register " + elevator.getName() + " after " + size
+                    + " of " + (elevators.length - 1) + " elevator(s).");
+        }
+        elevators[id] = elevator;
+        tasks[id] = task;
+        ports[id] = elevator.getPort();
+        size = id;
+    }
+
+    /**
+     * Returns the Elevator with the specified ID.
+     *
+     * @param id An integer representing the ID of the Elevator.
+     * @return An Elevator with the specified ID. Null, if no Elevator has the specified ID.
+     */
+    public Elevator getElevator(int id) {
+        return id > NO_ELEVATOR && id <= size ? elevators[id] : null;
+    }
+
+    /**
+     * Returns the task running the Elevator with the specified ID, which is cancelled to interrupt the Elevator.
+     *
+     * @param id An integer representing the ID of the Elevator.
+     * @return A Future representing the Elevator with the specified ID running on the executor of the Scheduler. Null,
+     * if no Elevator has the specified ID.
+     */
+    public Future<?> getTask(int id) {
+        return id > NO_ELEVATOR && id <= size ? tasks[id] : null;
+    }
+
+    /**
+     * Returns the port number the Elevator with the specified ID receives messages on.
+     *
+     * @param id An integer representing the ID of the Elevator.
+     * @return An integer representing the port number. -1, if no Elevator has the specified ID.
+     */
+    public int getPort(int id) {
+        return id > NO_ELEVATOR && id <= size ? ports[id] : -1;
+    }
+
+    /**
+     * Returns the number of Elevators registered.
+     *
+     * @return An integer representing the number of Elevators registered.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns every Elevator registered, in order of ID.
+     *
+     * @return An unmodifiable List of Elevators registered.
+     */
+    public List<Elevator> getElevators() {
+        return Collections.unmodifiableList(Arrays.asList(elevators).subList(1, size + 1));
+    }
+
+    /**
+     * Returns the name of the Elevator with the specified ID, e.g. "Elevator3" for 3.
+     *
+     * @param id An integer representing the ID of an Elevator.
+     * @return A String representing the name of the Elevator. "Elevator?", if the ID is NO_ELEVATOR.
+     */
+    public static String nameOf(int id) {
+        return id == NO_ELEVATOR ? UNASSIGNED_NAME : NAME_PREFIX + id;
+    }
+
+    /**
+     * Returns the ID of the Elevator with the specified name, e.g. 3 for "Elevator3".
+     *
+     * @param name A String representing the name of an Elevator.
+     * @return An integer representing the ID of the Elevator. NO_ELEVATOR, if the name does not end with a number.
+     */
+    public static int idOf(String name) {
+        if (name == null) {
+            return NO_ELEVATOR;
+        }
+        int id = 0;
+        int multiplier = 1;
+        for (int i = name.length() - 1; i >= 0 && Character.isDigit(name.charAt(i)); i--) {
+            id += (name.charAt(i) - '0') * multiplier;
+            multiplier *= 10;
+        }
+        return id;
+    }
+
+}
@@ -0,0 +1,35 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the ElevatorRegistry.
+ */
+class ElevatorRegistryTest {
+
+    /**
+     * Tests converting between the names and IDs of elevators.
+     */
+    @Test
+    void testNameAndId() {
+        assertEquals("Elevator3", ElevatorRegistry.nameOf(3));
+        assertEquals("Elevator?", ElevatorRegistry.nameOf(ElevatorRegistry.NO_ELEVATOR));
+        assertEquals(64, ElevatorRegistry.idOf("Elevator64"));
+        assertEquals(1, ElevatorRegistry.idOf("E1"));
+        assertEquals(ElevatorRegistry.NO_ELEVATOR, ElevatorRegistry.idOf("Elevator?"));
+        assertEquals(ElevatorRegistry.NO_ELEVATOR, ElevatorRegistry.idOf(null));
+    }
+
+    /**
+     * Tests that an empty registry has no elevators to look up.
+     */
+    @Test
+    void testEmptyRegistry() {
+        ElevatorRegistry registry = new ElevatorRegistry(4);
+        assertEquals(0, registry.size());
+        assertTrue(registry.getElevators().isEmpty());
+        assertNull(registry.getElevator(1));
+        assertNull(registry.getTask(ElevatorRegistry.NO_ELEVATOR));
+        assertEquals(-1, registry.getPort(5));
+    }
+
+}
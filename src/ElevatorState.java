@@ -1,5 +1,8 @@
 /**
  * An interface to represent the states in the Elevator state machine.
+ * <p>
+ * States are stateless and shared by every Elevator. A state does not transition the state machine itself, it returns
+ * the name of the state to transition to, so the Elevator can drive the state machine in a loop.
  */
 public interface ElevatorState {
 
@@ -8,12 +11,8 @@ public interface ElevatorState {
      *
      * @param context An Elevator representing the context of the state machine.
      * @param mainFloorEvent A HardwareDevice representing the main floor event to execute.
+     * @return An ElevatorStateName representing the state to transition to. Null, if the Elevator has shut down.
      */
-    void handleRequest(Elevator context, HardwareDevice mainFloorEvent);
-
-    /**
-     * Returns a String representing the name of the ElevatorState.
-     */
-    String displayState();
+    ElevatorStateName handleRequest(Elevator context, HardwareDevice mainFloorEvent);
 
 }
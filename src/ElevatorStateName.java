@@ -0,0 +1,39 @@
+/**
+ * An enumerator to represent the names of the states in the Elevator state machine.
+ */
+public enum ElevatorStateName {
+
+    WAITING_FOR_ELEVATOR_REQUEST("WaitingForElevatorRequest"),
+    MOVING_BETWEEN_FLOORS("MovingBetweenFloors"),
+    REACHED_DESTINATION("ReachedDestination"),
+    DOORS_OPENING("DoorsOpening"),
+    DOORS_NOT_OPENING("DoorsNotOpening"),
+    DOORS_CLOSING("DoorsClosing"),
+    DOORS_NOT_CLOSING("DoorsNotClosing"),
+    NOTIFY_SCHEDULER("NotifyingScheduler");
+
+    /**
+     * A String representing the name of the state displayed in logs.
+     */
+    private final String displayName;
+
+    /**
+     * Initializes an ElevatorStateName.
+     *
+     * @param displayName A String representing the name of the state displayed in logs.
+     */
+    ElevatorStateName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns a String representing the name of the state displayed in logs.
+     *
+     * @return A String representing the name of the state displayed in logs.
+     */
+    @Override
+    public String toString() {
+        return displayName;
+    }
+
+}
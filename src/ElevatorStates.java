@@ -5,25 +5,25 @@
 class WaitingForElevatorRequest implements ElevatorState {
 
     @Override
-    public void handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
+    public ElevatorStateName handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
         Scheduler scheduler = context.getScheduler();
-        if (scheduler.getNumReqsHandled() <= scheduler.getNumReqs()) {
-            context.getFloorEvent(); // get a floor event from the Scheduler
-
-            // determine if the Elevator car is currently at the floor it was requested on or not
-            if (context.getCurrentFloor() == context.getMainFloorEvent().getFloor()) {
-                // Elevator car is currently on the floor it was requested on, open the doors
-                context.setState("DoorsOpening");
-            } else {
-                // Elevator car is not currently on the floor it was requested on, move to the floor it was requested on
-                context.setState("MovingBetweenFloors");
-            }
+        if (scheduler.getNumReqsHandled() > scheduler.getNumReqs()) {
+            return null; // every floor event has been handled
         }
-    }
 
-    @Override
-    public String displayState() {
-        return "WaitingForElevatorRequest";
+        context.getFloorEvent(); // get a floor event from the Scheduler
+        if (context.getMainFloorEvent() == null) {
+            return null; // the Elevator was shut down while waiting for a floor event
+        }
+
+        // determine if the Elevator car is currently at the floor it was requested on or not
+        if (context.getCurrentFloor() == context.getMainFloorEvent().getFloor()) {
+            // Elevator car is currently on the floor it was requested on, open the doors
+            return ElevatorStateName.DOORS_OPENING;
+        } else {
+            // Elevator car is not currently on the floor it was requested on, move to the floor it was requested on
+            return ElevatorStateName.MOVING_BETWEEN_FLOORS;
+        }
     }
 
 }
@@ -34,15 +34,16 @@ class WaitingForElevatorRequest implements ElevatorState {
 class DoorsOpening implements ElevatorState {
 
     @Override
-    public void handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
-        boolean fault = mainFloorEvent.getFault().toString().equals("Doors not opening");
+    public ElevatorStateName handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
+        if (!mainFloorEvent.getArrived()) {
+            context.boardMainFloorEvent(); // the doors are opening to let the passengers in
+        }
+        boolean fault = mainFloorEvent.getFault() == Fault.DOORS_NOT_OPENING;
+        if (!context.openOrCloseDoors(fault)) {
+            return null; // the Elevator has been shut down
+        }
         // if there's a fault transition to DoorsNotOpening, if not transition to DoorsClosing
-        context.openOrCloseDoors(fault, "DoorsNotOpening", "DoorsClosing");
-    }
-
-    @Override
-    public String displayState() {
-        return "DoorsOpening";
+        return fault ? ElevatorStateName.DOORS_NOT_OPENING : ElevatorStateName.DOORS_CLOSING;
     }
 
 }
@@ -53,14 +54,11 @@ class DoorsOpening implements ElevatorState {
 class DoorsNotOpening implements ElevatorState {
 
     @Override
-    public void handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
-        context.forceOpenOrCloseDoors(true); // force open the elevator car doors
-        context.setState("DoorsClosing");
-    }
-
-    @Override
-    public String displayState() {
-        return "DoorsNotOpening";
+    public ElevatorStateName handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
+        if (!context.forceOpenOrCloseDoors(true)) { // force open the elevator car doors
+            return null; // the Elevator has been shut down
+        }
+        return ElevatorStateName.DOORS_CLOSING;
     }
 }
 
@@ -70,17 +68,18 @@ class DoorsNotOpening implements ElevatorState {
 class DoorsClosing implements ElevatorState {
 
     @Override
-    public void handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
-        boolean fault = mainFloorEvent.getFault().toString().equals("Doors not closing");
+    public ElevatorStateName handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
+        boolean fault = mainFloorEvent.getFault() == Fault.DOORS_NOT_CLOSING;
+        if (!context.openOrCloseDoors(fault)) {
+            return null; // the Elevator has been shut down
+        }
         // if there's a fault transition to DoorsNotClosing, if not transition to MovingBetweenFloors or NotifyScheduler
         // depending on if the elevator has arrived at mainFloorEvent.carButton floor
-        context.openOrCloseDoors(fault, "DoorsNotClosing",
-                !mainFloorEvent.getArrived() ? "MovingBetweenFloors" : "NotifyScheduler");
-    }
-
-    @Override
-    public String displayState() {
-        return "DoorsClosing";
+        if (fault) {
+            return ElevatorStateName.DOORS_NOT_CLOSING;
+        }
+        return !mainFloorEvent.getArrived()
+                ? ElevatorStateName.MOVING_BETWEEN_FLOORS : ElevatorStateName.NOTIFY_SCHEDULER;
     }
 
 }
@@ -91,21 +90,18 @@ class DoorsClosing implements ElevatorState {
 class DoorsNotClosing implements ElevatorState {
 
     @Override
-    public void handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
-        context.forceOpenOrCloseDoors(false); // force close the elevator car doors
+    public ElevatorStateName handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
+        if (!context.forceOpenOrCloseDoors(false)) { // force close the elevator car doors
+            return null; // the Elevator has been shut down
+        }
         if (!mainFloorEvent.getArrived()) {
             // has not arrived at the carButton floor, continue travelling to the carButton floor
-            context.setState("MovingBetweenFloors");
+            return ElevatorStateName.MOVING_BETWEEN_FLOORS;
         } else {
             // has arrived at the carButton floor, notify Scheduler that the elevator has fulfilled mainFloorEvent
-            context.setState("NotifyScheduler");
+            return ElevatorStateName.NOTIFY_SCHEDULER;
         }
     }
-
-    @Override
-    public String displayState() {
-        return "DoorsNotClosing";
-    }
 }
 
 /**
@@ -114,23 +110,18 @@ class DoorsNotClosing implements ElevatorState {
 class ReachedDestination implements ElevatorState {
 
     @Override
-    public void handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
+    public ElevatorStateName handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
         mainFloorEvent.setArrived();
         if (context.getFloorEventsSize() > 1) {
             // the Elevator has picked up passengers on its way to its initial destination, must notify the Scheduler
             // that we have dropped the initial passenger off before executing the other floor events
             context.getView().updateElevator(context);
-            context.setState("NotifyScheduler");
+            return ElevatorStateName.NOTIFY_SCHEDULER;
         } else {
-            context.setState("DoorsOpening");
+            return ElevatorStateName.DOORS_OPENING;
         }
     }
 
-    @Override
-    public String displayState() {
-        return "ReachedDestination";
-    }
-
 }
 
 /**
@@ -140,21 +131,16 @@ class ReachedDestination implements ElevatorState {
 class NotifyScheduler implements ElevatorState {
 
     @Override
-    public void handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
+    public ElevatorStateName handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
         // notify the Scheduler that the request has been completed and check if the Elevator has picked up passengers
         // on its way to its initial destination
         if (context.moreFloorEventsToFulfill()) {
-            context.setState("MovingBetweenFloors"); // continue executing the rest of the floor events
+            return ElevatorStateName.MOVING_BETWEEN_FLOORS; // continue executing the rest of the floor events
         } else {
-            context.setState("WaitingForElevatorRequest"); // wait for a new floor event from Scheduler
+            return ElevatorStateName.WAITING_FOR_ELEVATOR_REQUEST; // wait for a new floor event from Scheduler
         }
     }
 
-    @Override
-    public String displayState() {
-        return "NotifyingScheduler";
-    }
-
 }
 
 /**
@@ -163,28 +149,31 @@ class NotifyScheduler implements ElevatorState {
 class MovingBetweenFloors implements ElevatorState {
 
     @Override
-    public void handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
+    public ElevatorStateName handleRequest(Elevator context, HardwareDevice mainFloorEvent) {
+        // sweep on to the closest stop ahead, the floor a passenger is waiting on or the floor a passenger in the
+        // elevator car wants to go to
+        mainFloorEvent = context.selectMainFloorEvent();
+
         // determine if a fault should occur or not
-        boolean fault = mainFloorEvent.getFault().toString().equals("Elevator stuck between floors");
+        boolean fault = mainFloorEvent.getFault() == Fault.ELEVATOR_STUCK;
 
-        // determine if the Elevator car is currently at the floor it was requested on or not
         int currentFloor = context.getCurrentFloor();
-        if (currentFloor == mainFloorEvent.getFloor()) {
-            // Elevator car is currently on the floor it was requested on
-            context.moveBetweenFloors(fault, "ReachedDestination", mainFloorEvent.getCarButton(),
-                    mainFloorEvent.getFloorButton());
-        } else {
-            // Elevator car is not currently on the floor it was requested on
-            FloorButton directionToMove = (currentFloor < mainFloorEvent.getFloor())
-                    ? FloorButton.UP : FloorButton.DOWN;
+        int stopFloor = context.getStopFloor(mainFloorEvent);
+        if (currentFloor != stopFloor) {
+            FloorButton directionToMove = (currentFloor < stopFloor) ? FloorButton.UP : FloorButton.DOWN;
             context.getView().updateFloor(context);
-            context.moveBetweenFloors(fault, "DoorsOpening", mainFloorEvent.getFloor(), directionToMove);
+            if (!context.moveBetweenFloors(fault, stopFloor, directionToMove)) {
+                return null; // the Elevator has been shut down
+            }
         }
-    }
 
-    @Override
-    public String displayState() {
-        return "MovingBetweenFloors";
+        // the elevator car may have stopped on the way to drop off a passenger it picked up
+        if (context.isBoarded(context.getMainFloorEvent())) {
+            return ElevatorStateName.REACHED_DESTINATION;
+        } else {
+            // Elevator car is on the floor it was requested on, open the doors to let the passengers in
+            return ElevatorStateName.DOORS_OPENING;
+        }
     }
 
 }
@@ -1,21 +1,292 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A class to test the ElevatorSystem.
+ * <p>
+ * Command-line options:
+ * <ul>
+ *     <li>--virtual-time: runs the ElevatorSystem in virtual time, as fast as the CPU allows.</li>
+ *     <li>--speed-up FACTOR: runs the ElevatorSystem FACTOR times faster than real time.</li>
+ *     <li>--seed SEED: seeds every random decision in the ElevatorSystem, so runs with the same seed are the
+ *     same.</li>
+ *     <li>--destination-dispatch: asks passengers for their destination floor when they call an elevator car and
+ *     groups passengers going to the same or nearby floors into the same elevator car.</li>
+ *     <li>--input FILE: reads the hall calls from FILE instead of iteration5_input_v1.txt.</li>
+ *     <li>--time-scale FACTOR: releases each hall call at its recorded time multiplied by FACTOR, counted from the
+ *     first hall call, e.g. 0.5 for twice as much traffic.</li>
+ *     <li>--journal DIR: records every hall call, dispatch decision, state transition, floor arrival and fault in an
+ *     EventJournal in the directory DIR, replacing any journal already there.</li>
+ *     <li>--replay DIR: replays the hall calls recorded in the EventJournal in the directory DIR, at the times and with
+ *     the faults they were recorded with, in virtual time. Once every floor event has been handled, prints how the
+ *     wait times, journey times and movements of the replay compare with those of the recorded run, and the wait,
+ *     ride and journey time percentiles of the replay. Combine with
+ *     --destination-dispatch to see what the other dispatch mode would have done with the same traffic.</li>
+ *     <li>--synthetic POPULATION: generates the hall calls of a working day in an office building with POPULATION
+ *     people, from the seed, instead of reading an input file.</li>
+ *     <li>--fault-rate RATE: gives each synthetic hall call a chance RATE of having a fault.</li>
+ *     <li>--write-workload FILE: writes the synthetic hall calls to the input file FILE and exits.</li>
+ *     <li>--floors N: shows a building with N floors, 22 by default, and generates synthetic hall calls for it.</li>
+ *     <li>--elevators N: runs N elevator cars, 5 by default. Elevator cars past the fifth receive on ports from
+ *     EXTRA_ELEVATOR_PORT.</li>
+ *     <li>--headless: runs without the ElevatorSystemUI, loading no Swing or AWT classes, and prints the wait, ride and
+ *     journey time percentiles once every floor event has been handled. Also the default if the java.awt.headless
+ *     system property is true.</li>
+ *     <li>--banks FILE: runs every ElevatorBank in FILE, one per line, e.g. "low-rise 1 2 15 4" for a bank of 4
+ *     elevator cars serving the lobby on floor 1 and floors 2 to 15, each with its own Scheduler, in an
+ *     ElevatorGroupRuntime. Runs headless, and prints the wait, ride and journey time percentiles of each bank once
+ *     every bank has handled its floor events. Synthetic hall calls are generated up to the highest floor of any
+ *     bank.</li>
+ *     <li>--monte-carlo REPLICAS: runs REPLICAS working days with synthetic hall calls, seeded with the seed plus the
+ *     number of the day, in a MonteCarloRunner without sockets, and prints the distribution of each key performance
+ *     indicator over them. Needs --synthetic POPULATION.</li>
+ *     <li>--parallelism N: runs N replicas of --monte-carlo at the same time, one per processor by default.</li>
+ * </ul>
  */
 public class ElevatorSystem {
 
+    /**
+     * An array of integers representing the port numbers the first elevator cars receive DatagramPackets on.
+     */
+    private static final int[] ELEVATOR_PORTS = {70, 64, 67, 69, 96};
+
+    /**
+     * An integer representing the port number the first elevator car past those in ELEVATOR_PORTS receives
+     * DatagramPackets on. The ones after it use the following port numbers.
+     */
+    public static final int EXTRA_ELEVATOR_PORT = 7000;
+
     public static void main(String[] args) {
+        boolean virtualTime = false;
+        double speedUp = 1;
+        long seed = System.nanoTime();
+        DispatchMode dispatchMode = DispatchMode.COLLECTIVE_CONTROL;
+        Path journalDirectory = null;
+        Path replayDirectory = null;
+        Path inputFile = Path.of(InputFileWorkload.DEFAULT_INPUT_FILE);
+        double timeScale = 1;
+        int population = 0;
+        double faultRate = 0;
+        Path workloadFile = null;
+        Path banksFile = null;
+        int numReplicas = 0;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        boolean headless = Boolean.getBoolean("java.awt.headless");
+        int numFloors = 22;
+        int numElevators = ELEVATOR_PORTS.length;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--virtual-time" -> virtualTime = true;
+                case "--speed-up" -> speedUp = Double.parseDouble(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--destination-dispatch" -> dispatchMode = DispatchMode.DESTINATION_DISPATCH;
+                case "--journal" -> journalDirectory = Path.of(args[++i]);
+                case "--replay" -> replayDirectory = Path.of(args[++i]);
+                case "--input" -> inputFile = Path.of(args[++i]);
+                case "--time-scale" -> timeScale = Double.parseDouble(args[++i]);
+                case "--synthetic" -> population = Integer.parseInt(args[++i]);
+                case "--fault-rate" -> faultRate = Double.parseDouble(args[++i]);
+                case "--write-workload" -> workloadFile = Path.of(args[++i]);
+                case "--floors" -> numFloors = Integer.parseInt(args[++i]);
+                case "--elevators" -> numElevators = Integer.parseInt(args[++i]);
+                case "--headless" -> headless = true;
+                case "--banks" -> banksFile = Path.of(args[++i]);
+                case "--monte-carlo" -> numReplicas = Integer.parseInt(args[++i]);
+                case "--parallelism" -> parallelism = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Unknown option " + args[i] + ".");
+                    System.exit(1);
+                }
+            }
+        }
+        if (workloadFile != null && population <= 0) {
+            System.err.println("--write-workload needs --synthetic POPULATION.");
+            System.exit(1);
+        }
+        if (numFloors < 2 || numElevators < 1) {
+            System.err.println("The building needs at least 2 floors and 1 elevator car.");
+            System.exit(1);
+        }
+        if (numReplicas > 0) {
+            if (population <= 0 || parallelism < 1) {
+                System.err.println("--monte-carlo needs --synthetic POPULATION and at least 1 thread.");
+                System.exit(1);
+            }
+            runMonteCarlo(numReplicas, parallelism, numFloors, numElevators, population, faultRate, dispatchMode,
+                    seed);
+            return;
+        }
+        if (banksFile != null) {
+            if (replayDirectory != null || workloadFile != null) {
+                System.err.println("--banks cannot be combined with --replay or --write-workload.");
+                System.exit(1);
+            }
+            runBanks(banksFile, virtualTime, speedUp, seed, dispatchMode, journalDirectory, inputFile, timeScale,
+                    population, faultRate);
+            return;
+        }
+        Workload workload;
+        if (population > 0) {
+            TrafficGenerator generator = TrafficGenerator.officeDay(seed, numFloors, population, faultRate);
+            if (workloadFile != null) {
+                try {
+                    generator.writeTo(workloadFile);
+                    System.out.println("Wrote " + generator.size() + " hall calls to " + workloadFile + ".");
+                    return;
+                } catch (IOException e) {
+                    System.err.println("Could not write the workload to " + workloadFile + ": " + e);
+                    System.exit(1);
+                }
+            }
+            workload = generator;
+        } else if (replayDirectory == null) {
+            workload = new InputFileWorkload(inputFile, timeScale);
+        } else {
+            virtualTime = true; // a replay has to run the same way every time
+            workload = null;
+            try {
+                workload = new JournalWorkload(replayDirectory);
+                if (journalDirectory == null) {
+                    journalDirectory = Files.createTempDirectory("replay"); // the replay is compared from its journal
+                }
+            } catch (IOException e) {
+                System.err.println("Could not read the journal in " + replayDirectory + ": " + e);
+                System.exit(1);
+            }
+        }
+        SimulationClock clock = virtualTime ? new VirtualClock(seed) : new RealTimeClock(speedUp, seed);
+        EventJournal journal = EventJournal.DISABLED;
+        if (journalDirectory != null) {
+            try {
+                journal = new EventJournal(journalDirectory, clock, EventJournal.DEFAULT_RECORDS_PER_SEGMENT);
+            } catch (IOException e) {
+                System.err.println("Could not open the journal in " + journalDirectory + ": " + e);
+                System.exit(1);
+            }
+        }
+
         ArrayList<Integer> elevatorPortNumbers = new ArrayList<>();
-        elevatorPortNumbers.add(70);
-        elevatorPortNumbers.add(64);
-        elevatorPortNumbers.add(67);
-        elevatorPortNumbers.add(69);
-        elevatorPortNumbers.add(96);
-        Scheduler scheduler = new Scheduler(elevatorPortNumbers);
+        for (int i = 0; i < numElevators; i++) {
+            elevatorPortNumbers.add(i < ELEVATOR_PORTS.length ? ELEVATOR_PORTS[i]
+                    : EXTRA_ELEVATOR_PORT + i - ELEVATOR_PORTS.length);
+        }
+        Scheduler scheduler = null;
+        try {
+            scheduler = new Scheduler(elevatorPortNumbers, clock, dispatchMode, journal, workload);
+        } catch (UncheckedIOException e) {
+            System.err.println(e.getMessage() + " " + e.getCause());
+            System.exit(1);
+        }
         Thread schedulerThread = new Thread(scheduler, "Scheduler");
-        new ElevatorSystemUI(5, 22, scheduler.getAllElevators());
+        if (!headless) {
+            new ElevatorSystemUI(numElevators, numFloors, scheduler.getAllElevators());
+        }
         schedulerThread.start();
+
+        if (replayDirectory == null && !headless) {
+            return; // the ElevatorSystemUI keeps showing the elevator cars once every floor event has been handled
+        }
+        try {
+            schedulerThread.join();
+            if (replayDirectory != null) {
+                System.out.println(RunKpis.fromJournal(replayDirectory).diff(RunKpis.fromJournal(journalDirectory)));
+            }
+            System.out.print(scheduler.getLatencies());
+        } catch (InterruptedException | IOException e) {
+            System.err.println("Could not compare the replay with the recorded run: " + e);
+        }
+        if (scheduler.getFailure() != null) {
+            System.err.println("The Scheduler stopped: " + scheduler.getFailure());
+            System.exit(1);
+        }
+        if (scheduler.getFloorFailure() != null) {
+            System.err.println("Could not send every hall call: " + scheduler.getFloorFailure());
+            System.exit(1);
+        }
+        if (headless) {
+            System.exit(0); // the Floor listener and shut down Elevators may still be waiting for messages
+        }
     }
-}
 
+    /**
+     * Runs the elevator banks in the specified file in an ElevatorGroupRuntime until every bank has handled its floor
+     * events, prints the wait, ride and journey times of each bank, and exits.
+     *
+     * @param banksFile A Path representing the file of ElevatorBanks.
+     * @param virtualTime True, if the banks run in virtual time. False, if in real time.
+     * @param speedUp A double representing how many times faster than real time the banks run, in real time.
+     * @param seed A long representing the seed of the simulation.
+     * @param dispatchMode A DispatchMode representing how each bank assigns floor events to its elevator cars.
+     * @param journalDirectory A Path representing the directory to keep the EventJournal of each bank in. Null, to
+     *                         record nothing.
+     * @param inputFile A Path representing the input file to read the hall calls from, if they are not synthetic.
+     * @param timeScale A double representing what the time between two hall calls in the input file is multiplied by.
+     * @param population An integer representing the number of people to generate synthetic hall calls for. 0, to read
+     *                   the input file instead.
+     * @param faultRate A double representing the chance of a synthetic hall call having a fault.
+     */
+    private static void runBanks(Path banksFile, boolean virtualTime, double speedUp, long seed,
+                                 DispatchMode dispatchMode, Path journalDirectory, Path inputFile, double timeScale,
+                                 int population, double faultRate) {
+        try {
+            List<ElevatorBank> banks = ElevatorBank.readBanks(banksFile);
+            if (banks.isEmpty()) {
+                throw new IllegalArgumentException("No elevator banks.");
+            }
+            int numFloors = banks.stream().mapToInt(ElevatorBank::getHighestFloor).max().getAsInt();
+            Workload workload = population > 0 ? TrafficGenerator.officeDay(seed, numFloors, population, faultRate)
+                    : new InputFileWorkload(inputFile, timeScale);
+            ElevatorGroupRuntime runtime = new ElevatorGroupRuntime(banks, workload, virtualTime, speedUp, seed,
+                    dispatchMode, journalDirectory);
+            runtime.start();
+            runtime.awaitCompletion();
+            System.out.print(runtime);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not run the elevator banks in " + banksFile + ": " + e);
+            System.exit(1);
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.exit(0); // the Floor listeners and Elevators of every bank may still be waiting for messages
+    }
+
+    /**
+     * Runs the specified number of replicas of a working day in a MonteCarloRunner, and prints the distribution of each
+     * key performance indicator over them. Logging is off, unless a log level is set.
+     *
+     * @param numReplicas An integer representing the number of replicas to run.
+     * @param parallelism An integer representing the number of replicas to run at the same time.
+     * @param numFloors An integer representing the number of floors in the building.
+     * @param numElevators An integer representing the number of elevator cars.
+     * @param population An integer representing the number of people working in the building.
+     * @param faultRate A double representing the chance of a synthetic hall call having a fault.
+     * @param dispatchMode A DispatchMode representing how floor events are assigned to elevator cars.
+     * @param seed A long representing the seed of the study.
+     */
+    private static void runMonteCarlo(int numReplicas, int parallelism, int numFloors, int numElevators,
+                                      int population, double faultRate, DispatchMode dispatchMode, long seed) {
+        // thousands of replicas would flood the logs
+        if (System.getProperty(ElevatorSystemLogger.LEVEL_PROPERTY) == null) {
+            System.setProperty(ElevatorSystemLogger.LEVEL_PROPERTY, "OFF");
+        }
+        MonteCarloRunner runner = new MonteCarloRunner(numFloors, numElevators, population, faultRate, dispatchMode,
+                seed);
+        long startTime = System.nanoTime();
+        try {
+            runner.run(numReplicas, parallelism);
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.out.printf("Ran %d replicas on %d threads in %d s.%n", numReplicas, parallelism,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startTime));
+        System.out.print(runner);
+    }
+}
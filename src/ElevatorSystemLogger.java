@@ -1,43 +1,145 @@
+import java.text.MessageFormat;
 import java.util.logging.*;
 
 /**
  * A class to log information regarding the ElevatorSystem.
+ * <p>
+ * Log messages are written to the console and to a log file named after the logger by its AsyncLogWriter, so logging
+ * never waits for I/O. The level is checked before anything else. A message with parameters, e.g.
+ * {@code info("Sending {0} to {1}.", floorEvent, name)}, is filled in on the writer thread, and a parameter that could
+ * change after it has been logged, like the floorEvent, is copied into the ring buffer of the AsyncLogWriter, so the
+ * message shows it as it was when it was logged. The level is INFO unless the elevatorsystem.log.level system property
+ * says otherwise.
  */
 public class ElevatorSystemLogger extends Logger {
 
     /**
-     * Initializes an ElevatorLogger.
+     * A String representing the system property the level of every ElevatorSystemLogger is read from.
+     */
+    public static final String LEVEL_PROPERTY = "elevatorsystem.log.level";
+
+    /**
+     * An AsyncLogWriter representing the background thread that writes the log messages.
+     */
+    private final AsyncLogWriter writer;
+
+    /**
+     * A LogFile representing the log file to write to.
+     */
+    private final AsyncLogWriter.LogFile logFile;
+
+    /**
+     * Initializes an ElevatorLogger that writes through the AsyncLogWriter shared by every ElevatorSystemLogger.
      *
      * @param name A String representing the name of the log file.
      */
     public ElevatorSystemLogger(String name) {
+        this(name, AsyncLogWriter.getInstance());
+    }
+
+    /**
+     * Initializes an ElevatorLogger that writes through the specified AsyncLogWriter.
+     *
+     * @param name A String representing the name of the log file.
+     * @param writer An AsyncLogWriter representing the background thread that writes the log messages.
+     */
+    public ElevatorSystemLogger(String name, AsyncLogWriter writer) {
         super(name, null);
+        this.writer = writer;
+        setUseParentHandlers(false); // every message goes through the AsyncLogWriter instead
         try {
-            // create a FileHandler for logging to a file
-            FileHandler fileHandler = new FileHandler(name + ".log");
-            addHandler(fileHandler);
-
-            // remove the default console handler to prevent duplicate log messages
-            setUseParentHandlers(false);
-
-            // create a ConsoleHandler for logging to the console
-            ConsoleHandler consoleHandler = new ConsoleHandler();
-            addHandler(consoleHandler);
-
-            // create a custom formatter to include second timing precision in the log messages
-            SimpleFormatter formatter = new SimpleFormatter() {
-                @Override
-                public synchronized String format(LogRecord record) {
-                    return String.format("[%1$tF %1$tT.%1$tL] [%2$s] %3$s%n",
-                            new java.util.Date(record.getMillis()), record.getLoggerName(),
-                            record.getMessage());
-                }
-            };
-            fileHandler.setFormatter(formatter);
-            consoleHandler.setFormatter(formatter);
-        } catch (Exception e) {
-            severe("Error occurred while creating log file " + name + ".");
+            setLevel(Level.parse(System.getProperty(LEVEL_PROPERTY, Level.INFO.getName())));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid log level " + System.getProperty(LEVEL_PROPERTY) + ", using INFO.");
+            setLevel(Level.INFO);
+        }
+        logFile = writer.openLogFile(name);
+    }
+
+    /**
+     * Logs a message with one parameter at the INFO level.
+     *
+     * @param pattern A String representing the message, with "{0}" where the parameter goes.
+     * @param param0 An Object representing the parameter.
+     */
+    public void info(String pattern, Object param0) {
+        if (isLoggable(Level.INFO)) {
+            writer.publish(logFile, getName(), pattern, 1, param0, null, null);
+        }
+    }
+
+    /**
+     * Logs a message with two parameters at the INFO level.
+     *
+     * @param pattern A String representing the message, with "{0}" and "{1}" where the parameters go.
+     * @param param0 An Object representing the first parameter.
+     * @param param1 An Object representing the second parameter.
+     */
+    public void info(String pattern, Object param0, Object param1) {
+        if (isLoggable(Level.INFO)) {
+            writer.publish(logFile, getName(), pattern, 2, param0, param1, null);
+        }
+    }
+
+    /**
+     * Logs a message with three parameters at the INFO level.
+     *
+     * @param pattern A String representing the message, with "{0}", "{1}" and "{2}" where the parameters go.
+     * @param param0 An Object representing the first parameter.
+     * @param param1 An Object representing the second parameter.
+     * @param param2 An Object representing the third parameter.
+     */
+    public void info(String pattern, Object param0, Object param1, Object param2) {
+        if (isLoggable(Level.INFO)) {
+            writer.publish(logFile, getName(), pattern, 3, param0, param1, param2);
+        }
+    }
+
+    @Override
+    public void log(Level level, String msg) {
+        if (isLoggable(level)) {
+            writer.publish(logFile, getName(), msg, 0, null, null, null);
+        }
+    }
+
+    @Override
+    public void log(Level level, String msg, Object param1) {
+        if (isLoggable(level)) {
+            writer.publish(logFile, getName(), msg, 1, param1, null, null);
+        }
+    }
+
+    @Override
+    public void log(Level level, String msg, Object[] params) {
+        if (isLoggable(level)) {
+            publish(msg, params);
+        }
+    }
+
+    @Override
+    public void log(LogRecord record) {
+        if (!isLoggable(record.getLevel())) {
+            return;
+        }
+        String msg = record.getThrown() == null ? record.getMessage() : record.getMessage() + " " + record.getThrown();
+        publish(msg, record.getParameters());
+    }
+
+    /**
+     * Publishes the specified message with the specified parameters to the AsyncLogWriter. A message with more
+     * parameters than an entry of the AsyncLogWriter holds is formatted straight away.
+     *
+     * @param msg A String representing the message, with "{0}", "{1}" and so on where the parameters go.
+     * @param params An array of Objects representing the parameters. Null, if there are none.
+     */
+    private void publish(String msg, Object[] params) {
+        int numParams = params == null ? 0 : params.length;
+        if (numParams > AsyncLogWriter.MAX_PARAMS) {
+            writer.publish(logFile, getName(), MessageFormat.format(msg, params), 0, null, null, null);
+            return;
         }
+        writer.publish(logFile, getName(), msg, numParams, numParams > 0 ? params[0] : null,
+                numParams > 1 ? params[1] : null, numParams > 2 ? params[2] : null);
     }
 
 }
@@ -0,0 +1,57 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.logging.Level;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the ElevatorSystemLogger.
+ */
+class ElevatorSystemLoggerTest {
+
+    /**
+     * Tests that messages are written to the log file in the order they were logged, with their parameters filled in
+     * as they were when logged, and that messages below the level of the logger are not written.
+     */
+    @Test
+    void testLog() throws IOException {
+        ElevatorSystemLogger logger = new ElevatorSystemLogger("ElevatorSystemLoggerTest");
+        logger.info("Plain message {0}");
+        logger.info("Sending {0} to {1}.", "ACK", "Elevator2");
+        logger.log(Level.INFO, "State: {0}", ElevatorStateName.DOORS_OPENING);
+        logger.fine("Not logged");
+        logger.log(Level.FINE, "Not logged {0}", new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("a message below the level of the logger must not be formatted");
+            }
+        });
+        logger.info("{0}, {1} and {2}", 1, 2, 3);
+        StringBuilder floorEvent = new StringBuilder("Elevator1");
+        logger.info("Sending {0} to Floor.", floorEvent);
+        floorEvent.replace(0, floorEvent.length(), "Elevator2"); // changed before the writer thread gets to it
+        HardwareDevice hallCall = new HardwareDevice("Elevator1", LocalTime.NOON, 1, FloorButton.UP, 5, 1,
+                Fault.NO_FAULT);
+        logger.info("Sending {0} to {1}.", hallCall, "Scheduler");
+        hallCall.setElevatorId(2); // the copy in the ring buffer keeps the elevator car it was logged with
+        assertTrue(AsyncLogWriter.getInstance().flush(5000));
+
+        List<String> lines = Files.readAllLines(Paths.get("ElevatorSystemLoggerTest.log"));
+        assertEquals(6, lines.size());
+        assertTrue(lines.get(0).matches("\\[\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3}] "
+                + "\\[ElevatorSystemLoggerTest] Plain message \\{0}"));
+        assertTrue(lines.get(1).endsWith("] Sending ACK to Elevator2."));
+        assertTrue(lines.get(2).endsWith("] State: DoorsOpening"));
+        assertTrue(lines.get(3).endsWith("] 1, 2 and 3"));
+        assertTrue(lines.get(4).endsWith("] Sending Elevator1 to Floor."));
+        assertTrue(lines.get(5).endsWith("] Sending {Elevator: Elevator1, Time: 12:00, Requested Floor: 1,"
+                + " Direction: UP, Car Button: 5, Number of Passengers: 1, Arrived: false, Fault: No fault,"
+                + " More Floor Events: false}"
+                + " to Scheduler."));
+    }
+
+}
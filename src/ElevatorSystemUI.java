@@ -1,12 +1,40 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionListener;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * A class that creates a user interface for the elevator system.
+ * <p>
+ * Elevator threads never touch Swing: they record their changes in an ElevatorChanges, which is as cheap as a few
+ * atomic writes, and the Event Dispatch Thread applies the latest state of every elevator car that changed FRAME_RATE
+ * times a second, so the user interface is redrawn at the same rate however fast the simulation runs. The request log
+ * keeps the latest REQUEST_LOG_CAPACITY requests, and so does the queue of requests waiting to be logged, so it can
+ * stay open for as long as the ElevatorSystem runs.
  */
-public class ElevatorSystemUI extends JFrame implements ElevatorSystemView {
+public class ElevatorSystemUI implements ElevatorSystemView {
+
+    /**
+     * An integer representing the number of times a second the changes are drawn.
+     */
+    public static final int FRAME_RATE = 30;
+
+    /**
+     * An integer representing the largest number of close ups in a row.
+     */
+    private static final int MAX_CLOSE_UPS_PER_ROW = 8;
+
+    /**
+     * An integer representing the number of requests the request log keeps.
+     */
+    public static final int REQUEST_LOG_CAPACITY = 10_000;
+
+    /**
+     * A String representing the filter choice that matches anything.
+     */
+    private static final String ANY = "All";
 
     /**
      * Integers representing the number of elevators and floors for the ElevatorSystem.
@@ -14,195 +42,235 @@ public class ElevatorSystemUI extends JFrame implements ElevatorSystemView {
     private final int numElevators, numFloors;
 
     /**
-     * A 2D array of JLabels representing the grid for the elevators and floors.
+     * An ElevatorChanges representing the changes the Elevator threads have recorded but have not been drawn yet.
      */
-    private final JLabel[][] grid;
+    private final ElevatorChanges changes;
 
     /**
-     * An ArrayList of JLabels of running elevators.
+     * A ShaftPanel that draws the floors and the elevators. Only used on the Event Dispatch Thread.
      */
-    private final ArrayList<JLabel> elevators;
+    private ShaftPanel buildingFloors;
 
     /**
-     * A JPanel that contains the floors and the elevators.
+     * An array of JLabels of running elevators, indexed by elevator ID. Index 0 is unused. Only used on the Event
+     * Dispatch Thread.
      */
-    private final JPanel buildingFloors;
+    private JLabel[] elevators;
 
     /**
-     * A JPanel that contains a more details about the elevator cars.
+     * A RequestLogModel for the request log. Only used on the Event Dispatch Thread.
      */
-    private final JPanel elevatorsCloseUp;
+    private RequestLogModel listRequest;
 
     /**
-     * A DefaultListModel of HardwareDevices for the request log.
+     * A JLabel showing the counters of the request log. Only used on the Event Dispatch Thread.
      */
-    private final DefaultListModel<HardwareDevice> listRequest;
+    private JLabel requestSummary;
 
     /**
-     * Initializes an ElevatorSystemUI.
+     * Initializes an ElevatorSystemUI and shows it once the Event Dispatch Thread gets to it.
      *
      * @param numElevators An integer representing the number of elevators.
      * @param numFloors  An integer representing the number of floors.
      * @param elevatorList A List of Elevators to run.
      */
     public ElevatorSystemUI(int numElevators, int numFloors, List<Elevator> elevatorList) {
-        super("Elevator System");
         this.numElevators = numElevators;
         this.numFloors = numFloors;
+        changes = new ElevatorChanges(numElevators);
 
-        elevators = new ArrayList<>();
-
-        setElevators(); // sets the JLabels of the elevators
-
-        // adds views to the elevators
+        // adds views to the elevators, drawn at their starting floors
         for (Elevator e : elevatorList) {
             e.setView(this);
+            changes.recordFloor(e);
         }
 
-        // sets the width and height of the UI
-        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-        int width = (int) screenSize.getWidth();
-        int height = (int) screenSize.getHeight();
+        SwingUtilities.invokeLater(this::createFrame);
+    }
 
-        // panel for the building floors
-        buildingFloors = new JPanel();
-        buildingFloors.setLayout(new GridLayout(numFloors+1, numElevators));
-        buildingFloors.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+    /**
+     * Creates and shows the frame, and starts drawing the changes. Called on the Event Dispatch Thread.
+     */
+    private void createFrame() {
+        JFrame frame = new JFrame("Elevator System");
 
-        // grid of the floors
-        grid = new JLabel[numElevators][numFloors];
-        addFloors();
+        // panel for the building floors
+        buildingFloors = new ShaftPanel(numElevators, numFloors);
+        JScrollPane scrollPaneFloors = new JScrollPane(buildingFloors);
+        scrollPaneFloors.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
 
         // panel for the elevators and its closeups
         JPanel elevatorsPanel = new JPanel();
         elevatorsPanel.setLayout(new GridLayout(2, 1));
 
-        elevatorsCloseUp = new JPanel();
-        elevatorsCloseUp.setLayout(new GridLayout(1, numElevators));
-
-        addElevators();
-        elevatorsPanel.add(elevatorsCloseUp);
-        listRequest = new DefaultListModel<>();
+        JPanel elevatorsCloseUp = new JPanel();
+        elevatorsCloseUp.setLayout(new GridLayout(0, Math.min(numElevators, MAX_CLOSE_UPS_PER_ROW)));
+        elevators = new JLabel[numElevators + 1];
+        for (int id = 1; id <= numElevators; id++) {
+            JLabel e = new JLabel(closeUpText(id, null, 0));
+            e.setBorder(BorderFactory.createLineBorder(Color.BLACK, 2));
+            e.setOpaque(true);
+            elevators[id] = e;
+            elevatorsCloseUp.add(e);
+        }
+        elevatorsPanel.add(new JScrollPane(elevatorsCloseUp));
 
-        JList requestsLog = new JList<>(listRequest);
+        listRequest = new RequestLogModel(REQUEST_LOG_CAPACITY);
+        JList<RequestLogEntry> requestsLog = new JList<>(listRequest);
+        requestsLog.setPrototypeCellValue(new RequestLogEntry(new HardwareDevice("Elevator00", LocalTime.MIDNIGHT, 100,
+                FloorButton.DOWN, 100, 10, Fault.DOORS_NOT_CLOSING))); // every row is as tall, so none is measured
         JScrollPane scrollPaneRequest = new JScrollPane(requestsLog);
         scrollPaneRequest.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
         scrollPaneRequest.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_ALWAYS);
-        elevatorsPanel.add(scrollPaneRequest);
+        requestSummary = new JLabel(getRequestSummary());
+        JPanel requestPanel = new JPanel(new BorderLayout());
+        requestPanel.add(createRequestFilter(), BorderLayout.NORTH);
+        requestPanel.add(scrollPaneRequest);
+        requestPanel.add(requestSummary, BorderLayout.SOUTH);
+        elevatorsPanel.add(requestPanel);
         elevatorsPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
 
         JLabel titleLabel = new JLabel("ELEVATOR SYSTEM");
         titleLabel.setFont(new Font("Verdana", Font.PLAIN, 30));
         titleLabel.setHorizontalAlignment(JLabel.CENTER);
 
-        this.add(titleLabel, BorderLayout.NORTH);
-        this.add(buildingFloors, BorderLayout.WEST);
-        this.add(elevatorsPanel);
-        this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        this.setSize(width /2, height /2);
-        this.setResizable(true);
-        this.setVisible(true);
+        // sets the width and height of the UI
+        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+        int width = (int) screenSize.getWidth();
+        int height = (int) screenSize.getHeight();
+
+        frame.add(titleLabel, BorderLayout.NORTH);
+        frame.add(scrollPaneFloors, BorderLayout.WEST);
+        frame.add(elevatorsPanel);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setSize(width / 2, height / 2);
+        frame.setResizable(true);
+        frame.setVisible(true);
+
+        drawChanges();
+        new Timer(1000 / FRAME_RATE, e -> drawChanges()).start();
     }
 
     /**
-     * Sets the elevator JLabels.
+     * Draws the latest state of every elevator car that changed and every new request since the last time. Called on
+     * the Event Dispatch Thread.
      */
-    private void setElevators() {
-        for (int i = 0; i < numElevators; i++) {
-            String name = "Elevator" + (i+1);
-            JLabel e = new JLabel(name);
-            e.setName(name);
-            elevators.add(e);
+    private void drawChanges() {
+        for (int id = 1; id <= numElevators; id++) {
+            int changed = changes.takeChanges(id);
+            if ((changed & ElevatorChanges.FLOOR_CHANGED) != 0) {
+                buildingFloors.setElevator(id, changes.getFloor(id), changes.getStatus(id));
+            }
+            if ((changed & ElevatorChanges.DESTINATION_CHANGED) != 0) {
+                elevators[id].setText(closeUpText(id, changes.getDirection(id), changes.getDestination(id)));
+            }
+        }
+
+        List<RequestLogEntry> requests = new ArrayList<>();
+        for (RequestLogEntry request = changes.pollRequest(); request != null; request = changes.pollRequest()) {
+            requests.add(request);
+        }
+        if (!requests.isEmpty()) {
+            listRequest.addAll(requests); // one event for the whole frame
+            requestSummary.setText(getRequestSummary());
         }
     }
 
     /**
-     * Adds the floors and elevators grid to the buildingFloors JPanel.
+     * Returns the counters of the request log, with the number of requests dropped before they could be logged.
+     * Called on the Event Dispatch Thread.
+     *
+     * @return A String representing the counters of the request log.
      */
-    private void addFloors() {
-        for (int i = numFloors; i > 0; i--) {
-            JLabel floor = new JLabel("Floor " + i);
-            buildingFloors.add(floor);
+    private String getRequestSummary() {
+        long numDropped = changes.getDroppedRequestCount();
+        return numDropped == 0 ? listRequest.getSummary() : listRequest.getSummary() + ", dropped: " + numDropped;
+    }
 
-            for (int j = 0; j < numElevators; j++) {
-                JLabel e = new JLabel();
-                e.setName("");
-                e.setBorder(BorderFactory.createLineBorder(Color.BLACK, 2));
-                e.setBackground(Color.WHITE);
-                e.setOpaque(true);
-                buildingFloors.add(e);
-                grid[j][i-1] = e;
-            }
+    /**
+     * Creates the choices to filter the request log by elevator, floor and fault.
+     *
+     * @return A JPanel containing the choices.
+     */
+    private JPanel createRequestFilter() {
+        JComboBox<String> elevatorChoice = new JComboBox<>();
+        elevatorChoice.addItem(ANY);
+        for (int id = 1; id <= numElevators; id++) {
+            elevatorChoice.addItem(ElevatorRegistry.nameOf(id));
         }
-        buildingFloors.add(new JLabel("Elevator"));
-        for (int i = 0; i < numElevators; i++) {
-            buildingFloors.add(new JLabel(""+ (i+1)));
+        JComboBox<Object> floorChoice = new JComboBox<>();
+        floorChoice.addItem(ANY);
+        for (int floor = 1; floor <= numFloors; floor++) {
+            floorChoice.addItem(floor);
         }
+        JComboBox<Object> faultChoice = new JComboBox<>();
+        faultChoice.addItem(ANY);
+        for (Fault fault : Fault.values()) {
+            faultChoice.addItem(fault);
+        }
+
+        ActionListener applyFilter = e -> {
+            int floor = floorChoice.getSelectedItem() instanceof Integer f ? f : 0;
+            Fault fault = faultChoice.getSelectedItem() instanceof Fault f ? f : null;
+            // All is index 0, so the index of an elevator is its ID
+            listRequest.setFilter(elevatorChoice.getSelectedIndex(), floor, fault);
+            requestSummary.setText(getRequestSummary());
+        };
+        elevatorChoice.addActionListener(applyFilter);
+        floorChoice.addActionListener(applyFilter);
+        faultChoice.addActionListener(applyFilter);
+
+        JPanel filter = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filter.add(new JLabel("Elevator:"));
+        filter.add(elevatorChoice);
+        filter.add(new JLabel("Floor:"));
+        filter.add(floorChoice);
+        filter.add(new JLabel("Fault:"));
+        filter.add(faultChoice);
+        return filter;
     }
 
     /**
-     * Adds a close up of each elevator.
+     * Returns the text of the close up of the specified elevator.
+     *
+     * @param id An integer representing the ID of the elevator.
+     * @param direction A FloorButton representing the direction of the elevator. Null, if it has none.
+     * @param destination An integer representing the destination floor of the elevator. 0, if it has none.
+     * @return A String representing the text of the close up.
      */
-    private void addElevators() {
-        for (int i = 0; i < numElevators; i++) {
-            JLabel e = elevators.get(i);
-            e.setText("<html>" + e.getName() +"<br/>Direction: "+ "<br/>Destination Floor: "+ "</html>");
-            e.setBorder(BorderFactory.createLineBorder(Color.BLACK, 2));
-            e.setOpaque(true);
-            elevatorsCloseUp.add(e);
-        }
+    private static String closeUpText(int id, FloorButton direction, int destination) {
+        return "<html>" + ElevatorRegistry.nameOf(id) + "<br/>Direction: " + (direction == null ? "" : direction) +
+                "<br/>Destination Floor: " + (destination == 0 ? "" : destination) + "</html>";
     }
 
     /**
-     * Updates the close up of the specified elevator.
+     * Records a change to the close up of the specified elevator, to be drawn in the next frame.
      *
      * @param elevator An Elevator representing the elevator that has to be updated.
      */
     @Override
     public void updateElevator(Elevator elevator) {
-        for (JLabel jLabel : elevators) {
-            if (jLabel.getName().equals(elevator.getName())) {
-                HardwareDevice floorEvent = elevator.getMainFloorEvent();
-                if (floorEvent != null) {
-                    jLabel.setText("<html>" + jLabel.getName() + "<br/>Direction: " + floorEvent.getFloorButton() +
-                            "<br/>Destination Floor: " + floorEvent.getCarButton() + "</html>");
-                }
-            }
-        }
+        changes.recordDestination(elevator);
     }
 
     /**
-     * Updates the floor of the elevator to be filled in with the required colour.
+     * Records a change to the floor or status of the specified elevator, to be drawn in the next frame.
      *
      * @param elevator An Elevator representing the elevator that has to be updated.
      */
     @Override
     public void updateFloor(Elevator elevator) {
-        for (int i = 0; i < elevators.size(); i++) {
-            if (elevators.get(i).getName().equals(elevator.getName())) {
-                if (elevator.isTransientFault()) {
-                    grid[i][elevator.getCurrentFloor() - 1].setBackground(Color.YELLOW);
-                } else if (elevator.isHardFault()) {
-                    grid[i][elevator.getCurrentFloor() - 1].setBackground(Color.RED);
-                } else {
-                    grid[i][elevator.getCurrentFloor() - 1].setBackground(Color.GREEN);
-                    for (int j = 0; j < numFloors; j++) {
-                        grid[i][j].setBackground(Color.WHITE);
-                    }
-                    grid[i][elevator.getCurrentFloor() - 1].setBackground(Color.GREEN);
-                }
-            }
-        }
+        changes.recordFloor(elevator);
     }
 
     /**
-     * Adds a request to the JList.
+     * Records a request, to be added to the request log in the next frame.
      *
      * @param request A HardwareDevice representing the new request.
      */
     @Override
     public void addRequests(HardwareDevice request) {
-            listRequest.addElement(request);
+        changes.recordRequest(request);
     }
 
-}
\ No newline at end of file
+}
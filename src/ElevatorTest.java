@@ -69,6 +69,16 @@ public class ElevatorTest {
         assertEquals(8, elevator.getStates().size());
     }
 
+    /**
+     * Tests that an Elevator without a view set has the HeadlessView, so it can update its view without a display.
+     */
+    @Test
+    void testHeadlessView() {
+        assertSame(HeadlessView.INSTANCE, elevator.getView());
+        elevator.getView().updateElevator(elevator);
+        elevator.getView().updateFloor(elevator);
+    }
+
     /**
      * Tests getting the Scheduler.
      */
@@ -82,32 +92,31 @@ public class ElevatorTest {
      */
     @Test
     void testSetState() {
-        elevator.setHandleRequestInSetState(false);
-        elevator.setState("WaitingForElevatorRequest");
+        elevator.setState(ElevatorStateName.WAITING_FOR_ELEVATOR_REQUEST);
         assertTrue(elevator.getCurrentState() instanceof WaitingForElevatorRequest);
-        elevator.setState("MovingBetweenFloors");
+        elevator.setState(ElevatorStateName.MOVING_BETWEEN_FLOORS);
         assertTrue(elevator.getCurrentState() instanceof MovingBetweenFloors);
-        elevator.setState("ReachedDestination");
+        elevator.setState(ElevatorStateName.REACHED_DESTINATION);
         assertTrue(elevator.getCurrentState() instanceof ReachedDestination);
-        elevator.setState("DoorsClosing");
+        elevator.setState(ElevatorStateName.DOORS_CLOSING);
         assertTrue(elevator.getCurrentState() instanceof DoorsClosing);
-        elevator.setState("DoorsOpening");
+        elevator.setState(ElevatorStateName.DOORS_OPENING);
         assertTrue(elevator.getCurrentState() instanceof DoorsOpening);
-        elevator.setState("NotifyScheduler");
+        elevator.setState(ElevatorStateName.NOTIFY_SCHEDULER);
         assertTrue(elevator.getCurrentState() instanceof NotifyScheduler);
     }
 
     /**
-     * Tests adding a state to the Elevator state machine.
+     * Tests that the states of the Elevator state machine are shared by every Elevator and cannot be changed.
      */
     @Test
-    void testAddState() {
-        assertEquals(8, elevator.getStates().size());
-        String testStateName = "TestState";
-        elevator.addState(testStateName, new WaitingForElevatorRequest());
-        HashMap<String, ElevatorState> states = elevator.getStates();
-        assertEquals(9, states.size());
-        assertTrue(states.containsKey(testStateName));
+    void testSharedStates() {
+        Map<ElevatorStateName, ElevatorState> states = elevator.getStates();
+        assertThrows(UnsupportedOperationException.class,
+                () -> states.put(ElevatorStateName.DOORS_OPENING, new DoorsClosing()));
+        assertInstanceOf(DoorsOpening.class, states.get(ElevatorStateName.DOORS_OPENING));
+        assertSame(states.get(ElevatorStateName.DOORS_OPENING),
+                elevator.getStates().get(ElevatorStateName.DOORS_OPENING));
     }
 
     /**
@@ -115,7 +124,7 @@ public class ElevatorTest {
      */
     @Test
     void testGetStates() {
-        HashMap<String, ElevatorState> states = elevator.getStates();
+        Map<ElevatorStateName, ElevatorState> states = elevator.getStates();
         assertNotNull(states);
         assertEquals(8, states.size());
     }
@@ -125,9 +134,22 @@ public class ElevatorTest {
      */
     @Test
     void testGetCurrentState() {
-        elevator.setHandleRequestInSetState(false);
-        elevator.setState("WaitingForElevatorRequest");
+        elevator.setState(ElevatorStateName.WAITING_FOR_ELEVATOR_REQUEST);
         assertTrue(elevator.getCurrentState() instanceof WaitingForElevatorRequest);
+        assertEquals(ElevatorStateName.WAITING_FOR_ELEVATOR_REQUEST, elevator.getCurrentStateName());
+    }
+
+    /**
+     * Tests that a StateTransitionListener is notified of every transition of the Elevator state machine.
+     */
+    @Test
+    void testTransitionListener() {
+        List<String> transitions = new ArrayList<>();
+        elevator.addTransitionListener((context, previousState, newState) ->
+                transitions.add(context.getName() + ": " + previousState + " -> " + newState));
+        elevator.setState(ElevatorStateName.DOORS_OPENING);
+        elevator.setState(ElevatorStateName.DOORS_CLOSING);
+        assertEquals(elevator.getName() + ": DoorsOpening -> DoorsClosing", transitions.get(transitions.size() - 1));
     }
 
     /**
@@ -161,20 +183,9 @@ public class ElevatorTest {
         HardwareDevice hardwareDevice = new HardwareDevice(elevator.getName(), LocalTime.parse("13:02:56.0"),
                 3, FloorButton.UP, 4,2, Fault.NO_FAULT);
         elevator.setMainFloorEvent(hardwareDevice);
-        elevator.setHandleRequestInSetState(false);
         assertEquals(1, elevator.getCurrentFloor());
     }
 
-    /**
-     * Tests setting the handleRequestInSetState variable in Elevator.
-     */
-    @Test
-    void testSetAndGetHandleRequestInState() {
-        assertTrue(elevator.getHandleRequestInSetState());
-        elevator.setHandleRequestInSetState(false);
-        assertFalse(elevator.getHandleRequestInSetState());
-    }
-
     /**
      * Tests getting the number of passengers.
      */
@@ -219,4 +230,18 @@ public class ElevatorTest {
         assertEquals(5, elevator.getMaxCapacity());
     }
 
+    /**
+     * Tests estimating when an idle Elevator can arrive at a floor, and that a full or shut down Elevator cannot pick
+     * up more passengers.
+     */
+    @Test
+    void testEstimateTimeToArrive() {
+        assertNull(elevator.getDirection());
+        assertEquals(0, elevator.estimateTimeToArrive(1, FloorButton.UP, 1));
+        assertEquals(4 * 2000, elevator.estimateTimeToArrive(5, FloorButton.DOWN, 1));
+        assertEquals(Long.MAX_VALUE, elevator.estimateTimeToArrive(5, FloorButton.UP, elevator.getMaxCapacity() + 1));
+        elevator.setHardFault(true);
+        assertEquals(Long.MAX_VALUE, elevator.estimateTimeToArrive(5, FloorButton.UP, 1));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,420 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A class to represent an append-only binary journal of everything that happens in the ElevatorSystem: hall calls,
+ * dispatch decisions, state transitions, floor arrivals and faults.
+ * <p>
+ * The journal is a sequence of memory-mapped segment files named journal-00000.seg, journal-00001.seg and so on. Each
+ * segment starts with a {@link #HEADER_LENGTH}-byte header followed by fixed-length records laid out as follows:
+ * <pre>
+ * offset  size  field
+ *      0     8  time, in nanoseconds since the epoch
+ *      8     8  clock time, in milliseconds of SimulationClock time
+ *     16     8  request ID (0 if none)
+ *     24     8  time of the hall call, in nanoseconds of the day (-1 if none)
+ *     32     4  elevator ID (0 if none)
+ *     36     4  floor
+ *     40     4  car button
+ *     44     4  number of passengers
+ *     48     1  JournalEventType code, written last (0 if the record has not been written)
+ *     49     1  floor button ordinal (-1 if none)
+ *     50     1  first argument: previous state ordinal or Fault ordinal (-1 if none)
+ *     51     1  second argument: new state ordinal, or 1 if the elevator car has more floor events to complete after
+ *                a floor event and 0 if not (-1 if none)
+ *     52    12  reserved
+ * </pre>
+ * A thread claims a record by incrementing a shared counter and writes it with absolute puts, so recording an event
+ * does not allocate or lock, except when the first record of a new segment is claimed and the segment is mapped.
+ * Closing the journal waits for every thread writing a record to finish before writing the segments back to disk, so
+ * no record is written after the segments have been forced. The journal is meant to be read with an
+ * EventJournalReader once the run is over.
+ */
+public class EventJournal implements AutoCloseable {
+
+    /**
+     * An integer representing the magic number every segment starts with, "EJRN".
+     */
+    static final int MAGIC = 0x454A524E;
+
+    /**
+     * An integer representing the version of the segment layout.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * An integer representing the length, in bytes, of the header of a segment.
+     */
+    static final int HEADER_LENGTH = 64;
+
+    /**
+     * An integer representing the length, in bytes, of every record.
+     */
+    static final int RECORD_LENGTH = 64;
+
+    /**
+     * An integer representing the default number of records in a segment, 64 MiB worth.
+     */
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+
+    /**
+     * An EventJournal that records nothing, for when the ElevatorSystem runs without a journal.
+     */
+    public static final EventJournal DISABLED = new EventJournal();
+
+    /**
+     * A Path representing the directory the segments are written to. Null, if the journal is disabled.
+     */
+    private final Path directory;
+
+    /**
+     * A SimulationClock to read the clock time of each event from.
+     */
+    private final SimulationClock clock;
+
+    /**
+     * An integer representing the number of records in a segment.
+     */
+    private final int recordsPerSegment;
+
+    /**
+     * An AtomicLong representing the index of the next record to claim, counted across every segment.
+     */
+    private final AtomicLong nextRecord = new AtomicLong();
+
+    /**
+     * A long representing the time, in nanoseconds since the epoch, the journal was opened at.
+     */
+    private final long startEpochNanos;
+
+    /**
+     * A long representing the System.nanoTime value the journal was opened at.
+     */
+    private final long startNanoTime;
+
+    /**
+     * A List of MappedByteBuffers, indexed by segment number, of every segment that has been mapped. Only accessed
+     * while holding the lock of the journal.
+     */
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    /**
+     * A Segment representing the last segment mapped, read without locking.
+     */
+    private volatile Segment current;
+
+    /**
+     * True, if the journal has been closed. False, if not.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * An AtomicInteger representing the number of threads writing a record, which close waits for.
+     */
+    private final AtomicInteger activeWriters = new AtomicInteger();
+
+    /**
+     * Initializes a disabled EventJournal.
+     */
+    private EventJournal() {
+        directory = null;
+        clock = null;
+        recordsPerSegment = 0;
+        startEpochNanos = 0;
+        startNanoTime = 0;
+        closed = true;
+    }
+
+    /**
+     * Initializes an EventJournal writing segments to the specified directory, replacing any journal already there.
+     *
+     * @param directory A Path representing the directory to write the segments to. Created if it does not exist.
+     * @param clock A SimulationClock to read the clock time of each event from.
+     * @param recordsPerSegment An integer representing the number of records in a segment.
+     * @throws IOException If the directory or the first segment could not be created.
+     */
+    public EventJournal(Path directory, SimulationClock clock, int recordsPerSegment) throws IOException {
+        if (recordsPerSegment <= 0) {
+            throw new IllegalArgumentException("Records per segment must be positive, was " + recordsPerSegment
+                    + ".");
+        }
+        this.directory = directory;
+        this.clock = clock;
+        this.recordsPerSegment = recordsPerSegment;
+        Files.createDirectories(directory);
+        for (int i = 0; Files.deleteIfExists(segmentPath(directory, i)); i++) {
+            // remove the segments of an earlier run, so they are not read as part of this one
+        }
+
+        Instant now = Instant.now();
+        startNanoTime = System.nanoTime();
+        startEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        current = new Segment(0, map(0));
+    }
+
+    /**
+     * Returns the Path of the segment with the specified number in the specified directory.
+     *
+     * @param directory A Path representing the directory of the journal.
+     * @param segmentNumber An integer representing the number of the segment.
+     * @return A Path representing the segment file.
+     */
+    static Path segmentPath(Path directory, int segmentNumber) {
+        return directory.resolve(String.format("journal-%05d.seg", segmentNumber));
+    }
+
+    /**
+     * Returns if the journal records events.
+     *
+     * @return True, if the journal records events. False, if it is disabled or closed.
+     */
+    public boolean isEnabled() {
+        return !closed;
+    }
+
+    /**
+     * Records a hall call received by the Scheduler.
+     *
+     * @param hallCall A HardwareDevice representing the hall call.
+     */
+    public void recordHallCall(HardwareDevice hallCall) {
+        if (!closed) {
+            recordFloorEvent(JournalEventType.HALL_CALL, ElevatorRegistry.NO_ELEVATOR, hallCall);
+        }
+    }
+
+    /**
+     * Records a dispatch decision about, or the completion of, the specified floor event.
+     *
+     * @param type A JournalEventType representing the decision: DISPATCH, ASSIGNMENT, PICK_UP or COMPLETION.
+     * @param elevatorId An integer representing the ID of the elevator car the decision is about.
+     * @param floorEvent A HardwareDevice representing the floor event.
+     */
+    public void recordDecision(JournalEventType type, int elevatorId, HardwareDevice floorEvent) {
+        if (!closed) {
+            recordFloorEvent(type, elevatorId, floorEvent);
+        }
+    }
+
+    /**
+     * Records a transition of the state machine of an Elevator.
+     *
+     * @param elevatorId An integer representing the ID of the Elevator.
+     * @param floor An integer representing the floor the Elevator is at.
+     * @param previousState An ElevatorStateName representing the state before the transition. Null, if none.
+     * @param newState An ElevatorStateName representing the state after the transition.
+     */
+    public void recordElevatorState(int elevatorId, int floor, ElevatorStateName previousState,
+                                    ElevatorStateName newState) {
+        if (!closed) {
+            write(JournalEventType.ELEVATOR_STATE, elevatorId, 0, -1, floor, 0, 0, -1, ordinal(previousState),
+                    ordinal(newState));
+        }
+    }
+
+    /**
+     * Records a transition of the state machine of the Scheduler.
+     *
+     * @param previousState A SchedulerStateName representing the state before the transition. Null, if none.
+     * @param newState A SchedulerStateName representing the state after the transition.
+     */
+    public void recordSchedulerState(SchedulerStateName previousState, SchedulerStateName newState) {
+        if (!closed) {
+            write(JournalEventType.SCHEDULER_STATE, ElevatorRegistry.NO_ELEVATOR, 0, -1, 0, 0, 0, -1,
+                    ordinal(previousState), ordinal(newState));
+        }
+    }
+
+    /**
+     * Records an elevator car arriving at a floor.
+     *
+     * @param elevatorId An integer representing the ID of the elevator car.
+     * @param floor An integer representing the floor it arrived at.
+     * @param button A FloorButton representing the direction it was moving in.
+     */
+    public void recordFloorArrival(int elevatorId, int floor, FloorButton button) {
+        if (!closed) {
+            write(JournalEventType.FLOOR_ARRIVAL, elevatorId, 0, -1, floor, 0, 0, ordinal(button), -1, -1);
+        }
+    }
+
+    /**
+     * Records a fault of an elevator car.
+     *
+     * @param elevatorId An integer representing the ID of the elevator car.
+     * @param floor An integer representing the floor the elevator car is at.
+     * @param fault A Fault representing the fault.
+     * @param floorEvent A HardwareDevice representing the floor event the elevator car was serving. Null, if none.
+     */
+    public void recordFault(int elevatorId, int floor, Fault fault, HardwareDevice floorEvent) {
+        if (!closed) {
+            write(JournalEventType.FAULT, elevatorId, floorEvent == null ? 0 : floorEvent.getRequestId(), -1, floor,
+                    0, 0, -1, fault.ordinal(), -1);
+        }
+    }
+
+    /**
+     * Records an event about the specified floor event.
+     *
+     * @param type A JournalEventType representing the kind of event.
+     * @param elevatorId An integer representing the ID of the elevator car the event is about.
+     * @param floorEvent A HardwareDevice representing the floor event.
+     */
+    private void recordFloorEvent(JournalEventType type, int elevatorId, HardwareDevice floorEvent) {
+        write(type, elevatorId, floorEvent.getRequestId(), floorEvent.getTimeNanos(),
+                floorEvent.getFloor(), floorEvent.getCarButton(), floorEvent.getNumPassengers(),
+                ordinal(floorEvent.getFloorButton()), ordinal(floorEvent.getFault()),
+                floorEvent.getMoreFloorEvents() ? 1 : 0);
+    }
+
+    /**
+     * Returns the ordinal of the specified constant.
+     *
+     * @param constant An Enum constant.
+     * @return An integer representing the ordinal of the constant. -1, if it is null.
+     */
+    private static int ordinal(Enum<?> constant) {
+        return constant == null ? -1 : constant.ordinal();
+    }
+
+    /**
+     * Claims the next record and writes the specified fields into it, counted as an active writer while it does.
+     */
+    private void write(JournalEventType type, int elevatorId, long requestId, long hallCallTime, int floor,
+                       int carButton, int numPassengers, int floorButton, int arg0, int arg1) {
+        activeWriters.incrementAndGet();
+        try {
+            // checked again once counted, so close either waits for this writer or this writer sees the journal closed
+            if (closed) {
+                return;
+            }
+            long timeNanos = startEpochNanos + (System.nanoTime() - startNanoTime);
+            long clockMillis = clock.currentTimeMillis();
+            long index = nextRecord.getAndIncrement();
+            int segmentNumber = (int) (index / recordsPerSegment);
+            Segment segment = current;
+            ByteBuffer buffer = segment.number == segmentNumber ? segment.buffer : segment(segmentNumber);
+            if (buffer == null) {
+                return; // the journal was closed while the event was being recorded
+            }
+
+            int offset = HEADER_LENGTH + (int) (index % recordsPerSegment) * RECORD_LENGTH;
+            buffer.putLong(offset, timeNanos);
+            buffer.putLong(offset + 8, clockMillis);
+            buffer.putLong(offset + 16, requestId);
+            buffer.putLong(offset + 24, hallCallTime);
+            buffer.putInt(offset + 32, elevatorId);
+            buffer.putInt(offset + 36, floor);
+            buffer.putInt(offset + 40, carButton);
+            buffer.putInt(offset + 44, numPassengers);
+            buffer.put(offset + 49, (byte) floorButton);
+            buffer.put(offset + 50, (byte) arg0);
+            buffer.put(offset + 51, (byte) arg1);
+            buffer.put(offset + 48, type.getCode()); // written last, so a reader never sees half a record as written
+        } finally {
+            activeWriters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the segment with the specified number, mapping it and every segment before it that has not been mapped
+     * yet.
+     *
+     * @param segmentNumber An integer representing the number of the segment.
+     * @return A MappedByteBuffer of the segment. Null, if the journal has been closed.
+     */
+    private synchronized MappedByteBuffer segment(int segmentNumber) {
+        if (closed) {
+            return null;
+        }
+        try {
+            while (segments.size() <= segmentNumber) {
+                int number = segments.size();
+                MappedByteBuffer buffer = map(number);
+                current = new Segment(number, buffer);
+            }
+        } catch (IOException e) {
+            new ElevatorSystemLogger("EventJournal").severe("Error occurred while creating journal segment "
+                    + segmentNumber + ": " + e);
+            closed = true;
+            return null;
+        }
+        return segments.get(segmentNumber);
+    }
+
+    /**
+     * Creates the segment with the specified number, maps it and writes its header.
+     *
+     * @param segmentNumber An integer representing the number of the segment.
+     * @return A MappedByteBuffer of the segment.
+     * @throws IOException If the segment could not be created or mapped.
+     */
+    private MappedByteBuffer map(int segmentNumber) throws IOException {
+        long length = HEADER_LENGTH + (long) recordsPerSegment * RECORD_LENGTH;
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, segmentNumber), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length); // the mapping outlives the channel
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_LENGTH);
+        buffer.putInt(12, recordsPerSegment);
+        buffer.putInt(16, segmentNumber);
+        buffer.putLong(24, startEpochNanos);
+        segments.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Returns the number of records claimed so far.
+     *
+     * @return A long representing the number of records claimed so far.
+     */
+    public long getNumRecords() {
+        return nextRecord.get();
+    }
+
+    /**
+     * Stops recording events, waits for every thread writing a record to finish it, and writes every segment back to
+     * disk.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        // a writer mapping a new segment needs the lock, so wait without holding it
+        while (activeWriters.get() > 0) {
+            Thread.yield();
+        }
+        synchronized (this) {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * A class to represent a mapped segment together with its number, so both can be read with one volatile read.
+     *
+     * @param number An integer representing the number of the segment.
+     * @param buffer A MappedByteBuffer of the segment.
+     */
+    private record Segment(int number, MappedByteBuffer buffer) {
+    }
+
+}
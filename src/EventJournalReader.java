@@ -0,0 +1,306 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalTime;
+
+/**
+ * A class to read the records of an EventJournal back, segment by segment, in the order they were claimed.
+ * <p>
+ * The reader maps one segment at a time and keeps a cursor on the current record; {@link #next()} moves the cursor and
+ * the getters read the fields of the record straight from the mapped segment, so scanning a journal does not allocate
+ * per record. Reading stops at the first record that was never written.
+ */
+public class EventJournalReader implements AutoCloseable {
+
+    /**
+     * An array of FloorButtons indexed by ordinal, cached to avoid copying values() on every read.
+     */
+    private static final FloorButton[] FLOOR_BUTTONS = FloorButton.values();
+
+    /**
+     * An array of Faults indexed by ordinal, cached to avoid copying values() on every read.
+     */
+    private static final Fault[] FAULTS = Fault.values();
+
+    /**
+     * An array of ElevatorStateNames indexed by ordinal, cached to avoid copying values() on every read.
+     */
+    private static final ElevatorStateName[] ELEVATOR_STATES = ElevatorStateName.values();
+
+    /**
+     * An array of SchedulerStateNames indexed by ordinal, cached to avoid copying values() on every read.
+     */
+    private static final SchedulerStateName[] SCHEDULER_STATES = SchedulerStateName.values();
+
+    /**
+     * A Path representing the directory of the journal.
+     */
+    private final Path directory;
+
+    /**
+     * An integer representing the number of the segment being read.
+     */
+    private int segmentNumber = -1;
+
+    /**
+     * A MappedByteBuffer of the segment being read. Null, if no segment is mapped.
+     */
+    private MappedByteBuffer segment;
+
+    /**
+     * An integer representing the number of records in the segment being read.
+     */
+    private int recordsPerSegment = 0;
+
+    /**
+     * An integer representing the index of the current record within the segment being read.
+     */
+    private int record = -1;
+
+    /**
+     * An integer representing the offset of the current record within the segment being read.
+     */
+    private int offset = -1;
+
+    /**
+     * True, if every record has been read. False, if not.
+     */
+    private boolean finished = false;
+
+    /**
+     * Initializes an EventJournalReader positioned before the first record of the journal in the specified directory.
+     *
+     * @param directory A Path representing the directory of the journal.
+     */
+    public EventJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Moves to the next record.
+     *
+     * @return True, if there is a next record. False, if every record has been read.
+     * @throws IOException If a segment could not be mapped or is not a journal segment.
+     */
+    public boolean next() throws IOException {
+        if (finished) {
+            return false;
+        }
+        record++;
+        if (segment == null || record >= recordsPerSegment) {
+            if (!openSegment(segmentNumber + 1)) {
+                finished = true;
+                return false;
+            }
+            record = 0;
+        }
+        offset = EventJournal.HEADER_LENGTH + record * EventJournal.RECORD_LENGTH;
+        if (segment.get(offset + 48) == 0) {
+            finished = true; // the record was never written, so it is the end of the journal
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Maps the segment with the specified number and checks its header.
+     *
+     * @param number An integer representing the number of the segment.
+     * @return True, if the segment was mapped. False, if it does not exist.
+     * @throws IOException If the segment could not be mapped or is not a journal segment.
+     */
+    private boolean openSegment(int number) throws IOException {
+        Path path = EventJournal.segmentPath(directory, number);
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (segment.capacity() < EventJournal.HEADER_LENGTH || segment.getInt(0) != EventJournal.MAGIC
+                || segment.getInt(4) != EventJournal.VERSION || segment.getInt(8) != EventJournal.RECORD_LENGTH) {
+            throw new IOException(path + " is not a journal segment of version " + EventJournal.VERSION + ".");
+        }
+        recordsPerSegment = Math.min(segment.getInt(12),
+                (segment.capacity() - EventJournal.HEADER_LENGTH) / EventJournal.RECORD_LENGTH);
+        segmentNumber = number;
+        return true;
+    }
+
+    /**
+     * Returns the kind of the current record.
+     *
+     * @return A JournalEventType representing the kind of the current record.
+     */
+    public JournalEventType getType() {
+        return JournalEventType.fromCode(segment.get(offset + 48));
+    }
+
+    /**
+     * Returns the time the current record was written at.
+     *
+     * @return A long representing the time, in nanoseconds since the epoch.
+     */
+    public long getTimeNanos() {
+        return segment.getLong(offset);
+    }
+
+    /**
+     * Returns the SimulationClock time the current record was written at.
+     *
+     * @return A long representing the clock time, in milliseconds.
+     */
+    public long getClockMillis() {
+        return segment.getLong(offset + 8);
+    }
+
+    /**
+     * Returns the request ID of the floor event of the current record.
+     *
+     * @return A long representing the request ID. 0, if the record is not about a floor event.
+     */
+    public long getRequestId() {
+        return segment.getLong(offset + 16);
+    }
+
+    /**
+     * Returns the time of the hall call of the current record.
+     *
+     * @return A LocalTime representing the time of the hall call. Null, if the record is not about a floor event.
+     */
+    public LocalTime getHallCallTime() {
+        long nanoOfDay = segment.getLong(offset + 24);
+        return nanoOfDay < 0 ? null : LocalTime.ofNanoOfDay(nanoOfDay);
+    }
+
+    /**
+     * Returns the ID of the elevator car of the current record.
+     *
+     * @return An integer representing the ID of the elevator car. ElevatorRegistry.NO_ELEVATOR, if none.
+     */
+    public int getElevatorId() {
+        return segment.getInt(offset + 32);
+    }
+
+    /**
+     * Returns the floor of the current record.
+     *
+     * @return An integer representing the floor.
+     */
+    public int getFloor() {
+        return segment.getInt(offset + 36);
+    }
+
+    /**
+     * Returns the car button of the floor event of the current record.
+     *
+     * @return An integer representing the car button.
+     */
+    public int getCarButton() {
+        return segment.getInt(offset + 40);
+    }
+
+    /**
+     * Returns the number of passengers of the floor event of the current record.
+     *
+     * @return An integer representing the number of passengers.
+     */
+    public int getNumPassengers() {
+        return segment.getInt(offset + 44);
+    }
+
+    /**
+     * Returns the floor button of the current record.
+     *
+     * @return A FloorButton representing the floor button. Null, if none.
+     */
+    public FloorButton getFloorButton() {
+        return constant(FLOOR_BUTTONS, segment.get(offset + 49));
+    }
+
+    /**
+     * Returns the fault of the current record, for a FAULT record or a record about a floor event.
+     *
+     * @return A Fault representing the fault. Null, if none.
+     */
+    public Fault getFault() {
+        JournalEventType type = getType();
+        return type == JournalEventType.ELEVATOR_STATE || type == JournalEventType.SCHEDULER_STATE
+                ? null : constant(FAULTS, segment.get(offset + 50));
+    }
+
+    /**
+     * Returns if the elevator car has more floor events to complete, for a record about a floor event. Tells a
+     * COMPLETION record that ends a movement apart from one that does not.
+     *
+     * @return True, if the elevator car has more floor events to complete. False, if not.
+     */
+    public boolean getMoreFloorEvents() {
+        return segment.get(offset + 51) == 1 && getType() != JournalEventType.ELEVATOR_STATE
+                && getType() != JournalEventType.SCHEDULER_STATE;
+    }
+
+    /**
+     * Returns the state an Elevator left, for an ELEVATOR_STATE record.
+     *
+     * @return An ElevatorStateName representing the previous state. Null, if none.
+     */
+    public ElevatorStateName getPreviousElevatorState() {
+        return getType() == JournalEventType.ELEVATOR_STATE
+                ? constant(ELEVATOR_STATES, segment.get(offset + 50)) : null;
+    }
+
+    /**
+     * Returns the state an Elevator entered, for an ELEVATOR_STATE record.
+     *
+     * @return An ElevatorStateName representing the new state. Null, if none.
+     */
+    public ElevatorStateName getElevatorState() {
+        return getType() == JournalEventType.ELEVATOR_STATE
+                ? constant(ELEVATOR_STATES, segment.get(offset + 51)) : null;
+    }
+
+    /**
+     * Returns the state the Scheduler left, for a SCHEDULER_STATE record.
+     *
+     * @return A SchedulerStateName representing the previous state. Null, if none.
+     */
+    public SchedulerStateName getPreviousSchedulerState() {
+        return getType() == JournalEventType.SCHEDULER_STATE
+                ? constant(SCHEDULER_STATES, segment.get(offset + 50)) : null;
+    }
+
+    /**
+     * Returns the state the Scheduler entered, for a SCHEDULER_STATE record.
+     *
+     * @return A SchedulerStateName representing the new state. Null, if none.
+     */
+    public SchedulerStateName getSchedulerState() {
+        return getType() == JournalEventType.SCHEDULER_STATE
+                ? constant(SCHEDULER_STATES, segment.get(offset + 51)) : null;
+    }
+
+    /**
+     * Returns the constant with the specified ordinal.
+     *
+     * @param constants An array of the constants of an enumerator.
+     * @param ordinal A byte representing the ordinal of a constant.
+     * @return The constant with the specified ordinal. Null, if the ordinal is out of range.
+     */
+    private static <E extends Enum<E>> E constant(E[] constants, byte ordinal) {
+        return ordinal >= 0 && ordinal < constants.length ? constants[ordinal] : null;
+    }
+
+    /**
+     * Releases the segment being read.
+     */
+    @Override
+    public void close() {
+        segment = null;
+        finished = true;
+    }
+
+}
@@ -0,0 +1,185 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the EventJournal and the EventJournalReader.
+ */
+class EventJournalTest {
+
+    /**
+     * A Path representing a temporary directory to write the journal to.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that every kind of event is read back with the fields it was recorded with.
+     */
+    @Test
+    void testRecordAndRead() throws IOException {
+        HardwareDevice hallCall = new HardwareDevice("Elevator?", LocalTime.parse("14:05:15.0"), 2, FloorButton.UP,
+                4, 3, Fault.NO_FAULT);
+        EventJournal journal = new EventJournal(directory, new VirtualClock(1), 16);
+        journal.recordHallCall(hallCall);
+        journal.recordDecision(JournalEventType.DISPATCH, 2, hallCall);
+        journal.recordElevatorState(2, 1, ElevatorStateName.WAITING_FOR_ELEVATOR_REQUEST,
+                ElevatorStateName.MOVING_BETWEEN_FLOORS);
+        journal.recordSchedulerState(null, SchedulerStateName.WAITING_FOR_FLOOR_EVENT);
+        journal.recordFloorArrival(2, 2, FloorButton.UP);
+        journal.recordFault(2, 2, Fault.DOORS_NOT_CLOSING, hallCall);
+        journal.close();
+        journal.recordHallCall(hallCall); // not recorded, since the journal is closed
+
+        try (EventJournalReader reader = new EventJournalReader(directory)) {
+            assertTrue(reader.next());
+            assertEquals(JournalEventType.HALL_CALL, reader.getType());
+            assertEquals(hallCall.getRequestId(), reader.getRequestId());
+            assertEquals(LocalTime.parse("14:05:15.0"), reader.getHallCallTime());
+            assertEquals(ElevatorRegistry.NO_ELEVATOR, reader.getElevatorId());
+            assertEquals(2, reader.getFloor());
+            assertEquals(FloorButton.UP, reader.getFloorButton());
+            assertEquals(4, reader.getCarButton());
+            assertEquals(3, reader.getNumPassengers());
+            assertEquals(Fault.NO_FAULT, reader.getFault());
+            long firstTime = reader.getTimeNanos();
+
+            assertTrue(reader.next());
+            assertEquals(JournalEventType.DISPATCH, reader.getType());
+            assertEquals(2, reader.getElevatorId());
+            assertEquals(hallCall.getRequestId(), reader.getRequestId());
+            assertTrue(reader.getTimeNanos() >= firstTime);
+
+            assertTrue(reader.next());
+            assertEquals(JournalEventType.ELEVATOR_STATE, reader.getType());
+            assertEquals(ElevatorStateName.WAITING_FOR_ELEVATOR_REQUEST, reader.getPreviousElevatorState());
+            assertEquals(ElevatorStateName.MOVING_BETWEEN_FLOORS, reader.getElevatorState());
+            assertNull(reader.getFault());
+
+            assertTrue(reader.next());
+            assertEquals(JournalEventType.SCHEDULER_STATE, reader.getType());
+            assertNull(reader.getPreviousSchedulerState());
+            assertEquals(SchedulerStateName.WAITING_FOR_FLOOR_EVENT, reader.getSchedulerState());
+
+            assertTrue(reader.next());
+            assertEquals(JournalEventType.FLOOR_ARRIVAL, reader.getType());
+            assertEquals(2, reader.getFloor());
+            assertNull(reader.getHallCallTime());
+
+            assertTrue(reader.next());
+            assertEquals(JournalEventType.FAULT, reader.getType());
+            assertEquals(Fault.DOORS_NOT_CLOSING, reader.getFault());
+            assertEquals(hallCall.getRequestId(), reader.getRequestId());
+
+            assertFalse(reader.next());
+        }
+    }
+
+    /**
+     * Tests that records go on in a new segment once a segment is full, and that they are read back in order across
+     * segments.
+     */
+    @Test
+    void testSegmentRollover() throws IOException {
+        EventJournal journal = new EventJournal(directory, new VirtualClock(1), 2);
+        for (int floor = 1; floor <= 5; floor++) {
+            journal.recordFloorArrival(1, floor, FloorButton.UP);
+        }
+        assertEquals(5, journal.getNumRecords());
+        journal.close();
+        assertTrue(Files.exists(EventJournal.segmentPath(directory, 2)));
+        assertFalse(Files.exists(EventJournal.segmentPath(directory, 3)));
+
+        int floor = 0;
+        try (EventJournalReader reader = new EventJournalReader(directory)) {
+            while (reader.next()) {
+                assertEquals(++floor, reader.getFloor());
+            }
+        }
+        assertEquals(5, floor);
+
+        // opening a journal in the same directory replaces the segments of the last one
+        new EventJournal(directory, new VirtualClock(1), 2).close();
+        assertFalse(Files.exists(EventJournal.segmentPath(directory, 1)));
+        try (EventJournalReader reader = new EventJournalReader(directory)) {
+            assertFalse(reader.next());
+        }
+    }
+
+    /**
+     * Tests that closing the journal while other threads are recording events waits for every record they claimed, so
+     * every record is whole when the journal is read back.
+     */
+    @Test
+    void testCloseWhileRecording() throws IOException, InterruptedException {
+        EventJournal journal = new EventJournal(directory, new RealTimeClock(), 1 << 16);
+        Thread[] recorders = new Thread[4];
+        for (int i = 0; i < recorders.length; i++) {
+            int elevatorId = i + 1;
+            recorders[i] = new Thread(() -> {
+                for (int n = 0; n < 10_000 && journal.isEnabled(); n++) {
+                    journal.recordFloorArrival(elevatorId, 7, FloorButton.DOWN);
+                }
+            });
+            recorders[i].start();
+        }
+        Thread.sleep(5);
+        journal.close();
+        long numRecords = journal.getNumRecords();
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+        assertEquals(numRecords, journal.getNumRecords()); // nothing is claimed once the journal is closed
+
+        long numRead = 0;
+        try (EventJournalReader reader = new EventJournalReader(directory)) {
+            while (reader.next()) {
+                numRead++;
+                assertEquals(JournalEventType.FLOOR_ARRIVAL, reader.getType());
+                assertEquals(7, reader.getFloor());
+                assertEquals(FloorButton.DOWN, reader.getFloorButton());
+            }
+        }
+        assertEquals(numRecords, numRead);
+    }
+
+    /**
+     * Tests that a JournalWorkload replays the hall calls of a journal with their request IDs, fields and faults, at
+     * the clock times they were recorded at.
+     */
+    @Test
+    void testJournalWorkload() throws IOException, InterruptedException {
+        VirtualClock clock = new VirtualClock(1);
+        clock.register();
+        EventJournal journal = new EventJournal(directory, clock, 2);
+        HardwareDevice first = new HardwareDevice("Elevator?", LocalTime.parse("14:05:15.0"), 2, FloorButton.UP, 4,
+                3, Fault.DOORS_NOT_OPENING);
+        HardwareDevice second = new HardwareDevice("Elevator?", LocalTime.parse("14:05:20.0"), 7, FloorButton.DOWN,
+                1, 1, Fault.NO_FAULT);
+        clock.sleepUntil(1500);
+        journal.recordHallCall(first);
+        journal.recordDecision(JournalEventType.DISPATCH, 1, first);
+        journal.recordFloorArrival(1, 2, FloorButton.UP);
+        clock.sleepUntil(4000);
+        journal.recordHallCall(second);
+        journal.close();
+
+        JournalWorkload workload = new JournalWorkload(directory);
+        assertEquals(2, workload.size());
+        assertTrue(workload.next());
+        assertEquals(1500, workload.getReleaseTime());
+        assertEquals(first.getRequestId(), workload.getFloorEvent().getRequestId());
+        assertEquals(first.toString(), workload.getFloorEvent().toString());
+        assertEquals(Fault.DOORS_NOT_OPENING, workload.getFloorEvent().getFault());
+        assertTrue(workload.next());
+        assertEquals(4000, workload.getReleaseTime());
+        assertEquals(second.toString(), workload.getFloorEvent().toString());
+        assertFalse(workload.next());
+    }
+
+}
@@ -1,11 +1,6 @@
 import java.io.*;
 import java.net.*;
 import java.nio.file.*;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-
-import static java.lang.Thread.sleep;
 
 /**
  * A Floor to represent the floors the elevator car stops at.
@@ -18,9 +13,9 @@ public class Floor implements Runnable {
     private final Scheduler scheduler;
 
     /**
-     * A DatagramSocket to send and receive messages to and from the Scheduler subsystem.
+     * A Transport to send and receive messages to and from the Scheduler subsystem.
      */
-    private DatagramSocket sendReceiveSocket;
+    private Transport transport;
 
     /**
      * An ElevatorSystemLogger to log events.
@@ -28,129 +23,200 @@ public class Floor implements Runnable {
     private final ElevatorSystemLogger logger;
 
     /**
-     * Initializes a new Floor with a Scheduler representing the elevator scheduler to receive and send events to.
+     * A SimulationClock representing the clock the ElevatorSystem runs on.
+     */
+    private final SimulationClock clock;
+
+    /**
+     * A Workload representing the floor events to send to the Scheduler, and when to send each one.
+     */
+    private final Workload workload;
+
+    /**
+     * An IOException representing why the Floor stopped before sending every floor event of the Workload. Null, if it
+     * has not.
+     */
+    private volatile IOException failure;
+
+    /**
+     * Initializes a new Floor with a Scheduler representing the elevator scheduler to receive and send events to. The
+     * floor events are read from the default input file.
      *
      * @param scheduler A Scheduler representing the elevator scheduler to receive and send events to.
      */
     public Floor(Scheduler scheduler) {
+        this(scheduler, new InputFileWorkload(Paths.get(InputFileWorkload.DEFAULT_INPUT_FILE)));
+    }
+
+    /**
+     * Initializes a new Floor that sends the floor events of the specified Workload to the specified Scheduler.
+     *
+     * @param scheduler A Scheduler representing the elevator scheduler to receive and send events to.
+     * @param workload A Workload representing the floor events to send to the Scheduler.
+     * @throws UncheckedIOException If the Transport to the Scheduler could not be opened.
+     */
+    public Floor(Scheduler scheduler, Workload workload) {
         this.scheduler = scheduler;
-        logger = new ElevatorSystemLogger("Floor");
+        this.workload = workload;
+        clock = scheduler.getClock();
+        logger = new ElevatorSystemLogger("Floor", scheduler.getLogWriter());
+
+        // notify Scheduler of how many floor events it will be receiving before it starts
+        scheduler.setNumReqs(workload.size());
 
-        // initialize the DatagramSocket to send and receive messages to and from the Scheduler subsystem
+        // initialize the Transport to send and receive messages to and from the Scheduler subsystem
         try {
-            sendReceiveSocket = new DatagramSocket();
-        } catch (SocketException se) {
-            se.printStackTrace();
-            System.exit(1);
+            transport = scheduler.openTransport(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the transport of the Floor.", e);
         }
     }
 
     /**
-     * Sends a DatagramPacket to the Scheduler with the specified message.
+     * Sends a message to the Scheduler acknowledging the specified fulfilled floor event.
      *
-     * @param message A String representing a message to send to the Scheduler.
+     * @param fulfilledFloorEvent A HardwareDevice representing the fulfilled floor event to acknowledge.
      */
-    private void sendPacket(String message) {
-        byte[] messageBytes = message.getBytes();
+    private void sendAckPacket(HardwareDevice fulfilledFloorEvent) {
         try {
-            DatagramPacket sendPacket = new DatagramPacket(messageBytes, messageBytes.length,
-                    InetAddress.getLocalHost(), 5000);
-            sendReceiveSocket.send(sendPacket);
+            transport.send(HardwareDeviceCodec.ACK, fulfilledFloorEvent, transport.getLastSender());
         } catch (IOException e) {
-            e.printStackTrace();
-            System.exit(1);
+            logger.severe("Could not send ACK " + fulfilledFloorEvent + " to Scheduler: " + e);
+            return;
         }
 
-        logger.info("Sending " + message + " to Scheduler.");
+        logger.info("Sending ACK {0} to Scheduler.", fulfilledFloorEvent);
     }
 
     /**
-     * Receives a DatagramPacket from the Scheduler. Returns a String representing the message from the Scheduler.
+     * Receives a message from the Scheduler. Returns a HardwareDevice representing the message from the Scheduler.
      *
-     * @return A String representing the message from the Scheduler.
+     * @return A HardwareDevice representing the message from the Scheduler. Null, if the transport was closed or
+     *         could not receive.
      */
-    private String receivePacket() {
-        byte[] receiveBytes = new byte[200];
-        DatagramPacket receivePacket = new DatagramPacket(receiveBytes, receiveBytes.length);
+    private HardwareDevice receivePacket() {
+        HardwareDevice message;
         try {
-            sendReceiveSocket.receive(receivePacket);
+            message = transport.receive();
         } catch (IOException e) {
-            e.printStackTrace();
-            System.exit(1);
+            logger.severe("Could not receive from Scheduler: " + e);
+            return null;
         }
 
         // process the received message from the Scheduler
-        String message = new String(receivePacket.getData(), 0, receivePacket.getLength());
-        logger.info("Received " + message + " from Scheduler.");
+        if (message != null) {
+            logger.info("Received {0} from Scheduler.", message);
+        }
         return message;
     }
 
     /**
-     * Reads input.txt and creates a HardwareDevice objects to send to the Scheduler subsystem.
+     * Sends the floor events of the Workload to the Scheduler subsystem, each one at its release time. Returns at once
+     * if the Workload is empty. If the rest of the Workload cannot be read, tells the Scheduler not to wait for the
+     * floor events that were not sent, and keeps the IOException for getFailure.
      */
     @Override
     public void run() {
-        // send all floor events from input.txt to the Scheduler
-        try {
-            List<String> lines = Files.readAllLines(Paths.get("iteration5_input_v1.txt"));
-            scheduler.setNumReqs(lines.size()); // notify Scheduler of how many floor events it will be receiving
+        if (workload.size() == 0) {
+            logger.info("No requests to handle.");
+            transport.close();
+            clock.deregister();
+            return;
+        }
 
-            if (lines.isEmpty()) {
-                logger.info("No requests to handle... Exiting.");
-                System.exit(0);
-            }
+        // send all floor events of the workload to the Scheduler
+        try {
 
-            // send each floor event to the Scheduler subsystem
-            for (String s : lines) {
-                String[] info = s.split(" ");
-                sleep(1000);
-                logger.info("Elevator requested to go " + info[2] + " at floor " + info[1] + ".");
-                HardwareDevice floorEvent = createHardwareDevice(info);
-                logger.info("Sending " + floorEvent + " to Scheduler.");
-                scheduler.addFloorEvent(floorEvent);
-                logger.info("Received ACK " + floorEvent + " from Scheduler.");
+            // receive fulfilled floor events on their own thread, so they are acknowledged while floor events are
+            // still being sent
+            clock.register();
+            scheduler.start("FloorListener", this::receiveFulfilledFloorEvents);
+
+            // send each floor event to the Scheduler subsystem at its release time, counted from when the Floor started
+            long startTime = clock.currentTimeMillis();
+            while (workload.next()) {
+                clock.sleepUntil(startTime + workload.getReleaseTime());
+                HardwareDevice floorEvent = workload.getFloorEvent();
+                logger.info("Elevator requested to go {0} at floor {1}.", floorEvent.getFloorButton(),
+                        floorEvent.getFloor());
+                logger.info("Sending {0} to Scheduler.", floorEvent);
+                String assignedElevator = scheduler.addFloorEvent(floorEvent);
+                logger.info("Received ACK {0} from Scheduler.", floorEvent);
+                if (assignedElevator != null) {
+                    // display the elevator car the passengers have been assigned to at the hall
+                    logger.info("Passengers going from floor {0} to floor {1}, please take {2}.", floorEvent.getFloor(),
+                            floorEvent.getCarButton(), assignedElevator);
+                }
             }
-        } catch (IOException | InterruptedException e) {
-            System.err.println(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Interrupted before sending every floor event to Scheduler.");
+            scheduler.endFloorEvents();
+        } catch (IOException e) {
+            logger.severe("Could not read the rest of the workload: " + e);
+            failure = e;
+            scheduler.endFloorEvents();
         }
 
-        logger.info("All floor events from input.txt have been sent to Scheduler.");
+        logger.info("All floor events of the workload have been sent to Scheduler.");
+        clock.deregister();
+    }
 
-        // receive DatagramPackets from the Scheduler once a floor event has finished running and send an acknowledgment
-        while (scheduler.getNumReqsHandled() <= scheduler.getNumReqs()) {
+    /**
+     * Receives messages from the Scheduler once a floor event has finished running and sends an acknowledgment back,
+     * until every floor event sent has been completed, or the transport is closed or the thread interrupted.
+     */
+    private void receiveFulfilledFloorEvents() {
+        int numCompleted = 0;
+        while (numCompleted < scheduler.getNumReqs()) {
             logger.info("Waiting for a completed floor event from Scheduler...");
-            String completedFloorEvent = receivePacket();
-            sendPacket("ACK " + completedFloorEvent);
+            HardwareDevice completedFloorEvent = receivePacket();
+            if (completedFloorEvent == null) {
+                break; // the transport was closed or the thread interrupted while waiting, which stays interrupted
+            }
+            sendAckPacket(completedFloorEvent);
+            numCompleted++;
         }
 
         logger.info("All floor events have been completed.");
-        sendReceiveSocket.close(); // close socket once all floor events have been fulfilled
+        transport.close(); // close transport once all floor events have been fulfilled
+        clock.deregister();
+    }
+
+    /**
+     * Returns why the Floor stopped before sending every floor event of the Workload.
+     *
+     * @return An IOException representing why the Floor stopped. Null, if it has not.
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Closes the transport the Floor receives fulfilled floor events on, so the FloorListener stops waiting.
+     */
+    public void close() {
+        transport.close();
+    }
+
+    /**
+     * Returns an InetSocketAddress representing the address the Floor receives messages from the Scheduler on.
+     *
+     * @return An InetSocketAddress representing the address the Floor receives messages from the Scheduler on.
+     */
+    public InetSocketAddress getAddress() {
+        return transport.getLocalAddress();
     }
 
     /**
      * Creates a HardwareDevice with the specified information.
      *
-     * @param info An array of String information to initialize the HardwareDevice.
+     * @param info An array of String information to initialize the HardwareDevice, a line of an input file split on
+     *             spaces.
      * @return A HardwareDevice representing the specified information.
      */
     public HardwareDevice createHardwareDevice(String[] info) {
-        // process the time, floor, floor button, and car button that was selected
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm:ss:SS");
-        LocalTime time = LocalTime.parse(info[0], formatter);
-        int floor = Integer.parseInt(info[1]);
-        FloorButton floorButton = info[2].equalsIgnoreCase("up") ? FloorButton.UP : FloorButton.DOWN;
-        int carButton = Integer.parseInt(info[3]);
-        int numPassengers = Integer.parseInt(info[4]); //number of passengers for the floor event
-
-        // process the specified Elevator fault
-        StringBuilder faultStringBuilder = new StringBuilder();
-        for (int i = 5; i < info.length; i++) {
-            faultStringBuilder.append(info[i]).append(" ");
-        }
-        String fault = faultStringBuilder.toString().trim();
-
-        return new HardwareDevice("Elevator?", time, floor, floorButton, carButton, numPassengers,
-                Fault.stringToFault(fault));
+        return InputFileWorkload.parseFloorEvent(info);
     }
 
 }
@@ -0,0 +1,124 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * A class to represent a bounded, lock-free queue of hall calls, offered by any number of Floor threads and drained by
+ * the Scheduler.
+ * <p>
+ * The queue is a ring buffer with a sequence number per slot. A producer claims a slot by moving the tail forward with
+ * a compare-and-set, writes the hall call into it, then publishes it by advancing the sequence number of the slot, so
+ * producers never lock and never wait for each other. The consumer reads a slot once its sequence number says it has
+ * been published, and hands the slot back to producers by advancing its sequence number by one turn of the ring.
+ * <p>
+ * Only one thread may drain the queue at a time. The Scheduler only drains it while holding its own lock.
+ */
+public class HallCallQueue {
+
+    /**
+     * An array of HardwareDevices representing the slots of the ring buffer. A slot is only written by the producer
+     * that claimed it and only read by the consumer once it has been published.
+     */
+    private final HardwareDevice[] buffer;
+
+    /**
+     * An AtomicLongArray representing the sequence number of each slot. A slot with the sequence number of a position
+     * is free for the producer claiming that position, and a slot with the sequence number of a position plus one
+     * holds the hall call published at that position.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * An integer representing the capacity minus one. The capacity is a power of two, so the slot of a position is the
+     * position masked with this.
+     */
+    private final int mask;
+
+    /**
+     * An AtomicLong representing the position the next producer claims.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * A long representing the position the consumer reads next. Only accessed by the consumer.
+     */
+    private long head = 0;
+
+    /**
+     * Initializes an empty HallCallQueue.
+     *
+     * @param capacity An integer representing the maximum number of hall calls waiting. Rounded up to a power of two.
+     */
+    public HallCallQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, was " + capacity + ".");
+        }
+        int size = Integer.highestOneBit(capacity);
+        size = size < capacity ? size << 1 : size;
+        mask = size - 1;
+        buffer = new HardwareDevice[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds the specified hall call to the queue, unless it is full. Never blocks.
+     *
+     * @param hallCall A HardwareDevice representing the hall call to add.
+     * @return True, if the hall call was added. False, if the queue is full.
+     */
+    public boolean offer(HardwareDevice hallCall) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) (position & mask);
+            long sequence = sequences.get(slot);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer[slot] = hallCall;
+                    sequences.set(slot, position + 1); // publishes the hall call to the consumer
+                    return true;
+                }
+            } else if (sequence < position) {
+                return false; // the consumer has not read the hall call in this slot from the last turn yet
+            }
+            // another producer claimed the position first, so try the next one
+        }
+    }
+
+    /**
+     * Removes the hall call at the head of the queue and returns it. Must only be called by the consumer.
+     *
+     * @return A HardwareDevice representing the oldest hall call published. Null, if none has been published.
+     */
+    public HardwareDevice poll() {
+        int slot = (int) (head & mask);
+        if (sequences.get(slot) != head + 1) {
+            return null;
+        }
+        HardwareDevice hallCall = buffer[slot];
+        buffer[slot] = null;
+        sequences.set(slot, head + buffer.length); // hands the slot back to producers for the next turn
+        head++;
+        return hallCall;
+    }
+
+    /**
+     * Removes every hall call published so far, up to the capacity of the queue, and passes each one to the specified
+     * Consumer in the order they were added. Must only be called by the consumer.
+     *
+     * @param consumer A Consumer of HardwareDevices to pass every hall call removed to.
+     * @return An integer representing the number of hall calls removed.
+     */
+    public int drain(Consumer<HardwareDevice> consumer) {
+        int drained = 0;
+        HardwareDevice hallCall;
+        while (drained < buffer.length && (hallCall = poll()) != null) {
+            consumer.accept(hallCall);
+            drained++;
+        }
+        return drained;
+    }
+
+}
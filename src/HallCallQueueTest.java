@@ -0,0 +1,93 @@
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the HallCallQueue.
+ */
+class HallCallQueueTest {
+
+    /**
+     * Returns a new hall call requested at the specified floor.
+     *
+     * @param floor An integer representing the floor the hall call is requested at.
+     * @return A HardwareDevice representing the hall call.
+     */
+    private HardwareDevice hallCall(int floor) {
+        return new HardwareDevice("Elevator?", LocalTime.parse("14:05:15.0"), floor, FloorButton.UP, floor + 1, 1,
+                Fault.NO_FAULT);
+    }
+
+    /**
+     * Tests that hall calls are drained in the order they were offered, that a full queue rejects hall calls, and that
+     * slots are reused once they have been drained.
+     */
+    @Test
+    void testOfferAndDrain() {
+        HallCallQueue queue = new HallCallQueue(3); // rounded up to 4
+        List<HardwareDevice> offered = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            offered.add(hallCall(i + 1));
+            assertTrue(queue.offer(offered.get(i)));
+        }
+        assertFalse(queue.offer(hallCall(5)));
+
+        assertSame(offered.get(0), queue.poll());
+        assertTrue(queue.offer(hallCall(6))); // the slot polled is free again
+
+        List<HardwareDevice> drained = new ArrayList<>();
+        assertEquals(4, queue.drain(drained::add));
+        assertEquals(offered.subList(1, 4), drained.subList(0, 3));
+        assertEquals(6, drained.get(3).getFloor());
+        assertNull(queue.poll());
+    }
+
+    /**
+     * Tests that no hall call is lost or reordered when several Floors offer hall calls while the Scheduler drains
+     * them.
+     */
+    @Test
+    void testConcurrentProducers() throws InterruptedException {
+        int numProducers = 4;
+        int numHallCalls = 10_000;
+        HallCallQueue queue = new HallCallQueue(64);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < numProducers; p++) {
+            int floor = p;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < numHallCalls; i++) {
+                    HardwareDevice hallCall = hallCall(floor);
+                    while (!queue.offer(hallCall)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+
+        long[] lastRequestIds = new long[numProducers];
+        int received = 0;
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (received < numProducers * numHallCalls && System.nanoTime() < deadline) {
+            HardwareDevice hallCall = queue.poll();
+            if (hallCall == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            // the hall calls of each producer come out in the order they were created
+            assertTrue(hallCall.getRequestId() > lastRequestIds[hallCall.getFloor()]);
+            lastRequestIds[hallCall.getFloor()] = hallCall.getRequestId();
+            received++;
+        }
+        for (Thread producer : producers) {
+            producer.join(5000);
+        }
+        assertEquals(numProducers * numHallCalls, received);
+        assertNull(queue.poll());
+    }
+
+}
@@ -1,34 +1,62 @@
 import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A class to represent the necessary information to pass to the Scheduler.
+ * <p>
+ * The time is kept in nanoseconds of the day rather than as a LocalTime, so moving an elevator car and opening its
+ * doors does not create a new LocalTime every time, and a HardwareDevice can be overwritten with set, so a Transport
+ * can decode every ACK into the same one.
  */
 public class HardwareDevice {
 
     /**
-     * A String representing the name of the elevator executing the floor event.
+     * A long representing the number of nanoseconds in a day.
      */
-    private String elevator;
+    private static final long NANOS_PER_DAY = 24L * 60 * 60 * 1_000_000_000;
 
     /**
-     * A LocalTime representing when a passenger requests an elevator.
+     * A long representing the number of nanoseconds in a second.
      */
-    private LocalTime time;
+    private static final long NANOS_PER_SECOND = 1_000_000_000;
+
+    /**
+     * An AtomicLong representing the request ID of the next floor event created in this process.
+     */
+    private static final AtomicLong nextRequestId = new AtomicLong(1);
+
+    /**
+     * A long representing the ID that uniquely identifies the request, kept when the HardwareDevice is sent between
+     * subsystems.
+     */
+    private long requestId;
+
+    /**
+     * An integer representing the ID of the elevator executing the floor event. ElevatorRegistry.NO_ELEVATOR, if no
+     * elevator has been assigned.
+     */
+    private int elevatorId;
+
+    /**
+     * A long representing when a passenger requests an elevator, in nanoseconds of the day. -1, if there is no time.
+     */
+    private long timeNanos;
 
     /**
      * An integer representing the floor number a passenger requested an elevator at.
      */
-    private final int floor;
+    private int floor;
 
     /**
      * A FloorButton representing whether the passenger would like to move up or down.
      */
-    private final FloorButton floorButton;
+    private FloorButton floorButton;
 
     /**
      * An integer representing the floor number a passenger would like to move to.
      */
-    private final int carButton;
+    private int carButton;
 
     /**
      * True if the elevator has arrived at the floor number a passenger would like to move to. False if not.
@@ -38,7 +66,7 @@ public class HardwareDevice {
     /**
      * A Fault related to the floor event.
      */
-    private final Fault fault;
+    private Fault fault;
 
     /**
      * True, if the Elevator that has arrived at its main floor event destination still has floor events to fulfill.
@@ -49,7 +77,13 @@ public class HardwareDevice {
     /**
      * An integer representing the number of passengers related to the floor event.
      */
-    private final int numPassengers;
+    private int numPassengers;
+
+    /**
+     * An array of longs representing the SimulationClock time, in milliseconds, each RequestStage was reached at,
+     * indexed by ordinal. -1, if the stage has not been reached.
+     */
+    private final long[] stageTimes = {-1, -1, -1, -1, -1};
 
     /**
      * Initializes a HardwareDevice.
@@ -64,31 +98,128 @@ public class HardwareDevice {
      */
     public HardwareDevice (String elevator, LocalTime time, int floor, FloorButton floorButton, int carButton,
                            int numPassengers, Fault fault) {
-        this.elevator = elevator;
-        this.time = time;
+        this(nextRequestId.getAndIncrement(), ElevatorRegistry.idOf(elevator), time, floor, floorButton, carButton,
+                numPassengers, fault);
+    }
+
+    /**
+     * Initializes a HardwareDevice with the specified request ID, e.g. one decoded from a message.
+     *
+     * @param requestId A long representing the ID that uniquely identifies the request.
+     * @param elevatorId An integer representing the ID of the elevator running the request.
+     * @param time A LocalTime representing when a passenger requests an elevator.
+     * @param floor An integer representing the floor number a passenger requested an elevator at.
+     * @param floorButton A FloorButton representing whether the passenger would like to move up or down.
+     * @param numPassengers An integer representing the number of passengers related to the floor event.
+     * @param carButton An integer representing the floor number a passenger would like to move to.
+     * @param fault A Fault related to the floor event.
+     */
+    public HardwareDevice (long requestId, int elevatorId, LocalTime time, int floor, FloorButton floorButton,
+                           int carButton, int numPassengers, Fault fault) {
+        set(requestId, elevatorId, time == null ? -1 : time.toNanoOfDay(), floor, floorButton, carButton,
+                numPassengers, fault);
+    }
+
+    /**
+     * Initializes an empty HardwareDevice to be overwritten with set, e.g. by HardwareDeviceCodec.decode.
+     */
+    public HardwareDevice () {
+        this(0, ElevatorRegistry.NO_ELEVATOR, null, 0, FloorButton.UP, 0, 0, Fault.NO_FAULT);
+    }
+
+    /**
+     * Overwrites every field of the HardwareDevice, so it represents another request. The HardwareDevice has not
+     * arrived, has no more floor events and has not reached any RequestStage afterwards.
+     *
+     * @param requestId A long representing the ID that uniquely identifies the request.
+     * @param elevatorId An integer representing the ID of the elevator running the request.
+     * @param timeNanos A long representing when a passenger requests an elevator, in nanoseconds of the day. -1, if
+     *                  there is no time.
+     * @param floor An integer representing the floor number a passenger requested an elevator at.
+     * @param floorButton A FloorButton representing whether the passenger would like to move up or down.
+     * @param carButton An integer representing the floor number a passenger would like to move to.
+     * @param numPassengers An integer representing the number of passengers related to the floor event.
+     * @param fault A Fault related to the floor event.
+     */
+    public final void set(long requestId, int elevatorId, long timeNanos, int floor, FloorButton floorButton,
+                          int carButton, int numPassengers, Fault fault) {
+        this.requestId = requestId;
+        this.elevatorId = elevatorId;
+        this.timeNanos = timeNanos;
         this.floor = floor;
         this.floorButton = floorButton;
         this.carButton = carButton;
         this.numPassengers = numPassengers;
         this.fault = fault;
+        arrived = false;
+        moreFloorEvents = false;
+        Arrays.fill(stageTimes, -1);
+    }
+
+    /**
+     * Overwrites every field of the HardwareDevice but its RequestStage times with the fields of the specified one, so
+     * it shows the specified HardwareDevice as it is now, e.g. in a log message.
+     *
+     * @param other A HardwareDevice to copy.
+     */
+    public void copyFrom(HardwareDevice other) {
+        requestId = other.requestId;
+        elevatorId = other.elevatorId;
+        timeNanos = other.timeNanos;
+        floor = other.floor;
+        floorButton = other.floorButton;
+        carButton = other.carButton;
+        numPassengers = other.numPassengers;
+        fault = other.fault;
+        arrived = other.arrived;
+        moreFloorEvents = other.moreFloorEvents;
+    }
+
+    /**
+     * Returns a long representing the ID that uniquely identifies the request.
+     *
+     * @return A long representing the ID that uniquely identifies the request.
+     */
+    public long getRequestId() {
+        return requestId;
     }
 
     /**
      * Returns a LocalTime representing when a passenger requests an elevator.
      *
-     * @return A LocalTime representing when a passenger requests an elevator.
+     * @return A LocalTime representing when a passenger requests an elevator. Null, if there is no time.
      */
     public LocalTime getTime() {
-        return time;
+        return timeNanos == -1 ? null : LocalTime.ofNanoOfDay(timeNanos);
     }
 
     /**
-     * Returns an Elevator representing the elevator running the request.
+     * Returns when a passenger requests an elevator, in nanoseconds of the day.
      *
-     * @return An Elevator representing the elevator running the request.
+     * @return A long representing when a passenger requests an elevator, in nanoseconds of the day. -1, if there is no
+     * time.
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * Returns a String representing the name of the elevator running the request.
+     *
+     * @return A String representing the name of the elevator running the request.
      */
     public String getElevator() {
-        return elevator;
+        return ElevatorRegistry.nameOf(elevatorId);
+    }
+
+    /**
+     * Returns an integer representing the ID of the elevator running the request.
+     *
+     * @return An integer representing the ID of the elevator running the request. ElevatorRegistry.NO_ELEVATOR, if no
+     * elevator has been assigned.
+     */
+    public int getElevatorId() {
+        return elevatorId;
     }
 
     /**
@@ -156,16 +287,29 @@ public class HardwareDevice {
      * @param time A LocalTime representing when a passenger requests an elevator.
      */
     public void setTime(LocalTime time) {
-        this.time = time;
+        timeNanos = time == null ? -1 : time.toNanoOfDay();
+    }
+
+    /**
+     * Adds the specified number of seconds to the time of the floor event, wrapping around midnight like
+     * LocalTime.plusSeconds. Does nothing if there is no time.
+     *
+     * @param seconds A long representing the number of seconds to add.
+     */
+    public void addSeconds(long seconds) {
+        if (timeNanos != -1) {
+            timeNanos = Math.floorMod(timeNanos + seconds % (NANOS_PER_DAY / NANOS_PER_SECOND) * NANOS_PER_SECOND,
+                    NANOS_PER_DAY);
+        }
     }
 
     /**
-     * Sets the Elevator to the specified elevator.
+     * Sets the Elevator to the elevator with the specified ID.
      *
-     * @param name A String representing the name of the elevator.
+     * @param elevatorId An integer representing the ID of the elevator.
      */
-    public void setElevator(String name) {
-        elevator = name;
+    public void setElevatorId(int elevatorId) {
+        this.elevatorId = elevatorId;
     }
 
     /**
@@ -190,6 +334,29 @@ public class HardwareDevice {
         return moreFloorEvents;
     }
 
+    /**
+     * Stamps the specified stage with the specified time, unless it has already been stamped.
+     *
+     * @param stage A RequestStage representing the stage the floor event has reached.
+     * @param timeMillis A long representing the SimulationClock time, in milliseconds, the stage was reached at.
+     */
+    public void stamp(RequestStage stage, long timeMillis) {
+        if (stageTimes[stage.ordinal()] == -1) {
+            stageTimes[stage.ordinal()] = timeMillis;
+        }
+    }
+
+    /**
+     * Returns the time the specified stage was reached at.
+     *
+     * @param stage A RequestStage representing a stage of the floor event.
+     * @return A long representing the SimulationClock time, in milliseconds, the stage was reached at. -1, if it has
+     * not been reached.
+     */
+    public long getStageTime(RequestStage stage) {
+        return stageTimes[stage.ordinal()];
+    }
+
     /**
      * Returns a string representing the HardwareDevice.
      *
@@ -197,7 +364,7 @@ public class HardwareDevice {
      */
     @Override
     public String toString() {
-        return "{Elevator: " + elevator + ", Time: " + time + ", Requested Floor: " + floor
+        return "{Elevator: " + getElevator() + ", Time: " + getTime() + ", Requested Floor: " + floor
                 + ", Direction: " + floorButton + ", Car Button: " + carButton
                 + ", Number of Passengers: " + numPassengers + ", Arrived: " + arrived
                 + ", Fault: " + fault.toString() + ", More Floor Events: " + moreFloorEvents + "}";
@@ -0,0 +1,209 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A class to encode and decode HardwareDevices to and from the fixed-layout binary messages sent between the
+ * Scheduler, Elevator and Floor subsystems.
+ * <p>
+ * Every message is {@link #MESSAGE_LENGTH} bytes long and laid out as follows:
+ * <pre>
+ * offset  size  field
+ *      0     1  version
+ *      1     1  message type (FLOOR_EVENT or ACK)
+ *      2     8  request ID
+ *     10     4  elevator ID (0 if no elevator has been assigned)
+ *     14     8  time, in nanoseconds of the day (-1 if no time)
+ *     22     4  requested floor
+ *     26     1  floor button ordinal
+ *     27     4  car button
+ *     31     4  number of passengers
+ *     35     1  fault ordinal
+ *     36     1  flags (bit 0: arrived, bit 1: more floor events)
+ *     37    40  time each RequestStage was reached at, in milliseconds, by ordinal (-1 if not reached)
+ * </pre>
+ * The String form of a HardwareDevice is only used for logging.
+ */
+public class HardwareDeviceCodec {
+
+    /**
+     * A byte representing the version of the message layout.
+     */
+    public static final byte VERSION = 3;
+
+    /**
+     * An integer representing the length, in bytes, of every encoded message.
+     */
+    public static final int MESSAGE_LENGTH = 77;
+
+    /**
+     * A byte representing a message carrying a floor event.
+     */
+    public static final byte FLOOR_EVENT = 0;
+
+    /**
+     * A byte representing a message acknowledging a floor event.
+     */
+    public static final byte ACK = 1;
+
+    /**
+     * A bit flag representing that the elevator has arrived at the car button floor.
+     */
+    private static final byte ARRIVED_FLAG = 1;
+
+    /**
+     * A bit flag representing that the Elevator still has floor events to fulfill.
+     */
+    private static final byte MORE_FLOOR_EVENTS_FLAG = 2;
+
+    /**
+     * An array of FloorButtons indexed by ordinal, cached to avoid copying FloorButton.values() on every decode.
+     */
+    private static final FloorButton[] FLOOR_BUTTONS = FloorButton.values();
+
+    /**
+     * An array of Faults indexed by ordinal, cached to avoid copying Fault.values() on every decode.
+     */
+    private static final Fault[] FAULTS = Fault.values();
+
+    /**
+     * An array of RequestStages indexed by ordinal, cached to avoid copying RequestStage.values() on every message.
+     */
+    private static final RequestStage[] STAGES = RequestStage.values();
+
+    /**
+     * Returns a new array of bytes containing the specified HardwareDevice encoded as a message of the specified type.
+     *
+     * @param messageType A byte representing the type of the message, FLOOR_EVENT or ACK.
+     * @param hardwareDevice A HardwareDevice to encode.
+     * @return An array of bytes containing the encoded message.
+     */
+    public static byte[] encode(byte messageType, HardwareDevice hardwareDevice) {
+        byte[] data = new byte[MESSAGE_LENGTH];
+        encode(ByteBuffer.wrap(data), messageType, hardwareDevice);
+        return data;
+    }
+
+    /**
+     * Writes the specified HardwareDevice encoded as a message of the specified type into the specified ByteBuffer,
+     * starting at its current position.
+     *
+     * @param buffer A ByteBuffer with at least MESSAGE_LENGTH bytes remaining.
+     * @param messageType A byte representing the type of the message, FLOOR_EVENT or ACK.
+     * @param hardwareDevice A HardwareDevice to encode.
+     */
+    public static void encode(ByteBuffer buffer, byte messageType, HardwareDevice hardwareDevice) {
+        byte flags = 0;
+        if (hardwareDevice.getArrived()) {
+            flags |= ARRIVED_FLAG;
+        }
+        if (hardwareDevice.getMoreFloorEvents()) {
+            flags |= MORE_FLOOR_EVENTS_FLAG;
+        }
+
+        buffer.put(VERSION);
+        buffer.put(messageType);
+        buffer.putLong(hardwareDevice.getRequestId());
+        buffer.putInt(hardwareDevice.getElevatorId());
+        buffer.putLong(hardwareDevice.getTimeNanos());
+        buffer.putInt(hardwareDevice.getFloor());
+        buffer.put((byte) hardwareDevice.getFloorButton().ordinal());
+        buffer.putInt(hardwareDevice.getCarButton());
+        buffer.putInt(hardwareDevice.getNumPassengers());
+        buffer.put((byte) hardwareDevice.getFault().ordinal());
+        buffer.put(flags);
+        for (RequestStage stage : STAGES) {
+            buffer.putLong(hardwareDevice.getStageTime(stage));
+        }
+    }
+
+    /**
+     * Returns the type of the message starting at the current position of the specified ByteBuffer, without changing
+     * its position.
+     *
+     * @param buffer A ByteBuffer containing an encoded message.
+     * @return A byte representing the type of the message, FLOOR_EVENT or ACK.
+     */
+    public static byte messageType(ByteBuffer buffer) {
+        return buffer.get(buffer.position() + 1);
+    }
+
+    /**
+     * Returns the type of the specified encoded message.
+     *
+     * @param data An array of bytes containing an encoded message.
+     * @return A byte representing the type of the message, FLOOR_EVENT or ACK.
+     */
+    public static byte messageType(byte[] data) {
+        return data[1];
+    }
+
+    /**
+     * Returns a HardwareDevice decoded from the specified array of bytes.
+     *
+     * @param data An array of bytes containing an encoded message.
+     * @param length An integer representing the number of bytes received.
+     * @return A HardwareDevice decoded from the specified array of bytes.
+     */
+    public static HardwareDevice decode(byte[] data, int length) {
+        return decode(ByteBuffer.wrap(data, 0, length));
+    }
+
+    /**
+     * Returns a HardwareDevice decoded from the message starting at the current position of the specified ByteBuffer.
+     * Advances the position of the ByteBuffer past the message.
+     *
+     * @param buffer A ByteBuffer containing an encoded message.
+     * @return A HardwareDevice decoded from the specified ByteBuffer.
+     * @throws IllegalArgumentException If the message is truncated or was encoded with a different version.
+     */
+    public static HardwareDevice decode(ByteBuffer buffer) {
+        return decode(buffer, new HardwareDevice());
+    }
+
+    /**
+     * Decodes the message starting at the current position of the specified ByteBuffer into the specified
+     * HardwareDevice, overwriting every field of it, and returns it. Advances the position of the ByteBuffer past the
+     * message.
+     *
+     * @param buffer A ByteBuffer containing an encoded message.
+     * @param hardwareDevice A HardwareDevice to decode the message into.
+     * @return The specified HardwareDevice.
+     * @throws IllegalArgumentException If the message is truncated or was encoded with a different version.
+     */
+    public static HardwareDevice decode(ByteBuffer buffer, HardwareDevice hardwareDevice) {
+        if (buffer.remaining() < MESSAGE_LENGTH) {
+            throw new IllegalArgumentException("Message is " + buffer.remaining() + " bytes long, expected "
+                    + MESSAGE_LENGTH + " bytes.");
+        }
+
+        try {
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported message version " + version + ".");
+            }
+            buffer.get(); // message type, read with messageType()
+            long requestId = buffer.getLong();
+            int elevatorId = buffer.getInt();
+            long nanoOfDay = buffer.getLong();
+            int floor = buffer.getInt();
+            FloorButton floorButton = FLOOR_BUTTONS[buffer.get()];
+            int carButton = buffer.getInt();
+            int numPassengers = buffer.getInt();
+            Fault fault = FAULTS[buffer.get()];
+            byte flags = buffer.get();
+
+            hardwareDevice.set(requestId, elevatorId, nanoOfDay, floor, floorButton, carButton, numPassengers, fault);
+            if ((flags & ARRIVED_FLAG) != 0) {
+                hardwareDevice.setArrived();
+            }
+            hardwareDevice.setMoreFloorEvents((flags & MORE_FLOOR_EVENTS_FLAG) != 0);
+            for (RequestStage stage : STAGES) {
+                hardwareDevice.stamp(stage, buffer.getLong());
+            }
+            return hardwareDevice;
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed message.", e);
+        }
+    }
+
+}
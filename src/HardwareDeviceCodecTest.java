@@ -0,0 +1,92 @@
+import java.nio.ByteBuffer;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the HardwareDeviceCodec.
+ */
+class HardwareDeviceCodecTest {
+
+    /**
+     * Tests that a HardwareDevice, and the stages it has reached, are the same after being encoded and decoded.
+     */
+    @Test
+    void testEncodeAndDecode() {
+        HardwareDevice hardwareDevice = new HardwareDevice("Elevator3", LocalTime.parse("13:14:15.6"), 7,
+                FloorButton.DOWN, 2, 4, Fault.DOORS_NOT_CLOSING);
+        hardwareDevice.setArrived();
+        hardwareDevice.setMoreFloorEvents(true);
+        hardwareDevice.stamp(RequestStage.REGISTERED, 1000);
+        hardwareDevice.stamp(RequestStage.ASSIGNED, 1250);
+
+        byte[] data = HardwareDeviceCodec.encode(HardwareDeviceCodec.FLOOR_EVENT, hardwareDevice);
+        assertEquals(HardwareDeviceCodec.MESSAGE_LENGTH, data.length);
+        assertEquals(HardwareDeviceCodec.FLOOR_EVENT, HardwareDeviceCodec.messageType(data));
+        HardwareDevice decoded = HardwareDeviceCodec.decode(data, data.length);
+        assertEquals(hardwareDevice.toString(), decoded.toString());
+        assertEquals(hardwareDevice.getRequestId(), decoded.getRequestId());
+        assertEquals(1000, decoded.getStageTime(RequestStage.REGISTERED));
+        assertEquals(1250, decoded.getStageTime(RequestStage.ASSIGNED));
+        assertEquals(-1, decoded.getStageTime(RequestStage.DROPPED_OFF));
+    }
+
+    /**
+     * Tests that an unassigned floor event and an acknowledgement are encoded and decoded correctly.
+     */
+    @Test
+    void testEncodeAndDecodeUnassignedAck() {
+        HardwareDevice hardwareDevice = new HardwareDevice("Elevator?", LocalTime.parse("02:22:00.15"), 2,
+                FloorButton.UP, 18, 1, Fault.NO_FAULT);
+        ByteBuffer buffer = ByteBuffer.allocate(HardwareDeviceCodec.MESSAGE_LENGTH);
+        HardwareDeviceCodec.encode(buffer, HardwareDeviceCodec.ACK, hardwareDevice);
+        buffer.flip();
+
+        assertEquals(HardwareDeviceCodec.ACK, HardwareDeviceCodec.messageType(buffer));
+        HardwareDevice decoded = HardwareDeviceCodec.decode(buffer);
+        assertEquals(hardwareDevice.toString(), decoded.toString());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    /**
+     * Tests that decoding into a HardwareDevice that has been used before overwrites all of it, including whether it
+     * has arrived and the stages it has reached.
+     */
+    @Test
+    void testDecodeInto() {
+        HardwareDevice reused = new HardwareDevice("Elevator3", LocalTime.parse("13:14:15.6"), 7, FloorButton.DOWN, 2,
+                4, Fault.DOORS_NOT_CLOSING);
+        reused.setArrived();
+        reused.setMoreFloorEvents(true);
+        reused.stamp(RequestStage.DROPPED_OFF, 5000);
+
+        HardwareDevice hardwareDevice = new HardwareDevice("Elevator1", null, 3, FloorButton.UP, 9, 1,
+                Fault.NO_FAULT);
+        hardwareDevice.stamp(RequestStage.REGISTERED, 1000);
+        ByteBuffer buffer = ByteBuffer.allocate(HardwareDeviceCodec.MESSAGE_LENGTH);
+        HardwareDeviceCodec.encode(buffer, HardwareDeviceCodec.ACK, hardwareDevice);
+        buffer.flip();
+
+        assertSame(reused, HardwareDeviceCodec.decode(buffer, reused));
+        assertEquals(hardwareDevice.toString(), reused.toString());
+        assertEquals(hardwareDevice.getRequestId(), reused.getRequestId());
+        assertEquals(1000, reused.getStageTime(RequestStage.REGISTERED));
+        assertEquals(-1, reused.getStageTime(RequestStage.DROPPED_OFF));
+    }
+
+    /**
+     * Tests that truncated messages and messages with an unknown version are rejected.
+     */
+    @Test
+    void testDecodeMalformedMessage() {
+        HardwareDevice hardwareDevice = new HardwareDevice("Elevator1", LocalTime.parse("13:14:15.6"), 1,
+                FloorButton.UP, 2, 3, Fault.NO_FAULT);
+        byte[] data = HardwareDeviceCodec.encode(HardwareDeviceCodec.FLOOR_EVENT, hardwareDevice);
+        assertThrows(IllegalArgumentException.class, () -> HardwareDeviceCodec.decode(data, data.length - 1));
+
+        data[0] = HardwareDeviceCodec.VERSION + 1;
+        assertThrows(IllegalArgumentException.class, () -> HardwareDeviceCodec.decode(data, data.length));
+    }
+
+}
@@ -23,6 +23,27 @@ class HardwareDeviceTest {
         assertEquals(2, hardwareDevice.getNumPassengers());
         assertEquals(4, hardwareDevice.getCarButton());
         assertFalse(hardwareDevice.getArrived());
+        assertNotEquals(hardwareDevice.getRequestId(), new HardwareDevice("Elevator1", time, 2, FloorButton.UP, 4,
+                2, Fault.NO_FAULT).getRequestId());
+    }
+
+    /**
+     * Tests that adding seconds to the time of a floor event moves it forward, wrapping around midnight, and does
+     * nothing to a floor event with no time.
+     */
+    @Test
+    void testAddSeconds() {
+        HardwareDevice hardwareDevice = new HardwareDevice("Elevator1", LocalTime.parse("23:59:55.5"), 2,
+                FloorButton.UP, 4, 2, Fault.NO_FAULT);
+        hardwareDevice.addSeconds(3);
+        assertEquals(LocalTime.parse("23:59:58.5"), hardwareDevice.getTime());
+        hardwareDevice.addSeconds(10);
+        assertEquals(LocalTime.parse("00:00:08.5"), hardwareDevice.getTime());
+
+        hardwareDevice.setTime(null);
+        hardwareDevice.addSeconds(10);
+        assertNull(hardwareDevice.getTime());
+        assertEquals(-1, hardwareDevice.getTimeNanos());
     }
 
     /**
@@ -0,0 +1,30 @@
+/**
+ * A class to represent an ElevatorSystemView that shows nothing, so the ElevatorSystem can run without a display and
+ * without loading any Swing or AWT classes. Every Elevator starts with it until another view is set.
+ */
+public class HeadlessView implements ElevatorSystemView {
+
+    /**
+     * A HeadlessView shared by every Elevator, since it has no state.
+     */
+    public static final HeadlessView INSTANCE = new HeadlessView();
+
+    /**
+     * Initializes a HeadlessView. Use INSTANCE instead.
+     */
+    private HeadlessView() {
+    }
+
+    @Override
+    public void updateElevator(Elevator elevator) {
+    }
+
+    @Override
+    public void updateFloor(Elevator elevator) {
+    }
+
+    @Override
+    public void addRequests(HardwareDevice request) {
+    }
+
+}
@@ -0,0 +1,100 @@
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A class to represent a network of InProcessTransports that deliver messages to each other inside the JVM, so an
+ * ElevatorSystem runs without opening a single socket, e.g. for the replicas of a MonteCarloRunner.
+ * <p>
+ * Every endpoint gets an unresolved address on HOST with a port number of its own, counted from 1, whatever port it
+ * asks for, so the ElevatorSystems on different networks never clash and never reach each other.
+ */
+public class InProcessNetwork implements TransportFactory {
+
+    /**
+     * A String representing the host name of the address of every endpoint.
+     */
+    public static final String HOST = "in-process";
+
+    /**
+     * A Map of the InProcessTransports that are open, by address.
+     */
+    private final Map<SocketAddress, InProcessTransport> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * An AtomicInteger representing the port number of the last endpoint opened.
+     */
+    private final AtomicInteger lastPort = new AtomicInteger();
+
+    /**
+     * An ArrayDeque of the Envelopes that are not carrying a message, for the endpoints to send their next messages
+     * in.
+     */
+    private final ArrayDeque<InProcessTransport.Envelope> freeEnvelopes = new ArrayDeque<>();
+
+    /**
+     * A ReentrantLock guarding the free Envelopes.
+     */
+    private final ReentrantLock envelopeLock = new ReentrantLock();
+
+    @Override
+    public InProcessTransport open(int port, SimulationClock clock) {
+        InetSocketAddress address = InetSocketAddress.createUnresolved(HOST, lastPort.incrementAndGet());
+        InProcessTransport transport = new InProcessTransport(this, address, clock);
+        endpoints.put(address, transport);
+        return transport;
+    }
+
+    /**
+     * Returns the endpoint with the specified address.
+     *
+     * @param address A SocketAddress representing the address of the endpoint.
+     * @return An InProcessTransport with the specified address. Null, if none is open.
+     */
+    InProcessTransport getEndpoint(SocketAddress address) {
+        return endpoints.get(address);
+    }
+
+    /**
+     * Returns an Envelope to send a message in, a free one if there is one.
+     *
+     * @return An InProcessTransport.Envelope that is not carrying a message.
+     */
+    InProcessTransport.Envelope takeEnvelope() {
+        envelopeLock.lock();
+        try {
+            InProcessTransport.Envelope envelope = freeEnvelopes.poll();
+            return envelope == null ? new InProcessTransport.Envelope() : envelope;
+        } finally {
+            envelopeLock.unlock();
+        }
+    }
+
+    /**
+     * Gives back the specified Envelope once its message has been received or dropped, to send another message in.
+     *
+     * @param envelope An InProcessTransport.Envelope that is no longer carrying a message.
+     */
+    void giveBack(InProcessTransport.Envelope envelope) {
+        envelopeLock.lock();
+        try {
+            freeEnvelopes.push(envelope);
+        } finally {
+            envelopeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the specified endpoint once it has been closed, so messages sent to it are dropped.
+     *
+     * @param transport An InProcessTransport that has been closed.
+     */
+    void remove(InProcessTransport transport) {
+        endpoints.remove(transport.getLocalAddress());
+    }
+
+}
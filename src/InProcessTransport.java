@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.Selector;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A class to represent an endpoint of an InProcessNetwork, which behaves like a DatagramTransport without a socket:
+ * each message is encoded with the HardwareDeviceCodec, so the receiver gets a copy of the HardwareDevice just as it
+ * would over UDP, and put straight in the queue of the endpoint it is sent to. The Envelope a message is encoded into
+ * is taken from the InProcessNetwork and given back once the message is received, so sending allocates nothing once
+ * the network has as many Envelopes as there are messages in flight.
+ * <p>
+ * Like a datagram, a message sent to an endpoint that is not open is dropped, and interrupting a thread waiting for a
+ * message closes the transport.
+ */
+public class InProcessTransport implements Transport {
+
+    /**
+     * An Envelope put in the queue when the transport is closed, to wake up a thread waiting for a message.
+     */
+    private static final Envelope CLOSED = new Envelope();
+
+    /**
+     * An InProcessNetwork representing the network the transport is an endpoint of.
+     */
+    private final InProcessNetwork network;
+
+    /**
+     * An InetSocketAddress representing the address other endpoints can send messages to this transport on.
+     */
+    private final InetSocketAddress localAddress;
+
+    /**
+     * A SimulationClock to report messages sent and received to.
+     */
+    private final SimulationClock clock;
+
+    /**
+     * A BlockingQueue of Envelopes representing the messages delivered to the transport and not received yet.
+     */
+    private final BlockingQueue<Envelope> messages = new LinkedBlockingQueue<>();
+
+    /**
+     * A ReentrantLock held while delivering a message and while closing the transport, so no message is delivered once
+     * it has been closed.
+     */
+    private final ReentrantLock deliveryLock = new ReentrantLock();
+
+    /**
+     * A Selector to wake up when a message is delivered. Null, while the transport is in blocking mode.
+     */
+    private volatile Selector selector;
+
+    /**
+     * True, if the transport has been closed. False, if not. Only set while holding the delivery lock.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * A SocketAddress representing the sender of the last message received.
+     */
+    private SocketAddress lastSender;
+
+    /**
+     * A byte representing the type of the last message received, HardwareDeviceCodec.FLOOR_EVENT or
+     * HardwareDeviceCodec.ACK.
+     */
+    private byte lastMessageType;
+
+    /**
+     * A HardwareDevice every ACK received is decoded into.
+     */
+    private final HardwareDevice ack = new HardwareDevice();
+
+    /**
+     * Initializes an InProcessTransport. Use InProcessNetwork.open instead.
+     *
+     * @param network An InProcessNetwork representing the network the transport is an endpoint of.
+     * @param localAddress An InetSocketAddress representing the address of the transport on the network.
+     * @param clock A SimulationClock to report messages sent and received to.
+     */
+    InProcessTransport(InProcessNetwork network, InetSocketAddress localAddress, SimulationClock clock) {
+        this.network = network;
+        this.localAddress = localAddress;
+        this.clock = clock;
+    }
+
+    @Override
+    public void register(Selector selector) {
+        this.selector = selector;
+    }
+
+    @Override
+    public void send(byte messageType, HardwareDevice message, SocketAddress target) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        InProcessTransport receiver = network.getEndpoint(target);
+        if (receiver == null) {
+            return; // dropped, like a datagram sent to a closed socket
+        }
+        Envelope envelope = network.takeEnvelope();
+        envelope.message.clear();
+        HardwareDeviceCodec.encode(envelope.message, messageType, message);
+        envelope.message.flip();
+        envelope.sender = localAddress;
+        if (!receiver.deliver(envelope)) {
+            network.giveBack(envelope);
+        }
+    }
+
+    /**
+     * Puts the specified message in the queue of the transport, unless it has been closed, and wakes up the Selector it
+     * is registered with.
+     *
+     * @param envelope An Envelope representing the message and its sender.
+     * @return True, if the message was delivered. False, if it was dropped because the transport has been closed.
+     */
+    private boolean deliver(Envelope envelope) {
+        deliveryLock.lock();
+        try {
+            if (closed) {
+                return false; // dropped, like a datagram sent to a closed socket
+            }
+            clock.messageSent();
+            messages.add(envelope);
+        } finally {
+            deliveryLock.unlock();
+        }
+        Selector eventLoop = selector;
+        if (eventLoop != null) {
+            eventLoop.wakeup();
+        }
+        return true;
+    }
+
+    @Override
+    public HardwareDevice receive() {
+        Envelope envelope;
+        clock.idle();
+        try {
+            envelope = messages.take();
+        } catch (InterruptedException e) {
+            close(); // an interrupt closes the transport, like it closes a DatagramChannel
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            clock.resume();
+        }
+
+        if (envelope == CLOSED) {
+            return null;
+        }
+        return open(envelope);
+    }
+
+    @Override
+    public HardwareDevice poll() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        Envelope envelope;
+        if (selector != null) {
+            envelope = messages.poll();
+        } else {
+            try {
+                envelope = messages.take();
+            } catch (InterruptedException e) {
+                close();
+                Thread.currentThread().interrupt();
+                throw new ClosedByInterruptException();
+            }
+        }
+
+        if (envelope == null) {
+            return null;
+        } else if (envelope == CLOSED) {
+            throw new ClosedChannelException();
+        }
+        return open(envelope);
+    }
+
+    /**
+     * Decodes the message in the specified Envelope, remembers its sender and type, gives the Envelope back to the
+     * InProcessNetwork and reports the message received to the SimulationClock.
+     *
+     * @param envelope An Envelope representing the message and its sender.
+     * @return A HardwareDevice representing the message.
+     */
+    private HardwareDevice open(Envelope envelope) {
+        lastSender = envelope.sender;
+        lastMessageType = HardwareDeviceCodec.messageType(envelope.message);
+        HardwareDevice message = HardwareDeviceCodec.decode(envelope.message,
+                lastMessageType == HardwareDeviceCodec.ACK ? ack : new HardwareDevice());
+        network.giveBack(envelope);
+        clock.messageReceived();
+        return message;
+    }
+
+    @Override
+    public SocketAddress getLastSender() {
+        return lastSender;
+    }
+
+    @Override
+    public byte getLastMessageType() {
+        return lastMessageType;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    @Override
+    public void close() {
+        deliveryLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // the messages no one will receive are no longer in flight
+            Envelope envelope;
+            while ((envelope = messages.poll()) != null) {
+                network.giveBack(envelope);
+                clock.messageReceived();
+            }
+            messages.add(CLOSED);
+        } finally {
+            deliveryLock.unlock();
+        }
+        network.remove(this);
+    }
+
+    /**
+     * A class to represent a message in the queue of an InProcessTransport, with the address of its sender. Reused for
+     * one message after another, so its fields are overwritten by each sender.
+     */
+    static final class Envelope {
+
+        /**
+         * A ByteBuffer representing the encoded message.
+         */
+        private final ByteBuffer message = ByteBuffer.allocate(HardwareDeviceCodec.MESSAGE_LENGTH);
+
+        /**
+         * A SocketAddress representing the address of the sender.
+         */
+        private SocketAddress sender;
+
+    }
+
+}
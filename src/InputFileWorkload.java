@@ -0,0 +1,850 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A class to represent a Workload read from an input file with one hall call per line, e.g.
+ * "14:05:15:00 2 up 4 1 No fault": the time, floor, direction, car button, number of passengers and fault. The first
+ * hall call is released a second after the Floor subsystem starts, and every other one at its recorded time, counted
+ * from the first hall call and multiplied by a time scale, so a time scale of 0.5 replays the traffic twice as densely.
+ * <p>
+ * The input file is never loaded as a whole. It is cut into chunks at line boundaries, each chunk is memory-mapped
+ * and parsed straight from its bytes into primitive arrays, without a String per line, and a few chunks ahead of the
+ * hall call being released are parsed in parallel. A HardwareDevice is only created for a hall call when it is
+ * released, so a trace of millions of hall calls takes a few chunks of memory.
+ */
+public class InputFileWorkload implements Workload, AutoCloseable {
+
+    /**
+     * A String representing the input file read when no other workload is given.
+     */
+    public static final String DEFAULT_INPUT_FILE = "iteration5_input_v1.txt";
+
+    /**
+     * An integer representing the default length, in bytes, of a chunk.
+     */
+    static final int DEFAULT_CHUNK_SIZE = 8 << 20;
+
+    /**
+     * A long representing the number of nanoseconds in a day.
+     */
+    private static final long NANOS_PER_DAY = 24L * 60 * 60 * 1_000_000_000L;
+
+    /**
+     * An array of Faults, cached to avoid copying values() for every line.
+     */
+    private static final Fault[] FAULTS = Fault.values();
+
+    /**
+     * An array of byte arrays representing the text of each Fault in an input file, indexed by ordinal.
+     */
+    private static final byte[][] FAULT_TEXTS = new byte[FAULTS.length][];
+
+    /**
+     * An array of String arrays representing the words of the text of each Fault in an input file, indexed by ordinal.
+     */
+    private static final String[][] FAULT_WORDS = new String[FAULTS.length][];
+
+    static {
+        for (Fault fault : FAULTS) {
+            FAULT_TEXTS[fault.ordinal()] = fault.toString().getBytes(StandardCharsets.US_ASCII);
+            FAULT_WORDS[fault.ordinal()] = fault.toString().split(" ");
+        }
+    }
+
+    /**
+     * A Path representing the input file.
+     */
+    private final Path inputFile;
+
+    /**
+     * A FileChannel of the input file. Null, if the input file could not be read.
+     */
+    private final FileChannel channel;
+
+    /**
+     * An array of longs representing the offset each chunk starts at. The last element is the length of the file.
+     */
+    private final long[] chunkStarts;
+
+    /**
+     * An array of integers representing the number of hall calls in each chunk.
+     */
+    private final int[] chunkSizes;
+
+    /**
+     * An integer representing the number of hall calls in the input file.
+     */
+    private final int size;
+
+    /**
+     * A double representing what the time between two hall calls is multiplied by.
+     */
+    private final double timeScale;
+
+    /**
+     * An ExecutorService representing the threads parsing chunks ahead of the hall call being released.
+     */
+    private final ExecutorService parsers;
+
+    /**
+     * An integer representing the maximum number of chunks parsed ahead.
+     */
+    private final int lookahead;
+
+    /**
+     * An ArrayDeque of Futures representing the chunks being parsed, in order.
+     */
+    private final ArrayDeque<Future<ParsedChunk>> parsing = new ArrayDeque<>();
+
+    /**
+     * An integer representing the index of the next chunk to start parsing.
+     */
+    private int nextChunk = 0;
+
+    /**
+     * A ParsedChunk representing the chunk of the current hall call.
+     */
+    private ParsedChunk chunk;
+
+    /**
+     * An integer representing the index of the current hall call in its chunk.
+     */
+    private int index = -1;
+
+    /**
+     * A long representing the time of the first hall call, in nanoseconds of the day. -1, if none has been read.
+     */
+    private long firstTime = -1;
+
+    /**
+     * A long representing the time of the last hall call read, in nanoseconds counted from the day of the first.
+     */
+    private long lastTime = 0;
+
+    /**
+     * A HardwareDevice representing the current hall call.
+     */
+    private HardwareDevice floorEvent;
+
+    /**
+     * A long representing the release time of the current hall call.
+     */
+    private long releaseTime;
+
+    /**
+     * Initializes an InputFileWorkload with the hall calls in the specified input file, released at their recorded
+     * times. An input file that cannot be read has no hall calls.
+     *
+     * @param inputFile A Path representing the input file.
+     */
+    public InputFileWorkload(Path inputFile) {
+        this(inputFile, 1);
+    }
+
+    /**
+     * Initializes an InputFileWorkload with the hall calls in the specified input file, released at their recorded
+     * times multiplied by the specified time scale. An input file that cannot be read has no hall calls.
+     *
+     * @param inputFile A Path representing the input file.
+     * @param timeScale A double representing what the time between two hall calls is multiplied by.
+     */
+    public InputFileWorkload(Path inputFile, double timeScale) {
+        this(inputFile, timeScale, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Initializes an InputFileWorkload with the hall calls in the specified input file, released at their recorded
+     * times multiplied by the specified time scale. An input file that cannot be read has no hall calls.
+     *
+     * @param inputFile A Path representing the input file.
+     * @param timeScale A double representing what the time between two hall calls is multiplied by.
+     * @param parallelism An integer representing the number of threads parsing chunks.
+     * @param chunkSize An integer representing the length, in bytes, a chunk is cut at. Chunks end at a line
+     *                  boundary, so a chunk can be a line longer.
+     */
+    public InputFileWorkload(Path inputFile, double timeScale, int parallelism, int chunkSize) {
+        if (timeScale < 0 || Double.isNaN(timeScale)) {
+            throw new IllegalArgumentException("Time scale must not be negative, was " + timeScale + ".");
+        }
+        if (parallelism <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive, were " + parallelism
+                    + " and " + chunkSize + ".");
+        }
+        this.inputFile = inputFile;
+        this.timeScale = timeScale;
+        lookahead = 2 * parallelism;
+        AtomicInteger numParsers = new AtomicInteger();
+        parsers = Executors.newFixedThreadPool(parallelism, task -> {
+            Thread parser = new Thread(task, "WorkloadParser-" + numParsers.incrementAndGet());
+            parser.setDaemon(true);
+            return parser;
+        });
+
+        FileChannel inputChannel = null;
+        long[] starts = {0};
+        int[] sizes = {};
+        int numHallCalls = 0;
+        try {
+            inputChannel = FileChannel.open(inputFile, StandardOpenOption.READ);
+            starts = findChunkStarts(inputChannel, chunkSize);
+
+            // count the hall calls of every chunk in parallel, so the Scheduler knows how many it will be receiving
+            List<Future<Integer>> counts = new ArrayList<>();
+            for (int i = 0; i < starts.length - 1; i++) {
+                long start = starts[i];
+                long end = starts[i + 1];
+                FileChannel countChannel = inputChannel;
+                counts.add(parsers.submit(() -> countLines(countChannel.map(FileChannel.MapMode.READ_ONLY, start,
+                        end - start))));
+            }
+            sizes = new int[counts.size()];
+            for (int i = 0; i < sizes.length; i++) {
+                sizes[i] = counts.get(i).get();
+                numHallCalls += sizes[i];
+            }
+        } catch (IOException | InterruptedException | ExecutionException e) {
+            System.err.println("Could not read " + inputFile + ": " + e);
+            closeQuietly(inputChannel);
+            inputChannel = null;
+            starts = new long[] {0};
+            sizes = new int[0];
+            numHallCalls = 0;
+        }
+        channel = inputChannel;
+        chunkStarts = starts;
+        chunkSizes = sizes;
+        size = numHallCalls;
+    }
+
+    /**
+     * Returns the offsets the chunks of the specified file start at, cutting it after the first line break at or after
+     * every multiple of the specified chunk size.
+     *
+     * @param channel A FileChannel of the file to cut.
+     * @param chunkSize An integer representing the length, in bytes, a chunk is cut at.
+     * @return An array of longs representing the offset each chunk starts at, followed by the length of the file.
+     * @throws IOException If the file could not be read.
+     */
+    private static long[] findChunkStarts(FileChannel channel, int chunkSize) throws IOException {
+        long length = channel.size();
+        List<Long> starts = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        long start = 0;
+        while (start < length) {
+            starts.add(start);
+            long position = start + chunkSize;
+            if (position >= length) {
+                break;
+            }
+            // the chunk ends after the next line break
+            long next = length;
+            while (next == length && position < length) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        next = position + i + 1;
+                        break;
+                    }
+                }
+                position += Math.max(read, 1);
+            }
+            start = next;
+        }
+        long[] chunkStarts = new long[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++) {
+            chunkStarts[i] = starts.get(i);
+        }
+        chunkStarts[starts.size()] = length;
+        return chunkStarts;
+    }
+
+    /**
+     * Returns the number of lines in the specified chunk that are not blank.
+     *
+     * @param chunk A ByteBuffer of the chunk.
+     * @return An integer representing the number of lines that are not blank.
+     */
+    private static int countLines(ByteBuffer chunk) {
+        int numLines = 0;
+        boolean blank = true;
+        for (int i = 0, limit = chunk.limit(); i < limit; i++) {
+            byte b = chunk.get(i);
+            if (b == '\n') {
+                blank = true;
+            } else if (blank && !isSpace(b)) {
+                blank = false;
+                numLines++;
+            }
+        }
+        return numLines;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        while (chunk == null || index + 1 >= chunk.size) {
+            if (!nextChunk()) {
+                close();
+                return false;
+            }
+        }
+        index++;
+
+        // a time earlier than the last by more than half a day is taken to be on the next day
+        long time = chunk.times[index];
+        if (firstTime < 0) {
+            firstTime = time;
+        }
+        time -= firstTime;
+        while (time < lastTime - NANOS_PER_DAY / 2) {
+            time += NANOS_PER_DAY;
+        }
+        lastTime = time;
+        releaseTime = FIRST_RELEASE_TIME + Math.round(time * timeScale / 1_000_000);
+
+        floorEvent = new HardwareDevice("Elevator?", LocalTime.ofNanoOfDay(chunk.times[index]), chunk.floors[index],
+                chunk.floorButtons[index] == 0 ? FloorButton.UP : FloorButton.DOWN, chunk.carButtons[index],
+                chunk.numPassengers[index], FAULTS[chunk.faults[index]]);
+        return true;
+    }
+
+    /**
+     * Moves to the next chunk, and starts parsing chunks until enough are being parsed ahead of it.
+     *
+     * @return True, if there is a next chunk. False, if every chunk has been read.
+     * @throws IOException If the next chunk could not be parsed.
+     */
+    private boolean nextChunk() throws IOException {
+        while (parsing.size() < lookahead && nextChunk < chunkSizes.length) {
+            long start = chunkStarts[nextChunk];
+            long end = chunkStarts[nextChunk + 1];
+            int numLines = chunkSizes[nextChunk++];
+            parsing.add(parsers.submit(() -> parseChunk(channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    end - start), start, numLines)));
+        }
+        Future<ParsedChunk> parsed = parsing.poll();
+        if (parsed == null) {
+            return false;
+        }
+        try {
+            chunk = parsed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing " + inputFile + ".", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not parse " + inputFile + ": " + e.getCause().getMessage(), e.getCause());
+        }
+        index = -1;
+        return true;
+    }
+
+    @Override
+    public HardwareDevice getFloorEvent() {
+        return floorEvent;
+    }
+
+    @Override
+    public long getReleaseTime() {
+        return releaseTime;
+    }
+
+    /**
+     * Stops parsing and closes the input file.
+     */
+    @Override
+    public void close() {
+        parsers.shutdownNow();
+        parsing.clear();
+        closeQuietly(channel);
+    }
+
+    /**
+     * Closes the specified FileChannel, ignoring any error.
+     *
+     * @param channel A FileChannel to close. Null, if there is none.
+     */
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println(e);
+        }
+    }
+
+    /**
+     * Creates a HardwareDevice from the specified line of an input file.
+     *
+     * @param line A String representing one line of an input file.
+     * @return A HardwareDevice representing the hall call on the line.
+     * @throws IllegalArgumentException If the line is not a hall call.
+     */
+    public static HardwareDevice parseFloorEvent(String line) {
+        ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.US_ASCII));
+        ParsedChunk parsed = parseChunk(bytes, 0, 1);
+        return new HardwareDevice("Elevator?", LocalTime.ofNanoOfDay(parsed.times[0]), parsed.floors[0],
+                parsed.floorButtons[0] == 0 ? FloorButton.UP : FloorButton.DOWN, parsed.carButtons[0],
+                parsed.numPassengers[0], FAULTS[parsed.faults[0]]);
+    }
+
+    /**
+     * Creates a HardwareDevice from the fields of a line of an input file, split on spaces, without joining them back
+     * into a line.
+     *
+     * @param fields An array of Strings representing the time, the floor, the direction, the car button, the number of
+     *               passengers and the words of the fault of a hall call.
+     * @return A HardwareDevice representing the hall call.
+     * @throws IllegalArgumentException If the fields are not a hall call.
+     */
+    public static HardwareDevice parseFloorEvent(String[] fields) {
+        if (fields.length < 5) {
+            throw new IllegalArgumentException("Expected at least 5 fields, found " + fields.length + ".");
+        }
+        long time = parseTime(fields[0]);
+        int floor = (int) parseNumber(fields[1], 0, fields[1].length());
+        FloorButton floorButton = fields[2].equalsIgnoreCase("up") ? FloorButton.UP : FloorButton.DOWN;
+        int carButton = (int) parseNumber(fields[3], 0, fields[3].length());
+        int numPassengers = (int) parseNumber(fields[4], 0, fields[4].length());
+        return new HardwareDevice("Elevator?", LocalTime.ofNanoOfDay(time), floor, floorButton, carButton,
+                numPassengers, parseFault(fields));
+    }
+
+    /**
+     * Parses a time field such as "14:05:15:30", with the fraction of a second after the last colon or a dot.
+     *
+     * @param field A String representing the time.
+     * @return A long representing the time, in nanoseconds of the day.
+     * @throws IllegalArgumentException If the field is not a time.
+     */
+    private static long parseTime(String field) {
+        int length = field.length();
+        if (length < 8 || field.charAt(2) != ':' || field.charAt(5) != ':') {
+            throw new IllegalArgumentException("Malformed time in field \"" + field + "\".");
+        }
+        long hours = parseNumber(field, 0, 2);
+        long minutes = parseNumber(field, 3, 5);
+        long seconds = parseNumber(field, 6, 8);
+        long nanos = 0;
+        if (length > 8) {
+            char separator = field.charAt(8);
+            if ((separator != ':' && separator != '.') || length == 9 || length > 18) {
+                throw new IllegalArgumentException("Malformed fraction of a second in field \"" + field + "\".");
+            }
+            long unit = 100_000_000;
+            for (int i = 9; i < length; i++) {
+                char c = field.charAt(i);
+                if (c < '0' || c > '9') {
+                    throw new IllegalArgumentException("Malformed fraction of a second in field \"" + field + "\".");
+                }
+                nanos += (c - '0') * unit;
+                unit /= 10;
+            }
+        }
+        if (hours > 23 || minutes > 59 || seconds > 59) {
+            throw new IllegalArgumentException("Malformed time in field \"" + field + "\".");
+        }
+        return ((hours * 60 + minutes) * 60 + seconds) * 1_000_000_000L + nanos;
+    }
+
+    /**
+     * Parses the specified part of a field, which must be made up of digits only.
+     *
+     * @param field A String representing the field.
+     * @param start An integer representing the index of the first digit.
+     * @param end An integer representing the index after the last digit.
+     * @return A long representing the number the digits make up.
+     * @throws IllegalArgumentException If the part is empty, is not all digits or does not fit in an integer.
+     */
+    private static long parseNumber(String field, int start, int end) {
+        if (start == end) {
+            throw new IllegalArgumentException("Malformed number in field \"" + field + "\".");
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = field.charAt(i);
+            if (c < '0' || c > '9' || (value = value * 10 + c - '0') > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Malformed number in field \"" + field + "\".");
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Parses the fields after the number of passengers as a Fault, skipping empty fields left by runs of spaces.
+     * Anything that is not the text of a Fault is no fault.
+     *
+     * @param fields An array of Strings representing the fields of a hall call.
+     * @return A Fault representing the words of the fault.
+     */
+    private static Fault parseFault(String[] fields) {
+        for (int ordinal = 0; ordinal < FAULT_WORDS.length; ordinal++) {
+            String[] words = FAULT_WORDS[ordinal];
+            int word = 0;
+            boolean matches = true;
+            for (int i = 5; i < fields.length && matches; i++) {
+                if (!fields[i].isEmpty()) {
+                    matches = word < words.length && words[word++].equals(fields[i]);
+                }
+            }
+            if (matches && word == words.length) {
+                return FAULTS[ordinal];
+            }
+        }
+        return Fault.NO_FAULT;
+    }
+
+    /**
+     * Parses the hall calls in the specified chunk.
+     *
+     * @param bytes A ByteBuffer of the chunk.
+     * @param offset A long representing the offset of the chunk in the file, for error messages.
+     * @param numLines An integer representing the number of lines in the chunk that are not blank.
+     * @return A ParsedChunk representing the hall calls in the chunk.
+     * @throws IllegalArgumentException If a line that is not blank is not a hall call.
+     */
+    private static ParsedChunk parseChunk(ByteBuffer bytes, long offset, int numLines) {
+        ParsedChunk parsed = new ParsedChunk(numLines);
+        LineParser parser = new LineParser(bytes, offset);
+        while (parsed.size < numLines && parser.nextLine()) {
+            int i = parsed.size++;
+            parsed.times[i] = parser.parseTime();
+            parsed.floors[i] = parser.parseInt();
+            parsed.floorButtons[i] = (byte) (parser.parseUp() ? 0 : 1);
+            parsed.carButtons[i] = parser.parseInt();
+            parsed.numPassengers[i] = parser.parseInt();
+            parsed.faults[i] = (byte) parser.parseFault();
+        }
+        if (parsed.size < numLines) {
+            throw new IllegalArgumentException("Expected " + numLines + " hall call(s) from byte " + offset
+                    + ", found " + parsed.size + ".");
+        }
+        return parsed;
+    }
+
+    /**
+     * Returns if the specified byte is a space, a tab or a carriage return.
+     *
+     * @param b A byte to check.
+     * @return True, if the byte is a space, a tab or a carriage return. False, if not.
+     */
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * A class to represent the hall calls of a chunk, one array per field.
+     */
+    private static class ParsedChunk {
+
+        /**
+         * An integer representing the number of hall calls parsed.
+         */
+        private int size = 0;
+
+        /**
+         * An array of longs representing the time of each hall call, in nanoseconds of the day.
+         */
+        private final long[] times;
+
+        /**
+         * An array of integers representing the floor of each hall call.
+         */
+        private final int[] floors;
+
+        /**
+         * An array of bytes representing the direction of each hall call, 0 for up and 1 for down.
+         */
+        private final byte[] floorButtons;
+
+        /**
+         * An array of integers representing the car button of each hall call.
+         */
+        private final int[] carButtons;
+
+        /**
+         * An array of integers representing the number of passengers of each hall call.
+         */
+        private final int[] numPassengers;
+
+        /**
+         * An array of bytes representing the Fault ordinal of each hall call.
+         */
+        private final byte[] faults;
+
+        /**
+         * Initializes an empty ParsedChunk.
+         *
+         * @param capacity An integer representing the number of hall calls in the chunk.
+         */
+        private ParsedChunk(int capacity) {
+            times = new long[capacity];
+            floors = new int[capacity];
+            floorButtons = new byte[capacity];
+            carButtons = new int[capacity];
+            numPassengers = new int[capacity];
+            faults = new byte[capacity];
+        }
+
+    }
+
+    /**
+     * A class to parse the fields of the lines of a chunk straight from its bytes.
+     */
+    private static class LineParser {
+
+        /**
+         * A ByteBuffer of the chunk.
+         */
+        private final ByteBuffer bytes;
+
+        /**
+         * A long representing the offset of the chunk in the file.
+         */
+        private final long offset;
+
+        /**
+         * An integer representing the position of the next byte to parse.
+         */
+        private int position = 0;
+
+        /**
+         * An integer representing the position of the end of the current line.
+         */
+        private int lineEnd = 0;
+
+        /**
+         * An integer representing the position the next line starts at.
+         */
+        private int nextLineStart = 0;
+
+        /**
+         * Initializes a LineParser before the first line of the specified chunk.
+         *
+         * @param bytes A ByteBuffer of the chunk.
+         * @param offset A long representing the offset of the chunk in the file.
+         */
+        private LineParser(ByteBuffer bytes, long offset) {
+            this.bytes = bytes;
+            this.offset = offset;
+        }
+
+        /**
+         * Moves to the next line that is not blank.
+         *
+         * @return True, if there is a next line that is not blank. False, if not.
+         */
+        private boolean nextLine() {
+            int limit = bytes.limit();
+            while (nextLineStart < limit) {
+                position = nextLineStart;
+                lineEnd = position;
+                while (lineEnd < limit && bytes.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                nextLineStart = lineEnd + 1;
+                skipSpaces();
+                if (position < lineEnd) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Skips the spaces at the current position.
+         */
+        private void skipSpaces() {
+            while (position < lineEnd && isSpace(bytes.get(position))) {
+                position++;
+            }
+        }
+
+        /**
+         * Parses a time such as "14:05:15:30", with the fraction of a second after the last colon or a dot.
+         *
+         * @return A long representing the time, in nanoseconds of the day.
+         */
+        private long parseTime() {
+            long hours = parseDigits(2);
+            expect(':');
+            long minutes = parseDigits(2);
+            expect(':');
+            long seconds = parseDigits(2);
+            long nanos = 0;
+            if (position < lineEnd && (bytes.get(position) == ':' || bytes.get(position) == '.')) {
+                position++;
+                long unit = 100_000_000;
+                int start = position;
+                while (position < lineEnd && isDigit(bytes.get(position))) {
+                    nanos += (bytes.get(position++) - '0') * unit;
+                    unit /= 10;
+                }
+                if (position == start || position - start > 9) {
+                    throw malformed("fraction of a second");
+                }
+            }
+            if (hours > 23 || minutes > 59 || seconds > 59) {
+                throw malformed("time");
+            }
+            skipSpaces();
+            return ((hours * 60 + minutes) * 60 + seconds) * 1_000_000_000L + nanos;
+        }
+
+        /**
+         * Parses exactly the specified number of digits.
+         *
+         * @param numDigits An integer representing the number of digits.
+         * @return A long representing the number the digits make up.
+         */
+        private long parseDigits(int numDigits) {
+            long value = 0;
+            for (int i = 0; i < numDigits; i++) {
+                if (position >= lineEnd || !isDigit(bytes.get(position))) {
+                    throw malformed("time");
+                }
+                value = value * 10 + bytes.get(position++) - '0';
+            }
+            return value;
+        }
+
+        /**
+         * Skips the specified separator.
+         *
+         * @param separator A char representing the separator expected at the current position.
+         */
+        private void expect(char separator) {
+            if (position >= lineEnd || bytes.get(position) != separator) {
+                throw malformed("time");
+            }
+            position++;
+        }
+
+        /**
+         * Parses a non-negative integer and the spaces after it.
+         *
+         * @return An integer representing the integer parsed.
+         */
+        private int parseInt() {
+            int start = position;
+            long value = 0;
+            while (position < lineEnd && isDigit(bytes.get(position))) {
+                value = value * 10 + bytes.get(position++) - '0';
+                if (value > Integer.MAX_VALUE) {
+                    throw malformed("number");
+                }
+            }
+            if (position == start) {
+                throw malformed("number");
+            }
+            skipSpaces();
+            return (int) value;
+        }
+
+        /**
+         * Parses a direction. Anything but "up", in any case, is down.
+         *
+         * @return True, if the direction is up. False, if it is down.
+         */
+        private boolean parseUp() {
+            int start = position;
+            while (position < lineEnd && !isSpace(bytes.get(position))) {
+                position++;
+            }
+            if (position == start) {
+                throw malformed("direction");
+            }
+            boolean up = position - start == 2 && (bytes.get(start) | 0x20) == 'u'
+                    && (bytes.get(start + 1) | 0x20) == 'p';
+            skipSpaces();
+            return up;
+        }
+
+        /**
+         * Parses the rest of the line as a Fault. Anything that is not the text of a Fault is no fault.
+         *
+         * @return An integer representing the ordinal of the Fault.
+         */
+        private int parseFault() {
+            int end = lineEnd;
+            while (end > position && isSpace(bytes.get(end - 1))) {
+                end--;
+            }
+            for (int ordinal = 0; ordinal < FAULT_TEXTS.length; ordinal++) {
+                if (matches(FAULT_TEXTS[ordinal], end)) {
+                    return ordinal;
+                }
+            }
+            return Fault.NO_FAULT.ordinal();
+        }
+
+        /**
+         * Returns if the bytes from the current position to the specified end are the specified text, with any run of
+         * spaces in the line matching a single space in the text.
+         *
+         * @param text An array of bytes representing the text.
+         * @param end An integer representing the end of the bytes to compare.
+         * @return True, if the bytes are the text. False, if not.
+         */
+        private boolean matches(byte[] text, int end) {
+            int i = position;
+            for (int j = 0; j < text.length; j++) {
+                if (i >= end) {
+                    return false;
+                }
+                if (text[j] == ' ') {
+                    if (!isSpace(bytes.get(i))) {
+                        return false;
+                    }
+                    while (i < end && isSpace(bytes.get(i))) {
+                        i++;
+                    }
+                } else if (bytes.get(i++) != text[j]) {
+                    return false;
+                }
+            }
+            return i == end;
+        }
+
+        /**
+         * Returns if the specified byte is a digit.
+         *
+         * @param b A byte to check.
+         * @return True, if the byte is a digit. False, if not.
+         */
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+
+        /**
+         * Returns an IllegalArgumentException for a malformed field of the current line.
+         *
+         * @param field A String representing the name of the field.
+         * @return An IllegalArgumentException describing where the malformed field is.
+         */
+        private IllegalArgumentException malformed(String field) {
+            return new IllegalArgumentException("Malformed " + field + " at byte " + (offset + position) + ".");
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the InputFileWorkload.
+ */
+class InputFileWorkloadTest {
+
+    /**
+     * A Path representing a temporary directory to write input files to.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that every field and fault of the test input file is parsed, and that hall calls are released at their
+     * recorded times counted from the first one.
+     */
+    @Test
+    void testReadTestInput() throws IOException {
+        InputFileWorkload workload = new InputFileWorkload(Paths.get("test_input.txt"));
+        assertEquals(5, workload.size());
+
+        assertTrue(workload.next());
+        HardwareDevice first = workload.getFloorEvent();
+        assertEquals(LocalTime.parse("13:02:56.20"), first.getTime());
+        assertEquals(4, first.getFloor());
+        assertEquals(FloorButton.UP, first.getFloorButton());
+        assertEquals(6, first.getCarButton());
+        assertEquals(3, first.getNumPassengers());
+        assertEquals(Fault.NO_FAULT, first.getFault());
+        assertEquals(Workload.FIRST_RELEASE_TIME, workload.getReleaseTime());
+
+        assertTrue(workload.next());
+        assertEquals(Fault.ELEVATOR_STUCK, workload.getFloorEvent().getFault());
+        assertEquals(Workload.FIRST_RELEASE_TIME + ((62 * 60) + 19) * 1000 + 100,
+                workload.getReleaseTime()); // 14:05:15.30 is 62:19.10 after 13:02:56.20
+
+        assertTrue(workload.next());
+        assertEquals(FloorButton.DOWN, workload.getFloorEvent().getFloorButton());
+        assertEquals(Fault.DOORS_NOT_OPENING, workload.getFloorEvent().getFault());
+        assertTrue(workload.next());
+        assertTrue(workload.next());
+        assertEquals(Fault.DOORS_NOT_CLOSING, workload.getFloorEvent().getFault());
+        assertFalse(workload.next());
+    }
+
+    /**
+     * Tests that a file cut into many chunks parsed in parallel gives the same hall calls, in the same order, as a
+     * file read in one chunk, skipping blank lines and crossing midnight.
+     */
+    @Test
+    void testParallelChunks() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int seconds = (23 * 60 * 60 + 59 * 60 + i) % (24 * 60 * 60); // crosses midnight after 60 hall calls
+            lines.add(String.format("%02d:%02d:%02d:%02d %d %s %d %d %s", seconds / 3600, seconds / 60 % 60,
+                    seconds % 60, i % 100, i % 22 + 1, i % 2 == 0 ? "up" : "Down", i % 21 + 1, i % 5 + 1,
+                    i % 7 == 0 ? "Doors  not closing\r" : "No fault"));
+            if (i % 50 == 0) {
+                lines.add("   ");
+            }
+        }
+        Path inputFile = directory.resolve("input.txt");
+        Files.write(inputFile, lines);
+
+        InputFileWorkload sequential = new InputFileWorkload(inputFile, 0.5, 1, Integer.MAX_VALUE);
+        InputFileWorkload parallel = new InputFileWorkload(inputFile, 0.5, 4, 100);
+        assertEquals(500, sequential.size());
+        assertEquals(500, parallel.size());
+        for (int i = 0; i < 500; i++) {
+            assertTrue(sequential.next());
+            assertTrue(parallel.next());
+            assertEquals(sequential.getFloorEvent().toString(), parallel.getFloorEvent().toString());
+            assertEquals(sequential.getReleaseTime(), parallel.getReleaseTime());
+            assertEquals(Workload.FIRST_RELEASE_TIME + Math.round((i * 1000 + (i % 100) * 10) * 0.5),
+                    parallel.getReleaseTime());
+            assertEquals(i % 7 == 0 ? Fault.DOORS_NOT_CLOSING : Fault.NO_FAULT, parallel.getFloorEvent().getFault());
+        }
+        assertFalse(sequential.next());
+        assertFalse(parallel.next());
+    }
+
+    /**
+     * Tests that the fields of a line, split on spaces, make the same hall call as the line.
+     */
+    @Test
+    void testParseFields() {
+        for (String line : new String[] {"13:02:56:20 4 up 6 3 No fault", "23:59:59.999 12 DOWN 1 2 Doors  not closing",
+                "00:00:00 1 up 2 1", "14:05:15:30 2 up 4 3 Elevator stuck"}) {
+            HardwareDevice expected = InputFileWorkload.parseFloorEvent(line);
+            HardwareDevice parsed = InputFileWorkload.parseFloorEvent(line.split(" "));
+            assertEquals(expected.getTime(), parsed.getTime(), line);
+            assertEquals(expected.getFloor(), parsed.getFloor(), line);
+            assertEquals(expected.getFloorButton(), parsed.getFloorButton(), line);
+            assertEquals(expected.getCarButton(), parsed.getCarButton(), line);
+            assertEquals(expected.getNumPassengers(), parsed.getNumPassengers(), line);
+            assertEquals(expected.getFault(), parsed.getFault(), line);
+        }
+    }
+
+    /**
+     * Tests that a malformed line fails to be read with the byte it is at, and that a missing file has no hall calls.
+     */
+    @Test
+    void testMalformedAndMissingInput() throws IOException {
+        Path inputFile = directory.resolve("malformed.txt");
+        Files.writeString(inputFile, "13:02:56:20 4 up 6 3 No fault\n13:02:57:20 four up 6 3 No fault\n");
+        InputFileWorkload workload = new InputFileWorkload(inputFile);
+        assertEquals(2, workload.size());
+        IOException e = assertThrows(IOException.class, workload::next);
+        assertTrue(e.getMessage().contains("byte 42"), e.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> InputFileWorkload.parseFloorEvent("13:02 4 up 6 3"));
+        assertThrows(IllegalArgumentException.class,
+                () -> InputFileWorkload.parseFloorEvent("13:02:57:20 four up 6 3".split(" ")));
+        assertThrows(IllegalArgumentException.class,
+                () -> InputFileWorkload.parseFloorEvent("13:02:57:20 4".split(" ")));
+        assertEquals(0, new InputFileWorkload(directory.resolve("missing.txt")).size());
+    }
+
+}
@@ -0,0 +1,41 @@
+/**
+ * An enumerator to represent the kinds of events recorded in the EventJournal.
+ * <p>
+ * Each kind is stored as its code, which is never 0, so a record that has not been written yet can be told apart from
+ * one that has.
+ */
+public enum JournalEventType {
+    HALL_CALL,
+    DISPATCH,
+    ASSIGNMENT,
+    PICK_UP,
+    COMPLETION,
+    ELEVATOR_STATE,
+    SCHEDULER_STATE,
+    FLOOR_ARRIVAL,
+    FAULT;
+
+    /**
+     * An array of JournalEventTypes indexed by ordinal, cached to avoid copying values() on every decode.
+     */
+    private static final JournalEventType[] TYPES = values();
+
+    /**
+     * Returns the code this kind of event is stored as.
+     *
+     * @return A byte representing the code of this kind of event.
+     */
+    public byte getCode() {
+        return (byte) (ordinal() + 1);
+    }
+
+    /**
+     * Returns the kind of event stored as the specified code.
+     *
+     * @param code A byte representing the code of a kind of event.
+     * @return A JournalEventType stored as the specified code. Null, if the code is 0 or unknown.
+     */
+    public static JournalEventType fromCode(byte code) {
+        return code > 0 && code <= TYPES.length ? TYPES[code - 1] : null;
+    }
+}
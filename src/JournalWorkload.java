@@ -0,0 +1,82 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A class to represent a Workload made of the hall calls recorded in an EventJournal, to replay a recorded run.
+ * <p>
+ * Each hall call keeps its request ID, time, floor, direction, car button, number of passengers and fault, and is
+ * released at the SimulationClock time it was recorded at, so the Scheduler sees the same traffic it saw in the
+ * recorded run. The journal is read as the hall calls are released, not loaded up front.
+ */
+public class JournalWorkload implements Workload {
+
+    /**
+     * An EventJournalReader reading the hall calls of the journal.
+     */
+    private final EventJournalReader reader;
+
+    /**
+     * An integer representing the number of hall calls in the journal.
+     */
+    private final int size;
+
+    /**
+     * A HardwareDevice representing the current hall call.
+     */
+    private HardwareDevice floorEvent;
+
+    /**
+     * A long representing the release time of the current hall call.
+     */
+    private long releaseTime;
+
+    /**
+     * Initializes a JournalWorkload with the hall calls recorded in the journal in the specified directory.
+     *
+     * @param directory A Path representing the directory of the recorded journal.
+     * @throws IOException If the journal could not be read.
+     */
+    public JournalWorkload(Path directory) throws IOException {
+        int numHallCalls = 0;
+        try (EventJournalReader counter = new EventJournalReader(directory)) {
+            while (counter.next()) {
+                if (counter.getType() == JournalEventType.HALL_CALL) {
+                    numHallCalls++;
+                }
+            }
+        }
+        size = numHallCalls;
+        reader = new EventJournalReader(directory);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        while (reader.next()) {
+            if (reader.getType() == JournalEventType.HALL_CALL) {
+                floorEvent = new HardwareDevice(reader.getRequestId(), ElevatorRegistry.NO_ELEVATOR,
+                        reader.getHallCallTime(), reader.getFloor(), reader.getFloorButton(), reader.getCarButton(),
+                        reader.getNumPassengers(), reader.getFault());
+                releaseTime = reader.getClockMillis();
+                return true;
+            }
+        }
+        reader.close();
+        return false;
+    }
+
+    @Override
+    public HardwareDevice getFloorEvent() {
+        return floorEvent;
+    }
+
+    @Override
+    public long getReleaseTime() {
+        return releaseTime;
+    }
+
+}
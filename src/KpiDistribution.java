@@ -0,0 +1,121 @@
+import java.util.Arrays;
+
+/**
+ * A class to represent the distribution of a key performance indicator over the replicas of a MonteCarloRunner: its
+ * mean with a 95% confidence interval, its standard deviation and its percentiles.
+ * <p>
+ * The confidence interval is the normal approximation, the mean plus or minus Z_95 standard errors, which holds for
+ * the hundreds or thousands of replicas of a study whatever the KPI is distributed like.
+ */
+public class KpiDistribution {
+
+    /**
+     * A double representing how many standard errors either side of the mean a 95% confidence interval spans.
+     */
+    public static final double Z_95 = 1.959963984540054;
+
+    /**
+     * A String representing the name of the key performance indicator.
+     */
+    private final String name;
+
+    /**
+     * An array of doubles representing the value of the key performance indicator in each replica, in ascending order.
+     */
+    private final double[] values;
+
+    /**
+     * Initializes a KpiDistribution.
+     *
+     * @param name A String representing the name of the key performance indicator.
+     * @param values An array of doubles representing the value of the key performance indicator in each replica. Not
+     *               changed.
+     */
+    public KpiDistribution(String name, double[] values) {
+        this.name = name;
+        this.values = values.clone();
+        Arrays.sort(this.values);
+    }
+
+    /**
+     * Returns the name of the key performance indicator.
+     *
+     * @return A String representing the name of the key performance indicator.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of replicas.
+     *
+     * @return An integer representing the number of replicas.
+     */
+    public int getCount() {
+        return values.length;
+    }
+
+    /**
+     * Returns the mean over the replicas.
+     *
+     * @return A double representing the mean. 0, if there are no replicas.
+     */
+    public double getMean() {
+        return values.length == 0 ? 0 : Arrays.stream(values).sum() / values.length;
+    }
+
+    /**
+     * Returns the sample standard deviation over the replicas.
+     *
+     * @return A double representing the standard deviation. 0, if there are fewer than 2 replicas.
+     */
+    public double getStandardDeviation() {
+        if (values.length < 2) {
+            return 0;
+        }
+        double mean = getMean();
+        double sumOfSquares = 0;
+        for (double value : values) {
+            sumOfSquares += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(sumOfSquares / (values.length - 1));
+    }
+
+    /**
+     * Returns the half-width of the 95% confidence interval of the mean, so the true mean is within the mean plus or
+     * minus this 95% of the time.
+     *
+     * @return A double representing the half-width of the confidence interval. 0, if there are fewer than 2 replicas.
+     */
+    public double getConfidenceInterval() {
+        return values.length < 2 ? 0 : Z_95 * getStandardDeviation() / Math.sqrt(values.length);
+    }
+
+    /**
+     * Returns the value the specified percentage of the replicas are at or below.
+     *
+     * @param percentile A double representing the percentage, from 0 to 100.
+     * @return A double representing the value at the percentile. 0, if there are no replicas.
+     */
+    public double getValueAtPercentile(double percentile) {
+        if (values.length == 0) {
+            return 0;
+        }
+        int rank = Math.max(1, (int) Math.ceil(Math.min(100, percentile) / 100 * values.length));
+        return values[rank - 1];
+    }
+
+    /**
+     * Returns a String representing the number of replicas, the mean with its confidence interval, the standard
+     * deviation and the percentiles.
+     *
+     * @return A String representing the distribution.
+     */
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.2f +/-%.2f sd=%.2f p5=%.2f p50=%.2f p95=%.2f max=%.2f", getCount(),
+                getMean(), getConfidenceInterval(), getStandardDeviation(), getValueAtPercentile(5),
+                getValueAtPercentile(50), getValueAtPercentile(95), getValueAtPercentile(100));
+    }
+
+}
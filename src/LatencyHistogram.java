@@ -0,0 +1,166 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A class to represent a high-dynamic-range histogram of latencies, in milliseconds, that many threads can record into
+ * without locking.
+ * <p>
+ * Values are counted in log-linear buckets like an HdrHistogram with two significant digits: values up to 127 get a
+ * bucket each, and every power of two above that is split into 64 buckets, so a percentile is never off by more than
+ * about 1.6% however large the values get. Recording a value is a few increments of atomic counters, and the
+ * histogram never grows.
+ */
+public class LatencyHistogram {
+
+    /**
+     * An integer representing the number of bits of a value that pick its bucket within a power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+
+    /**
+     * An integer representing the number of buckets within each power of two above the first.
+     */
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << (SUB_BUCKET_BITS - 1);
+
+    /**
+     * An integer representing the number of buckets, enough for every non-negative long.
+     */
+    private static final int NUM_BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+
+    /**
+     * An AtomicLongArray representing the number of values recorded in each bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+
+    /**
+     * An AtomicLong representing the number of values recorded.
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * An AtomicLong representing the sum of the values recorded.
+     */
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * An AtomicLong representing the largest value recorded.
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the specified value. A negative value is recorded as 0.
+     *
+     * @param valueMillis A long representing the value, in milliseconds.
+     */
+    public void record(long valueMillis) {
+        long value = Math.max(0, valueMillis);
+        counts.incrementAndGet(bucketOf(value));
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+        count.incrementAndGet(); // last, so a percentile never sees more values than the buckets hold
+    }
+
+    /**
+     * Returns the bucket the specified value is counted in.
+     *
+     * @param value A long representing a non-negative value.
+     * @return An integer representing the index of the bucket.
+     */
+    private static int bucketOf(long value) {
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the largest value counted in the specified bucket.
+     *
+     * @param bucket An integer representing the index of a bucket.
+     * @return A long representing the largest value counted in the bucket.
+     */
+    private static long highestValueIn(int bucket) {
+        int shift = Math.max(0, bucket / SUB_BUCKET_HALF_COUNT - 1);
+        long lowest = (long) (bucket - shift * SUB_BUCKET_HALF_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return A long representing the number of values recorded.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the largest value recorded.
+     *
+     * @return A long representing the largest value recorded, in milliseconds. 0, if none has been recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the values recorded.
+     *
+     * @return A double representing the mean of the values recorded, in milliseconds. 0, if none has been recorded.
+     */
+    public double getMean() {
+        long numValues = count.get();
+        return numValues == 0 ? 0 : (double) sum.get() / numValues;
+    }
+
+    /**
+     * Returns the value the specified percentage of the values recorded are at or below.
+     *
+     * @param percentile A double representing the percentage, from 0 to 100.
+     * @return A long representing the value at the percentile, in milliseconds, no larger than the largest value
+     * recorded. 0, if none has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long numValues = count.get();
+        if (numValues == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * numValues));
+        long seen = 0;
+        for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Adds every value recorded in the specified LatencyHistogram to this one.
+     *
+     * @param other A LatencyHistogram to add the values of.
+     */
+    public void add(LatencyHistogram other) {
+        for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            long bucketCount = other.counts.get(bucket);
+            if (bucketCount != 0) {
+                counts.addAndGet(bucket, bucketCount);
+            }
+        }
+        sum.addAndGet(other.sum.get());
+        max.accumulateAndGet(other.max.get(), Math::max);
+        count.addAndGet(other.count.get());
+    }
+
+    /**
+     * Returns a String representing the count, mean, percentiles and maximum of the values recorded.
+     *
+     * @return A String representing the values recorded.
+     */
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.0f p50=%d p90=%d p95=%d p99=%d max=%d", getCount(), getMean(),
+                getValueAtPercentile(50), getValueAtPercentile(90), getValueAtPercentile(95),
+                getValueAtPercentile(99), getMax());
+    }
+
+}
@@ -0,0 +1,107 @@
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the LatencyHistogram and RequestLatencies.
+ */
+class LatencyHistogramTest {
+
+    /**
+     * Tests that percentiles are within the precision of the histogram, and that the count, mean and maximum are exact.
+     */
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        for (int value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-5); // recorded as 0
+
+        assertEquals(100_001, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(5_000_050_000.0 / 100_001, histogram.getMean(), 1e-6);
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        for (double percentile : new double[] {50, 90, 95, 99, 99.9}) {
+            double expected = percentile / 100 * 100_001;
+            long actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(Math.abs(actual - expected) <= expected / 64 + 1, "p" + percentile + " was " + actual + ".");
+        }
+        assertEquals(100_000, histogram.getValueAtPercentile(100));
+
+        LatencyHistogram small = new LatencyHistogram();
+        for (int value = 0; value < 100; value++) {
+            small.record(value);
+        }
+        assertEquals(49, small.getValueAtPercentile(50)); // values below 128 are exact
+        assertEquals(98, small.getValueAtPercentile(99));
+    }
+
+    /**
+     * Tests that values recorded from many threads at once are all counted.
+     */
+    @Test
+    void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int offset = i;
+            threads.add(new Thread(() -> {
+                for (int value = 0; value < 50_000; value++) {
+                    histogram.record(value * 4L + offset);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(200_000, histogram.getCount());
+        assertEquals(199_999, histogram.getMax());
+        assertEquals(199_999 / 2.0, histogram.getMean(), 1e-6);
+        assertEquals(200_000, histogram.getValueAtPercentile(100) + 1);
+
+        LatencyHistogram sum = new LatencyHistogram();
+        sum.add(histogram);
+        sum.add(histogram);
+        assertEquals(400_000, sum.getCount());
+        assertEquals(histogram.getValueAtPercentile(90), sum.getValueAtPercentile(90));
+    }
+
+    /**
+     * Tests that the wait, ride and journey times of a floor event are recorded for the whole ElevatorSystem and its
+     * elevator car, and that a floor event missing a stage is not recorded.
+     */
+    @Test
+    void testRequestLatencies() {
+        RequestLatencies latencies = new RequestLatencies(2);
+        HardwareDevice floorEvent = new HardwareDevice("Elevator2", LocalTime.NOON, 3, FloorButton.UP, 9, 1,
+                Fault.NO_FAULT);
+        floorEvent.stamp(RequestStage.REGISTERED, 1_000);
+        floorEvent.stamp(RequestStage.ASSIGNED, 1_010);
+        floorEvent.stamp(RequestStage.ARRIVED_AT_ORIGIN, 21_000);
+        floorEvent.stamp(RequestStage.BOARDED, 21_000);
+        floorEvent.stamp(RequestStage.DROPPED_OFF, 81_000);
+        floorEvent.stamp(RequestStage.DROPPED_OFF, 99_000); // a stage is only stamped once
+        latencies.record(floorEvent);
+
+        HardwareDevice unfinished = new HardwareDevice("Elevator1", LocalTime.NOON, 5, FloorButton.DOWN, 1, 1,
+                Fault.NO_FAULT);
+        unfinished.stamp(RequestStage.REGISTERED, 2_000);
+        latencies.record(unfinished);
+
+        assertEquals(1, latencies.getWaitTimes().getCount());
+        assertEquals(20_000, latencies.getWaitTimes().getMax());
+        assertEquals(60_000, latencies.getRideTimes().getMax());
+        assertEquals(80_000, latencies.getJourneyTimes().getMax());
+        assertEquals(1, latencies.getJourneyTimes(2).getCount());
+        assertEquals(0, latencies.getJourneyTimes(1).getCount());
+        assertTrue(latencies.toString().contains("Elevator2"));
+    }
+
+}
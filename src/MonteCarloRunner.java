@@ -0,0 +1,197 @@
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A class to represent a Monte Carlo study of a building for capacity planning: many replicas of a working day, each
+ * with its own synthetic traffic and faults, run in parallel on a ForkJoinPool, with the distribution of each key
+ * performance indicator over the replicas.
+ * <p>
+ * Each replica is a whole ElevatorSystem, with the same Scheduler, Elevators and Floor as any other run, on a
+ * VirtualClock and an InProcessNetwork of its own, so it opens no socket and shares nothing with the others. Replica r
+ * is seeded with the seed of the study plus r, so a study gives the same results however many threads it runs on. A
+ * replica whose traffic has no hall calls has no key performance indicators, so it is counted but left out of the
+ * distributions.
+ */
+public class MonteCarloRunner {
+
+    /**
+     * An array of Strings representing the names of the key performance indicators of each replica, in order.
+     */
+    public static final String[] KPIS = {"wait mean (s)", "wait p95 (s)", "journey mean (s)",
+            "handling capacity (passengers/5 min)", "movements", "elevator cars shut down", "hall calls not completed"};
+
+    /**
+     * Integers representing the number of floors, elevator cars and people in the building.
+     */
+    private final int numFloors, numElevators, population;
+
+    /**
+     * A double representing the chance of a hall call having a fault.
+     */
+    private final double faultRate;
+
+    /**
+     * A DispatchMode representing how floor events are assigned to elevator cars.
+     */
+    private final DispatchMode dispatchMode;
+
+    /**
+     * A long representing the seed of the study.
+     */
+    private final long seed;
+
+    /**
+     * An array of KpiDistributions representing the distribution of each key performance indicator, indexed like KPIS.
+     * Null, until the study has run.
+     */
+    private KpiDistribution[] distributions;
+
+    /**
+     * An integer representing the number of replicas left out of the distributions because they had no hall calls.
+     */
+    private int numEmptyReplicas;
+
+    /**
+     * Initializes a MonteCarloRunner.
+     *
+     * @param numFloors An integer representing the number of floors in the building.
+     * @param numElevators An integer representing the number of elevator cars.
+     * @param population An integer representing the number of people working in the building.
+     * @param faultRate A double representing the chance of a hall call having a fault.
+     * @param dispatchMode A DispatchMode representing how floor events are assigned to elevator cars.
+     * @param seed A long representing the seed of the study. Replica r is seeded with the seed plus r.
+     */
+    public MonteCarloRunner(int numFloors, int numElevators, int population, double faultRate,
+                            DispatchMode dispatchMode, long seed) {
+        this.numFloors = numFloors;
+        this.numElevators = numElevators;
+        this.population = population;
+        this.faultRate = faultRate;
+        this.dispatchMode = dispatchMode;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs the specified number of replicas on a ForkJoinPool with the specified number of threads, and works out the
+     * distribution of each key performance indicator over the replicas that had hall calls.
+     * <p>
+     * A replica keeps its thread for as long as it runs, since its Scheduler event loop waits on its VirtualClock, and
+     * starts a thread for each of its Elevators and for its Floor, which end when it does.
+     *
+     * @param numReplicas An integer representing the number of replicas to run.
+     * @param parallelism An integer representing the number of replicas to run at the same time.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the replicas.
+     * @throws ExecutionException If a replica failed.
+     */
+    public void run(int numReplicas, int parallelism) throws InterruptedException, ExecutionException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        double[][] replicas;
+        try {
+            replicas = pool.submit(() -> IntStream.range(0, numReplicas).parallel().mapToObj(this::runReplica)
+                    .toArray(double[][]::new)).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        double[][] nonEmpty = Arrays.stream(replicas).filter(Objects::nonNull).toArray(double[][]::new);
+        numEmptyReplicas = numReplicas - nonEmpty.length;
+        distributions = new KpiDistribution[KPIS.length];
+        for (int kpi = 0; kpi < KPIS.length; kpi++) {
+            double[] values = new double[nonEmpty.length];
+            for (int replica = 0; replica < nonEmpty.length; replica++) {
+                values[replica] = nonEmpty[replica][kpi];
+            }
+            distributions[kpi] = new KpiDistribution(KPIS[kpi], values);
+        }
+    }
+
+    /**
+     * Runs the specified replica until every floor event has been handled, or every elevator car has shut down, and
+     * returns its key performance indicators.
+     *
+     * @param replica An integer representing the index of the replica.
+     * @return An array of doubles representing the key performance indicators of the replica, indexed like KPIS.
+     *         Null, if the traffic of the replica has no hall calls.
+     */
+    private double[] runReplica(int replica) {
+        long replicaSeed = seed + replica;
+        TrafficGenerator traffic = TrafficGenerator.officeDay(replicaSeed, numFloors, population, faultRate);
+        if (traffic.size() == 0) {
+            return null; // no hall call to measure, and zeros would pull every distribution down
+        }
+        ArrayList<Integer> portNumbers = new ArrayList<>(Collections.nCopies(numElevators, 0));
+        Scheduler scheduler = new Scheduler(portNumbers, new VirtualClock(replicaSeed), dispatchMode,
+                EventJournal.DISABLED, traffic, new InProcessNetwork());
+        scheduler.run();
+        scheduler.shutDown();
+        if (scheduler.getFailure() != null) {
+            throw new UncheckedIOException("Replica " + replica + " stopped.", scheduler.getFailure());
+        }
+
+        RequestLatencies latencies = scheduler.getLatencies();
+        long numShutDown = scheduler.getAllElevators().stream().filter(Elevator::isHardFault).count();
+        return new double[] {
+                latencies.getWaitTimes().getMean() / 1000,
+                latencies.getWaitTimes().getValueAtPercentile(95) / 1000.0,
+                latencies.getJourneyTimes().getMean() / 1000,
+                latencies.getHandlingCapacity(),
+                scheduler.getNumMovements(),
+                numShutDown,
+                traffic.size() - latencies.getJourneyTimes().getCount()
+        };
+    }
+
+    /**
+     * Returns the distribution of the key performance indicator with the specified name over the replicas.
+     *
+     * @param kpi A String representing the name of the key performance indicator, one of KPIS.
+     * @return A KpiDistribution representing the distribution. Null, if the study has not run.
+     * @throws IllegalArgumentException If there is no key performance indicator with the specified name.
+     */
+    public KpiDistribution getDistribution(String kpi) {
+        for (int i = 0; i < KPIS.length; i++) {
+            if (KPIS[i].equals(kpi)) {
+                return distributions == null ? null : distributions[i];
+            }
+        }
+        throw new IllegalArgumentException("No key performance indicator " + kpi + ".");
+    }
+
+    /**
+     * Returns the number of replicas left out of the distributions because their traffic had no hall calls.
+     *
+     * @return An integer representing the number of replicas left out.
+     */
+    public int getNumEmptyReplicas() {
+        return numEmptyReplicas;
+    }
+
+    /**
+     * Returns a String representing the building studied and the distribution of each key performance indicator, one
+     * per line.
+     *
+     * @return A String representing the study.
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%d floors, %d elevator car(s), %d people, fault rate %s, %s, seed %d%n",
+                numFloors, numElevators, population, faultRate, dispatchMode, seed));
+        if (numEmptyReplicas > 0) {
+            report.append(String.format("  %d replica(s) with no hall calls left out%n", numEmptyReplicas));
+        }
+        if (distributions != null) {
+            for (KpiDistribution distribution : distributions) {
+                report.append(String.format("  %-36s %s%n", distribution.getName(), distribution));
+            }
+        }
+        return report.toString();
+    }
+
+}
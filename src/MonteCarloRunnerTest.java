@@ -0,0 +1,98 @@
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the MonteCarloRunner, the KpiDistributions it works out and the InProcessTransports its replicas run
+ * on.
+ */
+class MonteCarloRunnerTest {
+
+    /**
+     * Tests that an InProcessTransport delivers a copy of each message with its sender and type, decodes every ACK
+     * into the same HardwareDevice, drops messages sent to an endpoint that has been closed, and stops a thread waiting
+     * for a message when it is closed.
+     */
+    @Test
+    void testInProcessTransport() throws IOException {
+        InProcessNetwork network = new InProcessNetwork();
+        SimulationClock clock = new RealTimeClock();
+        Transport sender = network.open(0, clock);
+        Transport receiver = network.open(0, clock);
+        assertNotEquals(sender.getLocalAddress(), receiver.getLocalAddress());
+
+        HardwareDevice floorEvent = new HardwareDevice("Elevator2", LocalTime.NOON, 3, FloorButton.UP, 7, 2,
+                Fault.NO_FAULT);
+        sender.send(HardwareDeviceCodec.ACK, floorEvent, receiver.getLocalAddress());
+        HardwareDevice received = receiver.receive();
+        assertNotSame(floorEvent, received);
+        assertEquals(7, received.getCarButton());
+        assertEquals(2, received.getNumPassengers());
+        assertEquals(HardwareDeviceCodec.ACK, receiver.getLastMessageType());
+        assertEquals(sender.getLocalAddress(), receiver.getLastSender());
+        sender.send(HardwareDeviceCodec.ACK, floorEvent, receiver.getLocalAddress());
+        assertSame(received, receiver.receive()); // every ACK is decoded into the same HardwareDevice
+        sender.send(HardwareDeviceCodec.FLOOR_EVENT, floorEvent, receiver.getLocalAddress());
+        assertNotSame(received, receiver.receive());
+
+        receiver.close();
+        sender.send(HardwareDeviceCodec.FLOOR_EVENT, floorEvent, receiver.getLocalAddress()); // dropped
+        assertNull(receiver.receive());
+        sender.close();
+        assertThrows(ClosedChannelException.class, () -> sender.send(HardwareDeviceCodec.FLOOR_EVENT, floorEvent,
+                receiver.getLocalAddress()));
+    }
+
+    /**
+     * Tests the mean, confidence interval and percentiles of a KpiDistribution.
+     */
+    @Test
+    void testKpiDistribution() {
+        KpiDistribution distribution = new KpiDistribution("movements", new double[] {5, 1, 4, 2, 3});
+        assertEquals(5, distribution.getCount());
+        assertEquals(3, distribution.getMean(), 1e-9);
+        assertEquals(Math.sqrt(2.5), distribution.getStandardDeviation(), 1e-9);
+        assertEquals(KpiDistribution.Z_95 * Math.sqrt(2.5 / 5), distribution.getConfidenceInterval(), 1e-9);
+        assertEquals(1, distribution.getValueAtPercentile(5));
+        assertEquals(3, distribution.getValueAtPercentile(50));
+        assertEquals(5, distribution.getValueAtPercentile(100));
+        assertEquals(0, new KpiDistribution("movements", new double[] {4}).getConfidenceInterval());
+    }
+
+    /**
+     * Tests that every hall call of every replica is completed without faults, that a study gives the same results on
+     * any number of threads, that replicas whose elevator cars all shut down still finish, and that replicas without
+     * hall calls are left out.
+     */
+    @Test
+    void testRun() throws Exception {
+        MonteCarloRunner runner = new MonteCarloRunner(10, 2, 30, 0, DispatchMode.COLLECTIVE_CONTROL, 7);
+        runner.run(4, 2);
+        assertEquals(4, runner.getDistribution("wait mean (s)").getCount());
+        assertTrue(runner.getDistribution("wait mean (s)").getMean() > 0);
+        assertTrue(runner.getDistribution("handling capacity (passengers/5 min)").getMean() > 0);
+        assertEquals(0, runner.getDistribution("hall calls not completed").getValueAtPercentile(100));
+        assertEquals(0, runner.getDistribution("elevator cars shut down").getValueAtPercentile(100));
+
+        MonteCarloRunner sequential = new MonteCarloRunner(10, 2, 30, 0, DispatchMode.COLLECTIVE_CONTROL, 7);
+        sequential.run(4, 1);
+        for (String kpi : MonteCarloRunner.KPIS) {
+            assertEquals(runner.getDistribution(kpi).getMean(), sequential.getDistribution(kpi).getMean(), 1e-9, kpi);
+        }
+
+        MonteCarloRunner faulty = new MonteCarloRunner(10, 2, 30, 0.5, DispatchMode.COLLECTIVE_CONTROL, 7);
+        faulty.run(4, 2);
+        assertTrue(faulty.getDistribution("elevator cars shut down").getMean() > 0);
+        assertThrows(IllegalArgumentException.class, () -> faulty.getDistribution("uptime"));
+
+        // nobody works in the building, so no replica has a hall call to measure
+        MonteCarloRunner empty = new MonteCarloRunner(10, 2, 0, 0, DispatchMode.COLLECTIVE_CONTROL, 7);
+        empty.run(3, 2);
+        assertEquals(3, empty.getNumEmptyReplicas());
+        assertEquals(0, empty.getDistribution("wait mean (s)").getCount());
+    }
+
+}
@@ -0,0 +1,208 @@
+import java.util.*;
+
+/**
+ * A class to represent the floor events waiting for an elevator car, indexed by the floor and direction they were
+ * requested at.
+ * <p>
+ * For each FloorButton, a BitSet marks the floors with at least one floor event waiting, and a slot per floor keeps
+ * the floor events waiting there in the order they were added. Floor events are keyed by their request ID, so checking
+ * a floor, claiming a floor event and removing a floor event do not depend on how many floor events are waiting.
+ * Iterating goes through every floor event in the order it was added.
+ * <p>
+ * A PendingFloorEvents is not thread-safe. The Scheduler only accesses it while holding its own lock.
+ */
+public class PendingFloorEvents implements Iterable<HardwareDevice> {
+
+    /**
+     * An array of FloorButtons indexed by ordinal, cached to avoid copying FloorButton.values().
+     */
+    private static final FloorButton[] FLOOR_BUTTONS = FloorButton.values();
+
+    /**
+     * A Map of request IDs to HardwareDevices representing every floor event waiting, in the order they were added.
+     */
+    private final Map<Long, HardwareDevice> floorEvents = new LinkedHashMap<>();
+
+    /**
+     * An array of BitSets, indexed by FloorButton ordinal, representing the floors with at least one floor event
+     * waiting to go in that direction.
+     */
+    private final BitSet[] pendingFloors = new BitSet[FLOOR_BUTTONS.length];
+
+    /**
+     * An array of Lists, indexed by FloorButton ordinal, of slots indexed by floor. Each slot maps the request IDs of
+     * the floor events waiting at that floor to go in that direction to the floor events, in the order they were
+     * added. A slot is null until a floor event is added to it.
+     */
+    private final List<List<Map<Long, HardwareDevice>>> slots = new ArrayList<>(FLOOR_BUTTONS.length);
+
+    /**
+     * Initializes an empty PendingFloorEvents.
+     */
+    public PendingFloorEvents() {
+        for (int i = 0; i < FLOOR_BUTTONS.length; i++) {
+            pendingFloors[i] = new BitSet();
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Adds the specified floor event.
+     *
+     * @param floorEvent A HardwareDevice representing the floor event to add.
+     * @throws IllegalArgumentException If a floor event with the same request ID is already waiting, or the floor
+     * event was requested at a negative floor.
+     */
+    public void add(HardwareDevice floorEvent) {
+        int floor = floorEvent.getFloor();
+        if (floor < 0) {
+            throw new IllegalArgumentException("Floor must not be negative, was " + floor + ".");
+        }
+        if (floorEvents.putIfAbsent(floorEvent.getRequestId(), floorEvent) != null) {
+            throw new IllegalArgumentException("Request " + floorEvent.getRequestId() + " is already waiting.");
+        }
+
+        int button = floorEvent.getFloorButton().ordinal();
+        List<Map<Long, HardwareDevice>> floors = slots.get(button);
+        while (floors.size() <= floor) {
+            floors.add(null);
+        }
+        Map<Long, HardwareDevice> slot = floors.get(floor);
+        if (slot == null) {
+            slot = new LinkedHashMap<>();
+            floors.set(floor, slot);
+        }
+        slot.put(floorEvent.getRequestId(), floorEvent);
+        pendingFloors[button].set(floor);
+    }
+
+    /**
+     * Removes the specified floor event.
+     *
+     * @param floorEvent A HardwareDevice representing the floor event to remove.
+     * @return True, if the floor event was waiting. False, if not.
+     */
+    public boolean remove(HardwareDevice floorEvent) {
+        if (floorEvents.remove(floorEvent.getRequestId()) == null) {
+            return false;
+        }
+        removeFromSlot(floorEvent);
+        return true;
+    }
+
+    /**
+     * Removes the specified floor event from the slot of its floor and direction, and clears the floor from the BitSet
+     * of its direction if no other floor event is waiting there.
+     *
+     * @param floorEvent A HardwareDevice representing the floor event to remove.
+     */
+    private void removeFromSlot(HardwareDevice floorEvent) {
+        int button = floorEvent.getFloorButton().ordinal();
+        Map<Long, HardwareDevice> slot = slots.get(button).get(floorEvent.getFloor());
+        slot.remove(floorEvent.getRequestId());
+        if (slot.isEmpty()) {
+            pendingFloors[button].clear(floorEvent.getFloor());
+        }
+    }
+
+    /**
+     * Returns the floor event with the specified request ID.
+     *
+     * @param requestId A long representing the request ID of the floor event.
+     * @return A HardwareDevice with the specified request ID. Null, if no such floor event is waiting.
+     */
+    public HardwareDevice get(long requestId) {
+        return floorEvents.get(requestId);
+    }
+
+    /**
+     * Returns if at least one floor event is waiting at the specified floor to go in the specified direction.
+     *
+     * @param floor An integer representing a floor.
+     * @param button A FloorButton representing a direction.
+     * @return True, if at least one floor event is waiting at the specified floor to go in the specified direction.
+     * False, if not.
+     */
+    public boolean hasPending(int floor, FloorButton button) {
+        return floor >= 0 && pendingFloors[button.ordinal()].get(floor);
+    }
+
+    /**
+     * Returns the floor events waiting at the specified floor to go in the specified direction, in the order they were
+     * added. The returned Collection is a read-only view, so it must not be iterated while floor events are removed.
+     *
+     * @param floor An integer representing a floor.
+     * @param button A FloorButton representing a direction.
+     * @return A Collection of HardwareDevices waiting at the specified floor to go in the specified direction.
+     */
+    public Collection<HardwareDevice> get(int floor, FloorButton button) {
+        if (!hasPending(floor, button)) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableCollection(slots.get(button.ordinal()).get(floor).values());
+    }
+
+    /**
+     * Returns the number of floor events waiting.
+     *
+     * @return An integer representing the number of floor events waiting.
+     */
+    public int size() {
+        return floorEvents.size();
+    }
+
+    /**
+     * Returns if no floor event is waiting.
+     *
+     * @return True, if no floor event is waiting. False, if not.
+     */
+    public boolean isEmpty() {
+        return floorEvents.isEmpty();
+    }
+
+    /**
+     * Returns a List of every floor event waiting, in the order they were added.
+     *
+     * @return A new List of HardwareDevices representing every floor event waiting.
+     */
+    public List<HardwareDevice> toList() {
+        return new ArrayList<>(floorEvents.values());
+    }
+
+    /**
+     * Returns an Iterator over every floor event waiting, in the order they were added. Removing a floor event through
+     * the Iterator also removes it from its slot.
+     *
+     * @return An Iterator of HardwareDevices representing every floor event waiting.
+     */
+    @Override
+    public Iterator<HardwareDevice> iterator() {
+        Iterator<HardwareDevice> iterator = floorEvents.values().iterator();
+        return new Iterator<>() {
+
+            /**
+             * A HardwareDevice representing the floor event returned last.
+             */
+            private HardwareDevice current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public HardwareDevice next() {
+                current = iterator.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                removeFromSlot(current);
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,87 @@
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the PendingFloorEvents.
+ */
+class PendingFloorEventsTest {
+
+    /**
+     * A PendingFloorEvents to test.
+     */
+    private PendingFloorEvents pendingFloorEvents;
+
+    /**
+     * Initializes an empty PendingFloorEvents before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        pendingFloorEvents = new PendingFloorEvents();
+    }
+
+    /**
+     * Returns a new floor event requested at the specified floor to go in the specified direction.
+     *
+     * @param floor An integer representing the floor the floor event is requested at.
+     * @param button A FloorButton representing the direction of the floor event.
+     * @return A HardwareDevice representing the floor event.
+     */
+    private HardwareDevice floorEvent(int floor, FloorButton button) {
+        return new HardwareDevice("Elevator?", LocalTime.parse("14:05:15.0"), floor, button,
+                button == FloorButton.UP ? floor + 1 : floor - 1, 1, Fault.NO_FAULT);
+    }
+
+    /**
+     * Tests that floor events are indexed by the floor and direction they were requested at, in the order they were
+     * added.
+     */
+    @Test
+    void testAddAndGet() {
+        HardwareDevice up3 = floorEvent(3, FloorButton.UP);
+        HardwareDevice down3 = floorEvent(3, FloorButton.DOWN);
+        HardwareDevice secondUp3 = floorEvent(3, FloorButton.UP);
+        pendingFloorEvents.add(up3);
+        pendingFloorEvents.add(down3);
+        pendingFloorEvents.add(secondUp3);
+
+        assertEquals(3, pendingFloorEvents.size());
+        assertTrue(pendingFloorEvents.hasPending(3, FloorButton.UP));
+        assertTrue(pendingFloorEvents.hasPending(3, FloorButton.DOWN));
+        assertFalse(pendingFloorEvents.hasPending(2, FloorButton.UP));
+        assertFalse(pendingFloorEvents.hasPending(100, FloorButton.UP));
+        assertEquals(List.of(up3, secondUp3), List.copyOf(pendingFloorEvents.get(3, FloorButton.UP)));
+        assertTrue(pendingFloorEvents.get(7, FloorButton.DOWN).isEmpty());
+        assertSame(down3, pendingFloorEvents.get(down3.getRequestId()));
+        assertEquals(List.of(up3, down3, secondUp3), pendingFloorEvents.toList());
+        assertThrows(IllegalArgumentException.class, () -> pendingFloorEvents.add(up3));
+    }
+
+    /**
+     * Tests that a floor is only cleared once every floor event waiting there has been removed, whether it is removed
+     * directly or through the Iterator.
+     */
+    @Test
+    void testRemove() {
+        HardwareDevice first = floorEvent(5, FloorButton.DOWN);
+        HardwareDevice second = floorEvent(5, FloorButton.DOWN);
+        pendingFloorEvents.add(first);
+        pendingFloorEvents.add(second);
+
+        assertTrue(pendingFloorEvents.remove(first));
+        assertFalse(pendingFloorEvents.remove(first));
+        assertTrue(pendingFloorEvents.hasPending(5, FloorButton.DOWN));
+
+        Iterator<HardwareDevice> iterator = pendingFloorEvents.iterator();
+        assertSame(second, iterator.next());
+        iterator.remove();
+        assertFalse(pendingFloorEvents.hasPending(5, FloorButton.DOWN));
+        assertNull(pendingFloorEvents.get(second.getRequestId()));
+        assertTrue(pendingFloorEvents.isEmpty());
+    }
+
+}
@@ -0,0 +1,189 @@
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A SimulationClock that runs in real time, optionally sped up by a constant factor.
+ * <p>
+ * A speed-up factor of 1 runs the ElevatorSystem in real time. A speed-up factor of 10 makes every delay ten times
+ * shorter.
+ * <p>
+ * Clock time is always worked out from System.nanoTime and the time the clock was created at, so threads that sleep
+ * until a deadline do not drift however many times they sleep. The scheduled tasks of every RealTimeClock all run on
+ * one TimingWheel, shared for as long as the JVM runs, so creating a RealTimeClock starts no thread.
+ */
+public class RealTimeClock implements SimulationClock {
+
+    /**
+     * A long representing the length of a tick of the TimingWheel, in real milliseconds.
+     */
+    private static final long TICK_MILLIS = 10;
+
+    /**
+     * An integer representing the number of buckets of the TimingWheel. One turn of the wheel covers about 5 seconds.
+     */
+    private static final int NUM_BUCKETS = 512;
+
+    /**
+     * A double representing how many times faster than real time the clock runs.
+     */
+    private final double speedUp;
+
+    /**
+     * A long representing the time, in nanoseconds, the clock was created at.
+     */
+    private final long startTime;
+
+    /**
+     * An AtomicLong representing the order the next task is scheduled in.
+     */
+    private final AtomicLong sequenceNumber = new AtomicLong();
+
+    /**
+     * A Random seeded with the seed of the simulation.
+     */
+    private final Random random;
+
+    /**
+     * Initializes a RealTimeClock that runs in real time.
+     */
+    public RealTimeClock() {
+        this(1, System.nanoTime());
+    }
+
+    /**
+     * Initializes a RealTimeClock that runs the specified number of times faster than real time.
+     *
+     * @param speedUp A double representing how many times faster than real time the clock runs.
+     * @param seed A long representing the seed of the simulation.
+     */
+    public RealTimeClock(double speedUp, long seed) {
+        if (speedUp <= 0) {
+            throw new IllegalArgumentException("Speed-up factor must be positive, was " + speedUp + ".");
+        }
+        this.speedUp = speedUp;
+        startTime = System.nanoTime();
+        random = new Random(seed);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return (long) ((System.nanoTime() - startTime) * speedUp / 1_000_000);
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(toRealMillis(millis));
+    }
+
+    @Override
+    public void sleepUntil(long timeMillis) throws InterruptedException {
+        if (timeMillis == Long.MAX_VALUE) {
+            Thread.sleep(Long.MAX_VALUE);
+            return;
+        }
+
+        long deadline = toNanoTime(timeMillis);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    @Override
+    public SimulationEvent schedule(long delayMillis, Runnable task) {
+        long now = System.nanoTime();
+        long timeMillis = currentTimeMillis();
+        timeMillis = delayMillis > Long.MAX_VALUE - timeMillis ? Long.MAX_VALUE : timeMillis + delayMillis;
+        long delayNanos = delayMillis == Long.MAX_VALUE ? Long.MAX_VALUE / 2 : Math.round(delayMillis * 1e6 / speedUp);
+        return scheduleAtNanoTime(timeMillis, now + delayNanos, task);
+    }
+
+    @Override
+    public SimulationEvent scheduleAt(long timeMillis, Runnable task) {
+        return scheduleAtNanoTime(timeMillis, toNanoTime(timeMillis), task);
+    }
+
+    /**
+     * Schedules the specified task on the TimingWheel.
+     *
+     * @param timeMillis A long representing the time, in milliseconds of clock time, the task runs at.
+     * @param deadlineNanos A long representing the System.nanoTime value the task runs at.
+     * @param task A Runnable representing the task to run.
+     * @return A SimulationEvent that can be used to cancel the task.
+     */
+    private SimulationEvent scheduleAtNanoTime(long timeMillis, long deadlineNanos, Runnable task) {
+        SimulationEvent event = new SimulationEvent(timeMillis, sequenceNumber.getAndIncrement(), task);
+        SharedTimingWheel.TIMING_WHEEL.schedule(event, deadlineNanos);
+        return event;
+    }
+
+    /**
+     * Returns the number of real milliseconds the specified number of milliseconds of clock time take.
+     *
+     * @param millis A long representing a number of milliseconds of clock time.
+     * @return A long representing a number of real milliseconds.
+     */
+    private long toRealMillis(long millis) {
+        return millis == Long.MAX_VALUE ? millis : Math.round(millis / speedUp);
+    }
+
+    /**
+     * Returns the System.nanoTime value the clock reaches the specified time at.
+     *
+     * @param timeMillis A long representing a time, in milliseconds of clock time.
+     * @return A long representing the System.nanoTime value the clock reaches the specified time at.
+     */
+    private long toNanoTime(long timeMillis) {
+        return startTime + Math.round(timeMillis * 1e6 / speedUp);
+    }
+
+    // time passes on its own in real time, so threads taking part in the simulation do not need to be tracked
+
+    @Override
+    public void register() {
+    }
+
+    @Override
+    public void deregister() {
+    }
+
+    @Override
+    public void idle() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void messageSent() {
+    }
+
+    @Override
+    public void messageReceived() {
+    }
+
+    @Override
+    public Random getRandom() {
+        return random;
+    }
+
+    /**
+     * A class holding the TimingWheel every RealTimeClock schedules its tasks on, started the first time a task is
+     * scheduled.
+     */
+    private static final class SharedTimingWheel {
+
+        /**
+         * A TimingWheel representing the single thread every scheduled task runs on.
+         */
+        private static final TimingWheel TIMING_WHEEL = new TimingWheel("RealTimeClock", TICK_MILLIS, NUM_BUCKETS);
+
+        static {
+            TIMING_WHEEL.start();
+        }
+
+    }
+
+}
@@ -0,0 +1,244 @@
+import java.util.Arrays;
+
+/**
+ * A class to represent the wait, ride and journey times of every completed floor event, for the whole ElevatorSystem
+ * and for each elevator car, worked out from the RequestStages stamped on each HardwareDevice.
+ * <p>
+ * The wait is from when the hall call was registered to when an elevator car arrived at its floor, the ride from when
+ * the passengers boarded to when they were dropped off, and the journey from when the hall call was registered to when
+ * the passengers were dropped off. Every time is in milliseconds of SimulationClock time.
+ * <p>
+ * The passengers dropped off are also counted in windows of HANDLING_CAPACITY_WINDOW, for the handling capacity: the
+ * most passengers the elevator cars carried in any one window.
+ */
+public class RequestLatencies {
+
+    /**
+     * A long representing the length, in milliseconds of SimulationClock time, of the windows the passengers dropped
+     * off are counted in.
+     */
+    public static final long HANDLING_CAPACITY_WINDOW = 5 * 60_000;
+
+    /**
+     * A LatencyHistogram representing the wait times of every floor event.
+     */
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+
+    /**
+     * A LatencyHistogram representing the ride times of every floor event.
+     */
+    private final LatencyHistogram rideTimes = new LatencyHistogram();
+
+    /**
+     * A LatencyHistogram representing the journey times of every floor event.
+     */
+    private final LatencyHistogram journeyTimes = new LatencyHistogram();
+
+    /**
+     * An array of LatencyHistograms representing the wait times of the floor events of each elevator car, indexed by
+     * elevator ID. Index 0 is unused.
+     */
+    private final LatencyHistogram[] elevatorWaitTimes;
+
+    /**
+     * An array of LatencyHistograms representing the ride times of the floor events of each elevator car, indexed by
+     * elevator ID. Index 0 is unused.
+     */
+    private final LatencyHistogram[] elevatorRideTimes;
+
+    /**
+     * An array of LatencyHistograms representing the journey times of the floor events of each elevator car, indexed
+     * by elevator ID. Index 0 is unused.
+     */
+    private final LatencyHistogram[] elevatorJourneyTimes;
+
+    /**
+     * An array of integers representing the number of passengers dropped off in each HANDLING_CAPACITY_WINDOW, counted
+     * from when the SimulationClock started. Grows as the clock runs.
+     */
+    private int[] passengersDroppedOff = new int[16];
+
+    /**
+     * Initializes a RequestLatencies for the specified number of elevator cars.
+     *
+     * @param numElevators An integer representing the number of elevator cars, with IDs from 1.
+     */
+    public RequestLatencies(int numElevators) {
+        elevatorWaitTimes = new LatencyHistogram[numElevators + 1];
+        elevatorRideTimes = new LatencyHistogram[numElevators + 1];
+        elevatorJourneyTimes = new LatencyHistogram[numElevators + 1];
+        for (int id = 1; id <= numElevators; id++) {
+            elevatorWaitTimes[id] = new LatencyHistogram();
+            elevatorRideTimes[id] = new LatencyHistogram();
+            elevatorJourneyTimes[id] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the wait, ride and journey times of the specified completed floor event. A time whose stages have not
+     * both been stamped is not recorded.
+     *
+     * @param floorEvent A HardwareDevice representing a floor event whose passengers have been dropped off.
+     */
+    public void record(HardwareDevice floorEvent) {
+        int id = floorEvent.getElevatorId();
+        boolean knownElevator = id > 0 && id < elevatorWaitTimes.length;
+        record(floorEvent, RequestStage.REGISTERED, RequestStage.ARRIVED_AT_ORIGIN, waitTimes,
+                knownElevator ? elevatorWaitTimes[id] : null);
+        record(floorEvent, RequestStage.BOARDED, RequestStage.DROPPED_OFF, rideTimes,
+                knownElevator ? elevatorRideTimes[id] : null);
+        record(floorEvent, RequestStage.REGISTERED, RequestStage.DROPPED_OFF, journeyTimes,
+                knownElevator ? elevatorJourneyTimes[id] : null);
+        recordDropOff(floorEvent);
+    }
+
+    /**
+     * Counts the passengers of the specified floor event in the window they were dropped off in, if they were.
+     *
+     * @param floorEvent A HardwareDevice representing a floor event whose passengers have been dropped off.
+     */
+    private synchronized void recordDropOff(HardwareDevice floorEvent) {
+        long droppedOff = floorEvent.getStageTime(RequestStage.DROPPED_OFF);
+        if (droppedOff == -1) {
+            return;
+        }
+        int window = (int) (droppedOff / HANDLING_CAPACITY_WINDOW);
+        if (window >= passengersDroppedOff.length) {
+            passengersDroppedOff = Arrays.copyOf(passengersDroppedOff,
+                    Math.max(window + 1, 2 * passengersDroppedOff.length));
+        }
+        passengersDroppedOff[window] += floorEvent.getNumPassengers();
+    }
+
+    /**
+     * Records the time between the specified stages of the specified floor event, if both have been stamped.
+     *
+     * @param floorEvent A HardwareDevice representing a floor event.
+     * @param from A RequestStage representing the stage the time starts at.
+     * @param to A RequestStage representing the stage the time ends at.
+     * @param system A LatencyHistogram to record the time in for the whole ElevatorSystem.
+     * @param elevator A LatencyHistogram to record the time in for the elevator car. Null, if there is none.
+     */
+    private static void record(HardwareDevice floorEvent, RequestStage from, RequestStage to, LatencyHistogram system,
+                               LatencyHistogram elevator) {
+        long start = floorEvent.getStageTime(from);
+        long end = floorEvent.getStageTime(to);
+        if (start == -1 || end == -1) {
+            return;
+        }
+        system.record(end - start);
+        if (elevator != null) {
+            elevator.record(end - start);
+        }
+    }
+
+    /**
+     * Returns the wait times of every floor event.
+     *
+     * @return A LatencyHistogram representing the wait times of every floor event.
+     */
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    /**
+     * Returns the ride times of every floor event.
+     *
+     * @return A LatencyHistogram representing the ride times of every floor event.
+     */
+    public LatencyHistogram getRideTimes() {
+        return rideTimes;
+    }
+
+    /**
+     * Returns the journey times of every floor event.
+     *
+     * @return A LatencyHistogram representing the journey times of every floor event.
+     */
+    public LatencyHistogram getJourneyTimes() {
+        return journeyTimes;
+    }
+
+    /**
+     * Returns the handling capacity of the ElevatorSystem: the most passengers dropped off in any one
+     * HANDLING_CAPACITY_WINDOW.
+     *
+     * @return An integer representing the most passengers dropped off in one window. 0, if none have been.
+     */
+    public synchronized int getHandlingCapacity() {
+        return Arrays.stream(passengersDroppedOff).max().getAsInt();
+    }
+
+    /**
+     * Returns the number of passengers dropped off.
+     *
+     * @return A long representing the number of passengers of every floor event completed.
+     */
+    public synchronized long getNumPassengers() {
+        return Arrays.stream(passengersDroppedOff).asLongStream().sum();
+    }
+
+    /**
+     * Returns the wait times of the floor events of the elevator car with the specified ID.
+     *
+     * @param id An integer representing the ID of the elevator car.
+     * @return A LatencyHistogram representing the wait times of the floor events of the elevator car.
+     */
+    public LatencyHistogram getWaitTimes(int id) {
+        return elevatorWaitTimes[id];
+    }
+
+    /**
+     * Returns the ride times of the floor events of the elevator car with the specified ID.
+     *
+     * @param id An integer representing the ID of the elevator car.
+     * @return A LatencyHistogram representing the ride times of the floor events of the elevator car.
+     */
+    public LatencyHistogram getRideTimes(int id) {
+        return elevatorRideTimes[id];
+    }
+
+    /**
+     * Returns the journey times of the floor events of the elevator car with the specified ID.
+     *
+     * @param id An integer representing the ID of the elevator car.
+     * @return A LatencyHistogram representing the journey times of the floor events of the elevator car.
+     */
+    public LatencyHistogram getJourneyTimes(int id) {
+        return elevatorJourneyTimes[id];
+    }
+
+    /**
+     * Returns a String representing the wait, ride and journey times, for the whole ElevatorSystem and then for each
+     * elevator car, one per line.
+     *
+     * @return A String representing the wait, ride and journey times.
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        appendLine(report, "All", "wait", waitTimes);
+        appendLine(report, "All", "ride", rideTimes);
+        appendLine(report, "All", "journey", journeyTimes);
+        for (int id = 1; id < elevatorWaitTimes.length; id++) {
+            String name = ElevatorRegistry.nameOf(id);
+            appendLine(report, name, "wait", elevatorWaitTimes[id]);
+            appendLine(report, name, "ride", elevatorRideTimes[id]);
+            appendLine(report, name, "journey", elevatorJourneyTimes[id]);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Appends a line representing the specified LatencyHistogram to the specified report.
+     *
+     * @param report A StringBuilder representing the report.
+     * @param scope A String representing what the times are of, e.g. the name of an elevator car.
+     * @param time A String representing which time it is.
+     * @param histogram A LatencyHistogram representing the times.
+     */
+    private static void appendLine(StringBuilder report, String scope, String time, LatencyHistogram histogram) {
+        report.append(String.format("%-10s %-8s %s ms%n", scope, time, histogram));
+    }
+
+}
@@ -0,0 +1,99 @@
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * A class to represent a row of the request log of the ElevatorSystemUI: a snapshot of a request, taken by the thread
+ * that logs it.
+ * <p>
+ * The HardwareDevice of a request keeps changing while its Elevator runs it, so the request log keeps what the request
+ * was when it was logged instead, and the Event Dispatch Thread never reads a HardwareDevice an Elevator thread is
+ * writing.
+ */
+public final class RequestLogEntry implements Serializable {
+
+    /**
+     * A long representing the version of the serialized form of a RequestLogEntry.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * An integer representing the ID of the elevator car running the request.
+     */
+    private final int elevatorId;
+
+    /**
+     * An integer representing the floor the request was made at.
+     */
+    private final int floor;
+
+    /**
+     * An integer representing the floor the passengers want to go to.
+     */
+    private final int carButton;
+
+    /**
+     * A Fault representing the fault of the request.
+     */
+    private final Fault fault;
+
+    /**
+     * A String representing the request, as shown in the request log.
+     */
+    private final String text;
+
+    /**
+     * Initializes a RequestLogEntry with what the specified request is now.
+     *
+     * @param request A HardwareDevice representing the request.
+     */
+    public RequestLogEntry (HardwareDevice request) {
+        elevatorId = request.getElevatorId();
+        floor = request.getFloor();
+        carButton = request.getCarButton();
+        fault = request.getFault();
+        text = request.toString();
+    }
+
+    /**
+     * Returns the ID of the elevator car running the request.
+     *
+     * @return An integer representing the ID of the elevator car.
+     */
+    public int getElevatorId() {
+        return elevatorId;
+    }
+
+    /**
+     * Returns the floor the request was made at.
+     *
+     * @return An integer representing the floor.
+     */
+    public int getFloor() {
+        return floor;
+    }
+
+    /**
+     * Returns the floor the passengers want to go to.
+     *
+     * @return An integer representing the floor.
+     */
+    public int getCarButton() {
+        return carButton;
+    }
+
+    /**
+     * Returns the fault of the request.
+     *
+     * @return A Fault representing the fault.
+     */
+    public Fault getFault() {
+        return fault;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+}
@@ -0,0 +1,215 @@
+import javax.swing.*;
+import java.io.Serial;
+import java.util.List;
+
+/**
+ * A class to represent the request log of the ElevatorSystemUI: the latest requests, in a ring buffer that never grows
+ * past its capacity, shown through a filter on the elevator car, floor and fault, with counters of every request ever
+ * logged.
+ * <p>
+ * Once the ring buffer is full, each new request overwrites the oldest one. The requests matching the filter are kept
+ * as the sequence numbers of their slots in a second ring buffer of the same capacity, so the JList asks for any row in
+ * constant time, appending a request costs the same however long the log has run, and only changing the filter goes
+ * through the whole log. Each request is kept as a RequestLogEntry, a snapshot taken when it was logged, so the rows do
+ * not change while the JList draws them. Only used on the Event Dispatch Thread.
+ */
+public class RequestLogModel extends AbstractListModel<RequestLogEntry> {
+
+    /**
+     * A long representing the version of the serialized form of a RequestLogModel.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * An integer representing the number of requests the log keeps.
+     */
+    private final int capacity;
+
+    /**
+     * An array of RequestLogEntries representing the requests kept, the one with sequence number n in slot
+     * n % capacity.
+     */
+    private final RequestLogEntry[] requests;
+
+    /**
+     * A long representing the sequence number of the next request logged, which is also the number of requests ever
+     * logged.
+     */
+    private long nextSequence;
+
+    /**
+     * An array of longs representing the sequence numbers of the requests kept that match the filter, oldest first,
+     * starting at matchesHead.
+     */
+    private final long[] matches;
+
+    /**
+     * Integers representing the slot of the oldest match and the number of matches.
+     */
+    private int matchesHead, numMatches;
+
+    /**
+     * Integers representing the elevator car ID and floor requests have to match. 0, if any matches.
+     */
+    private int elevatorFilter, floorFilter;
+
+    /**
+     * A Fault representing the fault requests have to match. Null, if any matches.
+     */
+    private Fault faultFilter;
+
+    /**
+     * An array of longs representing the number of requests ever logged with each Fault, indexed by ordinal.
+     */
+    private final long[] faultCounts = new long[Fault.values().length];
+
+    /**
+     * Initializes a RequestLogModel that keeps the specified number of requests.
+     *
+     * @param capacity An integer representing the number of requests to keep, at least 1.
+     */
+    public RequestLogModel(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A request log has to keep at least 1 request.");
+        }
+        this.capacity = capacity;
+        requests = new RequestLogEntry[capacity];
+        matches = new long[capacity];
+    }
+
+    /**
+     * Logs the specified requests, overwriting the oldest ones once the log is full, with one event for the rows
+     * removed and one for the rows added.
+     *
+     * @param newRequests A List of RequestLogEntries representing the requests, oldest first.
+     */
+    public void addAll(List<RequestLogEntry> newRequests) {
+        int oldNumMatches = numMatches;
+        int numRemoved = 0;
+        int numAdded = 0;
+        for (RequestLogEntry request : newRequests) {
+            long sequence = nextSequence++;
+            requests[(int) (sequence % capacity)] = request;
+            faultCounts[request.getFault().ordinal()]++;
+            // the oldest match is overwritten when its slot is reused
+            if (numMatches > 0 && matches[matchesHead] == sequence - capacity) {
+                matchesHead = (matchesHead + 1) % capacity;
+                numMatches--;
+                if (numRemoved < oldNumMatches) {
+                    numRemoved++;
+                } else {
+                    numAdded--; // it was added by this call, so it has not been shown yet
+                }
+            }
+            if (matchesFilter(request)) {
+                matches[(matchesHead + numMatches) % capacity] = sequence;
+                numMatches++;
+                numAdded++;
+            }
+        }
+        if (numRemoved > 0) {
+            fireIntervalRemoved(this, 0, numRemoved - 1);
+        }
+        if (numAdded > 0) {
+            int firstAdded = oldNumMatches - numRemoved;
+            fireIntervalAdded(this, firstAdded, firstAdded + numAdded - 1);
+        }
+    }
+
+    /**
+     * Shows only the requests of the specified elevator car, to or from the specified floor, with the specified fault.
+     *
+     * @param elevatorId An integer representing the ID of the elevator car. 0, for any.
+     * @param floor An integer representing the floor. 0, for any.
+     * @param fault A Fault representing the fault. Null, for any.
+     */
+    public void setFilter(int elevatorId, int floor, Fault fault) {
+        elevatorFilter = elevatorId;
+        floorFilter = floor;
+        faultFilter = fault;
+
+        int oldNumMatches = numMatches;
+        matchesHead = 0;
+        numMatches = 0;
+        for (long sequence = Math.max(0, nextSequence - capacity); sequence < nextSequence; sequence++) {
+            if (matchesFilter(requests[(int) (sequence % capacity)])) {
+                matches[numMatches++] = sequence;
+            }
+        }
+        if (oldNumMatches > 0) {
+            fireIntervalRemoved(this, 0, oldNumMatches - 1);
+        }
+        if (numMatches > 0) {
+            fireIntervalAdded(this, 0, numMatches - 1);
+        }
+    }
+
+    /**
+     * Returns whether the specified request matches the filter.
+     *
+     * @param request A RequestLogEntry representing the request.
+     * @return True, if the request matches the filter. False, if not.
+     */
+    private boolean matchesFilter(RequestLogEntry request) {
+        return (elevatorFilter == 0 || request.getElevatorId() == elevatorFilter)
+                && (floorFilter == 0 || request.getFloor() == floorFilter || request.getCarButton() == floorFilter)
+                && (faultFilter == null || request.getFault() == faultFilter);
+    }
+
+    @Override
+    public int getSize() {
+        return numMatches;
+    }
+
+    @Override
+    public RequestLogEntry getElementAt(int index) {
+        return requests[(int) (matches[(matchesHead + index) % capacity] % capacity)];
+    }
+
+    /**
+     * Returns the number of requests ever logged, including those overwritten.
+     *
+     * @return A long representing the number of requests ever logged.
+     */
+    public long getTotalCount() {
+        return nextSequence;
+    }
+
+    /**
+     * Returns the number of requests overwritten because the log was full.
+     *
+     * @return A long representing the number of requests overwritten.
+     */
+    public long getOverwrittenCount() {
+        return Math.max(0, nextSequence - capacity);
+    }
+
+    /**
+     * Returns the number of requests ever logged with the specified fault, including those overwritten.
+     *
+     * @param fault A Fault representing the fault.
+     * @return A long representing the number of requests ever logged with the fault.
+     */
+    public long getFaultCount(Fault fault) {
+        return faultCounts[fault.ordinal()];
+    }
+
+    /**
+     * Returns a String representing the counters of the log, e.g. to show below it.
+     *
+     * @return A String representing the counters of the log.
+     */
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append("Requests: ").append(nextSequence).append(", showing ").append(numMatches)
+                .append(" of the last ").append(Math.min(nextSequence, capacity));
+        for (Fault fault : Fault.values()) {
+            if (fault != Fault.NO_FAULT) {
+                summary.append(", ").append(fault).append(": ").append(faultCounts[fault.ordinal()]);
+            }
+        }
+        return summary.toString();
+    }
+
+}
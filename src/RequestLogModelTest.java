@@ -0,0 +1,96 @@
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the RequestLogModel.
+ */
+class RequestLogModelTest {
+
+    /**
+     * Returns a request of the specified elevator car from the specified floor.
+     *
+     * @param elevatorId An integer representing the ID of the elevator car.
+     * @param floor An integer representing the floor.
+     * @param fault A Fault representing the fault of the request.
+     * @return A RequestLogEntry representing the request.
+     */
+    private static RequestLogEntry request(int elevatorId, int floor, Fault fault) {
+        return new RequestLogEntry(new HardwareDevice(0, elevatorId, LocalTime.NOON, floor, FloorButton.UP, floor + 1,
+                1, fault));
+    }
+
+    /**
+     * Tests that the log keeps only the latest requests, tells the JList which rows changed, and counts every request.
+     */
+    @Test
+    void testCapacity() {
+        RequestLogModel log = new RequestLogModel(3);
+        List<String> events = new ArrayList<>();
+        log.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add("+" + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add("-" + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add("~");
+            }
+        });
+
+        List<RequestLogEntry> requests = new ArrayList<>();
+        for (int floor = 1; floor <= 5; floor++) {
+            requests.add(request(1, floor, floor == 2 ? Fault.ELEVATOR_STUCK : Fault.NO_FAULT));
+        }
+        log.addAll(requests.subList(0, 2));
+        log.addAll(requests.subList(2, 5));
+
+        assertEquals(List.of("+0-1", "-0-1", "+0-2"), events);
+        assertEquals(3, log.getSize());
+        assertSame(requests.get(2), log.getElementAt(0));
+        assertSame(requests.get(4), log.getElementAt(2));
+        assertEquals(5, log.getTotalCount());
+        assertEquals(2, log.getOverwrittenCount());
+        assertEquals(1, log.getFaultCount(Fault.ELEVATOR_STUCK));
+        assertTrue(log.getSummary().startsWith("Requests: 5, showing 3 of the last 3"));
+    }
+
+    /**
+     * Tests that only the requests matching the filter are shown, including those logged after the filter was set.
+     */
+    @Test
+    void testFilter() {
+        RequestLogModel log = new RequestLogModel(4);
+        RequestLogEntry stuck = request(2, 3, Fault.ELEVATOR_STUCK);
+        log.addAll(List.of(request(1, 3, Fault.NO_FAULT), stuck, request(2, 7, Fault.NO_FAULT)));
+
+        log.setFilter(2, 0, null);
+        assertEquals(2, log.getSize());
+        log.setFilter(0, 4, null); // the destination floor of the requests from floor 3
+        assertEquals(2, log.getSize());
+        log.setFilter(2, 3, Fault.ELEVATOR_STUCK);
+        assertEquals(1, log.getSize());
+        assertSame(stuck, log.getElementAt(0));
+
+        // the stuck request is overwritten by a new one that matches
+        RequestLogEntry newer = request(2, 3, Fault.ELEVATOR_STUCK);
+        log.addAll(List.of(request(1, 1, Fault.NO_FAULT), request(1, 1, Fault.NO_FAULT), newer));
+        assertEquals(1, log.getSize());
+        assertSame(newer, log.getElementAt(0));
+
+        log.setFilter(0, 0, null);
+        assertEquals(4, log.getSize());
+    }
+
+}
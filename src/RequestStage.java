@@ -0,0 +1,14 @@
+/**
+ * An enumerator to represent the stages a floor event goes through, each of which is stamped on the HardwareDevice
+ * with the SimulationClock time it was reached at.
+ * <p>
+ * Passengers board as soon as the elevator car reaches their floor, so ARRIVED_AT_ORIGIN and BOARDED are stamped at
+ * the same time, but they are kept apart so the wait ends at the one and the ride starts at the other.
+ */
+public enum RequestStage {
+    REGISTERED,
+    ASSIGNED,
+    ARRIVED_AT_ORIGIN,
+    BOARDED,
+    DROPPED_OFF
+}
@@ -0,0 +1,302 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A class to represent the key performance indicators of a run of the ElevatorSystem, worked out from its
+ * EventJournal.
+ * <p>
+ * Every time is in milliseconds of SimulationClock time. The wait time of a hall call runs from when the Scheduler
+ * received it until the elevator car that took it was at its floor: when it was picked up on the way, or when the
+ * elevator car it was sent to arrived at its floor. The journey time runs from when the Scheduler received it until
+ * the elevator car reported it complete. A movement is a run of an elevator car from being sent a floor event until it
+ * has no floor events left, as counted by the Scheduler.
+ */
+public class RunKpis {
+
+    /**
+     * An integer representing the floor every elevator car starts at.
+     */
+    private static final int START_FLOOR = 1;
+
+    /**
+     * An integer representing the number of hall calls received.
+     */
+    private int numHallCalls = 0;
+
+    /**
+     * An integer representing the number of hall calls an elevator car got to.
+     */
+    private int numReached = 0;
+
+    /**
+     * An integer representing the number of hall calls completed.
+     */
+    private int numCompleted = 0;
+
+    /**
+     * An integer representing the number of movements completed.
+     */
+    private int numMovements = 0;
+
+    /**
+     * An integer representing the number of faults.
+     */
+    private int numFaults = 0;
+
+    /**
+     * A long representing the sum of the wait times of the hall calls an elevator car got to.
+     */
+    private long totalWaitTime = 0;
+
+    /**
+     * A long representing the longest wait time.
+     */
+    private long maxWaitTime = 0;
+
+    /**
+     * A long representing the sum of the journey times of the hall calls completed.
+     */
+    private long totalJourneyTime = 0;
+
+    /**
+     * A long representing the longest journey time.
+     */
+    private long maxJourneyTime = 0;
+
+    /**
+     * Initializes RunKpis with nothing counted.
+     */
+    private RunKpis() {
+    }
+
+    /**
+     * Works out the key performance indicators of the run recorded in the journal in the specified directory.
+     *
+     * @param directory A Path representing the directory of the journal.
+     * @return RunKpis representing the key performance indicators of the recorded run.
+     * @throws IOException If the journal could not be read.
+     */
+    public static RunKpis fromJournal(Path directory) throws IOException {
+        RunKpis kpis = new RunKpis();
+        Map<Long, Long> hallCallTimes = new HashMap<>(); // by request ID, until the hall call is completed
+        Map<Long, Integer> waiting = new HashMap<>(); // floors of hall calls no elevator car has got to, by request ID
+        Map<Integer, Map<Long, Integer>> dispatched = new HashMap<>(); // waiting hall calls sent to each elevator car
+        Map<Integer, Integer> floors = new HashMap<>(); // the floor each elevator car was last at, by ID
+
+        try (EventJournalReader reader = new EventJournalReader(directory)) {
+            while (reader.next()) {
+                long now = reader.getClockMillis();
+                long requestId = reader.getRequestId();
+                int elevatorId = reader.getElevatorId();
+                switch (reader.getType()) {
+                    case HALL_CALL -> {
+                        kpis.numHallCalls++;
+                        hallCallTimes.put(requestId, now);
+                        waiting.put(requestId, reader.getFloor());
+                    }
+                    case DISPATCH -> {
+                        if (floors.getOrDefault(elevatorId, START_FLOOR) == reader.getFloor()) {
+                            kpis.reached(hallCallTimes, waiting, requestId, now); // already there
+                        } else if (waiting.containsKey(requestId)) {
+                            dispatched.computeIfAbsent(elevatorId, id -> new HashMap<>())
+                                    .put(requestId, reader.getFloor());
+                        }
+                    }
+                    case PICK_UP -> kpis.reached(hallCallTimes, waiting, requestId, now);
+                    case FLOOR_ARRIVAL -> {
+                        floors.put(elevatorId, reader.getFloor());
+                        Map<Long, Integer> sent = dispatched.get(elevatorId);
+                        if (sent != null) {
+                            Iterator<Map.Entry<Long, Integer>> iterator = sent.entrySet().iterator();
+                            while (iterator.hasNext()) {
+                                Map.Entry<Long, Integer> hallCall = iterator.next();
+                                if (hallCall.getValue() == reader.getFloor()) {
+                                    kpis.reached(hallCallTimes, waiting, hallCall.getKey(), now);
+                                    iterator.remove();
+                                }
+                            }
+                        }
+                    }
+                    case COMPLETION -> {
+                        Long hallCallTime = hallCallTimes.remove(requestId);
+                        if (hallCallTime != null) {
+                            long journeyTime = now - hallCallTime;
+                            kpis.numCompleted++;
+                            kpis.totalJourneyTime += journeyTime;
+                            kpis.maxJourneyTime = Math.max(kpis.maxJourneyTime, journeyTime);
+                        }
+                        if (!reader.getMoreFloorEvents()) {
+                            kpis.numMovements++;
+                        }
+                    }
+                    case FAULT -> kpis.numFaults++;
+                    default -> {
+                        // assignments and state transitions do not change any indicator
+                    }
+                }
+            }
+        }
+        return kpis;
+    }
+
+    /**
+     * Counts the wait time of the specified hall call, if no elevator car had got to it yet.
+     *
+     * @param hallCallTimes A Map of the times hall calls were received at, by request ID.
+     * @param waiting A Map of the floors of hall calls no elevator car has got to, by request ID.
+     * @param requestId A long representing the request ID of the hall call.
+     * @param now A long representing the time an elevator car got to the hall call.
+     */
+    private void reached(Map<Long, Long> hallCallTimes, Map<Long, Integer> waiting, long requestId, long now) {
+        Long hallCallTime = hallCallTimes.get(requestId);
+        if (waiting.remove(requestId) == null || hallCallTime == null) {
+            return;
+        }
+        long waitTime = now - hallCallTime;
+        numReached++;
+        totalWaitTime += waitTime;
+        maxWaitTime = Math.max(maxWaitTime, waitTime);
+    }
+
+    /**
+     * Returns the number of hall calls received.
+     *
+     * @return An integer representing the number of hall calls received.
+     */
+    public int getNumHallCalls() {
+        return numHallCalls;
+    }
+
+    /**
+     * Returns the number of hall calls completed.
+     *
+     * @return An integer representing the number of hall calls completed.
+     */
+    public int getNumCompleted() {
+        return numCompleted;
+    }
+
+    /**
+     * Returns the number of movements completed.
+     *
+     * @return An integer representing the number of movements completed.
+     */
+    public int getNumMovements() {
+        return numMovements;
+    }
+
+    /**
+     * Returns the number of faults.
+     *
+     * @return An integer representing the number of faults.
+     */
+    public int getNumFaults() {
+        return numFaults;
+    }
+
+    /**
+     * Returns the mean wait time of the hall calls an elevator car got to.
+     *
+     * @return A double representing the mean wait time, in milliseconds. 0, if no elevator car got to a hall call.
+     */
+    public double getMeanWaitTime() {
+        return numReached == 0 ? 0 : (double) totalWaitTime / numReached;
+    }
+
+    /**
+     * Returns the longest wait time.
+     *
+     * @return A long representing the longest wait time, in milliseconds.
+     */
+    public long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    /**
+     * Returns the mean journey time of the hall calls completed.
+     *
+     * @return A double representing the mean journey time, in milliseconds. 0, if no hall call was completed.
+     */
+    public double getMeanJourneyTime() {
+        return numCompleted == 0 ? 0 : (double) totalJourneyTime / numCompleted;
+    }
+
+    /**
+     * Returns the longest journey time.
+     *
+     * @return A long representing the longest journey time, in milliseconds.
+     */
+    public long getMaxJourneyTime() {
+        return maxJourneyTime;
+    }
+
+    /**
+     * Returns a table comparing these key performance indicators, of a recorded run, with those of the specified
+     * replay of it.
+     *
+     * @param replay RunKpis representing the key performance indicators of the replay.
+     * @return A String representing the table, one indicator per line.
+     */
+    public String diff(RunKpis replay) {
+        StringBuilder table = new StringBuilder(String.format("%-24s %12s %12s %12s%n", "KPI", "recorded", "replay",
+                "change"));
+        row(table, "hall calls", numHallCalls, replay.numHallCalls);
+        row(table, "completed", numCompleted, replay.numCompleted);
+        row(table, "faults", numFaults, replay.numFaults);
+        row(table, "mean wait time (ms)", getMeanWaitTime(), replay.getMeanWaitTime());
+        row(table, "max wait time (ms)", maxWaitTime, replay.maxWaitTime);
+        row(table, "mean journey time (ms)", getMeanJourneyTime(), replay.getMeanJourneyTime());
+        row(table, "max journey time (ms)", maxJourneyTime, replay.maxJourneyTime);
+        row(table, "movements", numMovements, replay.numMovements);
+        return table.toString();
+    }
+
+    /**
+     * Appends a row comparing the specified values to the specified table.
+     *
+     * @param table A StringBuilder representing the table.
+     * @param name A String representing the name of the indicator.
+     * @param recorded A double representing the value in the recorded run.
+     * @param replayed A double representing the value in the replay.
+     */
+    private static void row(StringBuilder table, String name, double recorded, double replayed) {
+        table.append(String.format("%-24s %12.1f %12.1f %12s%n", name, recorded, replayed, change(recorded, replayed)));
+    }
+
+    /**
+     * Appends a row comparing the specified counts to the specified table.
+     *
+     * @param table A StringBuilder representing the table.
+     * @param name A String representing the name of the indicator.
+     * @param recorded A long representing the count in the recorded run.
+     * @param replayed A long representing the count in the replay.
+     */
+    private static void row(StringBuilder table, String name, long recorded, long replayed) {
+        table.append(String.format("%-24s %12d %12d %12s%n", name, recorded, replayed, change(recorded, replayed)));
+    }
+
+    /**
+     * Returns the change from the specified recorded value to the specified replayed value, as a percentage of the
+     * recorded value.
+     *
+     * @param recorded A double representing the value in the recorded run.
+     * @param replayed A double representing the value in the replay.
+     * @return A String representing the change. The difference, if the recorded value is 0.
+     */
+    private static String change(double recorded, double replayed) {
+        return recorded == 0 ? String.format("%+.1f", replayed - recorded)
+                : String.format("%+.1f%%", (replayed - recorded) * 100 / recorded);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hall calls: %d, completed: %d, faults: %d, mean wait time: %.1f ms, "
+                + "max wait time: %d ms, mean journey time: %.1f ms, max journey time: %d ms, movements: %d",
+                numHallCalls, numCompleted, numFaults, getMeanWaitTime(), maxWaitTime, getMeanJourneyTime(),
+                maxJourneyTime, numMovements);
+    }
+
+}
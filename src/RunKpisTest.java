@@ -0,0 +1,80 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test RunKpis.
+ */
+class RunKpisTest {
+
+    /**
+     * A Path representing a temporary directory to write the journal to.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Returns a new hall call requested at the specified floor.
+     *
+     * @param floor An integer representing the floor the hall call is requested at.
+     * @param carButton An integer representing the floor the passengers are going to.
+     * @return A HardwareDevice representing the hall call.
+     */
+    private HardwareDevice hallCall(int floor, int carButton) {
+        return new HardwareDevice("Elevator?", LocalTime.parse("14:05:15.0"), floor, FloorButton.UP, carButton, 1,
+                Fault.NO_FAULT);
+    }
+
+    /**
+     * Tests that wait times run until the elevator car is at the floor of the hall call, journey times run until the
+     * hall call is completed, and movements are counted when an elevator car has no floor events left.
+     */
+    @Test
+    void testFromJournal() throws IOException, InterruptedException {
+        VirtualClock clock = new VirtualClock(1);
+        clock.register();
+        EventJournal journal = new EventJournal(directory, clock, 16);
+        HardwareDevice sent = hallCall(3, 5);
+        HardwareDevice pickedUp = hallCall(4, 5);
+
+        clock.sleepUntil(1000);
+        journal.recordHallCall(sent);
+        journal.recordDecision(JournalEventType.DISPATCH, 1, sent);
+        clock.sleepUntil(2000);
+        journal.recordHallCall(pickedUp);
+        clock.sleepUntil(5000);
+        journal.recordFloorArrival(1, 2, FloorButton.UP);
+        clock.sleepUntil(8000);
+        journal.recordFloorArrival(1, 3, FloorButton.UP); // 7 s after the first hall call
+        clock.sleepUntil(12000);
+        journal.recordFloorArrival(1, 4, FloorButton.UP);
+        journal.recordDecision(JournalEventType.PICK_UP, 1, pickedUp); // 10 s after the second hall call
+        clock.sleepUntil(20000);
+        sent.setMoreFloorEvents(true);
+        journal.recordDecision(JournalEventType.COMPLETION, 1, sent); // 19 s after the first hall call
+        pickedUp.setMoreFloorEvents(false);
+        journal.recordDecision(JournalEventType.COMPLETION, 1, pickedUp); // 18 s after the second hall call
+        journal.recordHallCall(hallCall(6, 7)); // never completed
+        journal.close();
+
+        RunKpis kpis = RunKpis.fromJournal(directory);
+        assertEquals(3, kpis.getNumHallCalls());
+        assertEquals(2, kpis.getNumCompleted());
+        assertEquals(1, kpis.getNumMovements());
+        assertEquals(0, kpis.getNumFaults());
+        assertEquals(8500, kpis.getMeanWaitTime());
+        assertEquals(10000, kpis.getMaxWaitTime());
+        assertEquals(18500, kpis.getMeanJourneyTime());
+        assertEquals(19000, kpis.getMaxJourneyTime());
+
+        String diff = kpis.diff(kpis);
+        assertTrue(diff.startsWith("KPI"));
+        assertTrue(diff.contains("movements"));
+        assertTrue(diff.contains("+0.0%"));
+    }
+
+}
@@ -1,6 +1,19 @@
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.*;
+import java.nio.channels.*;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
 
 /**
  * A Scheduler to handle communication between the Elevator and Floor.
@@ -8,60 +21,213 @@ import java.util.*;
 public class Scheduler implements Runnable {
 
     /**
-     * An integer representing the total number of requests.
+     * An integer representing the maximum number of hall calls waiting to be added to the floor events to handle.
      */
-    private int numReqs;
+    private static final int HALL_CALL_QUEUE_CAPACITY = 1024;
 
     /**
-     * An integer representing the number of requests that have been handled.
+     * A long representing how long a Floor waits, in nanoseconds, before trying again to add a hall call to a full
+     * HallCallQueue.
      */
-    private int numReqsHandled;
+    private static final long FULL_QUEUE_BACKOFF_NANOS = 100_000;
 
     /**
-     * A SchedulerState representing the current state of the Scheduler state machine.
+     * An integer representing the total number of requests. Lowered by the Floor thread if it cannot send them all.
      */
-    private SchedulerState currentState;
+    private volatile int numReqs;
 
     /**
-     * A HashMap of states in the Scheduler state machine.
+     * An integer representing the number of requests that have been handled. Only written while holding the lock of
+     * the Scheduler, and volatile so the event loop sees the last count without taking it.
      */
-    private final HashMap<String, SchedulerState> states;
+    private volatile int numReqsHandled;
 
     /**
-     * A DatagramSocket to send and receive DatagramPackets from the Elevator subsystem.
+     * A ReentrantLock guarding the floor events to handle, their assignments to elevator cars and the number of
+     * movements. A virtual thread waiting for it is unmounted, where one waiting for a monitor would pin its carrier.
      */
-    private DatagramSocket sendReceiveSocket;
+    private final ReentrantLock lock = new ReentrantLock();
 
     /**
-     * A List of HardwareDevices representing the floor events to handle.
+     * An AtomicInteger representing the number of requests the Floor has sent.
      */
-    private final ArrayList<HardwareDevice> floorEventsToHandle;
+    private final AtomicInteger numReqsReceived = new AtomicInteger();
 
     /**
-     * A List of Elevators representing the elevators that are not currently running
+     * A SchedulerStateName representing the current state of the Scheduler state machine.
      */
-    private final List<Elevator> availableElevators;
+    private SchedulerStateName currentState;
 
     /**
-     * A List of Elevators representing the elevators that are currently running
+     * An EnumMap of states in the Scheduler state machine. The states are stateless, so they are shared by every
+     * Scheduler.
      */
-    private final List<Elevator> busyElevators;
+    private static final EnumMap<SchedulerStateName, SchedulerState> STATES = new EnumMap<>(SchedulerStateName.class);
 
     /**
-     * A List of Threads representing the threads for the elevators.
+     * An EnumMap representing the transition table of the Scheduler state machine, the states each state can
+     * transition to other than itself.
      */
-    private final List<Thread> elevatorThreads;
+    private static final EnumMap<SchedulerStateName, EnumSet<SchedulerStateName>> TRANSITIONS =
+            new EnumMap<>(SchedulerStateName.class);
+
+    static {
+        STATES.put(SchedulerStateName.WAITING_FOR_FLOOR_EVENT, new WaitingForFloorEvent());
+        STATES.put(SchedulerStateName.SELECT_ELEVATOR, new SelectElevator());
+        STATES.put(SchedulerStateName.NOTIFY_ELEVATOR, new NotifyElevator());
+        STATES.put(SchedulerStateName.WAITING_FOR_ELEVATOR, new WaitingForElevator());
+        STATES.put(SchedulerStateName.NOTIFY_FLOOR, new NotifyFloor());
+
+        TRANSITIONS.put(SchedulerStateName.WAITING_FOR_FLOOR_EVENT, EnumSet.of(SchedulerStateName.SELECT_ELEVATOR));
+        TRANSITIONS.put(SchedulerStateName.SELECT_ELEVATOR, EnumSet.of(SchedulerStateName.NOTIFY_ELEVATOR));
+        TRANSITIONS.put(SchedulerStateName.NOTIFY_ELEVATOR, EnumSet.of(SchedulerStateName.WAITING_FOR_ELEVATOR));
+        TRANSITIONS.put(SchedulerStateName.WAITING_FOR_ELEVATOR, EnumSet.of(SchedulerStateName.NOTIFY_FLOOR));
+        TRANSITIONS.put(SchedulerStateName.NOTIFY_FLOOR,
+                EnumSet.of(SchedulerStateName.WAITING_FOR_FLOOR_EVENT, SchedulerStateName.SELECT_ELEVATOR));
+    }
+
+    /**
+     * A List of StateTransitionListeners to notify of every transition of the Scheduler state machine.
+     */
+    private final List<StateTransitionListener<Scheduler, SchedulerStateName>> transitionListeners =
+            new CopyOnWriteArrayList<>();
+
+    /**
+     * A TransportFactory representing how the Scheduler, Elevators and Floor open their Transports.
+     */
+    private final TransportFactory transports;
+
+    /**
+     * A Transport to send and receive messages from the Elevator subsystem.
+     */
+    private Transport elevatorTransport;
+
+    /**
+     * A Transport to send and receive messages from the Floor subsystem.
+     */
+    private Transport floorTransport;
+
+    /**
+     * A Selector to wait for messages from the Elevator and Floor subsystems at the same time.
+     */
+    private Selector selector;
+
+    /**
+     * A Floor representing the Floor subsystem.
+     */
+    private final Floor floorSubsystem;
+
+    /**
+     * A SocketAddress representing the address of the Floor subsystem.
+     */
+    private final SocketAddress floorAddress;
+
+    /**
+     * An ExecutorService representing the executor the Floor, its listener and every Elevator run on.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * An AsyncLogWriter representing the background thread every logger of the ElevatorSystem writes through.
+     */
+    private final AsyncLogWriter logWriter;
+
+    /**
+     * A SimulationClock representing the clock the ElevatorSystem runs on.
+     */
+    private final SimulationClock clock;
+
+    /**
+     * An AtomicReference to the first IOException the Scheduler or one of its Elevators could not recover from, which
+     * stops the event loop and shuts this ElevatorSystem down without stopping any other one in the JVM. Holds null,
+     * if there has been none.
+     */
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    /**
+     * An AtomicBoolean that is true, if the event loop has been woken up and has not noticed it yet. False, if not.
+     */
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    /**
+     * A HallCallQueue representing the hall calls sent by the Floor that have not been added to the floor events to
+     * handle yet.
+     */
+    private final HallCallQueue hallCalls = new HallCallQueue(HALL_CALL_QUEUE_CAPACITY);
+
+    /**
+     * A DispatchMode representing how floor events are assigned to elevator cars.
+     */
+    private final DispatchMode dispatchMode;
+
+    /**
+     * An EventJournal to record hall calls, dispatch decisions and state transitions in.
+     */
+    private final EventJournal journal;
+
+    /**
+     * An ElevatorCarTable holding the state of every elevator car, which each Elevator is a view of, so selecting an
+     * elevator car for a floor event scans a few primitive arrays. Only the available and busy elevator cars in it can
+     * be selected.
+     */
+    private final ElevatorCarTable cars;
+
+    /**
+     * A Map of HardwareDevices representing floor events to handle to the Elevators they have been assigned to with
+     * destination dispatch. Floor events are compared by identity.
+     */
+    private final Map<HardwareDevice, Elevator> assignedElevators = new IdentityHashMap<>();
+
+    /**
+     * A List of Lists of HardwareDevices representing the floor events assigned to each elevator car with destination
+     * dispatch and not picked up yet, indexed by elevator ID, so the cost of an elevator car only looks at its own.
+     */
+    private final List<List<HardwareDevice>> assignedFloorEvents;
+
+    /**
+     * An array of BitSets of the floors each elevator car has committed to stop at, indexed by ID and then by floor,
+     * reused by every assignment with destination dispatch. Only used while holding the lock.
+     */
+    private final BitSet[] plannedStops;
+
+    /**
+     * An array of integers representing the passengers each elevator car would take on with the floor event being
+     * assigned with destination dispatch, indexed by ID. Only used while holding the lock.
+     */
+    private final int[] plannedPassengers;
+
+    /**
+     * An array of longs representing the rank of each elevator car read for the floor event being assigned with
+     * destination dispatch, indexed by ID. Only used while holding the lock.
+     */
+    private final long[] dispatchRanks;
+
+    /**
+     * An array of longs representing the estimated time of arrival of each elevator car read for the floor event being
+     * assigned with destination dispatch, indexed by ID. Only used while holding the lock.
+     */
+    private final long[] dispatchArrivals;
 
     /**
-     * A List of Elevators containing all elevators.
+     * A PendingFloorEvents representing the floor events to handle, indexed by floor and direction.
      */
-    private final List<Elevator> allElevators;
+    private final PendingFloorEvents floorEventsToHandle;
+
+    /**
+     * An ElevatorRegistry containing all elevators and their threads, indexed by ID.
+     */
+    private final ElevatorRegistry elevators;
 
     /**
      * An ElevatorSystemLogger to log events.
      */
     private final ElevatorSystemLogger logger;
 
+    /**
+     * A RequestLatencies representing the wait, ride and journey times of the floor events that have been completed.
+     */
+    private final RequestLatencies latencies;
+
     /**
      * An integer to represent the number of movements the elevators have made.
      */
@@ -83,51 +249,172 @@ public class Scheduler implements Runnable {
     private long endTime;
 
     /**
-     * Initializes a Scheduler.
+     * Initializes a Scheduler that runs in real time.
      *
      * @param portNumbers An ArrayList of Integers representing the port numbers each Elevator will receive UDP packets
      *                    on.
      */
     public Scheduler(ArrayList<Integer> portNumbers) {
-        // start the Floor thread
-        Thread floor = new Thread(new Floor(this),"Floor");
-        floor.start();
+        this(portNumbers, new RealTimeClock());
+    }
 
-        // start the Elevator threads
-        int numElevators = portNumbers.size();
-        availableElevators = new ArrayList<>();
-        busyElevators = new ArrayList<>();
-        elevatorThreads = new ArrayList<>();
-        allElevators = new ArrayList<>();
-        for (int i = 0; i < numElevators; i++) {
-            String elevatorName = "Elevator" + (i + 1);
-            Elevator elevator = new Elevator(this, portNumbers.get(i), elevatorName);
-            Thread elevatorThread = new Thread(elevator, elevatorName);
-            availableElevators.add(elevator);
-            elevatorThreads.add(elevatorThread);
-            allElevators.add(elevator);
-            elevatorThread.start();
-        }
+    /**
+     * Initializes a Scheduler that runs on the specified clock.
+     *
+     * @param portNumbers An ArrayList of Integers representing the port numbers each Elevator will receive UDP packets
+     *                    on.
+     * @param clock A SimulationClock representing the clock the ElevatorSystem runs on.
+     */
+    public Scheduler(ArrayList<Integer> portNumbers, SimulationClock clock) {
+        this(portNumbers, clock, DispatchMode.COLLECTIVE_CONTROL);
+    }
 
-        floorEventsToHandle = new ArrayList<>();
+    /**
+     * Initializes a Scheduler that runs on the specified clock and assigns floor events with the specified dispatch
+     * mode.
+     *
+     * @param portNumbers An ArrayList of Integers representing the port numbers each Elevator will receive UDP packets
+     *                    on.
+     * @param clock A SimulationClock representing the clock the ElevatorSystem runs on.
+     * @param dispatchMode A DispatchMode representing how floor events are assigned to elevator cars.
+     */
+    public Scheduler(ArrayList<Integer> portNumbers, SimulationClock clock, DispatchMode dispatchMode) {
+        this(portNumbers, clock, dispatchMode, EventJournal.DISABLED);
+    }
+
+    /**
+     * Initializes a Scheduler that runs on the specified clock, assigns floor events with the specified dispatch mode
+     * and records what happens in the specified EventJournal.
+     *
+     * @param portNumbers An ArrayList of Integers representing the port numbers each Elevator will receive UDP packets
+     *                    on.
+     * @param clock A SimulationClock representing the clock the ElevatorSystem runs on.
+     * @param dispatchMode A DispatchMode representing how floor events are assigned to elevator cars.
+     * @param journal An EventJournal to record what happens in the ElevatorSystem in. Closed once every floor event
+     *                has been handled.
+     */
+    public Scheduler(ArrayList<Integer> portNumbers, SimulationClock clock, DispatchMode dispatchMode,
+                     EventJournal journal) {
+        this(portNumbers, clock, dispatchMode, journal,
+                new InputFileWorkload(Paths.get(InputFileWorkload.DEFAULT_INPUT_FILE)));
+    }
+
+    /**
+     * Initializes a Scheduler that runs on the specified clock, assigns floor events with the specified dispatch mode,
+     * records what happens in the specified EventJournal and receives the floor events of the specified Workload.
+     *
+     * @param portNumbers An ArrayList of Integers representing the port numbers each Elevator will receive UDP packets
+     *                    on.
+     * @param clock A SimulationClock representing the clock the ElevatorSystem runs on.
+     * @param dispatchMode A DispatchMode representing how floor events are assigned to elevator cars.
+     * @param journal An EventJournal to record what happens in the ElevatorSystem in. Closed once every floor event
+     *                has been handled.
+     * @param workload A Workload representing the floor events the Floor subsystem sends.
+     */
+    public Scheduler(ArrayList<Integer> portNumbers, SimulationClock clock, DispatchMode dispatchMode,
+                     EventJournal journal, Workload workload) {
+        this(portNumbers, clock, dispatchMode, journal, workload, DatagramTransport::new);
+    }
+
+    /**
+     * Initializes a Scheduler that runs on the specified clock, assigns floor events with the specified dispatch mode,
+     * records what happens in the specified EventJournal, receives the floor events of the specified Workload and
+     * talks to the Elevator and Floor subsystems over the Transports opened by the specified TransportFactory.
+     *
+     * @param portNumbers An ArrayList of Integers representing the port numbers each Elevator will receive messages
+     *                    on.
+     * @param clock A SimulationClock representing the clock the ElevatorSystem runs on.
+     * @param dispatchMode A DispatchMode representing how floor events are assigned to elevator cars.
+     * @param journal An EventJournal to record what happens in the ElevatorSystem in. Closed once every floor event
+     *                has been handled.
+     * @param workload A Workload representing the floor events the Floor subsystem sends.
+     * @param transports A TransportFactory representing how the subsystems open their Transports, e.g.
+     *                   DatagramTransport::new for UDP or an InProcessNetwork to run without sockets.
+     * @throws UncheckedIOException If a Transport of the Scheduler or of an Elevator could not be opened.
+     */
+    public Scheduler(ArrayList<Integer> portNumbers, SimulationClock clock, DispatchMode dispatchMode,
+                     EventJournal journal, Workload workload, TransportFactory transports) {
+        this(portNumbers, clock, dispatchMode, journal, workload, transports,
+                Executors.newVirtualThreadPerTaskExecutor(), AsyncLogWriter.getInstance());
+    }
 
+    /**
+     * Initializes a Scheduler that runs on the specified clock, assigns floor events with the specified dispatch mode,
+     * records what happens in the specified EventJournal, receives the floor events of the specified Workload, talks to
+     * the Elevator and Floor subsystems over the Transports opened by the specified TransportFactory, runs them on the
+     * specified executor and logs through the specified AsyncLogWriter.
+     *
+     * @param portNumbers An ArrayList of Integers representing the port numbers each Elevator will receive messages
+     *                    on.
+     * @param clock A SimulationClock representing the clock the ElevatorSystem runs on.
+     * @param dispatchMode A DispatchMode representing how floor events are assigned to elevator cars.
+     * @param journal An EventJournal to record what happens in the ElevatorSystem in. Closed once every floor event
+     *                has been handled.
+     * @param workload A Workload representing the floor events the Floor subsystem sends.
+     * @param transports A TransportFactory representing how the subsystems open their Transports, e.g.
+     *                   DatagramTransport::new for UDP or an InProcessNetwork to run without sockets.
+     * @param executor An ExecutorService representing the executor the Floor, its listener and every Elevator run on,
+     *                 which has to start a thread for each of them, like a virtual thread per task executor.
+     * @param logWriter An AsyncLogWriter representing the background thread every logger of the ElevatorSystem writes
+     *                  through.
+     * @throws UncheckedIOException If a Transport of the Scheduler or of an Elevator could not be opened.
+     */
+    public Scheduler(ArrayList<Integer> portNumbers, SimulationClock clock, DispatchMode dispatchMode,
+                     EventJournal journal, Workload workload, TransportFactory transports, ExecutorService executor,
+                     AsyncLogWriter logWriter) {
+        this.clock = clock;
+        this.executor = executor;
+        this.logWriter = logWriter;
+        this.transports = transports;
+        this.dispatchMode = dispatchMode;
+        this.journal = journal;
+        clock.register(); // the Scheduler takes part in the simulation until its event loop finishes
+
+        // create a logger for Scheduler and FloorListener to log events on
+        logger = new ElevatorSystemLogger("Scheduler", logWriter);
+
+        floorEventsToHandle = new PendingFloorEvents();
+
+        // open the transports to the Elevator and Floor subsystems and register them with the Selector
         try {
-            sendReceiveSocket = new DatagramSocket();
-        } catch (SocketException se){
-            se.printStackTrace();
-            System.exit(1);
+            selector = Selector.open();
+            elevatorTransport = transports.open(0, clock);
+            elevatorTransport.register(selector);
+            floorTransport = transports.open(0, clock);
+            floorTransport.register(selector);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the transports of the Scheduler.", e);
         }
 
-        // create a logger for Scheduler and FloorListener to log events on
-        logger = new ElevatorSystemLogger("Scheduler");
-
-        states = new HashMap<>();
-        addState("WaitingForFloorEvent", new WaitingForFloorEvent());
-        addState("NotifyElevator", new NotifyElevator());
-        addState("NotifyFloor", new NotifyFloor());
-        addState("SelectElevator", new SelectElevator());
-        addState("WaitingForElevator", new WaitingForElevator());
-        setState("WaitingForFloorEvent");
+        // start the Floor on the executor, like the Elevators, so with virtual threads thousands of elevator cars run
+        // on a few carrier threads, each one given back while its Elevator sleeps or waits for a message
+        floorSubsystem = new Floor(this, workload);
+        floorAddress = floorSubsystem.getAddress();
+        clock.register();
+        start("Floor", floorSubsystem);
+
+        // start the Elevator threads
+        int numElevators = portNumbers.size();
+        latencies = new RequestLatencies(numElevators);
+        elevators = new ElevatorRegistry(numElevators);
+        cars = new ElevatorCarTable(numElevators);
+        assignedFloorEvents = new ArrayList<>(numElevators + 1);
+        plannedStops = new BitSet[numElevators + 1];
+        for (int id = 0; id <= numElevators; id++) {
+            assignedFloorEvents.add(new ArrayList<>());
+            plannedStops[id] = new BitSet();
+        }
+        plannedPassengers = new int[numElevators + 1];
+        dispatchRanks = new long[numElevators + 1];
+        dispatchArrivals = new long[numElevators + 1];
+        for (int i = 0; i < numElevators; i++) {
+            Elevator elevator = new Elevator(this, portNumbers.get(i), i + 1);
+            cars.setAvailable(elevator.getId(), true);
+            clock.register();
+            elevators.register(elevator, start(elevator.getName(), elevator));
+        }
+
+        setState(SchedulerStateName.WAITING_FOR_FLOOR_EVENT);
         arrived = false;
     }
 
@@ -137,50 +424,136 @@ public class Scheduler implements Runnable {
      * @return The current state of the Scheduler state machine.
      */
     public SchedulerState getCurrentState() {
+        return STATES.get(currentState);
+    }
+
+    /**
+     * Returns a SchedulerStateName representing the name of the current state of the Scheduler state machine.
+     *
+     * @return A SchedulerStateName representing the name of the current state of the Scheduler state machine.
+     */
+    public SchedulerStateName getCurrentStateName() {
         return currentState;
     }
 
     /**
-     * Returns a HashMap of states in the Scheduler state machine.
+     * Returns a Map of states in the Scheduler state machine.
      *
-     * @return A HashMap of states in the Scheduler state machine.
+     * @return An unmodifiable Map of states in the Scheduler state machine, by name.
      */
-    public HashMap<String, SchedulerState> getStates() {
-        return states;
+    public Map<SchedulerStateName, SchedulerState> getStates() {
+        return Collections.unmodifiableMap(STATES);
     }
 
     /**
-     * Sets current state of the Scheduler state machine.
+     * Sets current state of the Scheduler state machine, and notifies every StateTransitionListener.
      *
-     * @param stateName A string representing the name of the state to set.
+     * @param stateName A SchedulerStateName representing the name of the state to set.
      */
-    public void setState(String stateName) {
-        currentState = states.get(stateName);
-        logger.info("State: " + currentState.displayState());
+    public void setState(SchedulerStateName stateName) {
+        SchedulerStateName previousState = currentState;
+        currentState = stateName;
+        logger.log(Level.INFO, "State: {0}", stateName);
+        journal.recordSchedulerState(previousState, stateName);
+        for (int i = 0; i < transitionListeners.size(); i++) {
+            transitionListeners.get(i).stateChanged(this, previousState, stateName);
+        }
     }
 
     /**
-     * Adds the given state to the Scheduler state machine.
+     * Adds the specified StateTransitionListener to be notified of every transition of the Scheduler state machine.
      *
-     * @param name A String representing the name of the state.
-     * @param schedulerState A SchedulerState to be added to the Scheduler state machine.
+     * @param listener A StateTransitionListener to notify of every transition.
      */
-    public void addState(String name, SchedulerState schedulerState) {
-        states.put(name, schedulerState);
+    public void addTransitionListener(StateTransitionListener<Scheduler, SchedulerStateName> listener) {
+        transitionListeners.add(listener);
+    }
+
+    /**
+     * Handles an event in the current state of the Scheduler state machine, and transitions to the state it returns.
+     */
+    private void handleRequest() {
+        SchedulerStateName nextState = STATES.get(currentState).handleRequest(this);
+        if (nextState == currentState) {
+            return;
+        }
+        if (!TRANSITIONS.get(currentState).contains(nextState)) {
+            throw new IllegalStateException("Invalid transition from " + currentState + " to " + nextState + ".");
+        }
+        setState(nextState);
     }
 
     /**
      * Adds the specified floor event into the floor queue.
+     * <p>
+     * With collective control, the floor event is put in the HallCallQueue without taking the lock of the Scheduler,
+     * and the event loop adds it to the floor events to handle with every other hall call that came in since it last
+     * looked. With destination dispatch, the passengers need to be told which elevator car to take, so the floor event
+     * is assigned an elevator car straight away.
      *
      * @param hardwareDevice A HardwareDevice representing the floor event.
+     * @return A String representing the name of the Elevator the floor event has been assigned to. Null, if it has not
+     * been assigned to an Elevator yet.
      */
-    public synchronized void addFloorEvent(HardwareDevice hardwareDevice) {
-        while (floorEventsToHandle.size() <= numReqs) {
-            logger.info("Received " + hardwareDevice + " from Floor.");
+    public String addFloorEvent(HardwareDevice hardwareDevice) {
+        numReqsReceived.incrementAndGet();
+        hardwareDevice.stamp(RequestStage.REGISTERED, clock.currentTimeMillis());
+        logger.info("Received {0} from Floor.", hardwareDevice);
+        journal.recordHallCall(hardwareDevice);
+        if (dispatchMode == DispatchMode.DESTINATION_DISPATCH) {
+            return addAndAssignFloorEvent(hardwareDevice);
+        }
+
+        while (!hallCalls.offer(hardwareDevice)) {
+            wakeUpEventLoop(); // the event loop is behind, so make sure it drains the queue
+            LockSupport.parkNanos(this, FULL_QUEUE_BACKOFF_NANOS);
+        }
+        logger.info("Sending ACK {0} to Floor.", hardwareDevice);
+        wakeUpEventLoop(); // distribute the new floor event
+        return null;
+    }
+
+    /**
+     * Adds the specified floor event into the floor queue and assigns it an elevator car with destination dispatch.
+     *
+     * @param hardwareDevice A HardwareDevice representing the floor event.
+     * @return A String representing the name of the Elevator the floor event has been assigned to. Null, if no
+     * elevator car can take it yet.
+     */
+    private String addAndAssignFloorEvent(HardwareDevice hardwareDevice) {
+        lock.lock();
+        try {
+            drainHallCalls(); // keep the floor events in the order they came in
             floorEventsToHandle.add(hardwareDevice);
-            logger.info("Sending ACK " + hardwareDevice + " to Floor.");
+            Elevator assignedElevator = assignElevator(hardwareDevice);
+            logger.info("Sending ACK {0} to Floor.", hardwareDevice);
+            wakeUpEventLoop(); // distribute the new floor event
+            return assignedElevator == null ? null : assignedElevator.getName();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds every hall call waiting in the HallCallQueue to the floor events to handle, in the order they came in.
+     * Holding the lock of the Scheduler makes sure only one thread drains the HallCallQueue at a time.
+     */
+    private void drainHallCalls() {
+        lock.lock();
+        try {
+            hallCalls.drain(floorEventsToHandle::add);
+        } finally {
+            lock.unlock();
         }
-        notifyAll();
+    }
+
+    /**
+     * Returns a DispatchMode representing how floor events are assigned to elevator cars.
+     *
+     * @return A DispatchMode representing how floor events are assigned to elevator cars.
+     */
+    public DispatchMode getDispatchMode() {
+        return dispatchMode;
     }
 
     /**
@@ -192,6 +565,48 @@ public class Scheduler implements Runnable {
         this.numReqs = numReqs;
     }
 
+    /**
+     * Stops waiting for the floor events the Floor subsystem has not sent yet, e.g. because the rest of its Workload
+     * could not be read. Called by the Floor thread once it has stopped sending.
+     */
+    public void endFloorEvents() {
+        numReqs = numReqsReceived.get();
+        wakeUpEventLoop();
+    }
+
+    /**
+     * Returns why the Floor subsystem stopped before sending every floor event of its Workload.
+     *
+     * @return An IOException representing why the Floor subsystem stopped. Null, if it has not.
+     */
+    public IOException getFloorFailure() {
+        return floorSubsystem.getFailure();
+    }
+
+    /**
+     * Returns why the Scheduler stopped before handling every floor event: the first IOException it, or one of its
+     * Elevators, could not recover from.
+     *
+     * @return An IOException representing why the Scheduler stopped. Null, if it has not.
+     */
+    public IOException getFailure() {
+        return failure.get();
+    }
+
+    /**
+     * Records the specified IOException as why the Scheduler stops, unless it has already stopped for another one,
+     * and wakes up the event loop to stop it. Called instead of exiting, so only this ElevatorSystem stops.
+     *
+     * @param message A String representing what could not be done.
+     * @param e An IOException representing why.
+     */
+    public void fail(String message, IOException e) {
+        logger.severe(message + ": " + e);
+        if (failure.compareAndSet(null, e)) {
+            wakeUpEventLoop();
+        }
+    }
+
     /**
      * Returns an integer representing the number of requests.
      *
@@ -211,133 +626,345 @@ public class Scheduler implements Runnable {
     }
 
     /**
-     * Checks for the next floor event from the Floor subsystem.
+     * Runs the Scheduler event loop. Distributes floor events to available elevators and processes messages from
+     * whichever Elevator or Floor sends one first, until all floor events have been handled, or every elevator car has
+     * shut down and the Floor has sent every floor event. If the Scheduler or an Elevator fails, stops and shuts down
+     * the ElevatorSystem, keeping the failure for getFailure.
      */
     @Override
     public void run() {
-        while (numReqsHandled < numReqs) {
-            currentState.handleRequest(this);
+        while (failure.get() == null && (numReqsHandled < numReqs || hasBusyElevators())) {
+            if (isOutOfService() && numReqsReceived.get() == numReqs) {
+                logger.info("Every elevator car has shut down. {0} floor event(s) cannot be handled.",
+                        numReqs - numReqsHandled);
+                break;
+            }
+            distributeFloorEvents();
+
+            clock.idle();
+            try {
+                selector.select();
+            } catch (IOException e) {
+                fail("Could not wait for a message", e);
+                break;
+            } finally {
+                clock.resume();
+            }
+            noticeWakeUp();
+
+            // an InProcessTransport only wakes up the Selector, so both transports are polled whichever is ready
+            selector.selectedKeys().clear();
+            receiveMessages(elevatorTransport);
+            receiveMessages(floorTransport);
+        }
+        if (failure.get() != null) {
+            logger.log(Level.SEVERE, "Scheduler has stopped. {0} floor event(s) have not been handled.",
+                    numReqs - numReqsHandled);
+            shutDown();
+        } else {
+            logger.info("Scheduler has executed all floor events.");
         }
-        logger.info("Scheduler has executed all floor events.");
+        logger.info("Wait, ride and journey times:{0}{1}", System.lineSeparator(), latencies);
+        journal.close();
+        clock.deregister();
     }
 
     /**
-     * Returns the list of the floor events to handle.
+     * Returns whether every elevator car has shut down.
      *
-     * @return The list of the floor events to handle.
+     * @return True, if no elevator car is available or busy. False, if not.
      */
-    public ArrayList<HardwareDevice> getFloorEventsToHandle() {
-        return floorEventsToHandle;
+    private boolean isOutOfService() {
+        lock.lock();
+        try {
+            return cars.getNumAvailable() == 0 && cars.getNumBusy() == 0;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
-     * Distributes the floor events to the closest available elevator.
+     * Wakes up the event loop if it is waiting for a message.
      */
-    public synchronized void distributeFloorEvents() {
-        int distance = 0;
-        while (floorEventsToHandle.isEmpty() && numReqsHandled<=numReqs) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
+    private void wakeUpEventLoop() {
+        // only the first wake-up since the event loop last noticed one wakes up the Selector, so a burst of hall calls
+        // is handled in one batch
+        if (wakeUpPending.compareAndSet(false, true)) {
+            clock.messageSent(); // the wake-up is in flight until the event loop notices it
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Notices a wake-up of the event loop, if there was one.
+     */
+    private void noticeWakeUp() {
+        if (wakeUpPending.getAndSet(false)) {
+            clock.messageReceived();
+        }
+    }
+
+    /**
+     * Receives and handles every message that is currently available on the specified transport.
+     *
+     * @param transport A Transport that may have messages available.
+     */
+    private void receiveMessages(Transport transport) {
+        try {
+            HardwareDevice message;
+            while ((message = transport.poll()) != null) {
+                boolean ack = transport.getLastMessageType() == HardwareDeviceCodec.ACK;
+                if (transport == floorTransport || ack) {
+                    logger.info("Received ACK {0} from {1}.", message,
+                            transport == floorTransport ? "Floor" : message.getElevator());
+                } else {
+                    logger.info("Received {0} from {1}.", message, message.getElevator());
+                    receiveElevatorFloorEvent(message);
+                }
             }
+        } catch (IOException e) {
+            fail("Could not receive from " + (transport == floorTransport ? "Floor" : "the Elevators"), e);
+        }
+    }
 
+    /**
+     * Returns a copy of the list of the floor events to handle, in the order they were added.
+     *
+     * @return The list of the floor events to handle.
+     */
+    public List<HardwareDevice> getFloorEventsToHandle() {
+        lock.lock();
+        try {
+            drainHallCalls();
+            return floorEventsToHandle.toList();
+        } finally {
+            lock.unlock();
         }
+    }
 
-        if (numReqsHandled<=numReqs) {
-            Iterator<Elevator> iterator = availableElevators.iterator();
-            while (iterator.hasNext()) {
-                Elevator e = iterator.next();
-                HardwareDevice floorEvent = floorEventsToHandle.get(0);
-                if (e != null && !e.isMaxCapacity()) { //if the elevator is not full
-                    int elevatorDistance = Math.abs(e.getCurrentFloor() - floorEvent.getFloor());
-                    if (elevatorDistance < distance) {
-                        distance = elevatorDistance;
+    /**
+     * Distributes the floor events to the elevators with collective control. Each floor event goes to the elevator car
+     * with the earliest estimated time of arrival. If that elevator car is busy, it picks the floor event up on its way
+     * and the floor event stays queued until it does. If that elevator car is available, it is sent the floor event.
+     * Returns without waiting if there are no floor events to handle or no available elevators.
+     */
+    public void distributeFloorEvents() {
+        lock.lock();
+        try {
+            drainHallCalls();
+            Iterator<HardwareDevice> iterator = floorEventsToHandle.iterator();
+            while (iterator.hasNext() && cars.getNumAvailable() > 0 && numReqsHandled <= numReqs) {
+                HardwareDevice floorEvent = iterator.next();
+                Elevator elevator;
+                if (dispatchMode == DispatchMode.DESTINATION_DISPATCH) {
+                    elevator = assignedElevators.get(floorEvent);
+                    if (elevator == null) {
+                        elevator = assignElevator(floorEvent); // no elevator car could take it when it was added
                     }
-                    floorEventsToHandle.remove(0);
-                    addBusyElevator(e);
-                    iterator.remove();
-                    numReqsHandled++;
-                    floorEvent.setElevator(e.getName());
-                    sendElevatorFloorEvent(e, floorEvent);
-                    break;
+                } else {
+                    elevator = selectElevator(floorEvent);
+                }
+                if (elevator == null || !cars.isAvailable(elevator.getId())) {
+                    continue; // a busy elevator car will pick the floor event up on its way, or no car can take it yet
+                }
+
+                iterator.remove();
+                unassign(floorEvent);
+                addBusyElevator(elevator);
+                numReqsHandled++;
+                floorEvent.setElevatorId(elevator.getId());
+                floorEvent.stamp(RequestStage.ASSIGNED, clock.currentTimeMillis());
+                journal.recordDecision(JournalEventType.DISPATCH, elevator.getId(), floorEvent);
+                sendElevatorFloorEvent(elevator, floorEvent);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the elevator car with the earliest estimated time of arrival at the floor of the specified floor event,
+     * out of the available and busy elevators. Ties go to the available elevator car that comes first.
+     *
+     * @param floorEvent A HardwareDevice representing the floor event to select an elevator car for.
+     * @return An Elevator with the earliest estimated time of arrival. Null, if no elevator car can take the floor
+     * event.
+     */
+    private Elevator selectElevator(HardwareDevice floorEvent) {
+        int id = cars.selectEarliest(floorEvent.getFloor(), floorEvent.getFloorButton(),
+                floorEvent.getNumPassengers());
+        return id == ElevatorRegistry.NO_ELEVATOR ? null : getElevator(id);
+    }
+
+    /**
+     * Assigns the specified floor event to the elevator car that can serve it at the lowest cost with destination
+     * dispatch, and returns it. Ties go to the available elevator car that became available first, then to the busy
+     * elevator car that became busy first.
+     *
+     * @param floorEvent A HardwareDevice representing the floor event to assign.
+     * @return An Elevator the floor event has been assigned to. Null, if no elevator car can take the floor event.
+     */
+    private Elevator assignElevator(HardwareDevice floorEvent) {
+        // the passengers of each elevator car include those of the floor events assigned to it and not picked up yet
+        for (int id = 1; id <= elevators.size(); id++) {
+            plannedPassengers[id] = floorEvent.getNumPassengers();
+            for (HardwareDevice assigned : assignedFloorEvents.get(id)) {
+                plannedPassengers[id] += assigned.getNumPassengers();
+            }
+        }
+        // every elevator car is read from the ElevatorCarTable at once, so they are weighed as they were at one moment
+        cars.readDestinationDispatch(floorEvent.getFloor(), floorEvent.getFloorButton(), plannedPassengers,
+                dispatchRanks, dispatchArrivals, plannedStops);
+
+        Elevator assigned = null;
+        long lowestCost = Long.MAX_VALUE;
+        long assignedRank = -1;
+        for (int id = 1; id <= elevators.size(); id++) {
+            long rank = dispatchRanks[id];
+            if (rank == -1) {
+                continue; // shut down
+            }
+            Elevator elevator = getElevator(id);
+            long cost = estimateDestinationDispatchCost(id, floorEvent);
+            if (cost < lowestCost || (cost == lowestCost && cost != Long.MAX_VALUE && rank < assignedRank)) {
+                lowestCost = cost;
+                assigned = elevator;
+                assignedRank = rank;
+            }
+        }
+
+        if (assigned != null) {
+            assignedElevators.put(floorEvent, assigned);
+            assignedFloorEvents.get(assigned.getId()).add(floorEvent);
+            floorEvent.setElevatorId(assigned.getId());
+            floorEvent.stamp(RequestStage.ASSIGNED, clock.currentTimeMillis());
+            journal.recordDecision(JournalEventType.ASSIGNMENT, assigned.getId(), floorEvent);
+            logger.info("Assigned {0} to {1}.", floorEvent, assigned.getName());
+        }
+        return assigned;
+    }
+
+    /**
+     * Estimates the cost, in milliseconds, of the specified elevator car serving the specified floor event with
+     * destination dispatch: how long the passengers wait for it, plus how much it delays everyone else in it.
+     * <p>
+     * The passengers are grouped with the other passengers of the elevator car. A stop it has already committed to
+     * costs nothing, a new stop costs a door cycle, and a destination away from every committed stop costs the travel
+     * time to the closest one. An elevator car with no committed stops makes the trip on its own.
+     *
+     * @param id An integer representing the ID of the elevator car to serve the floor event, whose committed stops and
+     *           estimated time of arrival have been read from the ElevatorCarTable.
+     * @param floorEvent A HardwareDevice representing the floor event to serve.
+     * @return A long representing the estimated cost. Long.MAX_VALUE, if the elevator car cannot take the floor
+     * event.
+     */
+    private long estimateDestinationDispatchCost(int id, HardwareDevice floorEvent) {
+        // the stops the elevator car has committed to include floor events assigned to it and not picked up yet
+        BitSet plannedStops = this.plannedStops[id];
+        for (HardwareDevice assigned : assignedFloorEvents.get(id)) {
+            plannedStops.set(assigned.getFloor());
+            plannedStops.set(assigned.getCarButton());
+        }
+
+        long arrival = dispatchArrivals[id];
+        if (arrival == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        if (plannedStops.isEmpty()) {
+            return arrival + 2 * Elevator.STOP_TIME
+                    + Math.abs(floorEvent.getCarButton() - floorEvent.getFloor()) * Elevator.TRAVEL_TIME;
+        }
+
+        int destination = floorEvent.getCarButton();
+        int newStops = (plannedStops.get(floorEvent.getFloor()) ? 0 : 1) + (plannedStops.get(destination) ? 0 : 1);
+        // number of floors between the destination and the closest committed stop
+        int above = plannedStops.nextSetBit(destination);
+        int below = plannedStops.previousSetBit(destination);
+        int detour = Math.min(above == -1 ? Integer.MAX_VALUE : above - destination,
+                below == -1 ? Integer.MAX_VALUE : destination - below);
+        return arrival + newStops * Elevator.STOP_TIME + detour * Elevator.TRAVEL_TIME;
+    }
+
+    /**
+     * Removes the assignment of the specified floor event to an elevator car with destination dispatch, if it has one.
+     *
+     * @param floorEvent A HardwareDevice representing a floor event that has been dispatched or picked up.
+     */
+    private void unassign(HardwareDevice floorEvent) {
+        Elevator assigned = assignedElevators.remove(floorEvent);
+        if (assigned != null) {
+            List<HardwareDevice> floorEvents = assignedFloorEvents.get(assigned.getId());
+            for (int i = 0; i < floorEvents.size(); i++) {
+                if (floorEvents.get(i) == floorEvent) {
+                    floorEvents.remove(i);
+                    return;
                 }
             }
         }
-        notifyAll();
     }
 
     /**
-     * Adds the specified elevator to the list of busy elevators.
+     * Marks the specified elevator as busy.
      *
-     * @param elevator An Elevator to add to the list of busy elevators.
+     * @param elevator An Elevator to mark as busy.
      */
     public void addBusyElevator(Elevator elevator) {
-        busyElevators.add(elevator);
+        cars.setAvailable(elevator.getId(), false);
     }
 
     /**
-     * Returns a List of Elevators representing a list of busy elevators.
+     * Returns a List of Elevators representing the busy elevators, in the order they became busy.
      *
-     * @return A List of Elevators representing a list of busy elevators.
+     * @return A List of Elevators representing the busy elevators.
      */
     public List<Elevator> getBusyElevators() {
+        List<Elevator> busyElevators = new ArrayList<>();
+        for (int id : cars.getBusy()) {
+            busyElevators.add(getElevator(id));
+        }
         return busyElevators;
     }
 
     /**
-     * Receives a DatagramPacket from an Elevator. Returns a String representing the message from the Elevator.
+     * Returns whether any elevator is busy.
      *
-     * @return A String representing the message from the Elevator.
+     * @return True, if at least one elevator is busy. False, if not.
      */
-    private String receiveElevatorPacket() {
-        byte[] receiveBytes = new byte[250];
-        DatagramPacket receivePacket = new DatagramPacket(receiveBytes, receiveBytes.length);
-        try {
-            sendReceiveSocket.receive(receivePacket);
-        } catch (IOException e) {
-            e.printStackTrace();
-            System.exit(1);
-        }
-
-        // process the received message from the Elevator
-        String message = new String(receivePacket.getData(), 0, receivePacket.getLength());
-        String elevatorName = HardwareDevice.stringToHardwareDevice(message).getElevator();
-        logger.info("Received " + message + " from " + elevatorName + ".");
-        return message;
+    public boolean hasBusyElevators() {
+        return cars.getNumBusy() > 0;
     }
 
     /**
-     * Sends a DatagramPacket to the specified elevator containing the specified message.
+     * Sends a message to the specified elevator.
      *
      * @param elevator An Elevator to send the specified message to.
-     * @param message A String representing the message to send to the specified Elevator.
+     * @param messageType A byte representing the type of the message, HardwareDeviceCodec.FLOOR_EVENT or
+     *                    HardwareDeviceCodec.ACK.
+     * @param message A HardwareDevice representing the message to send to the specified Elevator.
      */
-    private void sendElevatorPacket(Elevator elevator, String message) {
-        byte[] messageBytes = message.getBytes();
+    private void sendElevatorPacket(Elevator elevator, byte messageType, HardwareDevice message) {
         try {
-            DatagramPacket sendPacket = new DatagramPacket(messageBytes, messageBytes.length,
-                    InetAddress.getLocalHost(), elevator.getPort());
-            sendReceiveSocket.send(sendPacket);
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.exit(1);
+            elevatorTransport.send(messageType, message, elevator.getAddress());
+        } catch (IOException e) {
+            fail("Could not send " + message + " to " + elevator.getName(), e);
+            return;
         }
 
-        logger.info("Sending " + message + " to " + elevator.getName() + ".");
+        logger.info("Sending {0}{1} to {2}.", messageType == HardwareDeviceCodec.ACK ? "ACK " : "", message,
+                elevator.getName());
     }
 
     /**
-     * Sends the specified floor event to the specified elevator.
+     * Sends the specified floor event to the specified elevator. The acknowledgment is received by the event loop.
      *
      * @param elevator An Elevator that the floor event is going to be sent to.
      * @param hardwareDevice A HardwareDevice representing a floor event.
      */
     private void sendElevatorFloorEvent(Elevator elevator, HardwareDevice hardwareDevice) {
-        // send the floor event to the elevator and receive an acknowledgment
-        currentState.handleRequest(this);
+        // send the floor event to the elevator
+        handleRequest();
         if (!hardwareDevice.getArrived()) {
-            sendElevatorPacket(elevator, hardwareDevice.toString());
+            sendElevatorPacket(elevator, HardwareDeviceCodec.FLOOR_EVENT, hardwareDevice);
 
             // start the timer if its hasn't been started already
             if (startTime == -1) {
@@ -345,44 +972,42 @@ public class Scheduler implements Runnable {
                 logger.info("Timer has been started!");
             }
 
-            currentState.handleRequest(this);
-            receiveElevatorPacket();
-
-            distributeFloorEvents();
-            receiveElevatorFloorEvent();
+            handleRequest();
         }
     }
 
     /**
-     * Receives a message from an Elevator and sends an acknowledgement back.
+     * Handles a completed floor event received from an Elevator and sends an acknowledgement back.
+     *
+     * @param fulfilledFloorEvent A HardwareDevice representing the floor event the Elevator has completed.
      */
-    private void receiveElevatorFloorEvent() {
-        distributeFloorEvents();
-
-        // receive a completed floor event from an elevator and send an acknowledgment back
-        String message = receiveElevatorPacket();
-        HardwareDevice fulfilledFloorEvent = HardwareDevice.stringToHardwareDevice(message);
-        Elevator elevator = getElevator(fulfilledFloorEvent.getElevator());
-        sendElevatorPacket(elevator, "ACK " + message);
+    private void receiveElevatorFloorEvent(HardwareDevice fulfilledFloorEvent) {
+        lock.lock();
+        try {
+            // send an acknowledgment back to the elevator that completed the floor event
+            Elevator elevator = getElevator(fulfilledFloorEvent.getElevatorId());
+            journal.recordDecision(JournalEventType.COMPLETION, elevator.getId(), fulfilledFloorEvent);
+            latencies.record(fulfilledFloorEvent);
+            sendElevatorPacket(elevator, HardwareDeviceCodec.ACK, fulfilledFloorEvent);
+
+            // if the Elevator has no more floor events to complete, then the movement is complete and the elevator is
+            // available
+            if (!fulfilledFloorEvent.getMoreFloorEvents()) {
+                numMovements++;
+                logger.info("{0} has completed a movement. numMovements: {1}.", elevator.getName(), numMovements);
+                arrived = true;
+                handleRequest();
+                arrived = false;
+                cars.setAvailable(elevator.getId(), true);
+            }
 
-        // if the Elevator has no more floor events to complete, then the movement is complete and the elevator is
-        // available
-        if (!fulfilledFloorEvent.getMoreFloorEvents()) {
-            numMovements++;
-            logger.info(elevator.getName() + " has completed a movement. numMovements: " + numMovements + ".");
-            arrived = true;
-            currentState.handleRequest(this);
-            arrived = false;
-            availableElevators.add(elevator);
-            busyElevators.remove(elevator);
-            distributeFloorEvents();
+            isFloorEventsComplete();
+            endTime = System.nanoTime();
+            logger.info("It took {0} ms to execute {1} floor event(s).", (endTime - startTime) / 1_000_000, numReqs);
+            notifyFloor(fulfilledFloorEvent);
+        } finally {
+            lock.unlock();
         }
-
-        isFloorEventsComplete();
-        endTime = System.nanoTime();
-        logger.info("It took " + ((endTime - startTime) / 100000) + " ms to execute " + numReqs
-                + " floor event(s).");
-        notifyFloor(message);
     }
 
     /**
@@ -392,115 +1017,206 @@ public class Scheduler implements Runnable {
         if (numReqsHandled == numReqs) {
             // stop the timer and log the time it takes, in milliseconds, to execute all the floor events
             endTime = System.nanoTime();
-            logger.info("It took " + ((endTime - startTime) / 100000) + " ms to execute " + numReqs
-                    + " floor event(s).");
-            logger.info(numMovements + " movement(s) were completed.");
+            logger.info("It took {0} ms to execute {1} floor event(s).", (endTime - startTime) / 1_000_000, numReqs);
+            logger.info("{0} movement(s) were completed.", numMovements);
         }
     }
 
     /**
-     * Notifies the Floor subsystem of a fulfilled floor event. Sends the String representation of the fulfilled floor
-     * event to the Floor subsystem, and receives an acknowledgment back.
+     * Notifies the Floor subsystem of a fulfilled floor event. Sends the encoded fulfilled floor event to the Floor
+     * subsystem. The acknowledgment is received by the event loop.
      *
-     * @param fulfilledFloorEvent A String representing the fulfilled floor event to send to the Floor subsystem.
+     * @param fulfilledFloorEvent A HardwareDevice representing the fulfilled floor event to send to the Floor
+     *                            subsystem.
      */
-    private void notifyFloor(String fulfilledFloorEvent) {
+    private void notifyFloor(HardwareDevice fulfilledFloorEvent) {
         // notify Floor that a floor event has been fulfilled
-        byte[] sendBytes = fulfilledFloorEvent.getBytes();
         try {
-            DatagramPacket sendPacket = new DatagramPacket(sendBytes, sendBytes.length, InetAddress.getLocalHost(),
-                    5000);
-            DatagramSocket sendSocket = new DatagramSocket();
-            sendSocket.send(sendPacket);
-            sendSocket.close();
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.exit(1);
-        }
-
-        currentState.handleRequest(this);
-        logger.info("Sending " + fulfilledFloorEvent + " to Floor.");
-
-        // receive an acknowledgment from the Floor
-        byte[] ackBytes = new byte[200];
-        DatagramPacket receivePacket = new DatagramPacket(ackBytes, ackBytes.length);
-        try {
-            sendReceiveSocket.receive(receivePacket);
+            floorTransport.send(HardwareDeviceCodec.FLOOR_EVENT, fulfilledFloorEvent, floorAddress);
         } catch (IOException e) {
-            e.printStackTrace();
-            System.exit(1);
+            fail("Could not send " + fulfilledFloorEvent + " to Floor", e);
+            return;
         }
-        logger.info("Received " + new String(receivePacket.getData(), 0, receivePacket.getLength())
-                + " from Floor.");
+
+        handleRequest();
+        logger.info("Sending {0} to Floor.", fulfilledFloorEvent);
     }
 
     /**
-     * The specified Elevator has picked up the specified floor event to fulfill. Removes the specified floor event
-     * from the list of floor events to handle.
+     * The specified Elevator has stopped at the specified floor while moving in the specified direction. Removes the
+     * floor events of the passengers waiting there to go the same way from the list of floor events to handle, as long
+     * as they fit in the elevator car, and returns them for the Elevator to pick up.
      *
-     * @param elevator An Elevator that has picked up a floor event.
-     * @param hardwareDevice A HardwareDevice representing a floor event the specified Elevator picked up.
+     * @param elevator An Elevator passing the specified floor.
+     * @param floor An integer representing the floor the specified Elevator is at.
+     * @param button A FloorButton representing the direction the specified Elevator is moving in.
+     * @param pickedUp An empty List of HardwareDevices to add the floor events the specified Elevator picked up to,
+     *                 reused by the Elevator at every floor.
      */
-    public void pickedUpFloorEvent(Elevator elevator, HardwareDevice hardwareDevice) {
-        logger.info(elevator.getName() + " has picked up " + hardwareDevice.toString() + ".");
-        floorEventsToHandle.remove(hardwareDevice);
+    public void claimFloorEvents(Elevator elevator, int floor, FloorButton button,
+                                 List<HardwareDevice> pickedUp) {
+        lock.lock();
+        try {
+            drainHallCalls(); // passengers who have just pressed the button can be picked up too
+            if (!floorEventsToHandle.hasPending(floor, button)) {
+                return; // checked without looking at any floor event, since most stops have no one waiting
+            }
+
+            int numPassengers = 0;
+            for (HardwareDevice hardwareDevice : floorEventsToHandle.get(floor, button)) {
+                Elevator assignedElevator = assignedElevators.get(hardwareDevice);
+                if ((assignedElevator == null || assignedElevator == elevator)
+                        && elevator.canFit(numPassengers + hardwareDevice.getNumPassengers())) {
+                    numPassengers += hardwareDevice.getNumPassengers();
+                    pickedUp.add(hardwareDevice);
+                }
+            }
+            for (HardwareDevice hardwareDevice : pickedUp) {
+                floorEventsToHandle.remove(hardwareDevice);
+                unassign(hardwareDevice);
+                numReqsHandled++;
+                hardwareDevice.setElevatorId(elevator.getId());
+                hardwareDevice.stamp(RequestStage.ASSIGNED, clock.currentTimeMillis());
+                journal.recordDecision(JournalEventType.PICK_UP, elevator.getId(), hardwareDevice);
+                logger.info("{0} has picked up {1}.", elevator.getName(), hardwareDevice);
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
-     * Returns the Elevator with the specified name.
+     * Returns an integer representing the number of movements the elevators have made.
      *
-     * @param name A String representing the name of the Elevator.
-     * @return An Elevator with the specified name. Null, if an Elevator with the specified name does not exist.
+     * @return An integer representing the number of movements the elevators have made.
      */
-    public Elevator getElevator(String name) {
-        for (Elevator elevator : allElevators) {
-            if (elevator.getName().equals(name)) {
-                return elevator;
-            }
+    public int getNumMovements() {
+        lock.lock();
+        try {
+            return numMovements;
+        } finally {
+            lock.unlock();
         }
-        return null;
     }
 
     /**
-     * Returns the first available elevator.
+     * Returns the wait, ride and journey times of the floor events that have been completed.
      *
-     * @return The first available elevator.
+     * @return A RequestLatencies representing the wait, ride and journey times.
+     */
+    public RequestLatencies getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Returns the Elevator with the specified ID.
+     *
+     * @param id An integer representing the ID of the Elevator.
+     * @return An Elevator with the specified ID. Null, if an Elevator with the specified ID does not exist.
+     */
+    public Elevator getElevator(int id) {
+        return elevators.getElevator(id);
+    }
+
+    /**
+     * Returns the elevator that became available first, out of the available elevators.
+     *
+     * @return The first available elevator. Null, if no elevator is available.
      */
     public Elevator getFirstAvailableElevator() {
-        return availableElevators.get(0);
+        return getElevator(cars.getFirstAvailable());
     }
 
     /**
-     * Closes the sendReceiveSocket.
+     * Closes the transports to the Elevator and Floor subsystems.
      */
     public void closeSendReceiveSocket() {
-        sendReceiveSocket.close();
+        elevatorTransport.close();
+        floorTransport.close();
+        try {
+            selector.close();
+        } catch (IOException e) {
+            System.err.println(e);
+        }
+    }
+
+    /**
+     * Shuts down the ElevatorSystem once the event loop has finished, so no thread is left waiting for a message:
+     * interrupts every Elevator thread still waiting for a floor event and closes every Transport.
+     */
+    public void shutDown() {
+        for (int id = 1; id <= elevators.size(); id++) {
+            elevators.getTask(id).cancel(true);
+        }
+        floorSubsystem.close();
+        closeSendReceiveSocket();
+    }
+
+    /**
+     * Starts the specified task on the executor of the ElevatorSystem, on a thread with the specified name.
+     *
+     * @param name A String representing the name of the thread.
+     * @param task A Runnable representing the task, e.g. an Elevator.
+     * @return A Future representing the task, cancelled to interrupt it.
+     */
+    public Future<?> start(String name, Runnable task) {
+        return executor.submit(() -> {
+            Thread.currentThread().setName(name);
+            task.run();
+        });
+    }
+
+    /**
+     * Returns the AsyncLogWriter every logger of the ElevatorSystem writes through.
+     *
+     * @return An AsyncLogWriter representing the background thread that writes the log messages.
+     */
+    public AsyncLogWriter getLogWriter() {
+        return logWriter;
+    }
+
+    /**
+     * Opens a Transport for an Elevator or the Floor to talk to the Scheduler on, with the TransportFactory of the
+     * Scheduler.
+     *
+     * @param port An integer representing the port number to receive messages on. 0, for any free port.
+     * @return A Transport in blocking mode.
+     * @throws IOException If the Transport could not be opened.
+     */
+    public Transport openTransport(int port) throws IOException {
+        return transports.open(port, clock);
     }
 
     /**
      * Kills the specified elevator thread.
      *
-     * @param name A String representing the name of the elevator thread to be killed.
+     * @param id An integer representing the ID of the elevator thread to be killed.
      * @param numFloorEventsHandling An integer representing the number of floor events the Elevator was handling at the
      *                               time it was killed.
      */
-    public synchronized void killElevatorThread(String name, int numFloorEventsHandling) {
-        Elevator elevator = getElevator(name);
-        availableElevators.remove(elevator);
-        busyElevators.remove(elevator);
+    public void killElevatorThread(int id, int numFloorEventsHandling) {
+        lock.lock();
+        try {
+            Elevator elevator = getElevator(id);
+            cars.remove(id);
 
-        numReqsHandled += numFloorEventsHandling;
-        isFloorEventsComplete();
+            // the floor events the Elevator was handling were counted as handled when it took them
+            isFloorEventsComplete();
 
-        for (Thread elevatorThread : elevatorThreads) {
-            if (elevatorThread.getName().equals(name)) {
-                logger.info("Shutting down " + name + ". It was handling " + numFloorEventsHandling
-                        + " floor event(s).");
-                elevatorThread.interrupt();
+            // floor events assigned to the Elevator that it has not picked up yet go to another elevator car
+            for (HardwareDevice assigned : assignedFloorEvents.get(id)) {
+                assignedElevators.remove(assigned);
             }
-        }
+            assignedFloorEvents.get(id).clear();
 
-        notifyAll();
+            logger.info("Shutting down {0}. It was handling {1} floor event(s).", elevator.getName(),
+                    numFloorEventsHandling);
+            elevators.getTask(id).cancel(true);
+
+            wakeUpEventLoop(); // re-check if all floor events have been handled
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -509,7 +1225,34 @@ public class Scheduler implements Runnable {
      * @return A List of Elevators representing all the elevators in the ElevatorSystem.
      */
     public List<Elevator> getAllElevators() {
-        return allElevators;
+        return elevators.getElevators();
+    }
+
+    /**
+     * Returns a SimulationClock representing the clock the ElevatorSystem runs on.
+     *
+     * @return A SimulationClock representing the clock the ElevatorSystem runs on.
+     */
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns an ElevatorCarTable holding the state of every elevator car.
+     *
+     * @return An ElevatorCarTable holding the state of every elevator car.
+     */
+    public ElevatorCarTable getCars() {
+        return cars;
+    }
+
+    /**
+     * Returns an EventJournal representing the journal the ElevatorSystem records what happens in.
+     *
+     * @return An EventJournal representing the journal the ElevatorSystem records what happens in.
+     */
+    public EventJournal getJournal() {
+        return journal;
     }
 
     /**
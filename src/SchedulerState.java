@@ -1,5 +1,8 @@
 /**
  * An interface to represent the states in the Scheduler state machine.
+ * <p>
+ * States are stateless and shared by every Scheduler. A state does not transition the state machine itself, it returns
+ * the name of the state to transition to.
  */
 public interface SchedulerState {
 
@@ -7,12 +10,9 @@ public interface SchedulerState {
      * Handles the event in the Scheduler state machine.
      *
      * @param scheduler A Scheduler representing the context of the state machine.
+     * @return A SchedulerStateName representing the state to transition to. The name of the current state, to stay in
+     * it.
      */
-    void handleRequest(Scheduler scheduler);
-
-    /**
-     * Returns a String representing the name of the SchedulerState.
-     */
-    String displayState();
+    SchedulerStateName handleRequest(Scheduler scheduler);
 
 }
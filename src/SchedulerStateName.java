@@ -0,0 +1,36 @@
+/**
+ * An enumerator to represent the names of the states in the Scheduler state machine.
+ */
+public enum SchedulerStateName {
+
+    WAITING_FOR_FLOOR_EVENT("WaitingForFloorEvent"),
+    SELECT_ELEVATOR("SelectElevator"),
+    NOTIFY_ELEVATOR("NotifyElevator"),
+    WAITING_FOR_ELEVATOR("WaitingForElevator"),
+    NOTIFY_FLOOR("NotifyFloor");
+
+    /**
+     * A String representing the name of the state displayed in logs.
+     */
+    private final String displayName;
+
+    /**
+     * Initializes a SchedulerStateName.
+     *
+     * @param displayName A String representing the name of the state displayed in logs.
+     */
+    SchedulerStateName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns a String representing the name of the state displayed in logs.
+     *
+     * @return A String representing the name of the state displayed in logs.
+     */
+    @Override
+    public String toString() {
+        return displayName;
+    }
+
+}
@@ -5,15 +5,8 @@
 class NotifyElevator implements SchedulerState {
 
     @Override
-    public void handleRequest(Scheduler scheduler) {
-        //scheduler.receiveElevatorFloorEvent();
-        scheduler.setState("WaitingForElevator");
-
-    }
-
-    @Override
-    public String displayState() {
-        return "NotifyElevator";
+    public SchedulerStateName handleRequest(Scheduler scheduler) {
+        return SchedulerStateName.WAITING_FOR_ELEVATOR;
     }
 
 }
@@ -24,14 +17,8 @@ class NotifyElevator implements SchedulerState {
 class WaitingForFloorEvent implements SchedulerState {
 
     @Override
-    public void handleRequest(Scheduler scheduler) {
-        scheduler.setState("SelectElevator");
-        scheduler.distributeFloorEvents();
-    }
-
-    @Override
-    public String displayState() {
-        return "WaitingForFloorEvent";
+    public SchedulerStateName handleRequest(Scheduler scheduler) {
+        return SchedulerStateName.SELECT_ELEVATOR;
     }
 
 }
@@ -43,18 +30,12 @@ class WaitingForFloorEvent implements SchedulerState {
 class NotifyFloor implements SchedulerState {
 
     @Override
-    public void handleRequest(Scheduler scheduler) {
-        if (scheduler.getBusyElevators().isEmpty()){
-            scheduler.setState("WaitingForFloorEvent");
+    public SchedulerStateName handleRequest(Scheduler scheduler) {
+        if (!scheduler.hasBusyElevators()) {
+            return SchedulerStateName.WAITING_FOR_FLOOR_EVENT;
+        } else {
+            return SchedulerStateName.SELECT_ELEVATOR;
         }
-        else {
-            scheduler.setState("SelectElevator");
-        }
-    }
-
-    @Override
-    public String displayState() {
-        return "NotifyFloor";
     }
 
 }
@@ -66,13 +47,8 @@ class NotifyFloor implements SchedulerState {
 class SelectElevator implements SchedulerState {
 
     @Override
-    public void handleRequest(Scheduler scheduler) {
-        scheduler.setState("NotifyElevator");
-    }
-
-    @Override
-    public String displayState() {
-        return "SelectElevator";
+    public SchedulerStateName handleRequest(Scheduler scheduler) {
+        return SchedulerStateName.NOTIFY_ELEVATOR;
     }
 
 }
@@ -83,15 +59,11 @@ class SelectElevator implements SchedulerState {
 class WaitingForElevator implements SchedulerState {
 
     @Override
-    public void handleRequest(Scheduler scheduler) {
-        if (scheduler.getArrived()){
-            scheduler.setState("NotifyFloor");
+    public SchedulerStateName handleRequest(Scheduler scheduler) {
+        if (scheduler.getArrived()) {
+            return SchedulerStateName.NOTIFY_FLOOR;
         }
+        return SchedulerStateName.WAITING_FOR_ELEVATOR; // keep waiting for the Elevator
     }
 
-
-    @Override
-    public String displayState() {
-        return "WaitingForElevator";
-    }
-}
\ No newline at end of file
+}
@@ -1,3 +1,4 @@
+import java.io.IOException;
 import java.time.LocalTime;
 import java.util.*;
 import org.junit.jupiter.api.*;
@@ -73,8 +74,9 @@ class SchedulerTest {
     @Test
     void testGetCurrentState() {
         assertInstanceOf(WaitingForFloorEvent.class, scheduler.getCurrentState());
-        scheduler.setState("NotifyElevator");
+        scheduler.setState(SchedulerStateName.NOTIFY_ELEVATOR);
         assertInstanceOf(NotifyElevator.class, scheduler.getCurrentState());
+        assertEquals(SchedulerStateName.NOTIFY_ELEVATOR, scheduler.getCurrentStateName());
     }
 
     /**
@@ -82,7 +84,7 @@ class SchedulerTest {
      */
     @Test
     void testGetStates() {
-        HashMap<String, SchedulerState> states = scheduler.getStates();
+        Map<SchedulerStateName, SchedulerState> states = scheduler.getStates();
         assertNotNull(states);
         assertEquals(5, states.size());
     }
@@ -93,23 +95,25 @@ class SchedulerTest {
     @Test
     void testSetState() {
         assertInstanceOf(WaitingForFloorEvent.class, scheduler.getCurrentState());
-        scheduler.setState("NotifyFloor");
+        scheduler.setState(SchedulerStateName.NOTIFY_FLOOR);
         assertInstanceOf(NotifyFloor.class, scheduler.getCurrentState());
-        scheduler.setState("NotifyElevator");
+        scheduler.setState(SchedulerStateName.NOTIFY_ELEVATOR);
         assertInstanceOf(NotifyElevator.class, scheduler.getCurrentState());
     }
 
     /**
-     * Tests adding a state to the Scheduler state machine.
+     * Tests that a StateTransitionListener is notified of every transition of the Scheduler state machine.
      */
     @Test
-    void testAddState() {
-        String testStateName = "TestState";
-        assertEquals(5, scheduler.getStates().size());
-        scheduler.addState(testStateName, new WaitingForFloorEvent());
-        HashMap<String, SchedulerState> states = scheduler.getStates();
-        assertEquals(6, states.size());
-        assertTrue(states.containsKey(testStateName));
+    void testTransitionListener() {
+        List<SchedulerStateName> newStates = new ArrayList<>();
+        scheduler.addTransitionListener((context, previousState, newState) -> {
+            assertSame(scheduler, context);
+            newStates.add(newState);
+        });
+        scheduler.setState(SchedulerStateName.SELECT_ELEVATOR);
+        scheduler.setState(SchedulerStateName.NOTIFY_ELEVATOR);
+        assertEquals(List.of(SchedulerStateName.SELECT_ELEVATOR, SchedulerStateName.NOTIFY_ELEVATOR), newStates);
     }
 
     /**
@@ -158,6 +162,41 @@ class SchedulerTest {
         assertEquals(busy, scheduler.getBusyElevators());
     }
 
+    /**
+     * Tests that with destination dispatch, a floor event is assigned an elevator car as soon as it is added.
+     */
+    @Test
+    void testDestinationDispatch() {
+        assertEquals(DispatchMode.COLLECTIVE_CONTROL, scheduler.getDispatchMode());
+        assertNull(scheduler.addFloorEvent(hardwareDevice));
+
+        ArrayList<Integer> elevatorPortNumbers = new ArrayList<>();
+        elevatorPortNumbers.add(generateRandomInt());
+        Scheduler destinationDispatchScheduler = new Scheduler(elevatorPortNumbers, new RealTimeClock(),
+                DispatchMode.DESTINATION_DISPATCH);
+        try {
+            HardwareDevice floorEvent = new HardwareDevice("Elevator?", LocalTime.parse("13:02:56.0"), 4,
+                    FloorButton.UP, 6, 1, Fault.NO_FAULT);
+            String assignedElevator = destinationDispatchScheduler.addFloorEvent(floorEvent);
+            assertEquals(destinationDispatchScheduler.getFirstAvailableElevator().getName(), assignedElevator);
+            assertEquals(assignedElevator, floorEvent.getElevator());
+        } finally {
+            destinationDispatchScheduler.closeSendReceiveSocket();
+        }
+    }
+
+    /**
+     * Tests looking up elevators by ID.
+     */
+    @Test
+    void testGetElevator() {
+        assertSame(elevator, scheduler.getElevator(elevator.getId()));
+        assertEquals(1, elevator.getId());
+        assertNull(scheduler.getElevator(ElevatorRegistry.NO_ELEVATOR));
+        assertNull(scheduler.getElevator(2));
+        assertEquals(List.of(elevator), scheduler.getAllElevators());
+    }
+
     /**
      * Tests getting the list of floor events to handle
      */
@@ -171,4 +210,19 @@ class SchedulerTest {
         assertEquals(floorEvents.get(0), scheduler.getFloorEventsToHandle().get(0));
     }
 
+    /**
+     * Tests that a failure stops the event loop, which returns instead of exiting, and that only the first failure is
+     * kept.
+     */
+    @Test
+    void testFail() {
+        assertNull(scheduler.getFailure());
+        IOException failure = new IOException("network is down");
+        scheduler.fail("Could not send", failure);
+        scheduler.fail("Could not receive", new IOException("still down"));
+        scheduler.run();
+        assertSame(failure, scheduler.getFailure());
+        assertEquals(0, scheduler.getNumReqsHandled());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+import javax.swing.*;
+import java.awt.*;
+import java.io.Serial;
+
+/**
+ * A class to represent a panel that draws the elevator shafts of the building, one column per elevator car and one row
+ * per floor, with each elevator car at its floor in the colour of its status.
+ * <p>
+ * The panel paints the whole building itself instead of using a component per floor, and only the rows and columns
+ * inside the area being repainted, so a building with hundreds of floors and dozens of elevator cars costs the same to
+ * update as a small one. Only used on the Event Dispatch Thread.
+ */
+public class ShaftPanel extends JComponent {
+
+    /**
+     * A long representing the version of the serialized form of a ShaftPanel.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * An integer representing the smallest width of a shaft, in pixels.
+     */
+    private static final int MIN_SHAFT_WIDTH = 12;
+
+    /**
+     * An integer representing the smallest height of a floor, in pixels.
+     */
+    private static final int MIN_FLOOR_HEIGHT = 6;
+
+    /**
+     * An integer representing the width of the floor numbers on the left, in pixels.
+     */
+    private static final int LABEL_WIDTH = 60;
+
+    /**
+     * An integer representing the height of the elevator car numbers at the bottom, in pixels.
+     */
+    private static final int LABEL_HEIGHT = 20;
+
+    /**
+     * An array of Colors representing the colour of an elevator car, indexed by its ElevatorChanges status.
+     */
+    private static final Color[] STATUS_COLOURS = {Color.GREEN, Color.YELLOW, Color.RED};
+
+    /**
+     * A Color representing the background of the panel, unless another one is set.
+     */
+    private static final Color BACKGROUND = Color.WHITE;
+
+    /**
+     * Integers representing the number of elevator cars and floors shown.
+     */
+    private final int numElevators, numFloors;
+
+    /**
+     * An array of integers representing the floor each elevator car is drawn at, indexed by elevator ID. 0, if the
+     * elevator car is not drawn.
+     */
+    private final int[] floors;
+
+    /**
+     * An array of integers representing the ElevatorChanges status each elevator car is drawn with, indexed by elevator
+     * ID.
+     */
+    private final int[] statuses;
+
+    /**
+     * Initializes a ShaftPanel.
+     *
+     * @param numElevators An integer representing the number of elevator cars, with IDs from 1.
+     * @param numFloors An integer representing the number of floors, from 1.
+     */
+    public ShaftPanel(int numElevators, int numFloors) {
+        this.numElevators = numElevators;
+        this.numFloors = numFloors;
+        floors = new int[numElevators + 1];
+        statuses = new int[numElevators + 1];
+    }
+
+    /**
+     * Moves the elevator car with the specified ID to the specified floor and status, repainting only the floors it
+     * left and arrived at. A floor outside the building hides the elevator car.
+     *
+     * @param id An integer representing the ID of the elevator car.
+     * @param floor An integer representing the floor.
+     * @param status An integer representing the ElevatorChanges status.
+     */
+    public void setElevator(int id, int floor, int status) {
+        if (floor < 1 || floor > numFloors) {
+            floor = 0;
+        }
+        if (floors[id] == floor && statuses[id] == status) {
+            return;
+        }
+        repaintCell(id, floors[id]);
+        floors[id] = floor;
+        statuses[id] = Math.min(status, STATUS_COLOURS.length - 1);
+        repaintCell(id, floor);
+    }
+
+    /**
+     * Repaints the cell of the specified elevator car at the specified floor.
+     *
+     * @param id An integer representing the ID of the elevator car.
+     * @param floor An integer representing the floor. Nothing is repainted, if it is 0.
+     */
+    private void repaintCell(int id, int floor) {
+        if (floor == 0) {
+            return;
+        }
+        int shaftWidth = getShaftWidth();
+        int floorHeight = getFloorHeight();
+        repaint(LABEL_WIDTH + (id - 1) * shaftWidth, (numFloors - floor) * floorHeight, shaftWidth, floorHeight);
+    }
+
+    /**
+     * Returns the width of a shaft at the current size of the panel.
+     *
+     * @return An integer representing the width of a shaft, in pixels.
+     */
+    private int getShaftWidth() {
+        return Math.max(MIN_SHAFT_WIDTH, (getWidth() - LABEL_WIDTH) / Math.max(1, numElevators));
+    }
+
+    /**
+     * Returns the height of a floor at the current size of the panel.
+     *
+     * @return An integer representing the height of a floor, in pixels.
+     */
+    private int getFloorHeight() {
+        return Math.max(MIN_FLOOR_HEIGHT, (getHeight() - LABEL_HEIGHT) / Math.max(1, numFloors));
+    }
+
+    @Override
+    public boolean isOpaque() {
+        return true;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        return new Dimension(LABEL_WIDTH + numElevators * MIN_SHAFT_WIDTH * 2,
+                LABEL_HEIGHT + numFloors * MIN_FLOOR_HEIGHT * 3);
+    }
+
+    @Override
+    public Dimension getMinimumSize() {
+        if (isMinimumSizeSet()) {
+            return super.getMinimumSize();
+        }
+        return new Dimension(LABEL_WIDTH + numElevators * MIN_SHAFT_WIDTH, LABEL_HEIGHT + numFloors * MIN_FLOOR_HEIGHT);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(isBackgroundSet() ? getBackground() : BACKGROUND);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        int shaftWidth = getShaftWidth();
+        int floorHeight = getFloorHeight();
+        int shaftsBottom = numFloors * floorHeight;
+        FontMetrics metrics = g.getFontMetrics();
+        // label fewer floors when they are too short for their numbers
+        int labelEvery = Math.max(1, (int) Math.ceil((double) metrics.getHeight() / floorHeight));
+
+        // only the floors and shafts inside the clip
+        int firstRow = Math.max(0, clip.y / floorHeight);
+        int lastRow = Math.min(numFloors - 1, (clip.y + clip.height) / floorHeight);
+        int firstShaft = Math.max(1, (clip.x - LABEL_WIDTH) / shaftWidth + 1);
+        int lastShaft = Math.min(numElevators, (clip.x + clip.width - LABEL_WIDTH) / shaftWidth + 1);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            int floor = numFloors - row;
+            int y = row * floorHeight;
+            if (floor % labelEvery == 0 || floor == 1) {
+                g.setColor(Color.BLACK);
+                g.drawString("Floor " + floor, 2, y + (floorHeight + metrics.getAscent()) / 2 - 1);
+            }
+            for (int id = firstShaft; id <= lastShaft; id++) {
+                int x = LABEL_WIDTH + (id - 1) * shaftWidth;
+                if (floors[id] == floor) {
+                    g.setColor(STATUS_COLOURS[statuses[id]]);
+                    g.fillRect(x, y, shaftWidth, floorHeight);
+                }
+                g.setColor(Color.BLACK);
+                g.drawRect(x, y, shaftWidth - 1, floorHeight - 1);
+            }
+        }
+
+        if (clip.y + clip.height > shaftsBottom) {
+            g.setColor(Color.BLACK);
+            g.drawString("Elevator", 2, shaftsBottom + metrics.getAscent() + 2);
+            // label fewer elevator cars when the shafts are too narrow for their numbers
+            int idEvery = Math.max(1, (int) Math.ceil((double) metrics.stringWidth("00 ") / shaftWidth));
+            for (int id = firstShaft; id <= lastShaft; id++) {
+                if (id % idEvery == 0 || id == 1) {
+                    g.drawString(String.valueOf(id), LABEL_WIDTH + (id - 1) * shaftWidth + 2,
+                            shaftsBottom + metrics.getAscent() + 2);
+                }
+            }
+        }
+    }
+
+}
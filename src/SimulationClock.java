@@ -0,0 +1,95 @@
+import java.util.Random;
+
+/**
+ * An interface to represent the clock the ElevatorSystem runs on. Every delay in the system (floor events arriving,
+ * elevator cars moving between floors, doors opening and closing, fault timeouts) goes through the clock, so the
+ * system can either run in real time or in virtual time.
+ * <p>
+ * Threads that take part in the simulation must be registered with the clock before they start, must deregister when
+ * they finish, and must mark themselves idle while they are blocked waiting for a message. A virtual clock only moves
+ * time forward once every registered thread is sleeping or idle, and no message is in flight.
+ */
+public interface SimulationClock {
+
+    /**
+     * Returns the number of milliseconds that have passed on the clock since it was created.
+     *
+     * @return A long representing the number of milliseconds that have passed since the clock was created.
+     */
+    long currentTimeMillis();
+
+    /**
+     * Causes the calling thread to sleep for the specified number of milliseconds of clock time.
+     *
+     * @param millis A long representing the number of milliseconds to sleep for.
+     * @throws InterruptedException If the calling thread is interrupted while sleeping.
+     */
+    void sleep(long millis) throws InterruptedException;
+
+    /**
+     * Causes the calling thread to sleep until the clock reaches the specified time. Threads that repeat an action at
+     * a fixed rate should sleep until deadlines worked out from when they started, so delays do not add up.
+     *
+     * @param timeMillis A long representing the time, in milliseconds of clock time, to sleep until. Long.MAX_VALUE,
+     *                   to sleep until interrupted.
+     * @throws InterruptedException If the calling thread is interrupted while sleeping.
+     */
+    void sleepUntil(long timeMillis) throws InterruptedException;
+
+    /**
+     * Schedules the specified task to run after the specified number of milliseconds of clock time.
+     *
+     * @param delayMillis A long representing the number of milliseconds to wait before running the task.
+     * @param task A Runnable representing the task to run.
+     * @return A SimulationEvent that can be used to cancel the task.
+     */
+    SimulationEvent schedule(long delayMillis, Runnable task);
+
+    /**
+     * Schedules the specified task to run when the clock reaches the specified time.
+     *
+     * @param timeMillis A long representing the time, in milliseconds of clock time, to run the task at.
+     * @param task A Runnable representing the task to run.
+     * @return A SimulationEvent that can be used to cancel the task.
+     */
+    SimulationEvent scheduleAt(long timeMillis, Runnable task);
+
+    /**
+     * Registers a thread that takes part in the simulation. Must be called before the thread is started.
+     */
+    void register();
+
+    /**
+     * Deregisters the calling thread from the simulation. Must be called when the thread finishes.
+     */
+    void deregister();
+
+    /**
+     * Marks the calling thread as idle, because it is about to block waiting for a message.
+     */
+    void idle();
+
+    /**
+     * Marks the calling thread as busy again, because it has stopped waiting for a message.
+     */
+    void resume();
+
+    /**
+     * Records that a message has been sent to another thread and has not been received yet.
+     */
+    void messageSent();
+
+    /**
+     * Records that a message sent by another thread has been received.
+     */
+    void messageReceived();
+
+    /**
+     * Returns the Random every random decision in the simulation must be made with, so runs with the same seed are
+     * the same.
+     *
+     * @return A Random seeded with the seed of the simulation.
+     */
+    Random getRandom();
+
+}
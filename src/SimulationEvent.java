@@ -0,0 +1,149 @@
+/**
+ * A class to represent an event scheduled to happen at a point in time on a SimulationClock.
+ * <p>
+ * Events are ordered by time. Events scheduled for the same time are ordered by the order they were scheduled in, so
+ * the order events happen in is always the same.
+ */
+public class SimulationEvent implements Comparable<SimulationEvent>, Runnable {
+
+    /**
+     * A long representing the time, in milliseconds of clock time, the event happens at.
+     */
+    private final long time;
+
+    /**
+     * A long representing the order the event was scheduled in.
+     */
+    private final long sequenceNumber;
+
+    /**
+     * A Runnable representing the task to run when the event happens. Null, if the event wakes up a sleeping thread.
+     */
+    private final Runnable task;
+
+    /**
+     * A Thread representing the thread the event wakes up. Null, if the event runs a task or nothing waits for it.
+     */
+    private final Thread sleeper;
+
+    /**
+     * True, if the event has been cancelled. False, if not.
+     */
+    private volatile boolean cancelled = false;
+
+    /**
+     * True, if the event has happened. False, if not.
+     */
+    private volatile boolean fired = false;
+
+    /**
+     * Initializes a SimulationEvent.
+     *
+     * @param time A long representing the time, in milliseconds of clock time, the event happens at.
+     * @param sequenceNumber A long representing the order the event was scheduled in.
+     * @param task A Runnable representing the task to run when the event happens. Null, if the event wakes up a
+     *             sleeping thread.
+     */
+    public SimulationEvent(long time, long sequenceNumber, Runnable task) {
+        this(time, sequenceNumber, task, null);
+    }
+
+    /**
+     * Initializes a SimulationEvent that wakes up the specified thread, if it has no task.
+     *
+     * @param time A long representing the time, in milliseconds of clock time, the event happens at.
+     * @param sequenceNumber A long representing the order the event was scheduled in.
+     * @param task A Runnable representing the task to run when the event happens. Null, if the event wakes up a
+     *             sleeping thread.
+     * @param sleeper A Thread representing the thread the event wakes up. Null, if the event runs a task.
+     */
+    public SimulationEvent(long time, long sequenceNumber, Runnable task, Thread sleeper) {
+        this.time = time;
+        this.sequenceNumber = sequenceNumber;
+        this.task = task;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Runs the task of the event, unless the event has been cancelled.
+     */
+    @Override
+    public void run() {
+        if (!cancelled && task != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * Cancels the event. A cancelled event does nothing when it happens.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns a boolean representing if the event has been cancelled or not.
+     *
+     * @return True, if the event has been cancelled. False, if not.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Marks the event as having happened.
+     */
+    public void setFired() {
+        fired = true;
+    }
+
+    /**
+     * Returns a boolean representing if the event has happened or not.
+     *
+     * @return True, if the event has happened. False, if not.
+     */
+    public boolean isFired() {
+        return fired;
+    }
+
+    /**
+     * Returns a long representing the time, in milliseconds of clock time, the event happens at.
+     *
+     * @return A long representing the time, in milliseconds of clock time, the event happens at.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns a boolean representing if the event wakes up a sleeping thread or runs a task.
+     *
+     * @return True, if the event wakes up a sleeping thread. False, if it runs a task.
+     */
+    public boolean isWakeUp() {
+        return task == null;
+    }
+
+    /**
+     * Compares this event to the specified event by time, then by the order they were scheduled in.
+     *
+     * @param other A SimulationEvent to compare to.
+     * @return A negative integer, zero, or a positive integer if this event happens before, at the same time as, or
+     * after the specified event.
+     */
+    /**
+     * Returns the thread the event wakes up.
+     *
+     * @return A Thread representing the thread the event wakes up. Null, if the event runs a task.
+     */
+    public Thread getSleeper() {
+        return sleeper;
+    }
+
+    @Override
+    public int compareTo(SimulationEvent other) {
+        int compare = Long.compare(time, other.time);
+        return compare != 0 ? compare : Long.compare(sequenceNumber, other.sequenceNumber);
+    }
+
+}
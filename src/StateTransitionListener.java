@@ -0,0 +1,20 @@
+/**
+ * An interface to be notified of every transition of a state machine, e.g. to trace, measure, or check a run of the
+ * ElevatorSystem. Listeners are called on the thread that runs the state machine, so they must return quickly.
+ *
+ * @param <C> The type of the context of the state machine.
+ * @param <S> The enumerator of the names of the states in the state machine.
+ */
+@FunctionalInterface
+public interface StateTransitionListener<C, S extends Enum<S>> {
+
+    /**
+     * Called after the state machine of the specified context has moved from one state to another.
+     *
+     * @param context The context of the state machine.
+     * @param previousState The name of the state the state machine was in. Null, if the state machine has just started.
+     * @param newState The name of the state the state machine is now in.
+     */
+    void stateChanged(C context, S previousState, S newState);
+
+}
@@ -0,0 +1,239 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A class to represent a hashed timing wheel. Runs every scheduled task of the ElevatorSystem (arrival timeouts, door
+ * timeouts) on a single thread, no matter how many elevator cars or floors there are.
+ * <p>
+ * The wheel is an array of buckets, each covering one tick. A task is put in the bucket of the tick it is due in,
+ * together with the number of full turns of the wheel left before it is due. Deadlines are absolute System.nanoTime
+ * values and ticks are counted from when the wheel was started, so the wheel does not drift however long it runs.
+ */
+public class TimingWheel {
+
+    /**
+     * A long representing the length of a tick, in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * An integer representing the number of buckets minus one. The number of buckets is a power of two, so the bucket
+     * of a tick is the tick masked with this.
+     */
+    private final int mask;
+
+    /**
+     * An array of Lists of Timeouts, one for each bucket of the wheel. Only accessed by the worker thread.
+     */
+    private final List<Timeout>[] buckets;
+
+    /**
+     * A Queue of Timeouts scheduled by other threads that have not been put in a bucket yet.
+     */
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * A String representing the name of the worker thread.
+     */
+    private final String name;
+
+    /**
+     * A long representing the time, in nanoseconds, the wheel was started at.
+     */
+    private final long startTime;
+
+    /**
+     * A Thread representing the worker that advances the wheel and runs tasks that are due. Null, until the wheel is
+     * started.
+     */
+    private Thread worker;
+
+    /**
+     * A long representing the tick the worker is processing. Only accessed by the worker thread.
+     */
+    private long currentTick = 0;
+
+    /**
+     * True, if the wheel has been stopped. False, if not.
+     */
+    private volatile boolean stopped = false;
+
+    /**
+     * Initializes a TimingWheel. Its worker thread does not run until it is started.
+     *
+     * @param name A String representing the name of the worker thread.
+     * @param tickMillis A long representing the length of a tick, in milliseconds.
+     * @param numBuckets An integer representing the number of buckets. Rounded up to a power of two.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(String name, long tickMillis, int numBuckets) {
+        if (tickMillis <= 0 || numBuckets <= 0) {
+            throw new IllegalArgumentException("Tick length and number of buckets must be positive.");
+        }
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int size = Integer.highestOneBit(numBuckets);
+        size = size < numBuckets ? size << 1 : size;
+        mask = size - 1;
+        buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+
+        this.name = name;
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Starts the worker thread of the wheel.
+     *
+     * @throws IllegalStateException If the wheel has already been started.
+     */
+    public synchronized void start() {
+        if (worker != null) {
+            throw new IllegalStateException("TimingWheel has already been started.");
+        }
+        worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Schedules the specified SimulationEvent to run at the specified time. The event runs on the worker thread within
+     * one tick after its deadline, unless it is cancelled first.
+     *
+     * @param event A SimulationEvent representing the task to run.
+     * @param deadlineNanos A long representing the System.nanoTime value the event is due at.
+     */
+    public void schedule(SimulationEvent event, long deadlineNanos) {
+        if (stopped) {
+            throw new IllegalStateException("TimingWheel has been stopped.");
+        }
+        pendingTimeouts.add(new Timeout(event, deadlineNanos));
+    }
+
+    /**
+     * Stops the worker thread. Tasks that have not run yet never run.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Advances the wheel one tick at a time until it is stopped, running every task that is due.
+     */
+    private void run() {
+        while (!stopped) {
+            // wait for the end of the current tick, measured from when the wheel was started so delays do not add up
+            long tickEnd = startTime + (currentTick + 1) * tickNanos;
+            long remaining;
+            while ((remaining = tickEnd - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+                if (stopped) {
+                    return;
+                }
+            }
+
+            transferPendingTimeouts();
+            expireTimeouts(buckets[(int) (currentTick & mask)]);
+            currentTick++;
+        }
+    }
+
+    /**
+     * Puts every Timeout scheduled since the last tick in the bucket of the tick it is due in.
+     */
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.event.isCancelled()) {
+                continue;
+            }
+            // a timeout due in a tick that has already passed runs in the current tick
+            long elapsedNanos = timeout.deadlineNanos - startTime;
+            long tick = Math.max(currentTick, elapsedNanos <= 0 ? 0 : (elapsedNanos - 1) / tickNanos);
+            timeout.remainingRounds = (tick - currentTick) / buckets.length;
+            buckets[(int) (tick & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Runs every Timeout in the specified bucket that is due in the current turn of the wheel, and drops every Timeout
+     * in it that has been cancelled.
+     *
+     * @param bucket A List of Timeouts representing the bucket of the current tick.
+     */
+    private void expireTimeouts(List<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        List<Timeout> expired = null;
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.event.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else {
+                iterator.remove();
+                if (expired == null) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(timeout);
+            }
+        }
+        if (expired == null) {
+            return;
+        }
+
+        // tasks due in the same tick run in the order they are due
+        expired.sort((a, b) -> a.event.compareTo(b.event));
+        for (Timeout timeout : expired) {
+            timeout.event.setFired();
+            try {
+                timeout.event.run();
+            } catch (RuntimeException e) {
+                System.err.println(e); // a failing task must not stop the wheel
+            }
+        }
+    }
+
+    /**
+     * A class to represent a SimulationEvent waiting in a bucket of the wheel.
+     */
+    private static class Timeout {
+
+        /**
+         * A SimulationEvent representing the task to run.
+         */
+        private final SimulationEvent event;
+
+        /**
+         * A long representing the System.nanoTime value the event is due at.
+         */
+        private final long deadlineNanos;
+
+        /**
+         * A long representing the number of full turns of the wheel left before the event is due.
+         */
+        private long remainingRounds;
+
+        /**
+         * Initializes a Timeout.
+         *
+         * @param event A SimulationEvent representing the task to run.
+         * @param deadlineNanos A long representing the System.nanoTime value the event is due at.
+         */
+        private Timeout(SimulationEvent event, long deadlineNanos) {
+            this.event = event;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+    }
+
+}
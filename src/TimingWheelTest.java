@@ -0,0 +1,77 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the TimingWheel.
+ */
+class TimingWheelTest {
+
+    /**
+     * Tests that scheduled tasks run in deadline order, no earlier than their deadlines, including tasks due more than
+     * one turn of the wheel away, and that a wheel cannot be started twice.
+     */
+    @Test
+    void testSchedule() throws InterruptedException {
+        TimingWheel timingWheel = new TimingWheel("TimingWheelTest", 1, 8);
+        timingWheel.start();
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        long start = System.nanoTime();
+        long[] ranAt = new long[3];
+
+        timingWheel.schedule(new SimulationEvent(30, 0, () -> {
+            ranAt[2] = System.nanoTime();
+            order.add("c");
+            done.countDown();
+        }), start + TimeUnit.MILLISECONDS.toNanos(30)); // almost four turns of the wheel away
+        timingWheel.schedule(new SimulationEvent(5, 1, () -> {
+            ranAt[0] = System.nanoTime();
+            order.add("a");
+            done.countDown();
+        }), start + TimeUnit.MILLISECONDS.toNanos(5));
+        timingWheel.schedule(new SimulationEvent(12, 2, () -> {
+            ranAt[1] = System.nanoTime();
+            order.add("b");
+            done.countDown();
+        }), start + TimeUnit.MILLISECONDS.toNanos(12));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a", "b", "c"), order);
+        assertTrue(ranAt[0] - start >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(ranAt[1] - start >= TimeUnit.MILLISECONDS.toNanos(12));
+        assertTrue(ranAt[2] - start >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertThrows(IllegalStateException.class, timingWheel::start);
+        timingWheel.stop();
+    }
+
+    /**
+     * Tests that cancelled tasks do not run.
+     */
+    @Test
+    void testCancel() throws InterruptedException {
+        TimingWheel timingWheel = new TimingWheel("TimingWheelTest", 1, 8);
+        timingWheel.start();
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        SimulationEvent cancelled = new SimulationEvent(5, 0, () -> order.add("cancelled"));
+        timingWheel.schedule(cancelled, start + TimeUnit.MILLISECONDS.toNanos(5));
+        cancelled.cancel();
+        timingWheel.schedule(new SimulationEvent(10, 1, () -> {
+            order.add("a");
+            done.countDown();
+        }), start + TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a"), order);
+        assertFalse(cancelled.isFired());
+        timingWheel.stop();
+    }
+
+}
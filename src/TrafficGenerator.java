@@ -0,0 +1,346 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * A class to represent a Workload of synthetic hall calls, generated from a seed.
+ * <p>
+ * Over the day, the TrafficPattern in force changes at set times. Groups of passengers arrive as a Poisson process
+ * at the rate of the pattern in force, each group makes a trip drawn from the origin/destination matrix of the
+ * pattern, the size of a group is one plus a Poisson number of companions, and each hall call has a chance of each
+ * Fault. The same seed and settings always generate the same hall calls, whether they are streamed to the Floor
+ * subsystem or written to an input file with {@link #writeTo(Path)}. Like an InputFileWorkload, the first hall call is
+ * released a second after the Floor subsystem starts and every other one at its time counted from the first.
+ */
+public class TrafficGenerator implements Workload {
+
+    /**
+     * A long representing the number of nanoseconds in an hour.
+     */
+    private static final double NANOS_PER_HOUR = 60 * 60 * 1e9;
+
+    /**
+     * A long representing the resolution, in nanoseconds, of the time of a hall call, a hundredth of a second like
+     * in an input file.
+     */
+    private static final long TIME_RESOLUTION = 10_000_000;
+
+    /**
+     * A long representing the seed of the generator.
+     */
+    private final long seed;
+
+    /**
+     * A long representing when the first hall call can arrive, in nanoseconds of the day.
+     */
+    private final long startTime;
+
+    /**
+     * A long representing when the last hall call can arrive, in nanoseconds of the day.
+     */
+    private final long endTime;
+
+    /**
+     * A NavigableMap of TrafficPatterns by the time of day, in nanoseconds, they come into force.
+     */
+    private final NavigableMap<Long, TrafficPattern> schedule = new TreeMap<>();
+
+    /**
+     * A double representing the mean number of passengers in a group.
+     */
+    private final double meanGroupSize;
+
+    /**
+     * An integer representing the maximum number of passengers in a group.
+     */
+    private final int maxGroupSize;
+
+    /**
+     * An array of Faults that can be injected.
+     */
+    private final Fault[] faults;
+
+    /**
+     * An array of doubles representing the cumulative probability of each Fault in faults being injected into a hall
+     * call.
+     */
+    private final double[] cumulativeFaultRates;
+
+    /**
+     * An integer representing the number of hall calls generated. -1, if they have not been counted yet.
+     */
+    private int size = -1;
+
+    /**
+     * A Random representing the random number generator of the current pass over the hall calls.
+     */
+    private Random random;
+
+    /**
+     * A double representing the time of day, in nanoseconds, the generator has got to.
+     */
+    private double time;
+
+    /**
+     * A long representing the time of the first hall call, in nanoseconds of the day. -1, if none has been generated.
+     */
+    private long firstTime;
+
+    /**
+     * A HardwareDevice representing the current hall call.
+     */
+    private HardwareDevice floorEvent;
+
+    /**
+     * A long representing the release time of the current hall call.
+     */
+    private long releaseTime;
+
+    /**
+     * Initializes a TrafficGenerator.
+     *
+     * @param seed A long representing the seed of the generator.
+     * @param startTime A LocalTime representing when the first hall call can arrive.
+     * @param endTime A LocalTime representing when the last hall call can arrive. Must be after the start time.
+     * @param schedule A Map of TrafficPatterns by the time of day they come into force. No hall call arrives before
+     *                 the first one.
+     * @param meanGroupSize A double representing the mean number of passengers in a group, at least 1.
+     * @param maxGroupSize An integer representing the maximum number of passengers in a group, e.g. the capacity of an
+     *                     elevator car.
+     * @param faultRates A Map of the chance of each Fault being injected into a hall call.
+     * @throws IllegalArgumentException If a setting is out of range.
+     */
+    public TrafficGenerator(long seed, LocalTime startTime, LocalTime endTime, Map<LocalTime, TrafficPattern> schedule,
+                            double meanGroupSize, int maxGroupSize, Map<Fault, Double> faultRates) {
+        if (!endTime.isAfter(startTime) || schedule.isEmpty() || meanGroupSize < 1 || maxGroupSize < 1) {
+            throw new IllegalArgumentException("Invalid traffic from " + startTime + " to " + endTime + " with "
+                    + schedule.size() + " pattern(s) and groups of " + meanGroupSize + " up to " + maxGroupSize
+                    + ".");
+        }
+        this.seed = seed;
+        this.startTime = startTime.toNanoOfDay();
+        this.endTime = endTime.toNanoOfDay();
+        for (Map.Entry<LocalTime, TrafficPattern> pattern : schedule.entrySet()) {
+            this.schedule.put(pattern.getKey().toNanoOfDay(), pattern.getValue());
+        }
+        this.meanGroupSize = meanGroupSize;
+        this.maxGroupSize = maxGroupSize;
+
+        EnumMap<Fault, Double> injected = new EnumMap<>(faultRates);
+        injected.remove(Fault.NO_FAULT);
+        faults = injected.keySet().toArray(new Fault[0]);
+        cumulativeFaultRates = new double[faults.length];
+        double total = 0;
+        for (int i = 0; i < faults.length; i++) {
+            total += injected.get(faults[i]);
+            cumulativeFaultRates[i] = total;
+        }
+        if (total < 0 || total > 1 || Double.isNaN(total)) {
+            throw new IllegalArgumentException("Fault rates must add up to between 0 and 1, added up to " + total
+                    + ".");
+        }
+
+        random = new Random(seed);
+        time = this.startTime;
+        firstTime = -1;
+    }
+
+    /**
+     * Initializes a TrafficGenerator with the settings of the specified TrafficGenerator, before the first hall call.
+     *
+     * @param settings A TrafficGenerator representing the generator to copy the settings of.
+     */
+    private TrafficGenerator(TrafficGenerator settings) {
+        seed = settings.seed;
+        startTime = settings.startTime;
+        endTime = settings.endTime;
+        schedule.putAll(settings.schedule);
+        meanGroupSize = settings.meanGroupSize;
+        maxGroupSize = settings.maxGroupSize;
+        faults = settings.faults;
+        cumulativeFaultRates = settings.cumulativeFaultRates;
+        random = new Random(seed);
+        time = startTime;
+        firstTime = -1;
+    }
+
+    /**
+     * Returns a TrafficGenerator for a working day in an office building: an up-peak in the morning, a lunch period
+     * and a down-peak in the evening, with interfloor traffic in between. Groups average 1.2 passengers, up to the
+     * capacity of an elevator car.
+     *
+     * @param seed A long representing the seed of the generator.
+     * @param numFloors An integer representing the number of floors in the building.
+     * @param population An integer representing the number of people working in the building.
+     * @param faultRate A double representing the chance of a hall call having a fault, split evenly between faults.
+     * @return A TrafficGenerator for a working day.
+     */
+    public static TrafficGenerator officeDay(long seed, int numFloors, int population, double faultRate) {
+        Map<LocalTime, TrafficPattern> schedule = new TreeMap<>();
+        schedule.put(LocalTime.of(7, 30), TrafficPattern.upPeak(numFloors, 0.5 * population));
+        schedule.put(LocalTime.of(9, 30), TrafficPattern.interfloor(numFloors, 0.15 * population));
+        schedule.put(LocalTime.of(11, 45), TrafficPattern.lunch(numFloors, 0.6 * population));
+        schedule.put(LocalTime.of(13, 30), TrafficPattern.interfloor(numFloors, 0.15 * population));
+        schedule.put(LocalTime.of(16, 30), TrafficPattern.downPeak(numFloors, 0.5 * population));
+
+        Map<Fault, Double> faultRates = new EnumMap<>(Fault.class);
+        faultRates.put(Fault.ELEVATOR_STUCK, faultRate / 3);
+        faultRates.put(Fault.DOORS_NOT_OPENING, faultRate / 3);
+        faultRates.put(Fault.DOORS_NOT_CLOSING, faultRate / 3);
+        return new TrafficGenerator(seed, LocalTime.of(7, 30), LocalTime.of(18, 30), schedule, 1.2, 5, faultRates);
+    }
+
+    /**
+     * Goes back to before the first hall call.
+     */
+    private void restart() {
+        random = new Random(seed);
+        time = startTime;
+        firstTime = -1;
+        floorEvent = null;
+    }
+
+    @Override
+    public int size() {
+        if (size < 0) {
+            // generate every hall call once on a copy to count them, so the pass over this generator is not disturbed
+            TrafficGenerator counter = new TrafficGenerator(this);
+            int numHallCalls = 0;
+            while (counter.next()) {
+                numHallCalls++;
+            }
+            size = numHallCalls;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean next() {
+        while (time < endTime) {
+            Map.Entry<Long, TrafficPattern> inForce = schedule.floorEntry((long) time);
+            Long nextChange = schedule.higherKey((long) time);
+            double periodEnd = Math.min(nextChange == null ? Long.MAX_VALUE : nextChange, endTime);
+            if (inForce == null || inForce.getValue().getPassengersPerHour() == 0) {
+                time = periodEnd; // no traffic until the next pattern comes into force
+                continue;
+            }
+
+            // the time to the next group is exponential; arrivals have no memory, so a group that would arrive after
+            // the pattern changes is drawn again from the next pattern
+            TrafficPattern pattern = inForce.getValue();
+            double groupsPerNano = pattern.getPassengersPerHour() / meanGroupSize / NANOS_PER_HOUR;
+            time += -Math.log(1 - random.nextDouble()) / groupsPerNano;
+            if (time >= periodEnd) {
+                time = periodEnd;
+                continue;
+            }
+
+            int trip = pattern.sampleTrip(random);
+            int floor = pattern.getOrigin(trip);
+            int carButton = pattern.getDestination(trip);
+            int numPassengers = sampleGroupSize();
+            Fault fault = sampleFault();
+            long hallCallTime = (long) time / TIME_RESOLUTION * TIME_RESOLUTION;
+            if (firstTime < 0) {
+                firstTime = hallCallTime;
+            }
+            releaseTime = FIRST_RELEASE_TIME + (hallCallTime - firstTime) / 1_000_000;
+            floorEvent = new HardwareDevice("Elevator?", LocalTime.ofNanoOfDay(hallCallTime), floor,
+                    carButton > floor ? FloorButton.UP : FloorButton.DOWN, carButton, numPassengers, fault);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Draws the number of passengers in a group: one plus a Poisson number of companions, up to the maximum.
+     *
+     * @return An integer representing the number of passengers in a group.
+     */
+    private int sampleGroupSize() {
+        double limit = Math.exp(1 - meanGroupSize);
+        int numPassengers = 1;
+        for (double product = random.nextDouble(); product > limit && numPassengers < maxGroupSize;
+             product *= random.nextDouble()) {
+            numPassengers++;
+        }
+        return numPassengers;
+    }
+
+    /**
+     * Draws the Fault injected into a hall call.
+     *
+     * @return A Fault representing the fault injected. NO_FAULT, if none is.
+     */
+    private Fault sampleFault() {
+        if (faults.length == 0) {
+            return Fault.NO_FAULT;
+        }
+        double draw = random.nextDouble();
+        for (int i = 0; i < faults.length; i++) {
+            if (draw < cumulativeFaultRates[i]) {
+                return faults[i];
+            }
+        }
+        return Fault.NO_FAULT;
+    }
+
+    @Override
+    public HardwareDevice getFloorEvent() {
+        return floorEvent;
+    }
+
+    @Override
+    public long getReleaseTime() {
+        return releaseTime;
+    }
+
+    /**
+     * Writes every hall call to the specified input file, one per line, in the format an InputFileWorkload reads.
+     * Goes back to before the first hall call afterwards.
+     *
+     * @param inputFile A Path representing the input file to write.
+     * @throws IOException If the input file could not be written.
+     */
+    public void writeTo(Path inputFile) throws IOException {
+        restart();
+        StringBuilder line = new StringBuilder(64);
+        try (BufferedWriter writer = Files.newBufferedWriter(inputFile)) {
+            while (next()) {
+                line.setLength(0);
+                long hundredths = floorEvent.getTimeNanos() / TIME_RESOLUTION;
+                appendTwoDigits(line, hundredths / 360_000).append(':');
+                appendTwoDigits(line, hundredths / 6000 % 60).append(':');
+                appendTwoDigits(line, hundredths / 100 % 60).append(':');
+                appendTwoDigits(line, hundredths % 100).append(' ');
+                line.append(floorEvent.getFloor()).append(' ')
+                        .append(floorEvent.getFloorButton() == FloorButton.UP ? "up" : "down").append(' ')
+                        .append(floorEvent.getCarButton()).append(' ')
+                        .append(floorEvent.getNumPassengers()).append(' ')
+                        .append(floorEvent.getFault()).append('\n');
+                writer.append(line);
+            }
+        } finally {
+            restart();
+        }
+    }
+
+    /**
+     * Appends the specified number to the specified line with two digits.
+     *
+     * @param line A StringBuilder representing the line.
+     * @param value A long representing a number from 0 to 99.
+     * @return A StringBuilder representing the line.
+     */
+    private static StringBuilder appendTwoDigits(StringBuilder line, long value) {
+        return line.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+}
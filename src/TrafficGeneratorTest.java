@@ -0,0 +1,111 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the TrafficGenerator and TrafficPattern.
+ */
+class TrafficGeneratorTest {
+
+    /**
+     * A Path representing a temporary directory to write input files to.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that the same seed generates the same valid hall calls, as many as the size, in the order they are
+     * released.
+     */
+    @Test
+    void testSeededOfficeDay() {
+        TrafficGenerator first = TrafficGenerator.officeDay(42, 22, 200, 0);
+        TrafficGenerator second = TrafficGenerator.officeDay(42, 22, 200, 0);
+        assertEquals(first.size(), second.size());
+        assertTrue(first.size() > 500, "Only " + first.size() + " hall calls.");
+
+        int numHallCalls = 0;
+        long lastReleaseTime = 0;
+        while (first.next()) {
+            assertTrue(second.next());
+            HardwareDevice floorEvent = first.getFloorEvent();
+            assertEquals(floorEvent.toString(), second.getFloorEvent().toString());
+            assertEquals(first.getReleaseTime(), second.getReleaseTime());
+            assertTrue(first.getReleaseTime() >= lastReleaseTime);
+            lastReleaseTime = first.getReleaseTime();
+
+            assertNotEquals(floorEvent.getFloor(), floorEvent.getCarButton());
+            assertTrue(floorEvent.getFloor() >= 1 && floorEvent.getFloor() <= 22);
+            assertTrue(floorEvent.getCarButton() >= 1 && floorEvent.getCarButton() <= 22);
+            assertEquals(floorEvent.getCarButton() > floorEvent.getFloor() ? FloorButton.UP : FloorButton.DOWN,
+                    floorEvent.getFloorButton());
+            assertTrue(floorEvent.getNumPassengers() >= 1 && floorEvent.getNumPassengers() <= 5);
+            assertEquals(Fault.NO_FAULT, floorEvent.getFault());
+            assertFalse(floorEvent.getTime().isBefore(LocalTime.of(7, 30)));
+            assertTrue(floorEvent.getTime().isBefore(LocalTime.of(18, 30)));
+            numHallCalls++;
+        }
+        assertFalse(second.next());
+        assertEquals(first.size(), numHallCalls);
+    }
+
+    /**
+     * Tests that the up-peak sends most passengers up from the lobby, and that a fault rate of 1 injects a fault into
+     * every hall call.
+     */
+    @Test
+    void testUpPeakWithFaults() {
+        Map<LocalTime, TrafficPattern> schedule = new TreeMap<>();
+        schedule.put(LocalTime.of(8, 0), TrafficPattern.upPeak(10, 3600));
+        Map<Fault, Double> faultRates = new EnumMap<>(Fault.class);
+        faultRates.put(Fault.DOORS_NOT_OPENING, 1.0);
+        TrafficGenerator generator = new TrafficGenerator(7, LocalTime.of(8, 0), LocalTime.of(9, 0), schedule, 1, 5,
+                faultRates);
+
+        // one passenger a second for an hour
+        assertTrue(Math.abs(generator.size() - 3600) < 250, "Generated " + generator.size() + " hall calls.");
+        int fromLobby = 0;
+        while (generator.next()) {
+            assertEquals(1, generator.getFloorEvent().getNumPassengers());
+            assertEquals(Fault.DOORS_NOT_OPENING, generator.getFloorEvent().getFault());
+            if (generator.getFloorEvent().getFloor() == TrafficPattern.LOBBY) {
+                fromLobby++;
+            }
+        }
+        double share = (double) fromLobby / generator.size();
+        assertTrue(share > 0.80 && share < 0.90, "Share from the lobby was " + share + ".");
+
+        assertThrows(IllegalArgumentException.class, () -> new TrafficGenerator(7, LocalTime.of(9, 0),
+                LocalTime.of(8, 0), schedule, 1, 5, faultRates));
+        assertThrows(IllegalArgumentException.class, () -> TrafficPattern.upPeak(2, 100));
+    }
+
+    /**
+     * Tests that a written workload is read back by an InputFileWorkload as the same hall calls, released at the same
+     * times.
+     */
+    @Test
+    void testWriteWorkload() throws IOException {
+        TrafficGenerator generator = TrafficGenerator.officeDay(3, 22, 50, 0.1);
+        Path inputFile = directory.resolve("synthetic.txt");
+        generator.writeTo(inputFile);
+
+        InputFileWorkload workload = new InputFileWorkload(inputFile);
+        assertEquals(generator.size(), workload.size());
+        while (generator.next()) {
+            assertTrue(workload.next());
+            assertEquals(generator.getFloorEvent().toString(), workload.getFloorEvent().toString());
+            assertEquals(generator.getFloorEvent().getFault(), workload.getFloorEvent().getFault());
+            assertEquals(generator.getReleaseTime(), workload.getReleaseTime());
+        }
+        assertFalse(workload.next());
+    }
+
+}
@@ -0,0 +1,232 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A class to represent the traffic in a building during one period of the day: how many passengers arrive per hour,
+ * and an origin/destination matrix of how likely each trip from one floor to another is.
+ * <p>
+ * The classic patterns of an office building mix three kinds of trips with floor 1 as the lobby: incoming trips from
+ * the lobby to an upper floor, outgoing trips from an upper floor to the lobby, and interfloor trips between upper
+ * floors. Every upper floor is taken to be equally populated.
+ */
+public class TrafficPattern {
+
+    /**
+     * An integer representing the floor of the lobby.
+     */
+    public static final int LOBBY = 1;
+
+    /**
+     * A String representing the name of the pattern.
+     */
+    private final String name;
+
+    /**
+     * An integer representing the number of floors in the building.
+     */
+    private final int numFloors;
+
+    /**
+     * A double representing the number of passengers that arrive per hour.
+     */
+    private final double passengersPerHour;
+
+    /**
+     * An array of doubles representing the cumulative probability of each trip, indexed by
+     * (origin - 1) * numFloors + (destination - 1).
+     */
+    private final double[] cumulativeProbabilities;
+
+    /**
+     * Initializes a TrafficPattern.
+     *
+     * @param name A String representing the name of the pattern.
+     * @param passengersPerHour A double representing the number of passengers that arrive per hour.
+     * @param originDestination A square array of doubles representing how likely a trip is from each floor, by row,
+     *                          to each floor, by column. Row and column 0 are floor 1. Weights do not need to add up to
+     *                          1, but trips from a floor to itself must weigh 0.
+     * @throws IllegalArgumentException If the rate is negative, the matrix is not square, a weight is negative, a trip
+     * from a floor to itself has a weight, or every weight is 0.
+     */
+    public TrafficPattern(String name, double passengersPerHour, double[][] originDestination) {
+        if (passengersPerHour < 0 || Double.isNaN(passengersPerHour)) {
+            throw new IllegalArgumentException("Passengers per hour must not be negative, was " + passengersPerHour
+                    + ".");
+        }
+        this.name = name;
+        this.passengersPerHour = passengersPerHour;
+        numFloors = originDestination.length;
+        cumulativeProbabilities = new double[numFloors * numFloors];
+        double total = 0;
+        for (int origin = 0; origin < numFloors; origin++) {
+            if (originDestination[origin].length != numFloors) {
+                throw new IllegalArgumentException("Origin/destination matrix of " + name + " is not square.");
+            }
+            for (int destination = 0; destination < numFloors; destination++) {
+                double weight = originDestination[origin][destination];
+                if (weight < 0 || Double.isNaN(weight) || origin == destination && weight != 0) {
+                    throw new IllegalArgumentException("Invalid weight " + weight + " from floor " + (origin + 1)
+                            + " to floor " + (destination + 1) + " in " + name + ".");
+                }
+                total += weight;
+                cumulativeProbabilities[origin * numFloors + destination] = total;
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Origin/destination matrix of " + name + " has no trips.");
+        }
+        for (int i = 0; i < cumulativeProbabilities.length; i++) {
+            // the trips up to the last one with a weight add up to exactly 1, so every draw lands on a trip
+            cumulativeProbabilities[i] = cumulativeProbabilities[i] == total ? 1 : cumulativeProbabilities[i] / total;
+        }
+    }
+
+    /**
+     * Returns the morning up-peak of an office building: mostly passengers coming in from the lobby.
+     *
+     * @param numFloors An integer representing the number of floors in the building.
+     * @param passengersPerHour A double representing the number of passengers that arrive per hour.
+     * @return A TrafficPattern representing the up-peak.
+     */
+    public static TrafficPattern upPeak(int numFloors, double passengersPerHour) {
+        return mix("up-peak", numFloors, passengersPerHour, 0.85, 0.05, 0.10);
+    }
+
+    /**
+     * Returns the evening down-peak of an office building: mostly passengers leaving through the lobby.
+     *
+     * @param numFloors An integer representing the number of floors in the building.
+     * @param passengersPerHour A double representing the number of passengers that arrive per hour.
+     * @return A TrafficPattern representing the down-peak.
+     */
+    public static TrafficPattern downPeak(int numFloors, double passengersPerHour) {
+        return mix("down-peak", numFloors, passengersPerHour, 0.05, 0.85, 0.10);
+    }
+
+    /**
+     * Returns the lunch period of an office building: passengers going out and coming back in at the same time.
+     *
+     * @param numFloors An integer representing the number of floors in the building.
+     * @param passengersPerHour A double representing the number of passengers that arrive per hour.
+     * @return A TrafficPattern representing the lunch period.
+     */
+    public static TrafficPattern lunch(int numFloors, double passengersPerHour) {
+        return mix("lunch", numFloors, passengersPerHour, 0.45, 0.45, 0.10);
+    }
+
+    /**
+     * Returns the interfloor traffic of an office building between the peaks: mostly passengers moving between upper
+     * floors.
+     *
+     * @param numFloors An integer representing the number of floors in the building.
+     * @param passengersPerHour A double representing the number of passengers that arrive per hour.
+     * @return A TrafficPattern representing the interfloor traffic.
+     */
+    public static TrafficPattern interfloor(int numFloors, double passengersPerHour) {
+        return mix("interfloor", numFloors, passengersPerHour, 0.10, 0.10, 0.80);
+    }
+
+    /**
+     * Returns a TrafficPattern mixing incoming, outgoing and interfloor trips in the specified proportions.
+     *
+     * @param name A String representing the name of the pattern.
+     * @param numFloors An integer representing the number of floors in the building, at least 3.
+     * @param passengersPerHour A double representing the number of passengers that arrive per hour.
+     * @param incoming A double representing the share of trips from the lobby to an upper floor.
+     * @param outgoing A double representing the share of trips from an upper floor to the lobby.
+     * @param interfloor A double representing the share of trips between upper floors.
+     * @return A TrafficPattern mixing the specified trips.
+     */
+    public static TrafficPattern mix(String name, int numFloors, double passengersPerHour, double incoming,
+                                     double outgoing, double interfloor) {
+        if (numFloors < 3) {
+            throw new IllegalArgumentException("A building needs at least 3 floors for " + name + ", had "
+                    + numFloors + ".");
+        }
+        int numUpperFloors = numFloors - 1;
+        double[][] originDestination = new double[numFloors][numFloors];
+        for (int floor = LOBBY + 1; floor <= numFloors; floor++) {
+            originDestination[LOBBY - 1][floor - 1] = incoming / numUpperFloors;
+            originDestination[floor - 1][LOBBY - 1] = outgoing / numUpperFloors;
+            for (int destination = LOBBY + 1; destination <= numFloors; destination++) {
+                if (destination != floor) {
+                    originDestination[floor - 1][destination - 1] =
+                            interfloor / (numUpperFloors * (numUpperFloors - 1));
+                }
+            }
+        }
+        return new TrafficPattern(name, passengersPerHour, originDestination);
+    }
+
+    /**
+     * Draws a trip from the origin/destination matrix.
+     *
+     * @param random A Random to draw the trip with.
+     * @return An integer representing the trip, (origin - 1) * number of floors + (destination - 1).
+     */
+    public int sampleTrip(Random random) {
+        // the trip is the first one whose cumulative probability is above the draw, which never has no weight
+        double draw = random.nextDouble();
+        int trip = Arrays.binarySearch(cumulativeProbabilities, draw);
+        if (trip < 0) {
+            return -trip - 1;
+        }
+        while (cumulativeProbabilities[trip] <= draw) {
+            trip++;
+        }
+        return trip;
+    }
+
+    /**
+     * Returns the origin of the specified trip.
+     *
+     * @param trip An integer representing a trip drawn by {@link #sampleTrip(Random)}.
+     * @return An integer representing the floor the trip starts at.
+     */
+    public int getOrigin(int trip) {
+        return trip / numFloors + 1;
+    }
+
+    /**
+     * Returns the destination of the specified trip.
+     *
+     * @param trip An integer representing a trip drawn by {@link #sampleTrip(Random)}.
+     * @return An integer representing the floor the trip ends at.
+     */
+    public int getDestination(int trip) {
+        return trip % numFloors + 1;
+    }
+
+    /**
+     * Returns the name of the pattern.
+     *
+     * @return A String representing the name of the pattern.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of floors in the building.
+     *
+     * @return An integer representing the number of floors in the building.
+     */
+    public int getNumFloors() {
+        return numFloors;
+    }
+
+    /**
+     * Returns the number of passengers that arrive per hour.
+     *
+     * @return A double representing the number of passengers that arrive per hour.
+     */
+    public double getPassengersPerHour() {
+        return passengersPerHour;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + passengersPerHour + " passengers/h)";
+    }
+
+}
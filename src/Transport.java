@@ -0,0 +1,84 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.Selector;
+
+/**
+ * An interface to represent the endpoint a subsystem sends and receives HardwareDevice messages on, over UDP with a
+ * DatagramTransport or inside the JVM with an InProcessTransport.
+ * <p>
+ * A transport is in blocking mode when it is opened. It can be registered with a Selector to be polled by an event loop
+ * instead. Every message sent and received is reported to the SimulationClock, so a virtual clock does not move time
+ * forward while a message is in flight.
+ * <p>
+ * A floor event is received as a new HardwareDevice, which the subsystem keeps. An ACK is only looked at, so every ACK
+ * is decoded into the same HardwareDevice, which is overwritten by the next ACK received: it must not be kept, or
+ * handed to anything that reads it later, such as a log message, without copying it first.
+ */
+public interface Transport {
+
+    /**
+     * Switches the transport to non-blocking mode and registers it with the specified Selector, which is woken up when
+     * a message can be received. The event loop then polls the transport for its messages.
+     *
+     * @param selector A Selector to register the transport with.
+     * @throws IOException If the transport could not be registered.
+     */
+    void register(Selector selector) throws IOException;
+
+    /**
+     * Sends the specified HardwareDevice to the specified address as a message of the specified type.
+     *
+     * @param messageType A byte representing the type of the message, HardwareDeviceCodec.FLOOR_EVENT or
+     *                    HardwareDeviceCodec.ACK.
+     * @param message A HardwareDevice representing the message to send.
+     * @param target A SocketAddress representing the address to send the message to.
+     * @throws IOException If the message could not be sent.
+     */
+    void send(byte messageType, HardwareDevice message, SocketAddress target) throws IOException;
+
+    /**
+     * Waits for a message and returns it. Must only be called while the transport is in blocking mode.
+     *
+     * @return A HardwareDevice representing the message received. Null, if the transport was closed while waiting.
+     * @throws IOException If the message could not be received.
+     */
+    HardwareDevice receive() throws IOException;
+
+    /**
+     * Returns the next message if one is available. Waits for a message if the transport is in blocking mode.
+     *
+     * @return A HardwareDevice representing the message received. Null, if the transport is in non-blocking mode and
+     * no message is available.
+     * @throws IOException If the message could not be received.
+     */
+    HardwareDevice poll() throws IOException;
+
+    /**
+     * Returns a SocketAddress representing the sender of the last message received.
+     *
+     * @return A SocketAddress representing the sender of the last message received.
+     */
+    SocketAddress getLastSender();
+
+    /**
+     * Returns a byte representing the type of the last message received.
+     *
+     * @return A byte representing the type of the last message received, HardwareDeviceCodec.FLOOR_EVENT or
+     * HardwareDeviceCodec.ACK.
+     */
+    byte getLastMessageType();
+
+    /**
+     * Returns an InetSocketAddress representing the address other subsystems can send messages to this transport on.
+     *
+     * @return An InetSocketAddress representing the address of this transport.
+     */
+    InetSocketAddress getLocalAddress();
+
+    /**
+     * Closes the transport. A thread waiting for a message stops waiting.
+     */
+    void close();
+
+}
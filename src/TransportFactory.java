@@ -0,0 +1,19 @@
+import java.io.IOException;
+
+/**
+ * An interface to represent how the subsystems of an ElevatorSystem open the Transports they talk to each other on.
+ * DatagramTransport::new opens UDP endpoints, and an InProcessNetwork opens endpoints inside the JVM.
+ */
+public interface TransportFactory {
+
+    /**
+     * Opens a Transport that receives messages on the specified port.
+     *
+     * @param port An integer representing the port number to receive messages on. 0, for any free port.
+     * @param clock A SimulationClock to report messages sent and received to.
+     * @return A Transport in blocking mode.
+     * @throws IOException If the Transport could not be opened.
+     */
+    Transport open(int port, SimulationClock clock) throws IOException;
+
+}
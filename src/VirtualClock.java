@@ -0,0 +1,262 @@
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A SimulationClock that runs in virtual time, as fast as the CPU allows.
+ * <p>
+ * The clock is a discrete-event simulation: sleeping threads and scheduled tasks are kept in a priority queue ordered
+ * by the time they are due. Time only moves forward when no registered thread is busy and no message is in flight, at
+ * which point the clock jumps straight to the next event, wakes up the thread sleeping until then or runs the task due
+ * then, and waits for the system to become idle again.
+ * <p>
+ * The clock is guarded by a ReentrantLock rather than its monitor, and a sleeping thread is parked until the event it
+ * sleeps until unparks it, so an Elevator or Floor on a virtual thread gives its carrier thread back while it sleeps,
+ * and only the thread whose event happens is woken up.
+ */
+public class VirtualClock implements SimulationClock {
+
+    /**
+     * A PriorityQueue of SimulationEvents that have not happened yet, ordered by time.
+     */
+    private final PriorityQueue<SimulationEvent> events;
+
+    /**
+     * A Random seeded with the seed of the simulation.
+     */
+    private final Random random;
+
+    /**
+     * A ReentrantLock guarding the events, the current time and the number of busy threads.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * A long representing the current time, in milliseconds of virtual time.
+     */
+    private long now = 0;
+
+    /**
+     * A long representing the order the next event is scheduled in.
+     */
+    private long sequenceNumber = 0;
+
+    /**
+     * An integer representing the number of registered threads that are busy plus the number of messages in flight.
+     */
+    private int busy = 0;
+
+    /**
+     * Initializes a VirtualClock.
+     *
+     * @param seed A long representing the seed of the simulation.
+     */
+    public VirtualClock(long seed) {
+        events = new PriorityQueue<>();
+        random = new Random(seed);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        lock.lock();
+        try {
+            return now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        SimulationEvent wakeUp;
+        lock.lock();
+        try {
+            wakeUp = enqueue(millis, null);
+            busy--;
+        } finally {
+            lock.unlock();
+        }
+        awaitWakeUp(wakeUp);
+    }
+
+    @Override
+    public void sleepUntil(long timeMillis) throws InterruptedException {
+        SimulationEvent wakeUp;
+        lock.lock();
+        try {
+            wakeUp = enqueueAt(timeMillis, null);
+            busy--;
+        } finally {
+            lock.unlock();
+        }
+        awaitWakeUp(wakeUp);
+    }
+
+    /**
+     * Moves time forward, then waits until the clock wakes up the calling thread with the specified event.
+     *
+     * @param wakeUp A SimulationEvent representing the event that wakes up the calling thread.
+     * @throws InterruptedException If the calling thread is interrupted while sleeping.
+     */
+    private void awaitWakeUp(SimulationEvent wakeUp) throws InterruptedException {
+        advance();
+
+        while (true) {
+            lock.lock();
+            try {
+                if (wakeUp.isFired()) {
+                    return;
+                }
+                if (Thread.interrupted()) {
+                    wakeUp.cancel();
+                    busy++; // the clock did not wake this thread up, so it has not marked it busy
+                    throw new InterruptedException();
+                }
+            } finally {
+                lock.unlock();
+            }
+            LockSupport.park(this);
+        }
+    }
+
+    @Override
+    public SimulationEvent schedule(long delayMillis, Runnable task) {
+        lock.lock();
+        try {
+            return enqueue(delayMillis, task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public SimulationEvent scheduleAt(long timeMillis, Runnable task) {
+        lock.lock();
+        try {
+            return enqueueAt(timeMillis, task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void register() {
+        changeBusy(1);
+    }
+
+    @Override
+    public void deregister() {
+        changeBusy(-1);
+        advance();
+    }
+
+    @Override
+    public void idle() {
+        changeBusy(-1);
+        advance();
+    }
+
+    @Override
+    public void resume() {
+        changeBusy(1);
+    }
+
+    @Override
+    public void messageSent() {
+        changeBusy(1);
+    }
+
+    @Override
+    public void messageReceived() {
+        changeBusy(-1);
+        advance();
+    }
+
+    @Override
+    public Random getRandom() {
+        return random;
+    }
+
+    /**
+     * Adds the specified amount to the number of registered threads that are busy plus the number of messages in
+     * flight.
+     *
+     * @param delta An integer representing the amount to add, 1 or -1.
+     */
+    private void changeBusy(int delta) {
+        lock.lock();
+        try {
+            busy += delta;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds an event to the queue that happens the specified number of milliseconds from now.
+     *
+     * @param delayMillis A long representing the number of milliseconds from now the event happens.
+     * @param task A Runnable representing the task to run when the event happens. Null, if the event wakes up a
+     *             sleeping thread.
+     * @return The SimulationEvent added to the queue.
+     */
+    private SimulationEvent enqueue(long delayMillis, Runnable task) {
+        return enqueueAt(delayMillis > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + delayMillis, task);
+    }
+
+    /**
+     * Adds an event to the queue that happens at the specified time. An event in the past happens now. An event with
+     * no task wakes up the calling thread.
+     *
+     * @param timeMillis A long representing the time, in milliseconds of virtual time, the event happens at.
+     * @param task A Runnable representing the task to run when the event happens. Null, if the event wakes up a
+     *             sleeping thread.
+     * @return The SimulationEvent added to the queue.
+     */
+    private SimulationEvent enqueueAt(long timeMillis, Runnable task) {
+        SimulationEvent event = new SimulationEvent(Math.max(timeMillis, now), sequenceNumber++, task,
+                task == null ? Thread.currentThread() : null);
+        events.add(event);
+        return event;
+    }
+
+    /**
+     * Moves time forward to the next event while no thread is busy and no message is in flight. Wakes up the thread
+     * sleeping until the next event, or runs the task of the next event on the calling thread.
+     */
+    private void advance() {
+        while (true) {
+            SimulationEvent event;
+            lock.lock();
+            try {
+                if (busy > 0) {
+                    return;
+                }
+                do {
+                    event = events.poll();
+                } while (event != null && event.isCancelled());
+                if (event == null) {
+                    return; // nothing left to happen
+                }
+
+                now = event.getTime();
+                event.setFired();
+                busy++; // the thread woken up, or the task about to run, is busy
+            } finally {
+                lock.unlock();
+            }
+            if (event.isWakeUp()) {
+                LockSupport.unpark(event.getSleeper());
+                return;
+            }
+
+            try {
+                event.run();
+            } finally {
+                changeBusy(-1);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A class to test the VirtualClock.
+ */
+class VirtualClockTest {
+
+    /**
+     * Tests that sleeping moves virtual time forward without waiting in real time.
+     */
+    @Test
+    void testSleep() throws InterruptedException {
+        VirtualClock clock = new VirtualClock(1);
+        clock.register();
+        long start = System.nanoTime();
+        clock.sleep(60 * 60 * 1000); // one hour of virtual time
+        assertEquals(60 * 60 * 1000, clock.currentTimeMillis());
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+    /**
+     * Tests that sleeping until a deadline wakes up at the deadline, however long the thread was busy before sleeping.
+     */
+    @Test
+    void testSleepUntil() throws InterruptedException {
+        VirtualClock clock = new VirtualClock(1);
+        clock.register();
+        clock.sleep(700);
+        clock.sleepUntil(2000);
+        assertEquals(2000, clock.currentTimeMillis());
+        clock.sleepUntil(1000); // a deadline in the past wakes up straight away
+        assertEquals(2000, clock.currentTimeMillis());
+    }
+
+    /**
+     * Tests that scheduled tasks run in time order, tasks due at the same time run in the order they were scheduled,
+     * and cancelled tasks do not run.
+     */
+    @Test
+    void testSchedule() throws InterruptedException {
+        VirtualClock clock = new VirtualClock(1);
+        clock.register();
+        List<String> order = new ArrayList<>();
+        clock.schedule(300, () -> order.add("c"));
+        clock.schedule(100, () -> order.add("a"));
+        clock.schedule(200, () -> order.add("b1"));
+        clock.schedule(200, () -> order.add("b2"));
+        clock.schedule(250, () -> order.add("cancelled")).cancel();
+        clock.sleep(1000);
+        assertEquals(List.of("a", "b1", "b2", "c"), order);
+    }
+
+    /**
+     * Tests that time does not move forward while a registered thread is busy.
+     */
+    @Test
+    void testTimeWaitsForBusyThreads() throws InterruptedException {
+        VirtualClock clock = new VirtualClock(1);
+        clock.register(); // this thread
+        clock.register(); // a thread that is busy
+
+        Thread sleeper = new Thread(() -> {
+            try {
+                clock.sleep(500);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            clock.deregister();
+        });
+        sleeper.start();
+        Thread.sleep(100);
+        assertEquals(0, clock.currentTimeMillis());
+
+        clock.deregister(); // this thread is done, so only the sleeping thread is left
+        sleeper.join(5000);
+        assertFalse(sleeper.isAlive());
+        assertEquals(500, clock.currentTimeMillis());
+    }
+
+    /**
+     * Tests that thousands of virtual threads sleeping on the clock each wake up at their own time, and that
+     * interrupting a sleeping thread cancels its wake-up without holding time back.
+     */
+    @Test
+    void testVirtualThreads() throws InterruptedException {
+        VirtualClock clock = new VirtualClock(1);
+        int numSleepers = 5000;
+        long[] wokeUpAt = new long[numSleepers];
+        List<Thread> sleepers = new ArrayList<>();
+        clock.register(); // this thread, until every sleeper has started
+        for (int i = 0; i < numSleepers; i++) {
+            int sleeper = i;
+            clock.register();
+            sleepers.add(Thread.ofVirtual().start(() -> {
+                try {
+                    clock.sleep(1000 + sleeper);
+                    wokeUpAt[sleeper] = clock.currentTimeMillis();
+                } catch (InterruptedException e) {
+                    wokeUpAt[sleeper] = -1;
+                }
+                clock.deregister();
+            }));
+        }
+        sleepers.get(0).interrupt();
+        sleepers.get(0).join(5000);
+        assertEquals(-1, wokeUpAt[0]);
+
+        clock.deregister();
+        for (Thread sleeper : sleepers) {
+            sleeper.join(5000);
+            assertFalse(sleeper.isAlive());
+        }
+        for (int i = 1; i < numSleepers; i++) {
+            assertEquals(1000 + i, wokeUpAt[i]);
+        }
+        assertEquals(1000 + numSleepers - 1, clock.currentTimeMillis());
+    }
+
+    /**
+     * Tests that clocks with the same seed make the same random decisions.
+     */
+    @Test
+    void testSeed() {
+        assertEquals(new VirtualClock(42).getRandom().nextLong(), new VirtualClock(42).getRandom().nextLong());
+    }
+
+}
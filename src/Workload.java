@@ -0,0 +1,47 @@
+import java.io.IOException;
+
+/**
+ * An interface to represent the hall calls the Floor subsystem sends to the Scheduler, and when it sends each one.
+ * <p>
+ * A Workload is read like a cursor: {@link #next()} moves to the next hall call, then {@link #getFloorEvent()} and
+ * {@link #getReleaseTime()} describe it. Hall calls come in the order they are released.
+ */
+public interface Workload {
+
+    /**
+     * A long representing the time, in milliseconds, a Workload that follows the times of its hall calls releases the
+     * first one at, so the elevator cars are ready for it.
+     */
+    long FIRST_RELEASE_TIME = 1000;
+
+    /**
+     * Returns the number of hall calls in the workload, so the Scheduler knows how many it will be receiving before
+     * the first one is released.
+     *
+     * @return An integer representing the number of hall calls in the workload.
+     */
+    int size();
+
+    /**
+     * Moves to the next hall call.
+     *
+     * @return True, if there is a next hall call. False, if every hall call has been read.
+     * @throws IOException If the next hall call could not be read.
+     */
+    boolean next() throws IOException;
+
+    /**
+     * Returns the current hall call.
+     *
+     * @return A HardwareDevice representing the current hall call.
+     */
+    HardwareDevice getFloorEvent();
+
+    /**
+     * Returns when the current hall call is released, relative to when the Floor subsystem starts.
+     *
+     * @return A long representing the release time, in milliseconds of SimulationClock time.
+     */
+    long getReleaseTime();
+
+}